@@ -2,7 +2,8 @@ const { exec } = require('child_process');
 const path = require('path');
 
 const prismPath = path.resolve(__dirname, 'node_modules', '.bin', 'prism');
-const prismCommand = `${prismPath} mock -p 4010 --cors --host 0.0.0.0 ${path.resolve(__dirname, 'data', 'export.yml')} --errors`;
+const specPath = process.argv[2] ? path.resolve(process.argv[2]) : path.resolve(__dirname, 'data', 'export.yml');
+const prismCommand = `${prismPath} mock -p 4010 --cors --host 0.0.0.0 "${specPath}" --errors`;
 
 exec(prismCommand, { cwd: __dirname }, (error, stdout, stderr) => {
     if (error) {
@@ -0,0 +1,131 @@
+package codearise.openapispecgenerator.cache;
+
+import codearise.openapispecgenerator.model.UmlModel;
+import codearise.openapispecgenerator.parser.DiagramParser;
+import codearise.openapispecgenerator.util.Hashes;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of parsed UML diagrams, in which the key is a SHA-256 hash of the uploaded file and the type of the parser, so a diagram that is uploaded again without changes does not have to be parsed again.
+ * The cache is bounded by a maximum amount of diagrams, after which the least recently used diagram is evicted.
+ * The cached models are never handed out themselves. Every upload gets its own copy, so the modifications done by the user in one stepper session do not affect the cached diagram or other sessions.
+ */
+public class DiagramParseCache {
+    private final int maxSize;
+
+    /**
+     * The parsed diagrams in access order, so that the first entry is the least recently used one.
+     */
+    private final LinkedHashMap<String, ParsedDiagram> diagrams = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * The constructor of DiagramParseCache.
+     *
+     * @param maxSize The maximum amount of parsed diagrams in the cache.
+     */
+    public DiagramParseCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Returns the parsed diagram of an uploaded file, and parses the file if it has not been parsed before.
+     * The file is parsed outside the lock of the cache, so uploads of different diagrams are parsed in parallel.
+     *
+     * @param parser The parser for the type of the file.
+     * @param content The content of the uploaded file.
+     * @return The parsed diagram.
+     * @throws Exception Is returned if an error occurs during the parsing process.
+     */
+    public ParsedDiagram getOrParse(DiagramParser parser, byte[] content) throws Exception {
+        String key = key(parser.getClass().getName(), content);
+        synchronized (this) {
+            ParsedDiagram diagram = diagrams.get(key);
+            if (diagram != null) {
+                hits.incrementAndGet();
+                return diagram;
+            }
+        }
+        misses.incrementAndGet();
+
+        ParsedDiagram diagram = new ParsedDiagram(UmlModel.fromDiagram(parser.parseDiagram(new ByteArrayInputStream(content))));
+        synchronized (this) {
+            diagrams.put(key, diagram);
+            Iterator<Map.Entry<String, ParsedDiagram>> iterator = diagrams.entrySet().iterator();
+            while (diagrams.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return diagram;
+    }
+
+    /**
+     * Computes the key of an uploaded file, which is a SHA-256 hash of the type of the parser and the content of the file.
+     *
+     * @param parserType The type of the parser.
+     * @param content The content of the uploaded file.
+     * @return The hexadecimal SHA-256 hash.
+     */
+    static String key(String parserType, byte[] content) {
+        return Hashes.sha256(parserType.getBytes(StandardCharsets.UTF_8), new byte[]{0}, content);
+    }
+
+    public synchronized int size() {
+        return diagrams.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * A parsed UML diagram together with the elements that are sent to the stepper, which are created once and shared by every upload of the diagram.
+     */
+    public static final class ParsedDiagram {
+        private final UmlModel model;
+        private final Map<String, Object> elements;
+
+        ParsedDiagram(UmlModel model) {
+            this.model = model;
+            this.elements = Collections.unmodifiableMap(model.toElements());
+        }
+
+        /**
+         * Creates a copy of the parsed model for a stepper session, which can be modified without affecting the cached diagram.
+         *
+         * @return The copy of the model.
+         */
+        public UmlModel newModel() {
+            return model.copy();
+        }
+
+        /**
+         * Returns the parsed elements in the format in which they are sent to the stepper. The elements must not be modified.
+         *
+         * @return Map that contains the classnames, the member declarations per class and the relationships.
+         */
+        public Map<String, Object> getElements() {
+            return elements;
+        }
+    }
+}
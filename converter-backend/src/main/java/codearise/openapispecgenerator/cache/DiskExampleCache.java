@@ -0,0 +1,251 @@
+package codearise.openapispecgenerator.cache;
+
+import codearise.openapispecgenerator.util.JsonMappers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the ExampleCache interface that persists example values in a file, so that they survive a restart of the application.
+ * Every added example value is appended to the file as a single JSON line together with the time at which it expires, and the file is read once when the cache is created.
+ * Like the in-memory cache, the cache is bounded by a maximum amount of entries and by a time to live. Lines of expired, evicted and superseded example values are removed from the file when it is compacted.
+ */
+public class DiskExampleCache implements ExampleCache {
+    /**
+     * The amount of lines below which the file is never compacted, so that a small cache is not rewritten on every added example value.
+     */
+    private static final long MIN_COMPACTION_LINES = 1000;
+
+    /**
+     * The file in which the example values are stored.
+     */
+    private final Path file;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    /**
+     * The entries of the cache in access order, so that the first entry is the least recently used one.
+     */
+    private final LinkedHashMap<ExampleKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The amount of lines in the file, which includes the lines of example values that are no longer in the cache.
+     */
+    private long lines;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * The constructor of DiskExampleCache, which reads the example values that have been stored in the specified file.
+     *
+     * @param file The file in which the example values are stored.
+     * @param maxSize The maximum amount of example values in the cache.
+     * @param ttl The time after which an example value expires.
+     * @throws IOException Is returned if the file cannot be read.
+     */
+    public DiskExampleCache(Path file, int maxSize, Duration ttl) throws IOException {
+        this(file, maxSize, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * The constructor of DiskExampleCache that uses the specified clock to determine whether an entry has expired.
+     *
+     * @param file The file in which the example values are stored.
+     * @param maxSize The maximum amount of example values in the cache.
+     * @param ttl The time after which an example value expires.
+     * @param clock The clock that is used to determine whether an entry has expired.
+     * @throws IOException Is returned if the file cannot be read.
+     */
+    public DiskExampleCache(Path file, int maxSize, Duration ttl, Clock clock) throws IOException {
+        this.file = file;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (Files.exists(file)) {
+            load();
+        }
+    }
+
+    /**
+     * Reads the lines of the file that have not expired into memory, and rewrites the file if more than half of its lines are outdated.
+     *
+     * @throws IOException Is returned if the file cannot be read or compacted.
+     */
+    private synchronized void load() throws IOException {
+        long now = clock.millis();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                try {
+                    Map<String, String> record = JsonMappers.shared().recordReader().readValue(line);
+                    ExampleKey key = ExampleKey.parse(String.valueOf(record.get("key")));
+                    String value = record.get("value");
+                    String expiresAt = record.get("expiresAt");
+                    if (key == null || value == null || expiresAt == null) {
+                        continue;
+                    }
+                    Entry entry = new Entry(value, Long.parseLong(expiresAt));
+                    if (entry.expiresAt > now) {
+                        entries.put(key, entry);
+                        evictLeastRecentlyUsed();
+                    } else {
+                        entries.remove(key);
+                    }
+                } catch (IOException | NumberFormatException e) {
+                    // A line that was only partially written before the application stopped is skipped.
+                }
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Rewrites the file if more than half of its lines no longer belong to an example value in the cache.
+     *
+     * @throws IOException Is returned if the file cannot be written.
+     */
+    private void compactIfNeeded() throws IOException {
+        if (lines > Math.max(MIN_COMPACTION_LINES, entries.size() * 2L)) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the file so that it contains a single line for every example value that has not expired.
+     *
+     * @throws IOException Is returned if the file cannot be written.
+     */
+    private void compact() throws IOException {
+        evictExpired();
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            for (Map.Entry<ExampleKey, Entry> entry : entries.entrySet()) {
+                writer.write(toLine(entry.getKey(), entry.getValue()));
+            }
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lines = entries.size();
+    }
+
+    @Override
+    public synchronized String get(ExampleKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= clock.millis()) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(ExampleKey key, String value) {
+        Entry entry = new Entry(value, clock.millis() + ttlMillis);
+        entries.put(key, entry);
+        evictLeastRecentlyUsed();
+        try {
+            Files.writeString(file, toLine(key, entry), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            lines++;
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the example value cache to " + file, e);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the amount of entries is within the maximum size, after removing the expired entries first.
+     */
+    private void evictLeastRecentlyUsed() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        evictExpired();
+        Iterator<ExampleKey> iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all expired entries from the cache.
+     */
+    private void evictExpired() {
+        long now = clock.millis();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private String toLine(ExampleKey key, Entry entry) throws IOException {
+        Map<String, String> record = new LinkedHashMap<>();
+        record.put("key", key.toString());
+        record.put("value", entry.value);
+        record.put("expiresAt", Long.toString(entry.expiresAt));
+        return JsonMappers.shared().recordWriter().writeValueAsString(record) + "\n";
+    }
+
+    @Override
+    public synchronized long size() {
+        return entries.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * A cached example value and the time at which it expires.
+     */
+    private static final class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
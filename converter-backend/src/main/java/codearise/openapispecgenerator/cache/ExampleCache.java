@@ -0,0 +1,51 @@
+package codearise.openapispecgenerator.cache;
+
+/**
+ * Cache for generated example values, which prevents the same example value from being requested from the OpenAI model more than once.
+ * Implementations must be thread-safe, because example values are added concurrently as the responses of the OpenAI model arrive.
+ */
+public interface ExampleCache {
+    /**
+     * Returns the cached example value for the specified key.
+     *
+     * @param key The key of the example value.
+     * @return The cached example value or null if the cache does not contain the key.
+     */
+    String get(ExampleKey key);
+
+    /**
+     * Adds an example value to the cache.
+     *
+     * @param key The key of the example value.
+     * @param value The example value.
+     */
+    void put(ExampleKey key, String value);
+
+    /**
+     * Returns the amount of example values in the cache.
+     *
+     * @return The amount of example values in the cache.
+     */
+    long size();
+
+    /**
+     * Returns the amount of lookups for which the cache contained the example value.
+     *
+     * @return The amount of cache hits.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the amount of lookups for which the cache did not contain the example value.
+     *
+     * @return The amount of cache misses.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the amount of example values that have been removed from the cache because it was full or because they expired.
+     *
+     * @return The amount of evicted example values.
+     */
+    long getEvictionCount();
+}
@@ -0,0 +1,90 @@
+package codearise.openapispecgenerator.cache;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Key of a single generated example value, which identifies the attribute of a class and the id of the example instance.
+ * The classname, attribute name and type are normalized to trimmed lowercase strings, so that the same attribute in differently formatted diagrams shares its example values.
+ */
+public final class ExampleKey {
+    private final String className;
+    private final String attributeName;
+    private final String type;
+    private final int id;
+
+    /**
+     * The constructor of ExampleKey.
+     *
+     * @param className The name of the class.
+     * @param attributeName The name of the attribute.
+     * @param type The UML data type of the attribute.
+     * @param id The id of the example instance.
+     */
+    public ExampleKey(String className, String attributeName, String type, int id) {
+        this.className = normalize(className);
+        this.attributeName = normalize(attributeName);
+        this.type = normalize(type);
+        this.id = id;
+    }
+
+    /**
+     * Parses a key from the format that is returned by the toString method.
+     *
+     * @param value The key in the format "class|attribute|type|id".
+     * @return The parsed key or null if the value is not a valid key.
+     */
+    public static ExampleKey parse(String value) {
+        String[] parts = value.split("\\|", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            return new ExampleKey(parts[0], parts[1], parts[2], Integer.parseInt(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replace('|', '_');
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExampleKey)) {
+            return false;
+        }
+        ExampleKey that = (ExampleKey) o;
+        return id == that.id && className.equals(that.className) && attributeName.equals(that.attributeName) && type.equals(that.type);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(className, attributeName, type, id);
+    }
+
+    @Override
+    public String toString() {
+        return className + "|" + attributeName + "|" + type + "|" + id;
+    }
+}
@@ -0,0 +1,127 @@
+package codearise.openapispecgenerator.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the ExampleCache interface that keeps example values in memory.
+ * The cache is bounded by a maximum amount of entries, after which the least recently used entry is evicted, and by a time to live after which an entry expires.
+ */
+public class InMemoryExampleCache implements ExampleCache {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    /**
+     * The entries of the cache in access order, so that the first entry is the least recently used one.
+     */
+    private final LinkedHashMap<ExampleKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * The constructor of InMemoryExampleCache.
+     *
+     * @param maxSize The maximum amount of example values in the cache.
+     * @param ttl The time after which an example value expires.
+     */
+    public InMemoryExampleCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * The constructor of InMemoryExampleCache that uses the specified clock to determine whether an entry has expired.
+     *
+     * @param maxSize The maximum amount of example values in the cache.
+     * @param ttl The time after which an example value expires.
+     * @param clock The clock that is used to determine whether an entry has expired.
+     */
+    public InMemoryExampleCache(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized String get(ExampleKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= clock.millis()) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(ExampleKey key, String value) {
+        entries.put(key, new Entry(value, clock.millis() + ttlMillis));
+        if (entries.size() > maxSize) {
+            evictExpired();
+        }
+        Iterator<Map.Entry<ExampleKey, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all expired entries from the cache.
+     */
+    private void evictExpired() {
+        long now = clock.millis();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public synchronized long size() {
+        return entries.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * A cached example value and the time at which it expires.
+     */
+    private static final class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package codearise.openapispecgenerator.cache;
+
+/**
+ * Implementation of the ExampleCache interface that combines a bounded in-memory cache with a persistent cache.
+ * Lookups are served from memory when possible, and example values that are only found in the persistent cache are added to memory again.
+ */
+public class TieredExampleCache implements ExampleCache {
+    private final ExampleCache memory;
+    private final ExampleCache persistent;
+
+    /**
+     * The constructor of TieredExampleCache.
+     *
+     * @param memory The bounded in-memory cache that is consulted first.
+     * @param persistent The persistent cache that is consulted if the in-memory cache does not contain the example value.
+     */
+    public TieredExampleCache(ExampleCache memory, ExampleCache persistent) {
+        this.memory = memory;
+        this.persistent = persistent;
+    }
+
+    @Override
+    public String get(ExampleKey key) {
+        String value = memory.get(key);
+        if (value == null) {
+            value = persistent.get(key);
+            if (value != null) {
+                memory.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(ExampleKey key, String value) {
+        memory.put(key, value);
+        persistent.put(key, value);
+    }
+
+    @Override
+    public long size() {
+        return persistent.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return memory.getHitCount() + persistent.getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return persistent.getMissCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return memory.getEvictionCount();
+    }
+}
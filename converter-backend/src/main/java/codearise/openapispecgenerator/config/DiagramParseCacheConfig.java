@@ -0,0 +1,54 @@
+package codearise.openapispecgenerator.config;
+
+import codearise.openapispecgenerator.cache.DiagramParseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the cache of parsed UML diagrams and the metrics that are exposed for it through the Actuator metrics endpoint.
+ */
+@Configuration
+public class DiagramParseCacheConfig {
+
+    /**
+     * Creates the cache of parsed UML diagrams.
+     *
+     * @param maxSize The maximum amount of parsed diagrams in the cache.
+     * @return The cache of parsed UML diagrams.
+     */
+    @Bean
+    public DiagramParseCache diagramParseCache(@Value("${diagrams.parse-cache.max-size:64}") int maxSize) {
+        return new DiagramParseCache(maxSize);
+    }
+
+    /**
+     * Registers the size, hits, misses and evictions of the cache of parsed UML diagrams as metrics.
+     *
+     * @param diagramParseCache The cache of parsed UML diagrams.
+     * @return The binder that registers the metrics.
+     */
+    @Bean
+    public MeterBinder diagramParseCacheMetrics(DiagramParseCache diagramParseCache) {
+        return (MeterRegistry registry) -> {
+            Gauge.builder("openapi.diagram.parse.cache.size", diagramParseCache, DiagramParseCache::size)
+                    .description("The amount of cached parsed diagrams")
+                    .register(registry);
+            FunctionCounter.builder("openapi.diagram.parse.cache.requests", diagramParseCache, DiagramParseCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("The amount of diagram uploads that were served from the cache")
+                    .register(registry);
+            FunctionCounter.builder("openapi.diagram.parse.cache.requests", diagramParseCache, DiagramParseCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("The amount of diagram uploads that had to be parsed")
+                    .register(registry);
+            FunctionCounter.builder("openapi.diagram.parse.cache.evictions", diagramParseCache, DiagramParseCache::getEvictionCount)
+                    .description("The amount of parsed diagrams that were evicted from the cache")
+                    .register(registry);
+        };
+    }
+}
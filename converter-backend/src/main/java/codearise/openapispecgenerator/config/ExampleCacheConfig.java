@@ -0,0 +1,73 @@
+package codearise.openapispecgenerator.config;
+
+import codearise.openapispecgenerator.cache.DiskExampleCache;
+import codearise.openapispecgenerator.cache.ExampleCache;
+import codearise.openapispecgenerator.cache.InMemoryExampleCache;
+import codearise.openapispecgenerator.cache.TieredExampleCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the cache of generated example values and the metrics that are exposed for it through the Actuator metrics endpoint.
+ */
+@Configuration
+public class ExampleCacheConfig {
+
+    /**
+     * Creates the cache of generated example values. The in-memory tier is always used, and the persistent tier is added if a file is configured.
+     * Both tiers use the same time to live, so an example value that has expired from memory is not served from the persistent tier either.
+     *
+     * @param maxSize The maximum amount of example values in the in-memory tier.
+     * @param ttlMinutes The amount of minutes after which an example value expires.
+     * @param file The file in which example values are persisted, or an empty string to disable the persistent tier.
+     * @param fileMaxSize The maximum amount of example values in the persistent tier.
+     * @return The cache of generated example values.
+     * @throws IOException Is returned if the file of the persistent tier cannot be read.
+     */
+    @Bean
+    public ExampleCache exampleCache(@Value("${openai.example-cache.max-size:10000}") int maxSize,
+                                     @Value("${openai.example-cache.ttl-minutes:1440}") long ttlMinutes,
+                                     @Value("${openai.example-cache.file:./data/example-cache.jsonl}") String file,
+                                     @Value("${openai.example-cache.file-max-size:100000}") int fileMaxSize) throws IOException {
+        ExampleCache memory = new InMemoryExampleCache(maxSize, Duration.ofMinutes(ttlMinutes));
+        if (file.isBlank()) {
+            return memory;
+        }
+        return new TieredExampleCache(memory, new DiskExampleCache(Path.of(file), fileMaxSize, Duration.ofMinutes(ttlMinutes)));
+    }
+
+    /**
+     * Registers the size, hits, misses and evictions of the cache of generated example values as metrics.
+     *
+     * @param exampleCache The cache of generated example values.
+     * @return The binder that registers the metrics.
+     */
+    @Bean
+    public MeterBinder exampleCacheMetrics(ExampleCache exampleCache) {
+        return (MeterRegistry registry) -> {
+            Gauge.builder("openapi.example.cache.size", exampleCache, ExampleCache::size)
+                    .description("The amount of cached example values")
+                    .register(registry);
+            FunctionCounter.builder("openapi.example.cache.requests", exampleCache, ExampleCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("The amount of example value lookups that were served from the cache")
+                    .register(registry);
+            FunctionCounter.builder("openapi.example.cache.requests", exampleCache, ExampleCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("The amount of example value lookups that were not in the cache")
+                    .register(registry);
+            FunctionCounter.builder("openapi.example.cache.evictions", exampleCache, ExampleCache::getEvictionCount)
+                    .description("The amount of example values that were evicted from the cache")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package codearise.openapispecgenerator.config;
+
+import codearise.openapispecgenerator.util.JsonMappers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the JSON and YAML mappers that are used to read and write OpenAPI specifications, requests to the OpenAI model and the selections of the user.
+ * The mappers are exposed through the JsonMappers type instead of as ObjectMapper beans, so the ObjectMapper that Spring Boot configures for the REST endpoints is not replaced.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Registers the shared JSON and YAML mappers.
+     *
+     * @return The shared mappers.
+     */
+    @Bean
+    public JsonMappers jsonMappers() {
+        return JsonMappers.shared();
+    }
+}
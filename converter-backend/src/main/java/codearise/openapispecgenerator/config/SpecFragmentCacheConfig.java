@@ -0,0 +1,52 @@
+package codearise.openapispecgenerator.config;
+
+import codearise.openapispecgenerator.util.OpenAPISpecGenerator;
+import codearise.openapispecgenerator.util.SpecFragmentCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the cache of the class fragments of generated OpenAPI specifications and the metrics that are exposed for it through the Actuator metrics endpoint.
+ */
+@Configuration
+public class SpecFragmentCacheConfig {
+
+    /**
+     * Creates the cache of class fragments that is used by the OpenAPISpecGenerator.
+     *
+     * @param maxSize The maximum amount of class fragments in the cache.
+     * @return The cache of class fragments.
+     */
+    @Bean
+    public SpecFragmentCache specFragmentCache(@Value("${generation.fragment-cache.max-size:" + OpenAPISpecGenerator.DEFAULT_FRAGMENT_CACHE_SIZE + "}") int maxSize) {
+        return new SpecFragmentCache(maxSize);
+    }
+
+    /**
+     * Registers the size, hits and misses of the cache of class fragments as metrics.
+     *
+     * @param specFragmentCache The cache of class fragments.
+     * @return The binder that registers the metrics.
+     */
+    @Bean
+    public MeterBinder specFragmentCacheMetrics(SpecFragmentCache specFragmentCache) {
+        return (MeterRegistry registry) -> {
+            Gauge.builder("openapi.spec.fragment.cache.size", specFragmentCache, SpecFragmentCache::size)
+                    .description("The amount of cached class fragments")
+                    .register(registry);
+            FunctionCounter.builder("openapi.spec.fragment.cache.requests", specFragmentCache, SpecFragmentCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("The amount of classes of which the fragment was reused from an earlier generation run")
+                    .register(registry);
+            FunctionCounter.builder("openapi.spec.fragment.cache.requests", specFragmentCache, SpecFragmentCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("The amount of classes of which the fragment had to be generated")
+                    .register(registry);
+        };
+    }
+}
@@ -1,16 +1,52 @@
 package codearise.openapispecgenerator.config;
 
+import codearise.openapispecgenerator.workspace.WorkspaceArgumentResolver;
+import codearise.openapispecgenerator.workspace.WorkspaceStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * Configuration for web-related settings, including CORS and resource handling.
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    /**
+     * The store of the workspaces of the stepper sessions.
+     */
+    private final WorkspaceStore workspaceStore;
+
+    /**
+     * The type of the blob store in which the UML diagrams of the stepper sessions are stored.
+     */
+    private final String blobStore;
+
+    /**
+     * The directory of the file system blob store.
+     */
+    private final String blobsDirectory;
+
+    /**
+     * The constructor of WebConfig.
+     *
+     * @param workspaceStore The store of the workspaces of the stepper sessions.
+     * @param blobStore The type of the blob store, which is "s3" or "filesystem".
+     * @param blobsDirectory The directory of the file system blob store.
+     */
+    public WebConfig(WorkspaceStore workspaceStore,
+                     @Value("${blobs.store:s3}") String blobStore,
+                     @Value("${blobs.directory:./data/blobs}") String blobsDirectory) {
+        this.workspaceStore = workspaceStore;
+        this.blobStore = blobStore;
+        this.blobsDirectory = blobsDirectory;
+    }
+
     /**
      * Configures the CORS settings for the application.
      *
@@ -27,13 +63,26 @@ public class WebConfig implements WebMvcConfigurer {
 
     /**
      * Configures resource handlers for serving static files.
+     * Only the UML diagrams of the file system blob store are served, so that the workspaces, generation jobs and caches in the data directory are not exposed.
      *
      * @param registry The registry to which resource handlers are added.
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/data/**")
-                .addResourceLocations("file:./data/");
+        if (!"filesystem".equals(blobStore)) {
+            return;
+        }
+        registry.addResourceHandler("/data/blobs/**")
+                .addResourceLocations("file:" + (blobsDirectory.endsWith("/") ? blobsDirectory : blobsDirectory + "/"));
     }
-}
 
+    /**
+     * Registers the resolver that provides the workspace of the stepper session to the endpoints.
+     *
+     * @param resolvers The list to which the argument resolvers are added.
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new WorkspaceArgumentResolver(workspaceStore));
+    }
+}
@@ -1,9 +1,17 @@
 package codearise.openapispecgenerator.controller;
 
-import codearise.openapispecgenerator.entity.Relationship;
+import codearise.openapispecgenerator.cache.DiagramParseCache;
+import codearise.openapispecgenerator.model.UmlModel;
+import codearise.openapispecgenerator.model.UmlRelationship;
+import codearise.openapispecgenerator.service.GenerationJob;
+import codearise.openapispecgenerator.service.GenerationJobService;
+import codearise.openapispecgenerator.service.GenerationJobService.GenerationTask;
+import codearise.openapispecgenerator.util.GenerationProgress;
+import codearise.openapispecgenerator.util.JsonMappers;
 import codearise.openapispecgenerator.util.OpenAPISpecGenerator;
+import codearise.openapispecgenerator.workspace.SpecStore;
+import codearise.openapispecgenerator.workspace.Workspace;
 import codearise.openapispecgenerator.parser.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -12,57 +20,76 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * The REST controller that contains the stepper functionalities and the corresponding endpoints.
+ * The state of a stepper session is kept in the workspace of the session, which is resolved from the X-Workspace-Id header of every request, so parallel sessions do not share their UML diagram, modifications or generated OpenAPI specification.
  */
 @RestController
 @CrossOrigin(origins = "http://localhost:4200")
 public class GenerationController {
     /**
-     * The path where the generated OpenAPI specification will be saved.
+     * The reference variable for the class that is used to generate an OpenAPI specification and fill it with content that is based on the uploaded UML diagram and the modifications done by the user in the stepper.
      */
-    private final String outputPath = "./data/export.yml";
+    private final OpenAPISpecGenerator openAPISpecGenerator;
 
     /**
-     * The reference variable for the class that is used to generate an OpenAPI specification and fill it with content that is based on the uploaded UML diagram and the modifications done by the user in the stepper.
+     * The service that runs generations of OpenAPI specifications as asynchronous jobs.
      */
-    private final OpenAPISpecGenerator openAPISpecGenerator;
+    private final GenerationJobService generationJobService;
 
     /**
-     * A list to store the mappings and modifications done and applied by the user in the Mapping step of the stepper.
+     * The shared JSON and YAML mappers.
      */
-    private List<Map<String, Object>> savedMappings = new ArrayList<>();
+    private final JsonMappers jsonMappers;
 
-    private Map<String, List<Map<String, String>>> savedRelationships = new HashMap<>();
+    /**
+     * The store that keeps the generated OpenAPI specifications in memory while the user personalises them.
+     */
+    private final SpecStore specStore;
 
     /**
-     * Map in which all the data related to the uploaded UML diagram and the modifications done by the user is stored.
+     * The cache of parsed UML diagrams, which is used when the same diagram is uploaded again.
      */
-    public Map<String, Object> umlDataStore = new HashMap<>();
+    private final DiagramParseCache diagramParseCache;
 
     /**
      * The constructor of GenerationController.
      *
      * @param openAPISpecGenerator The class instance for generating an OpenAPI specification.
+     * @param generationJobService The service that runs generations of OpenAPI specifications as asynchronous jobs.
+     * @param jsonMappers The shared JSON and YAML mappers.
+     * @param specStore The store of the generated OpenAPI specifications.
+     * @param diagramParseCache The cache of parsed UML diagrams.
      */
-    public GenerationController(OpenAPISpecGenerator openAPISpecGenerator) {
+    public GenerationController(OpenAPISpecGenerator openAPISpecGenerator, GenerationJobService generationJobService, JsonMappers jsonMappers, SpecStore specStore, DiagramParseCache diagramParseCache) {
         this.openAPISpecGenerator = openAPISpecGenerator;
+        this.generationJobService = generationJobService;
+        this.jsonMappers = jsonMappers;
+        this.specStore = specStore;
+        this.diagramParseCache = diagramParseCache;
     }
 
     /**
-     * The endpoint to fetch the generated OpenAPI specification.
+     * The endpoint to fetch the generated OpenAPI specification, including the example values the user has personalised.
      *
+     * @param workspace The workspace of the stepper session.
      * @return The HTTP response containing the OpenAPI specification file as body.
+     * @throws IOException Is returned if the personalised example values cannot be written to the file.
      */
     @GetMapping("/export.yml")
-    public ResponseEntity<Resource> getOpenAPISpec() {
-        Resource fileResource = new FileSystemResource(outputPath);
+    public ResponseEntity<Resource> getOpenAPISpec(Workspace workspace) throws IOException {
+        specStore.flush(workspace);
+        Resource fileResource = new FileSystemResource(workspace.getOutputPath());
         if (!fileResource.exists()) {
             return ResponseEntity.notFound().build();
         }
@@ -74,12 +101,14 @@ public class GenerationController {
 
     /**
      * The endpoint to parse individual UML elements from an uploaded UML diagram file.
+     * A diagram that has been uploaded before without changes is taken from the cache of parsed diagrams, and the workspace receives its own copy of the parsed model.
      *
      * @param file The uploaded UML diagram file.
+     * @param workspace The workspace of the stepper session.
      * @return The HTTP response containing the parsed individual UML elements as body.
      */
     @PostMapping("/parse-elements")
-    public ResponseEntity<Map<String, Object>> parseDiagramElements(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, Object>> parseDiagramElements(@RequestParam("file") MultipartFile file, Workspace workspace) {
         if (file.isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "File is empty"));
         }
@@ -90,55 +119,27 @@ public class GenerationController {
                 return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(Map.of("error", "Unsupported file type"));
             }
 
-            byte[] fileContent = file.getBytes();
-            Map<String, Object> elements = parseUmlData(fileContent, parser);
-            umlDataStore = elements;
-            return ResponseEntity.ok().body(elements);
+            DiagramParseCache.ParsedDiagram diagram = diagramParseCache.getOrParse(parser, file.getBytes());
+            UmlModel model = diagram.newModel();
+            synchronized (workspace) {
+                workspace.setModel(model);
+            }
+            return ResponseEntity.ok().body(diagram.getElements());
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error parsing diagram: " + e.getMessage()));
         }
     }
 
-    /**
-     * Uses a suitable parser class to parse the data of the uploaded UML diagram.
-     *
-     * @param fileContent The contents of the uploaded UML diagram file.
-     * @param parser The parser class that is used for extracting elements from the uploaded UML diagram.
-     * @return Map containing the parsed individual elements of the uploaded UML diagram.
-     * @throws Exception Is returned if an error occurs during the parsing process.
-     */
-    private Map<String, Object> parseUmlData(byte[] fileContent, DiagramParser parser) throws Exception {
-        InputStream inputStream = new ByteArrayInputStream(fileContent);
-
-        Map<String, List<String>> classes = parser.parse(inputStream);
-        inputStream.reset();
-
-        Map<String, List<String>> attributes = parser.parseAttributes(inputStream);
-        inputStream.reset();
-
-        Map<String, List<String>> methods = parser.parseMethods(inputStream);
-        inputStream.reset();
-
-        List<Relationship> relationships = parser.parseRelationships(inputStream);
-
-        Map<String, Object> elements = new HashMap<>();
-        elements.put("classes", new ArrayList<>(classes.keySet()));
-        elements.put("attributes", attributes);
-        elements.put("methods", methods);
-        elements.put("relationships", relationships);
-
-        return elements;
-    }
-
     /**
      * The endpoint to rename an element of an uploaded UML diagram.
      *
      * @param renameInfo Map containing the type, old name, and new name of the element to rename.
-     * @return The HTTP response containing the result of the rename operation as body, which consists of the old and new element values.
+     * @param workspace The workspace of the stepper session.
+     * @return The HTTP response containing the result of the rename operation as body, which consists of the old and new element values. The response has status 409 if a class is renamed to the name of another class.
      */
     @PostMapping("/rename-element")
-    public ResponseEntity<?> renameElement(@RequestBody Map<String, String> renameInfo) {
+    public ResponseEntity<?> renameElement(@RequestBody Map<String, String> renameInfo, Workspace workspace) {
         String type = renameInfo.get("type");
         String oldName = renameInfo.get("oldName");
         String newName = renameInfo.get("newName");
@@ -148,124 +149,57 @@ public class GenerationController {
         }
 
         try {
-            switch (type) {
-                case "class":
-                    return renameClass(oldName, newName);
-                case "attribute":
-                    return renameAttribute(oldName, newName);
-                case "method":
-                    return renameMethod(oldName, newName);
-                default:
-                    return ResponseEntity.badRequest().body("Invalid type for renaming.");
+            synchronized (workspace) {
+                UmlModel model = workspace.getModel();
+                switch (type) {
+                    case "class":
+                        if (!model.renameClass(oldName, newName)) {
+                            return ResponseEntity.badRequest().body("Class not found: " + oldName);
+                        }
+                        return ResponseEntity.ok("Class renamed successfully from " + oldName + " to " + newName);
+                    case "attribute":
+                        model.renameAttribute(oldName, newName);
+                        return ResponseEntity.ok("Attribute renamed successfully from " + oldName + " to " + newName);
+                    case "method":
+                        model.renameOperation(oldName, newName);
+                        return ResponseEntity.ok("Method renamed successfully from " + oldName + " to " + newName);
+                    default:
+                        return ResponseEntity.badRequest().body("Invalid type for renaming.");
+                }
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Failed to rename element: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to rename element: " + e.getMessage());
         }
     }
 
-    /**
-     * Renames an element of an uploaded UML diagram.
-     *
-     * @param oldName The current name of the class.
-     * @param newName The new name of the class.
-     * @return The HTTP response containing the result of the rename operation as body, which consists of the old and new classnames.
-     */
-    private ResponseEntity<?> renameClass(String oldName, String newName) {
-        Object classesObject = umlDataStore.get("classes");
-        if (classesObject instanceof List) {
-            List<String> classes = (List<String>) classesObject;
-            int index = classes.indexOf(oldName);
-            if (index != -1) {
-                classes.set(index, newName);
-                Map<String, List<String>> attributes = (Map<String, List<String>>) umlDataStore.get("attributes");
-                if (attributes.containsKey(oldName)) {
-                    List<String> attributeList = attributes.remove(oldName);
-                    attributes.put(newName, attributeList);
-                }
-                Map<String, List<String>> methods = (Map<String, List<String>>) umlDataStore.get("methods");
-                if (methods.containsKey(oldName)) {
-                    List<String> methodList = methods.remove(oldName);
-                    methods.put(newName, methodList);
-                }
-                umlDataStore.put("classes", classes);
-                umlDataStore.put("attributes", attributes);
-                umlDataStore.put("methods", methods);
-                return ResponseEntity.ok("Class renamed successfully from " + oldName + " to " + newName);
-            }
-            return ResponseEntity.badRequest().body("Class not found: " + oldName);
-        }
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unexpected data type for classes.");
-    }
-
-    /**
-     * Renames an attribute of the uploaded UML diagram.
-     *
-     * @param oldName The current name of the attribute.
-     * @param newName The new name of the attribute.
-     * @return The HTTP response containing the result of the rename operation as body, which consists of the old and new attribute values.
-     */
-    private ResponseEntity<?> renameAttribute(String oldName, String newName) {
-        Map<String, List<String>> attributes = (Map<String, List<String>>) umlDataStore.get("attributes");
-        if (attributes != null) {
-            attributes.forEach((key, value) -> {
-                List<String> updatedAttributes = value.stream()
-                        .map(attribute -> attribute.equals(oldName) ? newName : attribute)
-                        .collect(Collectors.toList());
-                attributes.put(key, updatedAttributes);
-            });
-            umlDataStore.put("attributes", attributes);
-            return ResponseEntity.ok("Attribute renamed successfully from " + oldName + " to " + newName);
-        }
-        return ResponseEntity.badRequest().body("Attributes not found for: " + oldName);
-    }
-
-    /**
-     * Renames a method of the uploaded UML diagram.
-     *
-     * @param oldName The current name of the method.
-     * @param newName The new name of the method.
-     * @return The HTTP response containing the result of the rename operation as body, which consists of the old and new method values.
-     */
-    private ResponseEntity<?> renameMethod(String oldName, String newName) {
-        Map<String, List<String>> methods = (Map<String, List<String>>) umlDataStore.get("methods");
-        if (methods != null) {
-            methods.forEach((key, value) -> {
-                List<String> updatedMethods = value.stream()
-                        .map(method -> method.equals(oldName) ? newName : method)
-                        .collect(Collectors.toList());
-                methods.put(key, updatedMethods);
-            });
-            umlDataStore.put("methods", methods);
-            return ResponseEntity.ok("Method renamed successfully from " + oldName + " to " + newName);
-        }
-        return ResponseEntity.badRequest().body("Methods not found for: " + oldName);
-    }
-
     /**
      * The endpoint to delete an element from the uploaded UML diagram or from the elements added by the user.
      *
      * @param deleteInfo Map for the elemented that is removed, in which the key is the name of the element and the value is the type of the element.
+     * @param workspace The workspace of the stepper session.
      * @return The HTTP response containing the result of the delete operation as body, which consists of the old and new element values.
      */
     @PostMapping("/delete-element")
-    public ResponseEntity<?> deleteElement(@RequestBody Map<String, String> deleteInfo) {
+    public ResponseEntity<?> deleteElement(@RequestBody Map<String, String> deleteInfo, Workspace workspace) {
         String type = deleteInfo.get("type");
         String name = deleteInfo.get("name");
 
         try {
-            switch (type) {
-                case "class":
-                    List<String> classes = (List<String>) umlDataStore.get("classes");
-                    classes.remove(name);
-                    break;
-                case "attribute":
-                    Map<String, List<String>> attributes = (Map<String, List<String>>) umlDataStore.get("attributes");
-                    attributes.values().forEach(attributesList -> attributesList.removeIf(attribute -> attribute.equals(name)));
-                    break;
-                case "method":
-                    Map<String, List<String>> methods = (Map<String, List<String>>) umlDataStore.get("methods");
-                    methods.values().forEach(methodsList -> methodsList.removeIf(method -> method.equals(name)));
-                    break;
+            synchronized (workspace) {
+                UmlModel model = workspace.getModel();
+                switch (type) {
+                    case "class":
+                        model.removeClass(name);
+                        break;
+                    case "attribute":
+                        model.removeAttribute(name);
+                        break;
+                    case "method":
+                        model.removeOperation(name);
+                        break;
+                }
             }
             return ResponseEntity.ok("Element deleted successfully");
         } catch (Exception e) {
@@ -278,95 +212,240 @@ public class GenerationController {
      *
      * @param file The uploaded UML diagram file.
      * @param selectedHttpMethodsJson a JSON string containing the HTTP methods the user selected in the table of the Manage Elements step of the stepper.
+     * @param exampleSource The source of the example values, which is "openai" or "offline". If it is not specified, the configured default source is used.
+     * @param workspace The workspace of the stepper session.
      * @return The HTTP response containing the generated OpenAPI specification as body.
      */
     @PostMapping(value = "/generate", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
     public ResponseEntity<Map<String, String>> generateOpenAPISpec(@RequestParam("file") MultipartFile file,
                                                                    @RequestParam("selectedHttpMethods") String selectedHttpMethodsJson,
-                                                                   @RequestParam(value = "relationships", required = false) String relationshipsJson) {
+                                                                   @RequestParam(value = "relationships", required = false) String relationshipsJson,
+                                                                   @RequestParam(value = "exampleSource", required = false) String exampleSource,
+                                                                   Workspace workspace) {
         if (file.isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "File is empty"));
         }
 
         try {
-            System.out.println("Selected HTTP Methods in JSON format: " + selectedHttpMethodsJson);
-            Map<String, List<String>> selectedHttpMethods = new ObjectMapper().readValue(selectedHttpMethodsJson, HashMap.class);
-            System.out.println("Selected HTTP Methods: " + selectedHttpMethods);
+            GenerationTask task = createGenerationTask(workspace, selectedHttpMethodsJson, relationshipsJson, exampleSource);
+            String openAPISpec = task.run(new GenerationProgress(), workspace.getOutputPath());
+            specStore.invalidate(workspace);
+            return ResponseEntity.ok(Map.of("message", openAPISpec));
+        } catch (ClassCastException e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Data type casting error: " + e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error during generation: " + e.getMessage()));
+        }
+    }
 
-            Map<String, List<Map<String, String>>> savedRelationships = new HashMap<>();
-            if (relationshipsJson != null && !relationshipsJson.isEmpty()) {
-                List<Map<String, String>> relationshipsList = new ObjectMapper().readValue(relationshipsJson, List.class);
 
-                for (Map<String, String> relationship : relationshipsList) {
-                    String classFrom = relationship.get("classFrom");
-                    List<Map<String, String>> classRelationships = savedRelationships.getOrDefault(classFrom, new ArrayList<>());
-                    classRelationships.add(relationship);
-                    savedRelationships.put(classFrom, classRelationships);
-                }
+    /**
+     * Creates the work of a generation run from the selections of the user and a snapshot of the uploaded UML diagram and the modifications done by the user, so that later modifications do not affect a running generation.
+     *
+     * @param workspace The workspace of the stepper session.
+     * @param selectedHttpMethodsJson a JSON string containing the HTTP methods the user selected in the table of the Manage Elements step of the stepper.
+     * @param relationshipsJson a JSON string containing the relationships between classes, or null if there are none.
+     * @param exampleSource The source of the example values, or null to use the configured default source.
+     * @return The work of the generation run.
+     * @throws IOException Is returned if the JSON strings cannot be parsed.
+     */
+    private GenerationTask createGenerationTask(Workspace workspace, String selectedHttpMethodsJson, String relationshipsJson, String exampleSource) throws IOException {
+        Map<String, List<String>> selectedHttpMethods = jsonMappers.selectedHttpMethodsReader().readValue(selectedHttpMethodsJson);
+
+        Map<String, List<Map<String, String>>> savedRelationships = new HashMap<>();
+        if (relationshipsJson != null && !relationshipsJson.isEmpty()) {
+            List<Map<String, String>> relationshipsList = jsonMappers.relationshipsReader().readValue(relationshipsJson);
+
+            for (Map<String, String> relationship : relationshipsList) {
+                String classFrom = relationship.get("classFrom");
+                List<Map<String, String>> classRelationships = savedRelationships.getOrDefault(classFrom, new ArrayList<>());
+                classRelationships.add(relationship);
+                savedRelationships.put(classFrom, classRelationships);
             }
+        }
+
+        UmlModel model;
+        List<Map<String, Object>> mappings;
+        synchronized (workspace) {
+            model = workspace.getModel().copy();
+            mappings = new ArrayList<>(workspace.getMappings());
+        }
 
-            Map<String, List<String>> classes = safelyCastToMap(umlDataStore.get("classes"));
-            Map<String, List<String>> attributes = safelyCastToMap(umlDataStore.get("attributes"));
-            Map<String, List<String>> methods = safelyCastToMap(umlDataStore.get("methods"));
+        Map<String, Map<String, Boolean>> convertedHttpMethods = new HashMap<>();
+        selectedHttpMethods.forEach((className, methodsList) -> {
+            Map<String, Boolean> methodsMap = new HashMap<>();
+            for (String method : methodsList) {
+                methodsMap.put(method, true);
+            }
+            convertedHttpMethods.put(className, methodsMap);
+        });
 
-            System.out.println("Classes: " + classes);
-            System.out.println("Attributes: " + attributes);
-            System.out.println("Methods: " + methods);
+        return (progress, specPath) -> openAPISpecGenerator.generateSpec(model, mappings, savedRelationships, specPath.toString(), convertedHttpMethods, exampleSource, progress);
+    }
 
-            Map<String, Map<String, Boolean>> convertedHttpMethods = new HashMap<>();
-            selectedHttpMethods.forEach((className, methodsList) -> {
-                Map<String, Boolean> methodsMap = new HashMap<>();
-                for (String method : methodsList) {
-                    methodsMap.put(method, true);
+    /**
+     * The endpoint to start an asynchronous generation of an OpenAPI specification based on the uploaded UML diagram file and the modifications done by the user.
+     * The request returns immediately with the id of the generation job, which is used to follow its progress, cancel it, and retrieve the generated OpenAPI specification. When the job completes, the specification is also available at the export.yml endpoint of the workspace.
+     *
+     * @param file The uploaded UML diagram file.
+     * @param selectedHttpMethodsJson a JSON string containing the HTTP methods the user selected in the table of the Manage Elements step of the stepper.
+     * @param relationshipsJson a JSON string containing the relationships between classes.
+     * @param exampleSource The source of the example values, which is "openai" or "offline". If it is not specified, the configured default source is used.
+     * @param workspace The workspace of the stepper session.
+     * @return The HTTP response containing the summary of the submitted generation job as body.
+     */
+    @PostMapping(value = "/generate/jobs", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
+    public ResponseEntity<Map<String, Object>> submitGenerationJob(@RequestParam("file") MultipartFile file,
+                                                                   @RequestParam("selectedHttpMethods") String selectedHttpMethodsJson,
+                                                                   @RequestParam(value = "relationships", required = false) String relationshipsJson,
+                                                                   @RequestParam(value = "exampleSource", required = false) String exampleSource,
+                                                                   Workspace workspace) {
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "File is empty"));
+        }
+
+        try {
+            GenerationTask task = createGenerationTask(workspace, selectedHttpMethodsJson, relationshipsJson, exampleSource);
+            GenerationJob job = generationJobService.submit((progress, specPath) -> {
+                String message = task.run(progress, specPath);
+                // The specification is copied next to the export file and moved over it, so that a reader never sees a partially copied file.
+                Path outputPath = workspace.getOutputPath().toAbsolutePath();
+                Files.createDirectories(outputPath.getParent());
+                Path temporaryPath = Files.createTempFile(outputPath.getParent(), outputPath.getFileName().toString(), ".tmp");
+                try {
+                    Files.copy(specPath, temporaryPath, StandardCopyOption.REPLACE_EXISTING);
+                    synchronized (workspace) {
+                        Files.move(temporaryPath, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        specStore.invalidate(workspace);
+                    }
+                } finally {
+                    Files.deleteIfExists(temporaryPath);
                 }
-                convertedHttpMethods.put(className, methodsMap);
+                return message;
             });
-
-            String openAPISpec = openAPISpecGenerator.generateSpec(classes, attributes, methods, savedMappings, savedRelationships, outputPath, convertedHttpMethods);
-            return ResponseEntity.ok(Map.of("message", openAPISpec));
+            return ResponseEntity.accepted()
+                    .location(URI.create("/generate/jobs/" + job.getId()))
+                    .body(job.toSummary());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Too many generation jobs are waiting. Please try again later."));
         } catch (ClassCastException e) {
-            e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Data type casting error: " + e.getMessage()));
         } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error during generation: " + e.getMessage()));
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error while submitting the generation job: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The endpoint to poll the state and progress of a generation job.
+     *
+     * @param jobId The id of the generation job.
+     * @return The HTTP response containing the summary of the generation job as body.
+     */
+    @GetMapping("/generate/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getGenerationJob(@PathVariable String jobId) {
+        GenerationJob job = generationJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.toSummary());
+    }
+
+    /**
+     * The endpoint to follow the progress of a generation job through server-sent events.
+     *
+     * @param jobId The id of the generation job.
+     * @return The stream of "progress" events, which ends with a "done" event when the job has stopped running.
+     */
+    @GetMapping(value = "/generate/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGenerationJob(@PathVariable String jobId) {
+        GenerationJob job = generationJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(generationJobService.subscribe(job));
+    }
+
+    /**
+     * The endpoint to cancel a generation job.
+     *
+     * @param jobId The id of the generation job.
+     * @return The HTTP response containing the summary of the generation job as body.
+     */
+    @DeleteMapping("/generate/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> cancelGenerationJob(@PathVariable String jobId) {
+        GenerationJob job = generationJobService.cancel(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(job.toSummary());
     }
 
+    /**
+     * The endpoint to fetch the OpenAPI specification that has been generated by a generation job.
+     *
+     * @param jobId The id of the generation job.
+     * @return The HTTP response containing the OpenAPI specification file as body, or a 409 response containing the summary of the job if the job has not completed successfully.
+     */
+    @GetMapping("/generate/jobs/{jobId}/result")
+    public ResponseEntity<?> getGenerationJobResult(@PathVariable String jobId) {
+        GenerationJob job = generationJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != GenerationJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.toSummary());
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"export.yml\"")
+                .contentType(MediaType.parseMediaType("application/x-yaml"))
+                .body(new FileSystemResource(job.getOutputPath()));
+    }
 
     /**
      * The endpoint to apply the elements the user has added and/or modified in the Mapping step of the stepper.
      *
      * @param mappings A list that contains all the elements the user has added and all the existing elements of the uploaded UML diagram.
+     * @param workspace The workspace of the stepper session.
      * @return The HTTP response containing the result of the operation in which the mappings and modifications were applied as body.
      */
     @PostMapping("/apply-mappings")
-    public ResponseEntity<?> applyMappings(@RequestBody List<Map<String, Object>> mappings) {
+    public ResponseEntity<?> applyMappings(@RequestBody List<Map<String, Object>> mappings, Workspace workspace) {
         if (mappings == null || mappings.isEmpty()) {
             return ResponseEntity.ok().body("No elements remain in the buffer that need to be applied. Proceeding.");
         }
-        savedMappings = mappings;
+        synchronized (workspace) {
+            workspace.setMappings(mappings);
+        }
         return ResponseEntity.ok().body("Mappings saved successfully");
     }
 
     @PostMapping("/apply-relationships")
-    public ResponseEntity<?> applyRelationships(@RequestBody Map<String, Object> relationshipsData) {
+    public ResponseEntity<?> applyRelationships(@RequestBody Map<String, Object> relationshipsData, Workspace workspace) {
         try {
             List<Map<String, String>> relationships = (List<Map<String, String>>) relationshipsData.get("relationships");
             if (relationships == null || relationships.isEmpty()) {
                 return ResponseEntity.ok(Map.of("message", "No relationships provided."));
             }
 
-            savedRelationships.clear();
+            synchronized (workspace) {
+                Map<String, List<Map<String, String>>> savedRelationships = workspace.getRelationships();
+                savedRelationships.clear();
+                List<UmlRelationship> modelRelationships = new ArrayList<>();
 
-            for (Map<String, String> relationship : relationships) {
-                String classFrom = relationship.get("classFrom");
-                savedRelationships
-                        .computeIfAbsent(classFrom, k -> new ArrayList<>())
-                        .add(relationship);
-            }
+                for (Map<String, String> relationship : relationships) {
+                    String classFrom = relationship.get("classFrom");
+                    savedRelationships
+                            .computeIfAbsent(classFrom, k -> new ArrayList<>())
+                            .add(relationship);
+                    modelRelationships.add(new UmlRelationship(classFrom, relationship.get("classTo"), relationship.get("relationshipType")));
+                }
 
-            umlDataStore.put("relationships", savedRelationships);
+                workspace.getModel().setRelationships(modelRelationships);
+            }
 
             return ResponseEntity.ok(Map.of("message", "Relationships saved successfully"));
         } catch (Exception e) {
@@ -375,9 +454,10 @@ public class GenerationController {
     }
 
     @GetMapping("/class-names")
-    public ResponseEntity<List<String>> getClassNames() {
-        List<String> classes = (List<String>) umlDataStore.get("classes");
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<List<String>> getClassNames(Workspace workspace) {
+        synchronized (workspace) {
+            return ResponseEntity.ok(workspace.getModel().getClassNames());
+        }
     }
 
     /**
@@ -409,56 +489,19 @@ public class GenerationController {
      * The endpoint to add a new element to the collection of existing elements of the uploaded UML diagram and the elements added by the user.
      *
      * @param newElement Map that contains the values of the newly added element.
+     * @param workspace The workspace of the stepper session.
      * @return The HTTP response containing the result of the addition operation as body.
      */
     @PostMapping("/add-new-element")
-    public ResponseEntity<?> addNewElement(@RequestBody Map<String, Object> newElement) {
+    public ResponseEntity<?> addNewElement(@RequestBody Map<String, Object> newElement, Workspace workspace) {
         String className = (String) newElement.get("className");
         List<String> attributes = (List<String>) newElement.get("attributes");
         List<String> methods = (List<String>) newElement.get("methods");
 
-        if (!umlDataStore.containsKey("classes")) {
-            umlDataStore.put("classes", new ArrayList<>());
-        }
-        List<String> classes = (List<String>) umlDataStore.get("classes");
-        classes.add(className);
-
-        if (!umlDataStore.containsKey("attributes")) {
-            umlDataStore.put("attributes", new HashMap<>());
-        }
-        Map<String, List<String>> attributesMap = (Map<String, List<String>>) umlDataStore.get("attributes");
-        attributesMap.put(className, attributes);
-
-        if (!umlDataStore.containsKey("methods")) {
-            umlDataStore.put("methods", new HashMap<>());
+        synchronized (workspace) {
+            workspace.getModel().putClass(className, attributes, methods);
         }
-        Map<String, List<String>> methodsMap = (Map<String, List<String>>) umlDataStore.get("methods");
-        methodsMap.put(className, methods);
 
         return ResponseEntity.ok(Map.of("message", "New element added successfully"));
     }
-
-    /**
-     * Safely casts an object to a map that contains the values of a type of individual UML elements.
-     *
-     * @param data The object that is cast to a map.
-     * @return The map that is the result of the cast operation.
-     * @throws ClassCastException Is returned if an error occurs during the casting process.
-     */
-    private Map<String, List<String>> safelyCastToMap(Object data) {
-        if (data instanceof Map) {
-            return (Map<String, List<String>>) data;
-        } else if (data instanceof List) {
-            Map<String, List<String>> map = new HashMap<>();
-            for (Object item : (List) data) {
-                if (item instanceof String) {
-                    map.put((String) item, new ArrayList<>());
-                }
-            }
-            return map;
-        } else {
-            throw new ClassCastException("Expected Map but found " + (data == null ? "null" : data.getClass().getSimpleName()));
-        }
-    }
 }
-
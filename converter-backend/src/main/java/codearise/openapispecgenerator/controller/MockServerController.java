@@ -1,7 +1,8 @@
 package codearise.openapispecgenerator.controller;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import codearise.openapispecgenerator.workspace.SpecStore;
+import codearise.openapispecgenerator.workspace.Workspace;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -25,29 +26,38 @@ public class MockServerController {
     private Process prismProcess = null;
 
     /**
-     * Toggles the state of the Prism Mock Server.
+     * The store that keeps the generated OpenAPI specifications in memory, from which the paths to test are read.
+     */
+    @Autowired
+    private SpecStore specStore;
+
+    /**
+     * Toggles the state of the Prism Mock Server. The mock server serves the OpenAPI specification of the workspace of the request, so the paths that are tested match the paths that are mocked.
      *
+     * @param workspace The workspace of the stepper session.
      * @return The HTTP response that contains the method that is run based on the current state of the Prism mock server.
      */
     @GetMapping("/toggle-prism-mock")
-    public ResponseEntity<Object> togglePrismMockServer() {
+    public synchronized ResponseEntity<Object> togglePrismMockServer(Workspace workspace) {
         if (prismProcess == null) {
-            return startPrismMockServer();
+            return startPrismMockServer(workspace);
         } else {
-            return restartPrismMockServer();
+            return restartPrismMockServer(workspace);
         }
     }
 
     /**
-     * Starts the Prism Mock Server.
+     * Starts the Prism Mock Server on the OpenAPI specification of a workspace.
      *
+     * @param workspace The workspace of which the OpenAPI specification is mocked.
      * @return The HTTP response that indicates whether the Prism mock server has started.
      */
-    private ResponseEntity<Object> startPrismMockServer() {
+    private ResponseEntity<Object> startPrismMockServer(Workspace workspace) {
         ProcessBuilder processBuilder = new ProcessBuilder();
         try {
+            specStore.flush(workspace);
             String npmPath = Paths.get("node", "npm.cmd").toString();
-            processBuilder.command(npmPath, "run", "start");
+            processBuilder.command(npmPath, "run", "start", "--", workspace.getOutputPath().toAbsolutePath().toString());
             processBuilder.directory(new File("."));
             prismProcess = processBuilder.start();
             logOutput(prismProcess);
@@ -59,13 +69,14 @@ public class MockServerController {
     }
 
     /**
-     * Restarts the Prism Mock Server.
+     * Restarts the Prism Mock Server on the OpenAPI specification of a workspace.
      *
+     * @param workspace The workspace of which the OpenAPI specification is mocked.
      * @return The HTTP response that indicates whether the Prism mock server has restarted.
      */
-    private ResponseEntity<Object> restartPrismMockServer() {
+    private ResponseEntity<Object> restartPrismMockServer(Workspace workspace) {
         stopPrismMockServer();
-        return startPrismMockServer();
+        return startPrismMockServer(workspace);
     }
 
     /**
@@ -108,9 +119,9 @@ public class MockServerController {
     }
 
     @GetMapping("/test-openapi")
-    public ResponseEntity<List<Map<String, Object>>> testOpenApiSpecification() {
+    public ResponseEntity<List<Map<String, Object>>> testOpenApiSpecification(Workspace workspace) {
         List<Map<String, Object>> tests = new ArrayList<>();
-        List<String> paths = extractPathsFromOpenAPISpec("./data/export.yml");
+        List<String> paths = extractPathsFromOpenAPISpec(workspace);
 
         for (String path : paths) {
             addTestCases(tests, path);
@@ -126,15 +137,16 @@ public class MockServerController {
         tests.add(Map.of("name", "Test DELETE " + path, "method", "DELETE", "path", path));
     }
 
-    private List<String> extractPathsFromOpenAPISpec(String filePath) {
+    private List<String> extractPathsFromOpenAPISpec(Workspace workspace) {
         List<String> paths = new ArrayList<>();
         try {
-            ObjectMapper mapper = new ObjectMapper(new com.fasterxml.jackson.dataformat.yaml.YAMLFactory());
-            JsonNode root = mapper.readTree(new File(filePath));
-            JsonNode pathsNode = root.get("paths");
-            if (pathsNode != null) {
-                pathsNode.fieldNames().forEachRemaining(paths::add);
-            }
+            specStore.read(workspace, spec -> {
+                Map<String, Object> pathsNode = (Map<String, Object>) spec.get("paths");
+                if (pathsNode != null) {
+                    paths.addAll(pathsNode.keySet());
+                }
+                return paths;
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -1,40 +1,62 @@
 package codearise.openapispecgenerator.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import codearise.openapispecgenerator.workspace.SpecStore;
+import codearise.openapispecgenerator.workspace.Workspace;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.List;
 import java.util.Map;
 
 /**
  * REST controller for handling the functionalities related to the management of the example values that are generated for the attributes of the classes.
+ * Every endpoint works on the OpenAPI specification of the workspace of the stepper session that sends the request, which is kept in memory by the SpecStore while the user personalises it.
  */
 @RestController
 @CrossOrigin(origins = "http://localhost:4200")
 public class PersonaliseController {
+    /**
+     * The store that keeps the generated OpenAPI specifications in memory and writes the edits back to disk.
+     */
+    private final SpecStore specStore;
 
     /**
-     * The path of the directory in which the generated OpenAPI specification is saved.
+     * The constructor of PersonaliseController.
+     *
+     * @param specStore The store of the generated OpenAPI specifications.
      */
-    private final String outputPath = "./data/export.yml";
+    public PersonaliseController(SpecStore specStore) {
+        this.specStore = specStore;
+    }
 
     /**
      * The endpoint to fetch the generated OpenAPI specification before its example values are modified by the user.
+     * The response contains the ETag of the current version of the specification. If the request contains that ETag in its If-None-Match header, a 304 response without a body is returned instead.
      *
-     * @return a map containing the OpenAPI specification data
+     * @param ifNoneMatch The ETags of the versions of the specification that the client already has, or null if the header is not present.
+     * @param workspace The workspace of the stepper session of which the OpenAPI specification is fetched.
+     * @return The HTTP response containing the OpenAPI specification in the JSON format as body.
      */
     @GetMapping("/personalise")
-    public Map<String, Object> getPersonalisedData() {
+    public ResponseEntity<byte[]> getPersonalisedData(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, Workspace workspace) {
         try {
-            File file = new File(outputPath);
-            if (!file.exists()) {
-                throw new RuntimeException("File not found: " + outputPath);
+            SpecStore.Snapshot snapshot = specStore.read(workspace);
+            if (snapshot.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).cacheControl(CacheControl.noCache()).build();
             }
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-            return mapper.readValue(file, Map.class);
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getETag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot.getJson());
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("File not found: " + e.getFile(), e);
         } catch (Exception e) {
             throw new RuntimeException("Failed to retrieve OpenAPI specification: " + e.getMessage(), e);
         }
@@ -42,47 +64,35 @@ public class PersonaliseController {
 
     /**
      * Updates an example value for an attribute of a class in the generated OpenAPI specification.
+     * The example instance is updated in every place of the specification that contains it, which depending on the example layout are the schema of the class, the examples of the components section, and the examples of the GET operations, including the examples by id of the GET by id operation.
      *
      * @param updateRequest a map containing the update details
+     * @param workspace The workspace of the stepper session of which the OpenAPI specification is updated.
      */
     @PostMapping("/updateExample")
-    public void updateExample(@RequestBody Map<String, Object> updateRequest) {
-        try {
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-            File file = new File(outputPath);
-            Map<String, Object> openApiSpec = mapper.readValue(file, Map.class);
-
-            String className = (String) updateRequest.get("className");
-            String attributeName = (String) updateRequest.get("attributeName");
-            int index = (Integer) updateRequest.get("index");
-            String newValue = (String) updateRequest.get("newValue");
-
-            Map<String, Object> schemas = (Map<String, Object>) ((Map<String, Object>) openApiSpec.get("components")).get("schemas");
-            Map<String, Object> classSchema = (Map<String, Object>) schemas.get(className);
-            Map<String, Object> examples = (Map<String, Object>) classSchema.get("examples");
-            ((Map<String, Object>) ((List<Object>) examples.get("exampleArray")).get(index)).put(attributeName, newValue);
-
-            updatePaths(openApiSpec, className, attributeName, index, newValue);
+    public void updateExample(@RequestBody Map<String, Object> updateRequest, Workspace workspace) {
+        String className = (String) updateRequest.get("className");
+        String attributeName = (String) updateRequest.get("attributeName");
+        int index = (Integer) updateRequest.get("index");
+        String newValue = (String) updateRequest.get("newValue");
 
-            mapper.writeValue(file, openApiSpec);
+        int updated;
+        try {
+            updated = specStore.updateExample(workspace, className, index, attributeName, newValue);
         } catch (IOException e) {
             throw new RuntimeException("Failed to update OpenAPI specification: " + e.getMessage(), e);
         }
+        if (updated == 0) {
+            throw new IllegalArgumentException("The OpenAPI specification does not contain example " + index + " of class " + className);
+        }
     }
 
     @PostMapping("/linkExamples")
-    public void linkExamples(@RequestBody Map<String, Object> linkRequest) {
-        try {
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-            File file = new File(outputPath);
-            Map<String, Object> openApiSpec = mapper.readValue(file, Map.class);
-
-            String className = (String) linkRequest.get("className");
-            List<Map<String, Object>> links = (List<Map<String, Object>>) linkRequest.get("links");
+    public void linkExamples(@RequestBody Map<String, Object> linkRequest, Workspace workspace) {
+        List<Map<String, Object>> links = (List<Map<String, Object>>) linkRequest.get("links");
 
-            addLinkedExamplesEndpoint(openApiSpec, links);
-
-            mapper.writeValue(file, openApiSpec);
+        try {
+            specStore.update(workspace, openApiSpec -> addLinkedExamplesEndpoint(openApiSpec, links));
         } catch (IOException e) {
             throw new RuntimeException("Failed to link examples in OpenAPI specification: " + e.getMessage(), e);
         }
@@ -110,68 +120,4 @@ public class PersonaliseController {
 
         paths.put(path, getEndpoint);
     }
-
-    /**
-     * Updates the paths in the generated OpenAPI specification with the modified example value.
-     *
-     * @param openApiSpec The generated OpenAPI specification.
-     * @param className The name of the class.
-     * @param attributeName The name of the attribute.
-     * @param index The index of the example value.
-     * @param newValue The new example value for the specified attribute.
-     */
-    private void updatePaths(Map<String, Object> openApiSpec, String className, String attributeName, int index, String newValue) {
-        // As this method is complex, and it contains a bug that's causing example values and their paths to only be updated for the GET /class endpoint but not also the GET /class/{id} endpoint, the code for this method has been broken down and comments have been added to various parts of the method for increased readability and debugging.
-
-        // Retrieves the paths section of the OpenAPI specification.
-        Map<String, Object> paths = (Map<String, Object>) openApiSpec.get("paths");
-
-        // Iterates over each path in the paths section.
-        for (Map.Entry<String, Object> pathEntry : paths.entrySet()) {
-            // Retrieves the HTTP methods for the current path.
-            Map<String, Object> methods = (Map<String, Object>) pathEntry.getValue();
-
-            // Iterates over each HTTP method in the current path.
-            for (Map.Entry<String, Object> methodEntry : methods.entrySet()) {
-                // Retrieve the responses section for the current HTTP method
-                Map<String, Object> responses = (Map<String, Object>) ((Map<String, Object>) methodEntry.getValue()).get("responses");
-
-                // Checks if the responses section exists.
-                if (responses != null) {
-                    // Iterates over each response in the responses section.
-                    for (Map.Entry<String, Object> responseEntry : responses.entrySet()) {
-                        // Retrieves the content section for the current response.
-                        Map<String, Object> content = (Map<String, Object>) ((Map<String, Object>) responseEntry.getValue()).get("content");
-
-                        // Checks if the content section exists.
-                        if (content != null) {
-                            // Iterates over each content type in the content section.
-                            for (Map.Entry<String, Object> contentEntry : content.entrySet()) {
-                                // Retrieves the examples section for the current content type.
-                                Map<String, Object> examples = (Map<String, Object>) ((Map<String, Object>) contentEntry.getValue()).get("examples");
-
-                                // Checks if the examples section exists and contains exampleArray.
-                                if (examples != null && examples.get("exampleArray") != null) {
-                                    // Retrieves exampleArray from the examples section.
-                                    List<Object> exampleArray = (List<Object>) ((Map<String, Object>) examples.get("exampleArray")).get("value");
-
-                                    // Checks if exampleArray contains enough elements.
-                                    if (exampleArray.size() > index) {
-                                        // Retrieves the example object at the specified index.
-                                        Map<String, Object> example = (Map<String, Object>) exampleArray.get(index);
-
-                                        // Checks if the example object contains the specified attribute.
-                                        if (example.containsKey(attributeName)) {
-                                            // Updates the contents of the attribute with the newly set example value.
-                                            example.put(attributeName, newValue);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
-}
\ No newline at end of file
+}
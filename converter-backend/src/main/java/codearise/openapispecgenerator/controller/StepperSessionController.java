@@ -1,13 +1,26 @@
 package codearise.openapispecgenerator.controller;
 
+import codearise.openapispecgenerator.entity.SpecBlob;
 import codearise.openapispecgenerator.entity.StepperSession;
 import codearise.openapispecgenerator.service.StepperSessionService;
+import codearise.openapispecgenerator.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST controller for managing the stepper sessions.
@@ -36,13 +49,16 @@ public class StepperSessionController {
     }
 
     /**
-     * The endpoint to retrieve all stepper sessions.
+     * The endpoint to retrieve a page of the summaries of the saved stepper sessions, from the most recently saved stepper session to the oldest one.
      *
-     * @return List that contains all the stepper sessions.
+     * @param before The cursor of the page to retrieve, which is the nextCursor of the previous page. The first page is retrieved if it is not specified.
+     * @param limit The maximum amount of stepper sessions on the page.
+     * @return Map that contains the summaries of the stepper sessions on the page and the cursor of the next page.
      */
     @GetMapping
-    public List<StepperSession> getAllSessions() {
-        return service.getAllSessions();
+    public Map<String, Object> getSessions(@RequestParam(value = "before", required = false) Long before,
+                                           @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return service.getSessionSummaries(before, limit);
     }
 
     /**
@@ -55,4 +71,94 @@ public class StepperSessionController {
     public StepperSession getSession(@PathVariable Long id) {
         return service.getSession(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * The endpoint to delete a specific stepper session. Its UML diagram is deleted as well if no other stepper session refers to it.
+     *
+     * @param id The ID of the stepper session to delete.
+     * @return A response without a body, which has status 204 if the stepper session has been deleted or 404 if it does not exist.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSession(@PathVariable Long id) {
+        if (!service.deleteSession(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * The endpoint to retrieve the OpenAPI specification of a specific stepper session in JSON format.
+     * If the request accepts gzip encoding, the stored compressed specification is sent as it is. Otherwise, the specification is decompressed while it is written to the response, so it is never held uncompressed in memory.
+     * If the request contains the ETag of the specification in its If-None-Match header, a 304 response without a body is returned instead.
+     *
+     * @param id The ID of the stepper session.
+     * @param acceptEncoding The value of the Accept-Encoding header, or null if the header is not present.
+     * @param ifNoneMatch The value of the If-None-Match header, or null if the header is not present.
+     * @return The specification of the stepper session.
+     * @throws IOException Is returned if the compressed specification cannot be read.
+     */
+    @GetMapping("/{id}/spec")
+    public ResponseEntity<Resource> getSpec(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        SpecBlob spec = service.getSpec(id);
+        if (spec == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag = "\"" + spec.getHash() + (gzip ? "-gzip" : "") + "\"";
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(spec.getContent().length)
+                    .body(new ByteArrayResource(spec.getContent()));
+        }
+        InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(spec.getContent()));
+        return response.contentLength(spec.getOriginalSize()).body(new InputStreamResource(inputStream));
+    }
+
+    /**
+     * Checks whether the value of an Accept-Encoding header allows a gzip-encoded response.
+     *
+     * @param acceptEncoding The value of the Accept-Encoding header, or null if the header is not present.
+     * @return Boolean that indicates whether gzip, or any encoding if gzip is not listed, is accepted with a quality value above zero.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+}
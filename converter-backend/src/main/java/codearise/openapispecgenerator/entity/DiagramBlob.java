@@ -0,0 +1,122 @@
+package codearise.openapispecgenerator.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity that represents an uploaded UML diagram in the blob store, which is shared by every stepper session that saved a diagram with the same content.
+ */
+@Entity
+@Table(name = "diagram_blob")
+public class DiagramBlob implements Persistable<String> {
+    /**
+     * The hexadecimal SHA-256 hash of the content of the diagram.
+     */
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    /**
+     * The key of the diagram in the blob store, which is derived from its hash.
+     */
+    @Column(name = "storage_key", nullable = false)
+    private String storageKey;
+
+    /**
+     * The size of the diagram in bytes.
+     */
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    /**
+     * The amount of stepper sessions that refer to the diagram.
+     */
+    @Column(name = "reference_count", nullable = false)
+    private long referenceCount;
+
+    /**
+     * The status of the upload of the diagram to the blob store.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "upload_status", length = 16, nullable = false)
+    private UploadStatus uploadStatus;
+
+    /**
+     * The date/timestamp that indicates when the diagram was first saved.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Indicates whether the diagram has not been stored in the database yet, so that saving it inserts a row and fails if a diagram with the same hash was saved concurrently, instead of overwriting that diagram.
+     */
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and setters for DiagramBlob
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getReferenceCount() {
+        return referenceCount;
+    }
+
+    public void setReferenceCount(long referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+
+    public UploadStatus getUploadStatus() {
+        return uploadStatus;
+    }
+
+    public void setUploadStatus(UploadStatus uploadStatus) {
+        this.uploadStatus = uploadStatus;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
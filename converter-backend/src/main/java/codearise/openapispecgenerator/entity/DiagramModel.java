@@ -0,0 +1,78 @@
+package codearise.openapispecgenerator.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable result of parsing an uploaded UML diagram in a single read, containing its classes, attributes, methods and relationships.
+ */
+public final class DiagramModel {
+    /**
+     * The names of the parsed classes in the order in which they appear in the UML diagram.
+     */
+    private final List<String> classes;
+
+    /**
+     * Map in which the key is the classname and the value contains the attributes of the class.
+     */
+    private final Map<String, List<String>> attributes;
+
+    /**
+     * Map in which the key is the classname and the value contains the methods of the class.
+     */
+    private final Map<String, List<String>> methods;
+
+    /**
+     * The relationships between the parsed classes.
+     */
+    private final List<Relationship> relationships;
+
+    /**
+     * The constructor of DiagramModel. The provided collections are copied, so later changes to them do not affect the model.
+     *
+     * @param classes The names of the parsed classes.
+     * @param attributes Map in which the key is the classname and the value contains the attributes of the class.
+     * @param methods Map in which the key is the classname and the value contains the methods of the class.
+     * @param relationships The relationships between the parsed classes.
+     */
+    public DiagramModel(List<String> classes,
+                        Map<String, List<String>> attributes,
+                        Map<String, List<String>> methods,
+                        List<Relationship> relationships) {
+        this.classes = Collections.unmodifiableList(new ArrayList<>(classes));
+        this.attributes = copyOf(attributes);
+        this.methods = copyOf(methods);
+        this.relationships = Collections.unmodifiableList(new ArrayList<>(relationships));
+    }
+
+    /**
+     * Creates an unmodifiable deep copy of a map in which the key is the classname and the value is a list of class members.
+     *
+     * @param source The map that is copied.
+     * @return The unmodifiable copy of the map.
+     */
+    private static Map<String, List<String>> copyOf(Map<String, List<String>> source) {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        source.forEach((className, members) -> copy.put(className, Collections.unmodifiableList(new ArrayList<>(members))));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    public List<String> getClasses() {
+        return classes;
+    }
+
+    public Map<String, List<String>> getAttributes() {
+        return attributes;
+    }
+
+    public Map<String, List<String>> getMethods() {
+        return methods;
+    }
+
+    public List<Relationship> getRelationships() {
+        return relationships;
+    }
+}
@@ -0,0 +1,94 @@
+package codearise.openapispecgenerator.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+
+/**
+ * Entity that represents a gzip-compressed OpenAPI specification of one or more stepper sessions.
+ * The identifier is the SHA-256 hash of the uncompressed specification, so stepper sessions that saved the same specification share a single blob.
+ */
+@Entity
+@Table(name = "spec_blob")
+public class SpecBlob implements Persistable<String> {
+    /**
+     * The hexadecimal SHA-256 hash of the uncompressed specification.
+     */
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    /**
+     * The gzip-compressed specification.
+     */
+    @Column(name = "content", columnDefinition = "bytea", nullable = false)
+    private byte[] content;
+
+    /**
+     * The size of the uncompressed specification in bytes.
+     */
+    @Column(name = "original_size", nullable = false)
+    private long originalSize;
+
+    /**
+     * The amount of stepper sessions that refer to the specification.
+     */
+    @Column(name = "reference_count", nullable = false)
+    private long referenceCount;
+
+    /**
+     * Indicates whether the specification has not been stored in the database yet, so that saving it inserts a row and fails if a specification with the same hash was saved concurrently, instead of overwriting that specification.
+     */
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and setters for SpecBlob
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public long getOriginalSize() {
+        return originalSize;
+    }
+
+    public void setOriginalSize(long originalSize) {
+        this.originalSize = originalSize;
+    }
+
+    public long getReferenceCount() {
+        return referenceCount;
+    }
+
+    public void setReferenceCount(long referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+}
@@ -1,5 +1,7 @@
 package codearise.openapispecgenerator.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -22,12 +24,57 @@ public class StepperSession {
     private String umlDiagramUrl;
 
     /**
-     * The OpenAPI specification that was generated during a stepper session.
+     * The name of the file of the UML diagram that was uploaded during a stepper session.
+     */
+    @Column(name = "uml_filename")
+    private String umlFilename;
+
+    /**
+     * The SHA-256 hash of the UML diagram, which identifies the diagram in the blob store that is shared by the stepper sessions that saved the same diagram.
+     */
+    @Column(name = "diagram_hash", length = 64)
+    private String diagramHash;
+
+    /**
+     * The status of the upload of the UML diagram to its URL, which is null for stepper sessions that were saved before the diagrams were uploaded in the background.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "upload_status", length = 16)
+    private UploadStatus uploadStatus;
+
+    /**
+     * The uncompressed OpenAPI specification that was generated during a stepper session, which is only present for stepper sessions that were saved before the specifications were stored compressed and have not been migrated yet.
+     * The specification is not included in the response of the endpoints. It is retrieved through the endpoint of the specification instead.
      */
     @Lob
+    @JsonIgnore
     @Column(name = "open_api_spec", columnDefinition = "TEXT")
     private String openApiSpec;
 
+    /**
+     * The SHA-256 hash of the OpenAPI specification, which identifies the compressed specification of the stepper session.
+     */
+    @Column(name = "spec_hash", length = 64)
+    private String specHash;
+
+    /**
+     * The summary of the classes and attributes of the OpenAPI specification, which is computed once when the stepper session is saved so that the list of stepper sessions does not have to read the specification itself.
+     */
+    @Column(name = "summary", columnDefinition = "TEXT")
+    private String summary;
+
+    /**
+     * The amount of classes in the OpenAPI specification.
+     */
+    @Column(name = "class_count")
+    private Integer classCount;
+
+    /**
+     * The total amount of attributes of the classes in the OpenAPI specification.
+     */
+    @Column(name = "attribute_count")
+    private Integer attributeCount;
+
     /**
      * The date/timestamp that indicates when the button to save a stepper session and restart the stepper was clicked in the Manage step of the stepper during a session.
      */
@@ -51,6 +98,30 @@ public class StepperSession {
         this.umlDiagramUrl = umlDiagramUrl;
     }
 
+    public String getUmlFilename() {
+        return umlFilename;
+    }
+
+    public void setUmlFilename(String umlFilename) {
+        this.umlFilename = umlFilename;
+    }
+
+    public String getDiagramHash() {
+        return diagramHash;
+    }
+
+    public void setDiagramHash(String diagramHash) {
+        this.diagramHash = diagramHash;
+    }
+
+    public UploadStatus getUploadStatus() {
+        return uploadStatus;
+    }
+
+    public void setUploadStatus(UploadStatus uploadStatus) {
+        this.uploadStatus = uploadStatus;
+    }
+
     public String getOpenApiSpec() {
         return openApiSpec;
     }
@@ -59,6 +130,38 @@ public class StepperSession {
         this.openApiSpec = openApiSpec;
     }
 
+    public String getSpecHash() {
+        return specHash;
+    }
+
+    public void setSpecHash(String specHash) {
+        this.specHash = specHash;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public Integer getClassCount() {
+        return classCount;
+    }
+
+    public void setClassCount(Integer classCount) {
+        this.classCount = classCount;
+    }
+
+    public Integer getAttributeCount() {
+        return attributeCount;
+    }
+
+    public void setAttributeCount(Integer attributeCount) {
+        this.attributeCount = attributeCount;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
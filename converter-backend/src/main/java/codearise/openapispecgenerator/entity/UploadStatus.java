@@ -0,0 +1,26 @@
+package codearise.openapispecgenerator.entity;
+
+/**
+ * The status of the upload of the UML diagram of a stepper session to S3.
+ */
+public enum UploadStatus {
+    /**
+     * The UML diagram is being uploaded in the background.
+     */
+    PENDING,
+
+    /**
+     * The UML diagram has been uploaded and can be downloaded from its URL.
+     */
+    UPLOADED,
+
+    /**
+     * The UML diagram could not be uploaded after all attempts.
+     */
+    FAILED,
+
+    /**
+     * The UML diagram is no longer referred to by any stepper session and is being deleted from the blob store. This status is only used for the diagrams themselves, not for stepper sessions.
+     */
+    DELETING
+}
@@ -0,0 +1,69 @@
+package codearise.openapispecgenerator.model;
+
+/**
+ * Class that represents an attribute of a class in an uploaded UML diagram.
+ * The declaration of the attribute, such as "+name : String", is parsed once when the attribute is created, so the name and type do not need to be extracted again when the attribute is used.
+ */
+public final class UmlAttribute {
+    private final String declaration;
+    private final String visibility;
+    private final String name;
+    private final String type;
+
+    private UmlAttribute(String declaration, String visibility, String name, String type) {
+        this.declaration = declaration;
+        this.visibility = visibility;
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Parses the declaration of an attribute in the format "+name : type". The visibility symbol is optional, and the type is String if it is missing.
+     *
+     * @param declaration The declaration of the attribute.
+     * @return The parsed attribute.
+     */
+    public static UmlAttribute parse(String declaration) {
+        String text = declaration.trim();
+        String visibility = "";
+        if (!text.isEmpty() && "+-#~".indexOf(text.charAt(0)) >= 0) {
+            visibility = text.substring(0, 1);
+            text = text.substring(1);
+        }
+        int separator = text.indexOf(':');
+        String name = (separator < 0 ? text : text.substring(0, separator)).trim();
+        String type = separator < 0 ? "" : text.substring(separator + 1).trim();
+        return new UmlAttribute(declaration, visibility, name, type.isEmpty() ? "String" : type);
+    }
+
+    /**
+     * Returns the declaration of the attribute as it was uploaded or entered by the user.
+     *
+     * @return The declaration of the attribute.
+     */
+    public String getDeclaration() {
+        return declaration;
+    }
+
+    public String getVisibility() {
+        return visibility;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the UML data type of the attribute.
+     *
+     * @return The UML data type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return declaration;
+    }
+}
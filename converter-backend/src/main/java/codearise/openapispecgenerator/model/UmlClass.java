@@ -0,0 +1,149 @@
+package codearise.openapispecgenerator.model;
+
+import java.util.*;
+
+/**
+ * Class that represents a class in an uploaded UML diagram together with its attributes and operations.
+ * The members are indexed by their declaration, so a member can be found, replaced or removed without scanning the other members.
+ */
+public final class UmlClass {
+    private String name;
+
+    /**
+     * Map in which the key is the declaration of an attribute and the value is the parsed attribute, in the order in which the attributes were declared.
+     */
+    private final Map<String, UmlAttribute> attributes = new LinkedHashMap<>();
+
+    /**
+     * Map in which the key is the declaration of an operation and the value is the parsed operation, in the order in which the operations were declared.
+     */
+    private final Map<String, UmlOperation> operations = new LinkedHashMap<>();
+
+    /**
+     * The constructor of UmlClass.
+     *
+     * @param name The name of the class.
+     */
+    public UmlClass(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the attributes of the class in the order in which they were declared.
+     *
+     * @return The unmodifiable collection of attributes.
+     */
+    public Collection<UmlAttribute> getAttributes() {
+        return Collections.unmodifiableCollection(attributes.values());
+    }
+
+    /**
+     * Returns the operations of the class in the order in which they were declared.
+     *
+     * @return The unmodifiable collection of operations.
+     */
+    public Collection<UmlOperation> getOperations() {
+        return Collections.unmodifiableCollection(operations.values());
+    }
+
+    /**
+     * Returns the declarations of the attributes, which is the format in which the attributes are shown in the stepper.
+     *
+     * @return The list of attribute declarations.
+     */
+    public List<String> getAttributeDeclarations() {
+        return new ArrayList<>(attributes.keySet());
+    }
+
+    /**
+     * Returns the declarations of the operations, which is the format in which the operations are shown in the stepper.
+     *
+     * @return The list of operation declarations.
+     */
+    public List<String> getOperationDeclarations() {
+        return new ArrayList<>(operations.keySet());
+    }
+
+    public boolean hasAttribute(String declaration) {
+        return attributes.containsKey(declaration);
+    }
+
+    public boolean hasOperation(String declaration) {
+        return operations.containsKey(declaration);
+    }
+
+    void addAttribute(String declaration) {
+        attributes.put(declaration, UmlAttribute.parse(declaration));
+    }
+
+    void addOperation(String declaration) {
+        operations.put(declaration, UmlOperation.parse(declaration));
+    }
+
+    void removeAttribute(String declaration) {
+        attributes.remove(declaration);
+    }
+
+    void removeOperation(String declaration) {
+        operations.remove(declaration);
+    }
+
+    /**
+     * Replaces the declaration of an attribute while keeping the position of the attribute in the class.
+     *
+     * @param oldDeclaration The current declaration of the attribute.
+     * @param newDeclaration The new declaration of the attribute.
+     */
+    void replaceAttribute(String oldDeclaration, String newDeclaration) {
+        replace(attributes, oldDeclaration, newDeclaration, UmlAttribute.parse(newDeclaration));
+    }
+
+    /**
+     * Replaces the declaration of an operation while keeping the position of the operation in the class.
+     *
+     * @param oldDeclaration The current declaration of the operation.
+     * @param newDeclaration The new declaration of the operation.
+     */
+    void replaceOperation(String oldDeclaration, String newDeclaration) {
+        replace(operations, oldDeclaration, newDeclaration, UmlOperation.parse(newDeclaration));
+    }
+
+    /**
+     * Replaces an entry of a map of members. The members of this class are copied once to keep the order, so the cost depends on the amount of members of the class and not on the size of the diagram.
+     */
+    private static <T> void replace(Map<String, T> members, String oldKey, String newKey, T member) {
+        if (!members.containsKey(oldKey)) {
+            return;
+        }
+        Map<String, T> reordered = new LinkedHashMap<>();
+        members.forEach((key, value) -> {
+            if (key.equals(oldKey)) {
+                reordered.put(newKey, member);
+            } else if (!key.equals(newKey)) {
+                reordered.put(key, value);
+            }
+        });
+        members.clear();
+        members.putAll(reordered);
+    }
+
+    /**
+     * Creates a copy of the class that is not affected by later modifications of this class.
+     *
+     * @return The copy of the class.
+     */
+    UmlClass copy() {
+        UmlClass copy = new UmlClass(name);
+        copy.attributes.putAll(attributes);
+        copy.operations.putAll(operations);
+        return copy;
+    }
+}
@@ -0,0 +1,296 @@
+package codearise.openapispecgenerator.model;
+
+import codearise.openapispecgenerator.entity.DiagramModel;
+import codearise.openapispecgenerator.entity.Relationship;
+
+import java.util.*;
+
+/**
+ * Class that contains the classes, members and relationships of an uploaded UML diagram together with the modifications done by the user in the stepper.
+ * Classes are indexed by name, and members are indexed by their declaration to the classes that contain them, so renaming, deleting and adding elements only touches the classes that are affected instead of scanning the whole diagram.
+ * The model is not thread-safe. It is owned by the workspace of a stepper session, on which requests synchronize.
+ */
+public final class UmlModel {
+    /**
+     * The classes in the order in which they were uploaded or added.
+     */
+    private final Set<UmlClass> classes = new LinkedHashSet<>();
+
+    /**
+     * Map in which the key is the name of a class and the value is the class.
+     */
+    private final Map<String, UmlClass> classesByName = new HashMap<>();
+
+    /**
+     * Map in which the key is the declaration of an attribute and the value contains the classes that have an attribute with that declaration.
+     */
+    private final Map<String, Set<UmlClass>> attributeOwners = new HashMap<>();
+
+    /**
+     * Map in which the key is the declaration of an operation and the value contains the classes that have an operation with that declaration.
+     */
+    private final Map<String, Set<UmlClass>> operationOwners = new HashMap<>();
+
+    private List<UmlRelationship> relationships = new ArrayList<>();
+
+    /**
+     * Creates the model of a parsed UML diagram.
+     *
+     * @param diagram The parsed UML diagram.
+     * @return The model that contains the classes, members and relationships of the diagram.
+     */
+    public static UmlModel fromDiagram(DiagramModel diagram) {
+        UmlModel model = fromMaps(diagram.getClasses(), diagram.getAttributes(), diagram.getMethods());
+        for (Relationship relationship : diagram.getRelationships()) {
+            model.relationships.add(new UmlRelationship(relationship.getFromClass(), relationship.getToClass(), relationship.getRelationshipType()));
+        }
+        return model;
+    }
+
+    /**
+     * Creates a model from the classnames and the declarations of their members.
+     *
+     * @param classNames The names of the classes.
+     * @param attributes Map in which the key is the classname and the value contains the attribute declarations of the class.
+     * @param methods Map in which the key is the classname and the value contains the operation declarations of the class.
+     * @return The model that contains the classes and their members.
+     */
+    public static UmlModel fromMaps(Collection<String> classNames, Map<String, List<String>> attributes, Map<String, List<String>> methods) {
+        UmlModel model = new UmlModel();
+        for (String className : classNames) {
+            model.putClass(className,
+                    attributes != null ? attributes.get(className) : null,
+                    methods != null ? methods.get(className) : null);
+        }
+        return model;
+    }
+
+    /**
+     * Adds a class to the model. An existing class with the same name is replaced.
+     *
+     * @param name The name of the class.
+     * @param attributes The attribute declarations of the class, or null if it has no attributes.
+     * @param operations The operation declarations of the class, or null if it has no operations.
+     * @return The added class.
+     */
+    public UmlClass putClass(String name, List<String> attributes, List<String> operations) {
+        removeClass(name);
+        UmlClass umlClass = new UmlClass(name);
+        if (attributes != null) {
+            attributes.forEach(umlClass::addAttribute);
+        }
+        if (operations != null) {
+            operations.forEach(umlClass::addOperation);
+        }
+        classes.add(umlClass);
+        classesByName.put(name, umlClass);
+        index(umlClass);
+        return umlClass;
+    }
+
+    /**
+     * Returns the class with the specified name.
+     *
+     * @param name The name of the class.
+     * @return The class, or null if the model does not contain a class with that name.
+     */
+    public UmlClass getUmlClass(String name) {
+        return classesByName.get(name);
+    }
+
+    /**
+     * Returns the classes in the order in which they were uploaded or added.
+     *
+     * @return The unmodifiable collection of classes.
+     */
+    public Collection<UmlClass> getClasses() {
+        return Collections.unmodifiableCollection(classes);
+    }
+
+    /**
+     * Returns the names of the classes in the order in which they were uploaded or added.
+     *
+     * @return The list of classnames.
+     */
+    public List<String> getClassNames() {
+        List<String> names = new ArrayList<>(classes.size());
+        classes.forEach(umlClass -> names.add(umlClass.getName()));
+        return names;
+    }
+
+    public List<UmlRelationship> getRelationships() {
+        return Collections.unmodifiableList(relationships);
+    }
+
+    public void setRelationships(List<UmlRelationship> relationships) {
+        this.relationships = new ArrayList<>(relationships);
+    }
+
+    /**
+     * Renames a class while keeping its position and members.
+     *
+     * @param oldName The current name of the class.
+     * @param newName The new name of the class.
+     * @return Boolean that indicates whether the model contained a class with the current name.
+     * @throws IllegalArgumentException Is returned if the model already contains another class with the new name.
+     */
+    public boolean renameClass(String oldName, String newName) {
+        UmlClass umlClass = classesByName.get(oldName);
+        if (umlClass == null) {
+            return false;
+        }
+        if (!oldName.equals(newName)) {
+            if (classesByName.containsKey(newName)) {
+                throw new IllegalArgumentException("A class with the name " + newName + " already exists.");
+            }
+            classesByName.remove(oldName);
+            umlClass.setName(newName);
+            classesByName.put(newName, umlClass);
+        }
+        return true;
+    }
+
+    /**
+     * Renames every attribute with the specified declaration in the classes that contain it.
+     *
+     * @param oldDeclaration The current declaration of the attribute.
+     * @param newDeclaration The new declaration of the attribute.
+     * @return The amount of classes in which the attribute has been renamed.
+     */
+    public int renameAttribute(String oldDeclaration, String newDeclaration) {
+        Set<UmlClass> owners = attributeOwners.remove(oldDeclaration);
+        if (owners == null) {
+            return 0;
+        }
+        for (UmlClass owner : owners) {
+            owner.replaceAttribute(oldDeclaration, newDeclaration);
+        }
+        attributeOwners.computeIfAbsent(newDeclaration, key -> new LinkedHashSet<>()).addAll(owners);
+        return owners.size();
+    }
+
+    /**
+     * Renames every operation with the specified declaration in the classes that contain it.
+     *
+     * @param oldDeclaration The current declaration of the operation.
+     * @param newDeclaration The new declaration of the operation.
+     * @return The amount of classes in which the operation has been renamed.
+     */
+    public int renameOperation(String oldDeclaration, String newDeclaration) {
+        Set<UmlClass> owners = operationOwners.remove(oldDeclaration);
+        if (owners == null) {
+            return 0;
+        }
+        for (UmlClass owner : owners) {
+            owner.replaceOperation(oldDeclaration, newDeclaration);
+        }
+        operationOwners.computeIfAbsent(newDeclaration, key -> new LinkedHashSet<>()).addAll(owners);
+        return owners.size();
+    }
+
+    /**
+     * Removes a class and its members from the model.
+     *
+     * @param name The name of the class.
+     * @return Boolean that indicates whether the model contained the class.
+     */
+    public boolean removeClass(String name) {
+        UmlClass umlClass = classesByName.remove(name);
+        if (umlClass == null) {
+            return false;
+        }
+        classes.remove(umlClass);
+        unindex(umlClass);
+        return true;
+    }
+
+    /**
+     * Removes every attribute with the specified declaration from the classes that contain it.
+     *
+     * @param declaration The declaration of the attribute.
+     */
+    public void removeAttribute(String declaration) {
+        Set<UmlClass> owners = attributeOwners.remove(declaration);
+        if (owners != null) {
+            owners.forEach(owner -> owner.removeAttribute(declaration));
+        }
+    }
+
+    /**
+     * Removes every operation with the specified declaration from the classes that contain it.
+     *
+     * @param declaration The declaration of the operation.
+     */
+    public void removeOperation(String declaration) {
+        Set<UmlClass> owners = operationOwners.remove(declaration);
+        if (owners != null) {
+            owners.forEach(owner -> owner.removeOperation(declaration));
+        }
+    }
+
+    /**
+     * Creates a copy of the model that is not affected by later modifications of this model, which is used by generation runs that continue while the user keeps editing.
+     *
+     * @return The copy of the model.
+     */
+    public UmlModel copy() {
+        UmlModel copy = new UmlModel();
+        for (UmlClass umlClass : classes) {
+            UmlClass classCopy = umlClass.copy();
+            copy.classes.add(classCopy);
+            copy.classesByName.put(classCopy.getName(), classCopy);
+            copy.index(classCopy);
+        }
+        copy.relationships = new ArrayList<>(relationships);
+        return copy;
+    }
+
+    /**
+     * Converts the model to the format in which the parsed elements are sent to the stepper, which contains the classnames, the member declarations per class and the relationships.
+     *
+     * @return Map that contains the elements of the model.
+     */
+    public Map<String, Object> toElements() {
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        Map<String, List<String>> methods = new LinkedHashMap<>();
+        for (UmlClass umlClass : classes) {
+            attributes.put(umlClass.getName(), umlClass.getAttributeDeclarations());
+            methods.put(umlClass.getName(), umlClass.getOperationDeclarations());
+        }
+
+        Map<String, Object> elements = new LinkedHashMap<>();
+        elements.put("classes", getClassNames());
+        elements.put("attributes", attributes);
+        elements.put("methods", methods);
+        elements.put("relationships", new ArrayList<>(relationships));
+        return elements;
+    }
+
+    private void index(UmlClass umlClass) {
+        for (UmlAttribute attribute : umlClass.getAttributes()) {
+            attributeOwners.computeIfAbsent(attribute.getDeclaration(), key -> new LinkedHashSet<>()).add(umlClass);
+        }
+        for (UmlOperation operation : umlClass.getOperations()) {
+            operationOwners.computeIfAbsent(operation.getDeclaration(), key -> new LinkedHashSet<>()).add(umlClass);
+        }
+    }
+
+    private void unindex(UmlClass umlClass) {
+        for (UmlAttribute attribute : umlClass.getAttributes()) {
+            removeOwner(attributeOwners, attribute.getDeclaration(), umlClass);
+        }
+        for (UmlOperation operation : umlClass.getOperations()) {
+            removeOwner(operationOwners, operation.getDeclaration(), umlClass);
+        }
+    }
+
+    private static void removeOwner(Map<String, Set<UmlClass>> owners, String declaration, UmlClass umlClass) {
+        Set<UmlClass> classes = owners.get(declaration);
+        if (classes != null) {
+            classes.remove(umlClass);
+            if (classes.isEmpty()) {
+                owners.remove(declaration);
+            }
+        }
+    }
+}
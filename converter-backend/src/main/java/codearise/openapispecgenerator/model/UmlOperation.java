@@ -0,0 +1,47 @@
+package codearise.openapispecgenerator.model;
+
+/**
+ * Class that represents an operation of a class in an uploaded UML diagram, such as "+getName() : String".
+ */
+public final class UmlOperation {
+    private final String declaration;
+    private final String name;
+
+    private UmlOperation(String declaration, String name) {
+        this.declaration = declaration;
+        this.name = name;
+    }
+
+    /**
+     * Parses the declaration of an operation. The name is the part of the declaration before the parameter list, without the visibility symbol.
+     *
+     * @param declaration The declaration of the operation.
+     * @return The parsed operation.
+     */
+    public static UmlOperation parse(String declaration) {
+        String text = declaration.trim();
+        if (!text.isEmpty() && "+-#~".indexOf(text.charAt(0)) >= 0) {
+            text = text.substring(1);
+        }
+        int parameters = text.indexOf('(');
+        return new UmlOperation(declaration, (parameters < 0 ? text : text.substring(0, parameters)).trim());
+    }
+
+    /**
+     * Returns the declaration of the operation as it was uploaded or entered by the user.
+     *
+     * @return The declaration of the operation.
+     */
+    public String getDeclaration() {
+        return declaration;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return declaration;
+    }
+}
@@ -0,0 +1,35 @@
+package codearise.openapispecgenerator.model;
+
+/**
+ * Class that represents a relationship between two classes in an uploaded UML diagram or a relationship that has been added by the user.
+ */
+public final class UmlRelationship {
+    private final String fromClass;
+    private final String toClass;
+    private final String relationshipType;
+
+    /**
+     * The constructor of UmlRelationship.
+     *
+     * @param fromClass The name of the class at which the relationship starts.
+     * @param toClass The name of the class at which the relationship ends.
+     * @param relationshipType The type of the relationship, such as "Association" or "Inheritance".
+     */
+    public UmlRelationship(String fromClass, String toClass, String relationshipType) {
+        this.fromClass = fromClass;
+        this.toClass = toClass;
+        this.relationshipType = relationshipType;
+    }
+
+    public String getFromClass() {
+        return fromClass;
+    }
+
+    public String getToClass() {
+        return toClass;
+    }
+
+    public String getRelationshipType() {
+        return relationshipType;
+    }
+}
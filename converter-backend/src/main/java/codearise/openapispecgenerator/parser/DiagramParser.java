@@ -1,8 +1,11 @@
 package codearise.openapispecgenerator.parser;
 
+import codearise.openapispecgenerator.entity.DiagramModel;
 import codearise.openapispecgenerator.entity.Relationship;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +13,15 @@ import java.util.Map;
  * The interface which parser classes inherit from.
  */
 public interface DiagramParser {
+    /**
+     * Parses the classes, attributes, methods and relationships of the diagram from the provided InputStream in a single read.
+     *
+     * @param inputStream The UML diagram that is being processed as input.
+     * @return The immutable model that contains all the parsed elements of the UML diagram.
+     * @throws Exception Is returned if an error occurs during the parsing process.
+     */
+    DiagramModel parseDiagram(InputStream inputStream) throws Exception;
+
     /**
      * Parses the diagram from the provided InputStream.
      *
@@ -17,7 +29,13 @@ public interface DiagramParser {
      * @return Map in which the key is the classname and the value contains the class details.
      * @throws Exception Is returned if an error occurs during the parsing process.
      */
-    Map<String, List<String>> parse(InputStream inputStream) throws Exception;
+    default Map<String, List<String>> parse(InputStream inputStream) throws Exception {
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        for (String className : parseDiagram(inputStream).getClasses()) {
+            classes.put(className, new ArrayList<>());
+        }
+        return classes;
+    }
 
     /**
      * Parses the attributes from the provided InputStream.
@@ -26,7 +44,9 @@ public interface DiagramParser {
      * @return Map in which the key is the classname and the value is the attribute.
      * @throws Exception Is returned if an error occurs during the parsing process.
      */
-    Map<String, List<String>> parseAttributes(InputStream inputStream) throws Exception;
+    default Map<String, List<String>> parseAttributes(InputStream inputStream) throws Exception {
+        return parseDiagram(inputStream).getAttributes();
+    }
 
     /**
      * Parses the methods from the provided InputStream.
@@ -35,7 +55,18 @@ public interface DiagramParser {
      * @return Map in which the key is the classname and the value is the method.
      * @throws Exception Is returned if an error occurs during the parsing process.
      */
-    Map<String, List<String>> parseMethods(InputStream inputStream) throws Exception;
+    default Map<String, List<String>> parseMethods(InputStream inputStream) throws Exception {
+        return parseDiagram(inputStream).getMethods();
+    }
 
-    List<Relationship> parseRelationships(InputStream inputStream) throws Exception;
+    /**
+     * Parses the relationships between the classes from the provided InputStream.
+     *
+     * @param inputStream The UML diagram that is being processed as input.
+     * @return List that contains the relationships between the classes.
+     * @throws Exception Is returned if an error occurs during the parsing process.
+     */
+    default List<Relationship> parseRelationships(InputStream inputStream) throws Exception {
+        return parseDiagram(inputStream).getRelationships();
+    }
 }
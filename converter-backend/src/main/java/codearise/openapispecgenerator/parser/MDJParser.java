@@ -1,142 +1,270 @@
 package codearise.openapispecgenerator.parser;
 
+import codearise.openapispecgenerator.entity.DiagramModel;
 import codearise.openapispecgenerator.entity.Relationship;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import codearise.openapispecgenerator.util.JsonMappers;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Implementation of the DiagramParser interface for MDJ diagrams.
+ * The StarUML project is read as a stream of Jackson tokens, so classes and associations are emitted as they are encountered and parts of the project that are not needed, such as diagram views, are skipped without being materialised.
  */
 public class MDJParser implements DiagramParser {
     /**
-     * Parses the uploaded UML diagram to extract its classes.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value contains the class details.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * The factory that creates the streaming JSON parsers.
      */
-    @Override
-    public Map<String, List<String>> parse(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "class");
-    }
+    private static final JsonFactory JSON_FACTORY = JsonMappers.shared().jsonFactory();
 
     /**
-     * Parses the uploaded UML diagram to extract its attributes.
+     * Parses the uploaded UML diagram to extract its classes, attributes, methods and relationships in a single read.
      *
      * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the attribute.
+     * @return The immutable model that contains all the parsed elements of the UML diagram.
      * @throws Exception Is returned if an error occurs during the parsing process.
      */
     @Override
-    public Map<String, List<String>> parseAttributes(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "attribute");
+    public DiagramModel parseDiagram(InputStream inputStream) throws Exception {
+        ParseResult result = new ParseResult();
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readElement(parser, result);
+            }
+        }
+        return result.toDiagramModel();
     }
 
     /**
-     * Parses the uploaded UML diagram to extract its methods.
+     * Reads a single model element and the elements it owns. The parser is positioned on the start of the element and is left on its end.
+     * Only the fields of the element that are needed for the diagram model are read, all other fields are skipped.
      *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the method.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * @param parser The streaming parser that is positioned on the start of the element.
+     * @param result The result to which the parsed classes and associations are added.
+     * @throws IOException Is returned if the element cannot be read.
      */
-    @Override
-    public Map<String, List<String>> parseMethods(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "method");
+    private void readElement(JsonParser parser, ParseResult result) throws IOException {
+        String type = null;
+        String id = null;
+        String name = "";
+        List<String[]> attributes = new ArrayList<>();
+        List<String> operations = new ArrayList<>();
+        String end1 = "";
+        String end2 = "";
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "_type":
+                    type = parser.getValueAsString();
+                    break;
+                case "_id":
+                    id = parser.getValueAsString();
+                    break;
+                case "name":
+                    name = scalarText(parser);
+                    break;
+                case "attributes":
+                    readMembers(parser, attributes, true);
+                    break;
+                case "operations":
+                    List<String[]> members = new ArrayList<>();
+                    readMembers(parser, members, false);
+                    members.forEach(member -> operations.add(member[0]));
+                    break;
+                case "end1":
+                    end1 = readEndReference(parser);
+                    break;
+                case "end2":
+                    end2 = readEndReference(parser);
+                    break;
+                case "ownedElements":
+                    if (token == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                                readElement(parser, result);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
+        if ("UMLClass".equals(type)) {
+            result.addClass(id, name, attributes, operations);
+        } else if ("UMLAssociation".equals(type)) {
+            result.relations.add(new String[]{end1, end2, name});
+        }
     }
 
     /**
-     * Parses the uploaded UML diagram to extract its elements and distinguishes them based on their types.
+     * Reads an array of attributes or operations. For each member its name and, for attributes, its type is kept.
      *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @param elementType The type of element to parse.
-     * @return Map in which the key is the classname and the value is the element.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * @param parser The streaming parser that is positioned on the start of the array.
+     * @param members The list to which the name and type of each member are added.
+     * @param readType Boolean that indicates whether the type of the member is read.
+     * @throws IOException Is returned if the members cannot be read.
      */
-    private Map<String, List<String>> parseElementsByType(InputStream inputStream, String elementType) throws Exception {
-        Map<String, List<String>> elements = new HashMap<>();
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode rootNode = objectMapper.readTree(inputStream);
-        JsonNode ownedElements = rootNode.path("ownedElements");
-
-        for (JsonNode ownedElement : ownedElements) {
-            JsonNode modelElements = ownedElement.path("ownedElements");
-            for (JsonNode modelElement : modelElements) {
-                if ("UMLClass".equals(modelElement.path("_type").asText())) {
-                    String className = modelElement.path("name").asText();
-                    elements.computeIfAbsent(className, k -> new ArrayList<>());
-                    addDetails(modelElement, elements, className, elementType);
+    private void readMembers(JsonParser parser, List<String[]> members, boolean readType) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String memberName = "";
+            String memberType = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("name".equals(field)) {
+                    memberName = scalarText(parser);
+                } else if (readType && "type".equals(field)) {
+                    memberType = parser.currentToken() == JsonToken.START_OBJECT ? ParseResult.REFERENCE_PREFIX + readReference(parser) : scalarText(parser);
+                } else {
+                    parser.skipChildren();
                 }
             }
+            members.add(new String[]{memberName, memberType});
         }
-        return elements;
     }
 
     /**
-     * Adds details to parsed elements, such as brackets for methods and data types for attributes, to distinguish them.
+     * Reads the end of an association and returns the id of the element it references.
      *
-     * @param modelElement The model element node in the Jackson tree.
-     * @param elements Map in which the key is the classname and the value is the element.
-     * @param className The classname linked to the traversed element.
-     * @param type The type of the traversed element.
+     * @param parser The streaming parser that is positioned on the start of the association end.
+     * @return The id of the referenced element or an empty string if the end does not reference an element.
+     * @throws IOException Is returned if the association end cannot be read.
      */
-    private void addDetails(JsonNode modelElement, Map<String, List<String>> elements, String className, String type) {
-        if (type.equals("attribute")) {
-            JsonNode attributes = modelElement.path("attributes");
-            for (JsonNode attribute : attributes) {
-                String attributeName = attribute.path("name").asText();
-                String attributeType = attribute.path("type").asText();
-                if (attributeType.isEmpty()) {
-                    attributeType = "String";
-                }
-                elements.computeIfAbsent(className, k -> new ArrayList<>())
-                        .add("+" + attributeName + " : " + attributeType);
+    private String readEndReference(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return scalarText(parser);
+        }
+        String reference = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("reference".equals(field)) {
+                reference = token == JsonToken.START_OBJECT ? readReference(parser) : scalarText(parser);
+            } else {
+                parser.skipChildren();
             }
-        } else if (type.equals("method")) {
-            JsonNode operations = modelElement.path("operations");
-            for (JsonNode operation : operations) {
-                String methodName = operation.path("name").asText();
-                elements.computeIfAbsent(className, k -> new ArrayList<>())
-                        .add("+" + methodName + "()");
+        }
+        return reference;
+    }
+
+    /**
+     * Reads a reference object of the form {"$ref": "id"}.
+     *
+     * @param parser The streaming parser that is positioned on the start of the reference object.
+     * @return The referenced id or an empty string if the object has no reference.
+     * @throws IOException Is returned if the reference cannot be read.
+     */
+    private String readReference(JsonParser parser) throws IOException {
+        String reference = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("$ref".equals(field)) {
+                reference = scalarText(parser);
+            } else {
+                parser.skipChildren();
             }
         }
+        return reference;
     }
 
-    @Override
-    public List<Relationship> parseRelationships(InputStream inputStream) throws Exception {
-        List<Relationship> relationships = new ArrayList<>();
+    /**
+     * Returns the text of the current scalar value, or skips the current object or array and returns an empty string.
+     *
+     * @param parser The streaming parser that is positioned on a value.
+     * @return The text of the value.
+     * @throws IOException Is returned if the value cannot be read.
+     */
+    private String scalarText(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.currentToken() == JsonToken.VALUE_NULL ? "" : parser.getText();
+    }
+
+    /**
+     * The classes and associations that have been read so far. References between elements are resolved once the whole project has been read.
+     */
+    private static final class ParseResult {
+        /**
+         * The prefix that marks an attribute type that still needs to be resolved from a reference.
+         */
+        private static final String REFERENCE_PREFIX = "$ref:";
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode rootNode = objectMapper.readTree(inputStream);
-        JsonNode ownedElements = rootNode.path("ownedElements");
+        private final Map<String, List<String>> attributes = new LinkedHashMap<>();
+        private final Map<String, List<String>> methods = new LinkedHashMap<>();
+        private final Map<String, String> idToClassName = new HashMap<>();
+        private final List<String[]> relations = new ArrayList<>();
 
-        for (JsonNode ownedElement : ownedElements) {
-            findAssociations(ownedElement, relationships);
+        private void addClass(String id, String className, List<String[]> classAttributes, List<String> operations) {
+            if (id != null) {
+                idToClassName.put(id, className);
+            }
+            List<String> attributeList = attributes.computeIfAbsent(className, k -> new ArrayList<>());
+            for (String[] attribute : classAttributes) {
+                attributeList.add("+" + attribute[0] + " : " + attribute[1]);
+            }
+            List<String> methodList = methods.computeIfAbsent(className, k -> new ArrayList<>());
+            for (String operation : operations) {
+                methodList.add("+" + operation + "()");
+            }
         }
 
-        return relationships;
-    }
+        private DiagramModel toDiagramModel() {
+            attributes.values().forEach(attributeList -> attributeList.replaceAll(this::resolveAttributeType));
 
-    private void findAssociations(JsonNode node, List<Relationship> relationships) {
-        if (node.isArray()) {
-            for (JsonNode element : node) {
-                findAssociations(element, relationships);
+            List<Relationship> relationships = new ArrayList<>();
+            for (String[] relation : relations) {
+                relationships.add(new Relationship(
+                        idToClassName.getOrDefault(relation[0], relation[0]),
+                        idToClassName.getOrDefault(relation[1], relation[1]),
+                        relation[2]));
             }
-        } else {
-            if ("UMLAssociation".equals(node.path("_type").asText())) {
-                String fromClass = node.path("end1").path("reference").asText();
-                String toClass = node.path("end2").path("reference").asText();
-                String relationshipType = node.path("name").asText();
+            return new DiagramModel(new ArrayList<>(attributes.keySet()), attributes, methods, relationships);
+        }
 
-                relationships.add(new Relationship(fromClass, toClass, relationshipType));
+        /**
+         * Resolves the type of an attribute. Types that reference another class are replaced by its classname and missing types default to String.
+         *
+         * @param attribute The attribute in the format "+name : type".
+         * @return The attribute with its resolved type.
+         */
+        private String resolveAttributeType(String attribute) {
+            int separator = attribute.indexOf(" : ");
+            String type = attribute.substring(separator + 3);
+            if (type.startsWith(REFERENCE_PREFIX)) {
+                type = idToClassName.getOrDefault(type.substring(REFERENCE_PREFIX.length()), "");
             }
-            if (node.has("ownedElements")) {
-                findAssociations(node.get("ownedElements"), relationships);
+            if (type.isEmpty()) {
+                type = "String";
             }
+            return attribute.substring(0, separator + 3) + type;
         }
     }
 }
@@ -1,138 +1,271 @@
 package codearise.openapispecgenerator.parser;
 
+import codearise.openapispecgenerator.entity.DiagramModel;
 import codearise.openapispecgenerator.entity.Relationship;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of the DiagramParser interface for PUML diagrams.
+ * Every line is classified once by its first keyword or character, and only lines that can describe a declaration or a relationship are matched against one of the precompiled patterns below.
  */
 public class PUMLParser implements DiagramParser {
     /**
-     * Parses the uploaded UML diagram to extract its classes.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value contains the class details.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * Matches the declaration of a class, abstract class, interface or enum, with an optional alias, generic parameters, stereotypes, extends or implements clause and opening or closing brace.
      */
-    @Override
-    public Map<String, List<String>> parse(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "class");
-    }
+    private static final Pattern DECLARATION = Pattern.compile(
+            "^(?:abstract\\s+class|abstract|class|interface|enum|entity)\\s+(\"[^\"]+\"|[\\w.$]+)(?:\\s+as\\s+(\"[^\"]+\"|[\\w.$]+))?\\s*(?:<[^<>]*>)?\\s*(?:<<[^>]*>>\\s*)*(?:(?:extends|implements)\\s+[^{}]+?\\s*)?(?:#\\S+\\s*)?(\\{)?\\s*(\\})?\\s*$");
 
     /**
-     * Parses the uploaded UML diagram to extract its attributes.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the attribute.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * Matches the declaration of a package or namespace, which groups classes but is not a class itself.
      */
-    @Override
-    public Map<String, List<String>> parseAttributes(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "attribute");
-    }
+    private static final Pattern PACKAGE = Pattern.compile("^(?:package|namespace)\\b[^{]*(\\{)?\\s*$");
 
     /**
-     * Parses the uploaded UML diagram to extract its methods.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the method.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * Matches a relationship between two classes with optional cardinalities and label, for example: Library "1" *-- "many" Book : contains
+     * The arrow is captured as its left head, its body (which may contain a direction such as -up-) and its right head.
+     * A classname never ends with a dot, so a dotted arrow without spaces around it, for example A..>B, is not taken as part of the classname.
      */
-    @Override
-    public Map<String, List<String>> parseMethods(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "method");
-    }
+    private static final Pattern RELATIONSHIP = Pattern.compile(
+            "^(\"[^\"]+\"|[\\w$]+(?:\\.[\\w$]+)*)\\s*(?:\"[^\"]*\"\\s*)?(<\\||<|\\*|o)?([-.]+(?:(?:left|right|up|down|le|ri|do|l|r|u|d)[-.]+)?)(\\|>|>|\\*|o)?\\s*(?:\"[^\"]*\"\\s*)?(\"[^\"]+\"|[\\w$]+(?:\\.[\\w$]+)*)\\s*(?::\\s*(.*))?$");
 
     /**
-     * Parses the uploaded UML diagram to extract its elements and distinguishes them based on their types.
+     * Parses the uploaded UML diagram to extract its classes, attributes, methods and relationships in a single read.
      *
      * @param inputStream The UML diagram that is being processed as input.
-     * @param elementType The type of the parsed element.
-     * @return Map in which the key is the classname and the value is the element.
+     * @return The immutable model that contains all the parsed elements of the UML diagram.
      * @throws Exception Is returned if an error occurs during the parsing process.
      */
-    private Map<String, List<String>> parseElementsByType(InputStream inputStream, String elementType) throws Exception {
-        Map<String, List<String>> elements = new HashMap<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+    @Override
+    public DiagramModel parseDiagram(InputStream inputStream) throws Exception {
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        Map<String, List<String>> methods = new LinkedHashMap<>();
+        Map<String, String> aliases = new HashMap<>();
+        List<String[]> relations = new ArrayList<>();
+
+        Matcher declaration = DECLARATION.matcher("");
+        Matcher packageDeclaration = PACKAGE.matcher("");
+        Matcher relationship = RELATIONSHIP.matcher("");
+
+        // The open blocks, in which a classname marks the body of a class and an empty string marks a package or an enum body.
+        Deque<String> blocks = new ArrayDeque<>();
+        boolean inNote = false;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
             String line;
-            String currentClass = null;
             while ((line = reader.readLine()) != null) {
                 line = line.trim();
-                if (line.startsWith("class")) {
-                    currentClass = extractClassName(line);
-                    elements.computeIfAbsent(currentClass, k -> new ArrayList<>());
-                } else if (currentClass != null && !line.startsWith("'")) {
-                    if (elementType.equals("attribute") && line.contains(":") && !line.contains("(")) {
-                        String attributeName = line.substring(0, line.indexOf(':')).trim();
-                        String attributeType = line.substring(line.indexOf(':') + 1).trim();
-                        elements.get(currentClass).add(attributeName + " : " + attributeType);
-                    } else if (elementType.equals("method") && line.contains("(") && line.contains(")")) {
-                        String methodName = line.substring(0, line.indexOf('(')).trim();
-                        elements.get(currentClass).add(methodName + "()");
+                if (line.isEmpty() || line.charAt(0) == '\'' || line.charAt(0) == '@') {
+                    continue;
+                }
+                if (inNote) {
+                    inNote = !line.startsWith("end note");
+                    continue;
+                }
+
+                String currentClass = blocks.peek();
+                if (currentClass != null && !currentClass.isEmpty()) {
+                    if (line.charAt(0) == '}') {
+                        blocks.pop();
+                    } else {
+                        addMember(line, attributes.get(currentClass), methods.get(currentClass));
                     }
+                    continue;
+                }
+
+                switch (firstWord(line)) {
+                    case "abstract":
+                    case "class":
+                    case "interface":
+                    case "enum":
+                    case "entity":
+                        if (declaration.reset(line).matches()) {
+                            String className = simpleName(unquote(declaration.group(1)));
+                            if (declaration.group(2) != null) {
+                                aliases.put(unquote(declaration.group(2)), className);
+                            }
+                            attributes.computeIfAbsent(className, k -> new ArrayList<>());
+                            methods.computeIfAbsent(className, k -> new ArrayList<>());
+                            if (declaration.group(3) != null && declaration.group(4) == null) {
+                                blocks.push(line.startsWith("enum") ? "" : className);
+                            }
+                        }
+                        break;
+                    case "package":
+                    case "namespace":
+                        if (packageDeclaration.reset(line).matches() && packageDeclaration.group(1) != null) {
+                            blocks.push("");
+                        }
+                        break;
+                    case "note":
+                        inNote = line.indexOf(':') < 0 && line.indexOf('"') < 0;
+                        break;
+                    case "}":
+                        if (!blocks.isEmpty()) {
+                            blocks.pop();
+                        }
+                        break;
+                    default:
+                        if (relationship.reset(line).matches()) {
+                            relations.add(toRelation(relationship));
+                        }
+                        break;
                 }
             }
         }
-        return elements;
+
+        List<Relationship> relationships = new ArrayList<>(relations.size());
+        for (String[] relation : relations) {
+            relationships.add(new Relationship(
+                    aliases.getOrDefault(relation[0], relation[0]),
+                    aliases.getOrDefault(relation[1], relation[1]),
+                    relation[2]));
+        }
+
+        return new DiagramModel(new ArrayList<>(attributes.keySet()), attributes, methods, relationships);
     }
 
-    @Override
-    public List<Relationship> parseRelationships(InputStream inputStream) throws Exception {
-        List<Relationship> relationships = new ArrayList<>();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-
-        String line;
-        while ((line = reader.readLine()) != null) {
-            line = line.trim();
-
-            if (line.matches(".+\\s+\".*\"\\s+[.-]{2,3}\\s+\".*\"\\s+.+\\s*:\\s*.+")) {
-                String[] parts = line.split("\\s+[.-]{2,3}\\s+");
-                if (parts.length == 2) {
-                    String fromPart = parts[0].trim();
-                    String toPart = parts[1].trim();
-
-                    String fromClass = extractClassName(fromPart);
-                    String toClass = extractClassName(toPart);
-
-                    String relationshipName = "";
-                    if (toPart.contains(":")) {
-                        relationshipName = toPart.substring(toPart.indexOf(":") + 1).trim();
-                        toClass = toClass.substring(0, toClass.indexOf(":")).trim();
-                    }
+    /**
+     * Adds a line from the body of a class to its attributes or methods. Lines with parentheses are methods, lines with a colon or of the form "Type name" are attributes.
+     * Members without a visibility modifier are treated as public.
+     *
+     * @param line The trimmed line from the body of the class.
+     * @param attributes The list to which the attributes of the class are added.
+     * @param methods The list to which the methods of the class are added.
+     */
+    private void addMember(String line, List<String> attributes, List<String> methods) {
+        String member = stripModifiers(line);
+        if (member.isEmpty() || member.startsWith("..") || member.startsWith("--") || member.startsWith("==") || member.startsWith("__")) {
+            return;
+        }
 
-                    relationships.add(new Relationship(fromClass, toClass, relationshipName));
-                }
-            } else if (line.matches(".+\\s+[.-]{2,3}\\s+.+")) {
-                String[] parts = line.split("\\s+[.-]{2,3}\\s+");
-                if (parts.length == 2) {
-                    String fromClass = extractClassName(parts[0].trim());
-                    String toClass = extractClassName(parts[1].trim());
+        char visibility = '+';
+        if ("+-#~".indexOf(member.charAt(0)) >= 0) {
+            visibility = member.charAt(0);
+            member = stripModifiers(member.substring(1));
+        }
 
-                    relationships.add(new Relationship(fromClass, toClass, "Association"));
-                }
+        int parenthesis = member.indexOf('(');
+        if (parenthesis >= 0) {
+            if (member.indexOf(')', parenthesis) > 0) {
+                methods.add(visibility + member.substring(0, parenthesis).trim() + "()");
             }
+            return;
+        }
+
+        int colon = member.indexOf(':');
+        if (colon >= 0) {
+            attributes.add(visibility + member.substring(0, colon).trim() + " : " + member.substring(colon + 1).trim());
+            return;
+        }
+
+        int space = member.lastIndexOf(' ');
+        if (space > 0) {
+            attributes.add(visibility + member.substring(space + 1) + " : " + member.substring(0, space).trim());
         }
-        return relationships;
     }
 
     /**
-     * Extracts the class name from a potentially complex string, such as one containing cardinalities or other annotations.
+     * Converts a matched relationship line into the names of the classes it connects and the type of the relationship.
+     * Arrows with a head on the left side, such as &lt;|-- and &lt;--, point from the right class to the left class.
+     * Composition and aggregation start at the class on the side of the diamond.
      *
-     * @param rawInput The raw input string to process.
-     * @return The extracted class name.
+     * @param matcher The matcher that matched the relationship line.
+     * @return Array that contains the from class, the to class and the relationship type.
      */
-    private String extractClassName(String rawInput) {
-        if (rawInput.contains("\"")) {
-            return rawInput.replaceAll("\"[^\"]*\"", "").trim();
+    private String[] toRelation(Matcher matcher) {
+        String left = simpleName(unquote(matcher.group(1)));
+        String leftHead = matcher.group(2);
+        boolean dotted = matcher.group(3).indexOf('.') >= 0;
+        String rightHead = matcher.group(4);
+        String right = simpleName(unquote(matcher.group(5)));
+        String label = matcher.group(6) != null ? matcher.group(6).trim() : "";
+
+        String type;
+        boolean reversed;
+        if ("<|".equals(leftHead) || "|>".equals(rightHead)) {
+            type = dotted ? "Realization" : "Inheritance";
+            reversed = "<|".equals(leftHead);
+        } else if ("*".equals(leftHead) || "*".equals(rightHead)) {
+            type = "Composition";
+            reversed = "*".equals(rightHead);
+        } else if ("o".equals(leftHead) || "o".equals(rightHead)) {
+            type = "Aggregation";
+            reversed = "o".equals(rightHead);
+        } else {
+            type = dotted ? "Dependency" : "Association";
+            reversed = "<".equals(leftHead) && rightHead == null;
         }
-        return rawInput;
+
+        String relationshipName = label.isEmpty() ? type : label;
+        return reversed ? new String[]{right, left, relationshipName} : new String[]{left, right, relationshipName};
+    }
+
+    /**
+     * Returns the first word of a line, or the first character if the line starts with a brace.
+     *
+     * @param line The trimmed, non-empty line.
+     * @return The first word of the line.
+     */
+    private String firstWord(String line) {
+        if (line.charAt(0) == '}' || line.charAt(0) == '{') {
+            return line.substring(0, 1);
+        }
+        int end = 0;
+        while (end < line.length() && Character.isLetter(line.charAt(end))) {
+            end++;
+        }
+        return line.substring(0, end);
+    }
+
+    /**
+     * Removes the {static}, {abstract}, {field} and {method} modifiers from the start of a member.
+     *
+     * @param member The member from the body of a class.
+     * @return The member without its modifiers.
+     */
+    private String stripModifiers(String member) {
+        String result = member.trim();
+        while (result.startsWith("{")) {
+            int end = result.indexOf('}');
+            if (end < 0) {
+                break;
+            }
+            result = result.substring(end + 1).trim();
+        }
+        return result;
+    }
+
+    /**
+     * Removes the surrounding quotes from a name.
+     *
+     * @param name The name, which may be quoted.
+     * @return The name without quotes.
+     */
+    private String unquote(String name) {
+        return name.length() > 1 && name.charAt(0) == '"' ? name.substring(1, name.length() - 1) : name;
+    }
+
+    /**
+     * Removes the package from a fully qualified classname.
+     *
+     * @param name The classname, which may be qualified with a package.
+     * @return The classname without its package.
+     */
+    private String simpleName(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && dot < name.length() - 1 ? name.substring(dot + 1) : name;
     }
 }
@@ -1,176 +1,197 @@
 package codearise.openapispecgenerator.parser;
 
+import codearise.openapispecgenerator.entity.DiagramModel;
 import codearise.openapispecgenerator.entity.Relationship;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Implementation of the DiagramParser interface for UXF diagrams.
+ * The diagram is read with a StAX stream reader in one forward pass, so only the parsed classes and the endpoints of the relations are kept in memory instead of a DOM tree of the whole document.
  */
 public class UXFParser implements DiagramParser {
 
     /**
-     * Parses the uploaded UML diagram to extract its classes.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value contains the class details.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * The factory that creates the StAX stream readers. DTDs and external entities are disabled, as UXF files never need them.
      */
-    @Override
-    public Map<String, List<String>> parse(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "class");
-    }
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
 
     /**
-     * Parses the uploaded UML diagram to extract its attributes.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the attribute.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * The classname that is used when the endpoint of a relation does not match the coordinates of a class.
      */
-    @Override
-    public Map<String, List<String>> parseAttributes(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "attribute");
-    }
+    private static final String UNKNOWN_CLASS = "<<unknown>>";
 
     /**
-     * Parses the uploaded UML diagram to extract its methods.
+     * Parses the uploaded UML diagram to extract its classes, attributes, methods and relationships in a single read.
      *
      * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the method.
+     * @return The immutable model that contains all the parsed elements of the UML diagram.
      * @throws Exception Is returned if an error occurs during the parsing process.
      */
     @Override
-    public Map<String, List<String>> parseMethods(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "method");
-    }
-
-    @Override
-    public List<Relationship> parseRelationships(InputStream inputStream) throws Exception {
-        List<Relationship> relationships = new ArrayList<>();
+    public DiagramModel parseDiagram(InputStream inputStream) throws Exception {
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        Map<String, List<String>> methods = new LinkedHashMap<>();
         Map<String, String> classCoordinatesMap = new HashMap<>();
-
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(inputStream);
-        doc.getDocumentElement().normalize();
-
-        NodeList nodeList = doc.getElementsByTagName("element");
-
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element element = (Element) node;
-                String id = element.getElementsByTagName("id").item(0).getTextContent();
-
-                if ("UMLClass".equals(id)) {
-                    String panelAttributes = element.getElementsByTagName("panel_attributes").item(0).getTextContent();
-                    String className = panelAttributes.split("\\n")[0].replace("Class ", "").trim();
-                    Element coordinatesElement = (Element) element.getElementsByTagName("coordinates").item(0);
-                    String x = coordinatesElement.getElementsByTagName("x").item(0).getTextContent();
-                    String y = coordinatesElement.getElementsByTagName("y").item(0).getTextContent();
-                    String coordinates = x + "," + y;
-                    classCoordinatesMap.put(coordinates, className);
+        List<String[]> relations = new ArrayList<>();
+
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            UXFElement current = null;
+            boolean inCoordinates = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String tag = reader.getLocalName();
+                    if ("element".equals(tag)) {
+                        current = new UXFElement();
+                    } else if (current != null) {
+                        switch (tag) {
+                            case "id":
+                                current.id = reader.getElementText().trim();
+                                break;
+                            case "coordinates":
+                                inCoordinates = true;
+                                break;
+                            case "x":
+                                if (inCoordinates) {
+                                    current.x = reader.getElementText();
+                                }
+                                break;
+                            case "y":
+                                if (inCoordinates) {
+                                    current.y = reader.getElementText();
+                                }
+                                break;
+                            case "panel_attributes":
+                                current.panelAttributes = reader.getElementText();
+                                break;
+                            case "additional_attributes":
+                                current.additionalAttributes = reader.getElementText();
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String tag = reader.getLocalName();
+                    if ("coordinates".equals(tag)) {
+                        inCoordinates = false;
+                    } else if ("element".equals(tag) && current != null) {
+                        processElement(current, attributes, methods, classCoordinatesMap, relations);
+                        current = null;
+                    }
                 }
             }
+        } finally {
+            reader.close();
         }
 
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element element = (Element) node;
-                String id = element.getElementsByTagName("id").item(0).getTextContent();
-
-                if ("Relation".equals(id)) {
-                    String panelAttributes = element.getElementsByTagName("panel_attributes").item(0).getTextContent();
-                    String[] parts = panelAttributes.split("\\s+", 2);
-                    String relationshipName = parts.length > 1 ? parts[1] : "Association";
-
-                    String additionalAttributes = element.getElementsByTagName("additional_attributes").item(0).getTextContent();
-                    String[] coords = additionalAttributes.split(";");
-
-                    String fromCoordinates = formatCoordinates(coords[0], coords[1]);
-                    String toCoordinates = formatCoordinates(coords[2], coords[3]);
-
-                    String fromClass = classCoordinatesMap.getOrDefault(fromCoordinates, "<<unknown>>");
-                    String toClass = classCoordinatesMap.getOrDefault(toCoordinates, "<<unknown>>");
-
-                    relationships.add(new Relationship(fromClass, toClass, relationshipName));
-                }
-            }
+        List<Relationship> relationships = new ArrayList<>();
+        for (String[] relation : relations) {
+            String fromClass = classCoordinatesMap.getOrDefault(relation[1], UNKNOWN_CLASS);
+            String toClass = classCoordinatesMap.getOrDefault(relation[2], UNKNOWN_CLASS);
+            relationships.add(new Relationship(fromClass, toClass, relation[0]));
         }
 
-        return relationships;
+        return new DiagramModel(new ArrayList<>(attributes.keySet()), attributes, methods, relationships);
     }
 
     /**
-     * Parses the uploaded UML diagram to extract its elements and distinguishes them based on their types.
+     * Processes a completely read element. Classes are added to the parsed elements right away, while relations are kept as their name and endpoint coordinates until all classes are known.
      *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @param elementType The type of the parsed element.
-     * @return Map in which the key is the classname and the value is the element.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * @param element The element that has been read.
+     * @param attributes Map in which the key is the classname and the value contains the attributes of the class.
+     * @param methods Map in which the key is the classname and the value contains the methods of the class.
+     * @param classCoordinatesMap Map in which the key is the coordinates of a class and the value is the classname.
+     * @param relations List to which the name and the endpoint coordinates of relations are added.
      */
-    private Map<String, List<String>> parseElementsByType(InputStream inputStream, String elementType) throws Exception {
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document doc = dBuilder.parse(inputStream);
-        doc.getDocumentElement().normalize();
-
-        Map<String, List<String>> elements = new HashMap<>();
-        NodeList nodeList = doc.getElementsByTagName("element");
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element element = (Element) node;
-                String id = element.getElementsByTagName("id").item(0).getTextContent();
-                if ("UMLClass".equals(id)) {
-                    addDetails(element, elements, elementType);
-                }
+    private void processElement(UXFElement element,
+                                Map<String, List<String>> attributes,
+                                Map<String, List<String>> methods,
+                                Map<String, String> classCoordinatesMap,
+                                List<String[]> relations) {
+        String panelAttributes = element.panelAttributes != null ? element.panelAttributes : "";
+
+        if ("UMLClass".equals(element.id)) {
+            String className = addDetails(panelAttributes, attributes, methods);
+            if (element.x != null && element.y != null) {
+                classCoordinatesMap.put(formatCoordinates(element.x, element.y), className);
+            }
+        } else if ("Relation".equals(element.id)) {
+            String[] parts = panelAttributes.split("\\s+", 2);
+            String relationshipName = parts.length > 1 ? parts[1] : "Association";
+
+            String[] coords = element.additionalAttributes != null ? element.additionalAttributes.split(";") : new String[0];
+            if (coords.length >= 4) {
+                relations.add(new String[]{relationshipName, formatCoordinates(coords[0], coords[1]), formatCoordinates(coords[2], coords[3])});
+            } else {
+                relations.add(new String[]{relationshipName, UNKNOWN_CLASS, UNKNOWN_CLASS});
             }
         }
-        return elements;
     }
 
     /**
-     * Adds details to parsed elements, such as brackets for methods and data types for attributes, to distinguish them.
+     * Adds the attributes and methods that are described in the panel attributes of a class to the parsed elements.
      *
-     * @param element The name of the class element that is processed.
-     * @param elements Map in which the key is the classname and the value is the element.
-     * @param elementType The type of the parsed element.
+     * @param panelAttributes The text of the panel attributes of the class.
+     * @param attributes Map in which the key is the classname and the value contains the attributes of the class.
+     * @param methods Map in which the key is the classname and the value contains the methods of the class.
+     * @return The name of the processed class.
      */
-    private void addDetails(Element element, Map<String, List<String>> elements, String elementType) {
-        String panelAttributes = element.getElementsByTagName("panel_attributes").item(0).getTextContent();
+    private String addDetails(String panelAttributes, Map<String, List<String>> attributes, Map<String, List<String>> methods) {
         String[] lines = panelAttributes.split("\\n");
         String className = lines[0].replace("Class ", "").trim();
 
-        if ("class".equals(elementType)) {
-            elements.computeIfAbsent(className, k -> new ArrayList<>()).add("Details for class: " + className);
-        } else {
-            for (int i = 1; i < lines.length; i++) {
-                String line = lines[i].trim();
-                if (line.startsWith("+")) {
-                    if ("attribute".equals(elementType) && !line.contains("(")) {
-                        elements.computeIfAbsent(className, k -> new ArrayList<>()).add(line);
-                    } else if ("method".equals(elementType) && line.contains("(")) {
-                        elements.computeIfAbsent(className, k -> new ArrayList<>()).add(line);
-                    }
+        List<String> classAttributes = attributes.computeIfAbsent(className, k -> new ArrayList<>());
+        List<String> classMethods = methods.computeIfAbsent(className, k -> new ArrayList<>());
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.startsWith("+")) {
+                if (line.contains("(")) {
+                    classMethods.add(line);
+                } else {
+                    classAttributes.add(line);
                 }
             }
         }
+        return className;
     }
 
     private String formatCoordinates(String x, String y) {
         return x.trim() + "," + y.trim();
     }
+
+    /**
+     * Creates the StAX input factory that is shared by all parse operations.
+     *
+     * @return The configured input factory.
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * The values of a single UXF element that are needed to build the diagram model.
+     */
+    private static final class UXFElement {
+        private String id;
+        private String x;
+        private String y;
+        private String panelAttributes;
+        private String additionalAttributes;
+    }
 }
@@ -1,112 +1,85 @@
 package codearise.openapispecgenerator.parser;
 
+import codearise.openapispecgenerator.entity.DiagramModel;
 import codearise.openapispecgenerator.entity.Relationship;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 import java.io.InputStream;
 import java.util.*;
 
 /**
  * Implementation of the DiagramParser interface for XML diagrams.
+ * All cells are indexed in a single pass by their id, their parent and the cells they connect, after which classes, members and edges are resolved with constant-time lookups.
  */
 public class XMLParser implements DiagramParser {
     // TODO: Fix bugs with handling various relationship types, cardinalities, etc. Right now, the relationships of most Draw.io XML class diagram files are handled correctly but some edge cases still need attention.
 
     /**
-     * Parses the uploaded UML diagram to extract its classes.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value contains the class details.
-     * @throws Exception Is returned if an error occurs during the parsing process.
-     */
-    @Override
-    public Map<String, List<String>> parse(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "class");
-    }
-
-    /**
-     * Parses the uploaded UML diagram to extract its attributes.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the attribute.
-     * @throws Exception Is returned if an error occurs during the parsing process.
+     * The minimum distance from the centre of an edge at which an edge label is treated as a cardinality instead of the name of the relationship. Draw.io places labels at the source end at x = -1 and labels at the target end at x = 1.
      */
-    @Override
-    public Map<String, List<String>> parseAttributes(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "attribute");
-    }
+    private static final double CARDINALITY_LABEL_OFFSET = 0.5;
 
     /**
-     * Parses the uploaded UML diagram to extract its methods.
+     * Parses the uploaded UML diagram to extract its classes, attributes, methods and relationships in a single read.
      *
      * @param inputStream The UML diagram that is being processed as input.
-     * @return Map in which the key is the classname and the value is the method.
+     * @return The immutable model that contains all the parsed elements of the UML diagram.
      * @throws Exception Is returned if an error occurs during the parsing process.
      */
     @Override
-    public Map<String, List<String>> parseMethods(InputStream inputStream) throws Exception {
-        return parseElementsByType(inputStream, "method");
-    }
-
-    /**
-     * Parses the uploaded UML diagram to extract its elements and distinguishes them based on their types.
-     *
-     * @param inputStream The UML diagram that is being processed as input.
-     * @param elementType The type of the parsed element.
-     * @return Map in which the key is the classname and the value is the element.
-     * @throws Exception Is returned if an error occurs during the parsing process.
-     */
-    private Map<String, List<String>> parseElementsByType(InputStream inputStream, String elementType) throws Exception {
+    public DiagramModel parseDiagram(InputStream inputStream) throws Exception {
         Document doc = Jsoup.parse(inputStream, "UTF-8", "");
+        CellIndex index = new CellIndex(doc);
 
-        Map<String, List<String>> elements = new HashMap<>();
-        Map<String, String> classContexts = new HashMap<>();
-
-        Elements cells = doc.select("mxCell");
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        Map<String, List<String>> methods = new LinkedHashMap<>();
+        Map<String, String> idToClassName = new HashMap<>();
 
-        for (Element cell : cells) {
-            String style = cell.attr("style");
-            String value = cell.attr("value").replaceAll("&lt;", "<").replaceAll("&gt;", ">").replaceAll("&amp;", "&");
-            String parentId = cell.attr("parent");
+        for (Cell classCell : index.classCells) {
+            String className = extractClassName(classCell.value);
+            List<String> classAttributes = new ArrayList<>();
+            List<String> classMethods = new ArrayList<>();
+            attributes.put(className, classAttributes);
+            methods.put(className, classMethods);
+            idToClassName.put(classCell.id, className);
 
-            if (style.contains("swimlane")) {
-                String className = extractClassName(value);
-                elements.put(className, new ArrayList<>());
-                classContexts.put(cell.attr("id"), className);
-            } else if (!value.isEmpty() && style.contains("text;")) {
-                String currentClass = classContexts.get(parentId);
-                if (currentClass != null) {
-                    extractValue(elements, value, elementType, currentClass);
+            for (Cell child : index.childrenOf(classCell.id)) {
+                if (!child.value.isEmpty() && child.style.contains("text;")) {
+                    extractValue(classAttributes, classMethods, child.value);
                 }
             }
         }
-        return elements;
+
+        List<Relationship> relationships = new ArrayList<>(index.edges.size());
+        for (Cell edge : index.edges) {
+            relationships.add(parseRelationship(edge, index, idToClassName));
+        }
+
+        return new DiagramModel(new ArrayList<>(attributes.keySet()), attributes, methods, relationships);
     }
 
     /**
-     * Extracts the value of the specified element type.
+     * Extracts the attributes and methods from the value of a text cell.
      *
-     * @param elements Map in which the key is the classname and the value is the element.
-     * @param value The value to extract from the element type.
-     * @param elementType The type of the parsed element.
-     * @param currentClass The name of the current class.
+     * @param attributes The list to which the attributes of the current class are added.
+     * @param methods The list to which the methods of the current class are added.
+     * @param value The value to extract the attributes and methods from.
      */
-    private void extractValue(Map<String, List<String>> elements, String value, String elementType, String currentClass) {
+    private void extractValue(List<String> attributes, List<String> methods, String value) {
         String[] parts = value.split("<div>|<br>");
         for (String part : parts) {
             part = part.trim();
             if (part.startsWith("+")) {
                 part = part.substring(1).trim();
-                if (part.contains("(") && part.contains(")") && elementType.equals("method")) {
-                    elements.get(currentClass).add("+" + part);
-                } else if (part.contains(":") && !part.contains("(") && elementType.equals("attribute")) {
+                if (part.contains("(") && part.contains(")")) {
+                    methods.add("+" + part);
+                } else if (part.contains(":") && !part.contains("(")) {
                     String[] detailParts = part.split(":");
                     String name = detailParts[0].trim();
                     String type = detailParts.length > 1 ? detailParts[1].trim() : "";
-                    elements.get(currentClass).add("+" + name + " : " + type);
+                    attributes.add("+" + name + " : " + type);
                 }
             }
         }
@@ -125,88 +98,189 @@ public class XMLParser implements DiagramParser {
         return value.replaceAll("<.*?>", "").trim();
     }
 
-    @Override
-    public List<Relationship> parseRelationships(InputStream inputStream) throws Exception {
-        Document doc = Jsoup.parse(inputStream, "UTF-8", "");
+    /**
+     * Converts an edge cell into a relationship between the classes it connects.
+     *
+     * @param edge The edge cell.
+     * @param index The index of all cells of the diagram.
+     * @param idToClassName Map in which the key is the id of a class cell and the value is the classname.
+     * @return The relationship that is described by the edge cell.
+     */
+    private Relationship parseRelationship(Cell edge, CellIndex index, Map<String, String> idToClassName) {
+        String fromClass = idToClassName.get(edge.source);
+        String toClass = idToClassName.get(edge.target);
 
-        List<Relationship> relationships = new ArrayList<>();
-        Map<String, String> idToClassName = new HashMap<>();
+        String relationshipName = edge.value;
+        String fromCardinality = null;
+        String toCardinality = null;
 
-        Elements cells = doc.select("mxCell");
+        for (Cell label : index.childrenOf(edge.id)) {
+            if (label.value.isEmpty()) {
+                continue;
+            }
+            if (label.x <= -CARDINALITY_LABEL_OFFSET) {
+                fromCardinality = fromCardinality == null ? label.value : fromCardinality;
+            } else if (label.x >= CARDINALITY_LABEL_OFFSET) {
+                toCardinality = toCardinality == null ? label.value : toCardinality;
+            } else if (relationshipName.isEmpty()) {
+                relationshipName = label.value;
+            }
+        }
+        if (fromCardinality == null) {
+            fromCardinality = firstValue(index.edgesBySource.get(edge.id));
+        }
+        if (toCardinality == null) {
+            toCardinality = firstValue(index.edgesByTarget.get(edge.id));
+        }
 
-        for (Element cell : cells) {
-            String id = cell.attr("id");
-            String value = cell.attr("value").replaceAll("&lt;", "<").replaceAll("&gt;", ">").replaceAll("&amp;", "&");
+        if (relationshipName.isEmpty() && fromClass != null && toClass != null) {
+            relationshipName = fromClass + " -> " + toClass;
+        }
 
-            if (cell.attr("style").contains("swimlane")) {
-                idToClassName.put(id, extractClassName(value));
-            }
+        if (fromClass == null || fromClass.isEmpty()) {
+            fromClass = "Unknown Class (ID: " + edge.source + ")";
+        }
+        if (toClass == null || toClass.isEmpty()) {
+            toClass = "Unknown Class (ID: " + edge.target + ")";
         }
 
-        for (Element cell : cells) {
-            if ("1".equals(cell.attr("edge"))) {
-                String fromId = cell.attr("source");
-                String toId = cell.attr("target");
-                String relationshipName = cell.attr("value");
-                String fromClass = idToClassName.get(fromId);
-                String toClass = idToClassName.get(toId);
+        if (relationshipName.isEmpty()) {
+            relationshipName = "Unnamed Relationship";
+        }
 
-                if (relationshipName == null || relationshipName.isEmpty()) {
-                    relationshipName = extractRelationshipName(cell, idToClassName);
-                }
+        return new Relationship(
+                fromClass + (fromCardinality != null ? " [" + fromCardinality + "]" : ""),
+                toClass + (toCardinality != null ? " [" + toCardinality + "]" : ""),
+                relationshipName
+        );
+    }
 
-                if (fromClass == null || fromClass.isEmpty()) {
-                    fromClass = "Unknown Class (ID: " + fromId + ")";
-                }
-                if (toClass == null || toClass.isEmpty()) {
-                    toClass = "Unknown Class (ID: " + toId + ")";
+    /**
+     * Returns the value of the first cell in the list that has a value.
+     *
+     * @param cells The cells to search, which may be null.
+     * @return The first non-empty value or null if none of the cells has a value.
+     */
+    private String firstValue(List<Cell> cells) {
+        if (cells != null) {
+            for (Cell cell : cells) {
+                if (!cell.value.isEmpty()) {
+                    return cell.value;
                 }
+            }
+        }
+        return null;
+    }
 
-                if (relationshipName == null || relationshipName.isEmpty()) {
-                    relationshipName = "Unnamed Relationship";
+    /**
+     * Replaces the escaped angle brackets and ampersands in a cell value in a single pass.
+     *
+     * @param value The raw cell value.
+     * @return The value with &amp;lt;, &amp;gt; and &amp;amp; replaced.
+     */
+    private static String unescape(String value) {
+        int ampersand = value.indexOf('&');
+        if (ampersand < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        result.append(value, 0, ampersand);
+        for (int i = ampersand; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                if (value.startsWith("&lt;", i)) {
+                    result.append('<');
+                    i += 3;
+                    continue;
+                } else if (value.startsWith("&gt;", i)) {
+                    result.append('>');
+                    i += 3;
+                    continue;
+                } else if (value.startsWith("&amp;", i)) {
+                    result.append('&');
+                    i += 4;
+                    continue;
                 }
-
-                String fromCardinality = extractCardinality(cell, "source");
-                String toCardinality = extractCardinality(cell, "target");
-
-                relationships.add(new Relationship(
-                        fromClass + (fromCardinality != null ? " [" + fromCardinality + "]" : ""),
-                        toClass + (toCardinality != null ? " [" + toCardinality + "]" : ""),
-                        relationshipName
-                ));
             }
+            result.append(c);
         }
-
-        return relationships;
+        return result.toString();
     }
 
-    private String extractRelationshipName(Element element, Map<String, String> idToClassName) {
-        Elements childNodes = element.select("mxCell");
-        for (Element childElement : childNodes) {
-            String relationshipName = childElement.attr("value");
-            if (relationshipName != null && !relationshipName.isEmpty()) {
-                return relationshipName;
-            }
+    /**
+     * The attributes of a single mxCell that are needed to build the diagram model.
+     */
+    private static final class Cell {
+        private final String id;
+        private final String parent;
+        private final String value;
+        private final String style;
+        private final String source;
+        private final String target;
+        private final double x;
+
+        private Cell(Element element) {
+            this.id = element.attr("id");
+            this.parent = element.attr("parent");
+            this.value = unescape(element.attr("value"));
+            this.style = element.attr("style");
+            this.source = element.attr("source");
+            this.target = element.attr("target");
+            this.x = geometryX(element);
         }
 
-        String source = idToClassName.get(element.attr("source"));
-        String target = idToClassName.get(element.attr("target"));
-        if (source != null && target != null) {
-            return source + " -> " + target;
+        /**
+         * Reads the relative x position from the geometry of a cell, which Draw.io uses to place edge labels along the edge.
+         *
+         * @param element The mxCell element.
+         * @return The x position of the geometry or 0 if the cell has no geometry with an x position.
+         */
+        private static double geometryX(Element element) {
+            for (Element child : element.children()) {
+                if ("mxGeometry".equalsIgnoreCase(child.tagName()) && child.hasAttr("x")) {
+                    try {
+                        return Double.parseDouble(child.attr("x"));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            return 0;
         }
-        return "";
     }
 
-    private String extractCardinality(Element element, String direction) {
-        Elements childNodes = element.select("mxCell");
-        for (Element childElement : childNodes) {
-            if ("1".equals(childElement.attr("edge"))) {
-                String sourceOrTarget = direction.equals("source") ? "source" : "target";
-                if (childElement.attr(sourceOrTarget).equals(element.attr("id"))) {
-                    return childElement.attr("value");
+    /**
+     * Index of all cells of a diagram that is built in a single pass over the document.
+     */
+    private static final class CellIndex {
+        private final List<Cell> classCells = new ArrayList<>();
+        private final List<Cell> edges = new ArrayList<>();
+        private final Map<String, List<Cell>> childrenByParent = new HashMap<>();
+        private final Map<String, List<Cell>> edgesBySource = new HashMap<>();
+        private final Map<String, List<Cell>> edgesByTarget = new HashMap<>();
+
+        private CellIndex(Document doc) {
+            for (Element element : doc.getElementsByTag("mxCell")) {
+                Cell cell = new Cell(element);
+                childrenByParent.computeIfAbsent(cell.parent, k -> new ArrayList<>()).add(cell);
+
+                if (cell.style.contains("swimlane")) {
+                    classCells.add(cell);
+                }
+                if ("1".equals(element.attr("edge"))) {
+                    edges.add(cell);
+                    if (!cell.source.isEmpty()) {
+                        edgesBySource.computeIfAbsent(cell.source, k -> new ArrayList<>()).add(cell);
+                    }
+                    if (!cell.target.isEmpty()) {
+                        edgesByTarget.computeIfAbsent(cell.target, k -> new ArrayList<>()).add(cell);
+                    }
                 }
             }
         }
-        return null;
+
+        private List<Cell> childrenOf(String id) {
+            return childrenByParent.getOrDefault(id, Collections.emptyList());
+        }
     }
 }
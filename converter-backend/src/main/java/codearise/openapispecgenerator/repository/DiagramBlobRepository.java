@@ -0,0 +1,96 @@
+package codearise.openapispecgenerator.repository;
+
+import codearise.openapispecgenerator.entity.DiagramBlob;
+import codearise.openapispecgenerator.entity.UploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for the uploaded UML diagrams that are shared by stepper sessions.
+ */
+public interface DiagramBlobRepository extends JpaRepository<DiagramBlob, String> {
+
+    /**
+     * Adds a reference of a stepper session to a diagram.
+     *
+     * @param hash The hash of the diagram.
+     * @return The amount of updated diagrams, which is zero if the diagram does not exist.
+     */
+    @Modifying
+    @Transactional
+    @Query("update DiagramBlob b set b.referenceCount = b.referenceCount + 1 where b.hash = :hash")
+    int incrementReferenceCount(@Param("hash") String hash);
+
+    /**
+     * Removes a reference of a stepper session from a diagram.
+     *
+     * @param hash The hash of the diagram.
+     * @return The amount of updated diagrams, which is zero if the diagram does not exist or has no references.
+     */
+    @Modifying
+    @Transactional
+    @Query("update DiagramBlob b set b.referenceCount = b.referenceCount - 1 where b.hash = :hash and b.referenceCount > 0")
+    int decrementReferenceCount(@Param("hash") String hash);
+
+    /**
+     * Marks a diagram as being deleted if no stepper session refers to it anymore, so that only one caller deletes it from the blob store.
+     *
+     * @param hash The hash of the diagram.
+     * @return The amount of updated diagrams, which is zero if the diagram does not exist, still has references or is already being deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("update DiagramBlob b set b.uploadStatus = codearise.openapispecgenerator.entity.UploadStatus.DELETING where b.hash = :hash and b.referenceCount <= 0 and b.uploadStatus <> codearise.openapispecgenerator.entity.UploadStatus.DELETING")
+    int markDeleting(@Param("hash") String hash);
+
+    /**
+     * Deletes a diagram that has been deleted from the blob store, unless a stepper session has added a reference to it in the meantime.
+     *
+     * @param hash The hash of the diagram.
+     * @return The amount of deleted diagrams, which is zero if the diagram does not exist, has references again or is no longer being deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from DiagramBlob b where b.hash = :hash and b.referenceCount <= 0 and b.uploadStatus = codearise.openapispecgenerator.entity.UploadStatus.DELETING")
+    int deleteUnreferenced(@Param("hash") String hash);
+
+    /**
+     * Changes the status of the upload of a diagram.
+     *
+     * @param hash The hash of the diagram.
+     * @param status The new status of the upload.
+     * @return The amount of updated diagrams.
+     */
+    @Modifying
+    @Transactional
+    @Query("update DiagramBlob b set b.uploadStatus = :status where b.hash = :hash")
+    int updateUploadStatus(@Param("hash") String hash, @Param("status") UploadStatus status);
+
+    /**
+     * Changes the status of the upload of a diagram if it currently has a specific status, so that only one caller can start a new upload of a diagram of which the upload has failed.
+     *
+     * @param hash The hash of the diagram.
+     * @param from The current status of the upload.
+     * @param to The new status of the upload.
+     * @return The amount of updated diagrams, which is zero if the upload does not have the specified status.
+     */
+    @Modifying
+    @Transactional
+    @Query("update DiagramBlob b set b.uploadStatus = :to where b.hash = :hash and b.uploadStatus = :from")
+    int updateUploadStatus(@Param("hash") String hash, @Param("from") UploadStatus from, @Param("to") UploadStatus to);
+
+    /**
+     * Changes the status of the uploads of all diagrams with a specific status.
+     *
+     * @param from The current status of the uploads.
+     * @param to The new status of the uploads.
+     * @return The amount of updated diagrams.
+     */
+    @Modifying
+    @Transactional
+    @Query("update DiagramBlob b set b.uploadStatus = :to where b.uploadStatus = :from")
+    int updateUploadStatus(@Param("from") UploadStatus from, @Param("to") UploadStatus to);
+}
@@ -0,0 +1,47 @@
+package codearise.openapispecgenerator.repository;
+
+import codearise.openapispecgenerator.entity.SpecBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for the compressed OpenAPI specifications of stepper sessions.
+ */
+public interface SpecBlobRepository extends JpaRepository<SpecBlob, String> {
+
+    /**
+     * Adds a reference of a stepper session to a specification.
+     *
+     * @param hash The hash of the specification.
+     * @return The amount of updated specifications, which is zero if the specification does not exist.
+     */
+    @Modifying
+    @Transactional
+    @Query("update SpecBlob b set b.referenceCount = b.referenceCount + 1 where b.hash = :hash")
+    int incrementReferenceCount(@Param("hash") String hash);
+
+    /**
+     * Removes a reference of a stepper session from a specification.
+     *
+     * @param hash The hash of the specification.
+     * @return The amount of updated specifications, which is zero if the specification does not exist or has no references.
+     */
+    @Modifying
+    @Transactional
+    @Query("update SpecBlob b set b.referenceCount = b.referenceCount - 1 where b.hash = :hash and b.referenceCount > 0")
+    int decrementReferenceCount(@Param("hash") String hash);
+
+    /**
+     * Deletes a specification if no stepper session refers to it anymore, so that a specification that has received a new reference in the meantime is kept.
+     *
+     * @param hash The hash of the specification.
+     * @return The amount of deleted specifications, which is zero if the specification does not exist or still has references.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from SpecBlob b where b.hash = :hash and b.referenceCount <= 0")
+    int deleteUnreferenced(@Param("hash") String hash);
+}
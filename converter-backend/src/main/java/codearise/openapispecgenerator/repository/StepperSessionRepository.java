@@ -1,10 +1,88 @@
 package codearise.openapispecgenerator.repository;
 
 import codearise.openapispecgenerator.entity.StepperSession;
+import codearise.openapispecgenerator.entity.UploadStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * Repository for entities related to stepper sessions.
  */
 public interface StepperSessionRepository extends JpaRepository<StepperSession, Long> {
+
+    /**
+     * Retrieves the summaries of the most recently saved stepper sessions.
+     *
+     * @param pageable The maximum amount of stepper sessions to retrieve.
+     * @return List that contains the summaries, ordered from the most recently saved stepper session to the oldest one.
+     */
+    List<StepperSessionSummary> findByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * Retrieves the summaries of the stepper sessions that were saved before the stepper session with the specified ID.
+     *
+     * @param id The ID of the last stepper session of the previous page.
+     * @param pageable The maximum amount of stepper sessions to retrieve.
+     * @return List that contains the summaries, ordered from the most recently saved stepper session to the oldest one.
+     */
+    List<StepperSessionSummary> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    /**
+     * Retrieves the stepper sessions that were saved before their summary was stored in its own columns.
+     *
+     * @param pageable The maximum amount of stepper sessions to retrieve.
+     * @return List that contains the stepper sessions without a summary.
+     */
+    List<StepperSession> findBySummaryIsNull(Pageable pageable);
+
+    /**
+     * Retrieves the stepper sessions of which the OpenAPI specification is still stored uncompressed.
+     *
+     * @param pageable The maximum amount of stepper sessions to retrieve.
+     * @return List that contains the stepper sessions with an uncompressed specification.
+     */
+    List<StepperSession> findByOpenApiSpecIsNotNull(Pageable pageable);
+
+    /**
+     * Changes the status of the upload of the UML diagram of a stepper session without loading the stepper session.
+     *
+     * @param id The ID of the stepper session.
+     * @param status The new status of the upload.
+     * @return The amount of updated stepper sessions.
+     */
+    @Modifying
+    @Transactional
+    @Query("update StepperSession s set s.uploadStatus = :status where s.id = :id")
+    int updateUploadStatus(@Param("id") Long id, @Param("status") UploadStatus status);
+
+    /**
+     * Changes the status of the uploads of the UML diagrams of all stepper sessions with a specific status.
+     *
+     * @param from The current status of the uploads.
+     * @param to The new status of the uploads.
+     * @return The amount of updated stepper sessions.
+     */
+    @Modifying
+    @Transactional
+    @Query("update StepperSession s set s.uploadStatus = :to where s.uploadStatus = :from")
+    int updateUploadStatus(@Param("from") UploadStatus from, @Param("to") UploadStatus to);
+
+    /**
+     * Changes the status of the uploads of the UML diagrams of all stepper sessions that refer to a specific diagram and have a specific status.
+     *
+     * @param diagramHash The hash of the diagram.
+     * @param from The current status of the uploads.
+     * @param to The new status of the uploads.
+     * @return The amount of updated stepper sessions.
+     */
+    @Modifying
+    @Transactional
+    @Query("update StepperSession s set s.uploadStatus = :to where s.diagramHash = :diagramHash and s.uploadStatus = :from")
+    int updateUploadStatus(@Param("diagramHash") String diagramHash, @Param("from") UploadStatus from, @Param("to") UploadStatus to);
 }
@@ -0,0 +1,26 @@
+package codearise.openapispecgenerator.repository;
+
+import codearise.openapispecgenerator.entity.UploadStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a stepper session that only contains the columns that are shown in the list of stepper sessions, so the OpenAPI specification of a stepper session is not loaded when the list is retrieved.
+ */
+public interface StepperSessionSummary {
+    Long getId();
+
+    String getUmlDiagramUrl();
+
+    String getUmlFilename();
+
+    UploadStatus getUploadStatus();
+
+    String getSummary();
+
+    Integer getClassCount();
+
+    Integer getAttributeCount();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,173 @@
+package codearise.openapispecgenerator.service;
+
+import codearise.openapispecgenerator.entity.DiagramBlob;
+import codearise.openapispecgenerator.entity.UploadStatus;
+import codearise.openapispecgenerator.repository.DiagramBlobRepository;
+import codearise.openapispecgenerator.repository.StepperSessionRepository;
+import codearise.openapispecgenerator.storage.BlobStore;
+import codearise.openapispecgenerator.util.Hashes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for storing the UML diagrams of stepper sessions in the blob store by their content.
+ * The key of a diagram is derived from the SHA-256 hash of its content, so a diagram that has been saved before is not uploaded again. Instead, the stepper session is added as a reference to the existing diagram.
+ */
+@Service
+public class DiagramBlobService {
+
+    /**
+     * The prefix of the keys of the diagrams in the blob store.
+     */
+    private static final String KEY_PREFIX = "diagrams/";
+
+    @Autowired
+    private DiagramBlobRepository blobRepository;
+
+    @Autowired
+    private StepperSessionRepository sessionRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    /**
+     * The deletions from the blob store that are in progress, in which the key is the hash of the diagram. A diagram that receives a new reference while it is being deleted is only uploaded again when its deletion has finished.
+     */
+    private final Map<String, CompletableFuture<Void>> deletions = new ConcurrentHashMap<>();
+
+    /**
+     * Computes the hash of the content of a diagram.
+     *
+     * @param content The content of the diagram.
+     * @return The hexadecimal SHA-256 hash.
+     */
+    public String hash(byte[] content) {
+        return Hashes.sha256(content);
+    }
+
+    /**
+     * Returns the URL from which a diagram can be downloaded once it has been uploaded.
+     *
+     * @param hash The hash of the diagram.
+     * @return The URL of the diagram.
+     */
+    public String getUrl(String hash) {
+        return blobStore.getUrl(KEY_PREFIX + hash);
+    }
+
+    /**
+     * Adds a reference of a stepper session to a diagram, and uploads the diagram in the background if it has not been uploaded before, if its previous upload has failed or if it is being deleted. A diagram that is being deleted is uploaded again once the deletion has finished.
+     * The stepper session must already be saved with a pending upload, so the status of the upload can be stored in it when the upload is finished.
+     *
+     * @param hash The hash of the diagram.
+     * @param content The content of the diagram.
+     * @return The status of the upload of the diagram.
+     */
+    public UploadStatus addReference(String hash, byte[] content) {
+        if (blobRepository.incrementReferenceCount(hash) == 0) {
+            DiagramBlob blob = new DiagramBlob();
+            blob.setHash(hash);
+            blob.setStorageKey(KEY_PREFIX + hash);
+            blob.setSize(content.length);
+            blob.setReferenceCount(1);
+            blob.setUploadStatus(UploadStatus.PENDING);
+            blob.setCreatedAt(LocalDateTime.now());
+            try {
+                blobRepository.saveAndFlush(blob);
+                upload(hash, content);
+                return UploadStatus.PENDING;
+            } catch (DataIntegrityViolationException e) {
+                // The same diagram was saved concurrently by another stepper session.
+                blobRepository.incrementReferenceCount(hash);
+            }
+        }
+
+        if (blobRepository.updateUploadStatus(hash, UploadStatus.DELETING, UploadStatus.PENDING) > 0) {
+            deletions.getOrDefault(hash, CompletableFuture.completedFuture(null)).whenComplete((result, error) -> upload(hash, content));
+            return UploadStatus.PENDING;
+        }
+        if (blobRepository.updateUploadStatus(hash, UploadStatus.FAILED, UploadStatus.PENDING) > 0) {
+            upload(hash, content);
+            return UploadStatus.PENDING;
+        }
+        return blobRepository.findById(hash).map(DiagramBlob::getUploadStatus).orElse(UploadStatus.PENDING);
+    }
+
+    /**
+     * Removes a reference of a stepper session from a diagram, and deletes the diagram from the blob store in the background when no stepper session refers to it anymore.
+     * The diagram is marked as being deleted first, and is only removed from the database once it has been deleted from the blob store. If a stepper session adds a reference to the diagram in the meantime, the diagram is kept and uploaded again after the deletion.
+     * If the deletion fails, the diagram is marked as failed, so that the next stepper session that saves it uploads it again.
+     *
+     * @param hash The hash of the diagram.
+     * @return Boolean that indicates whether the deletion of the diagram has been started.
+     */
+    public boolean releaseReference(String hash) {
+        if (blobRepository.decrementReferenceCount(hash) == 0) {
+            return false;
+        }
+        CompletableFuture<Void> deletion = new CompletableFuture<>();
+        if (deletions.putIfAbsent(hash, deletion) != null) {
+            return false;
+        }
+        if (blobRepository.markDeleting(hash) == 0) {
+            deletions.remove(hash, deletion);
+            deletion.complete(null);
+            return false;
+        }
+        blobStore.deleteFileAsync(KEY_PREFIX + hash).whenComplete((result, error) -> {
+            try {
+                if (error == null) {
+                    blobRepository.deleteUnreferenced(hash);
+                } else {
+                    System.err.println("Could not delete UML diagram " + hash + ": " + error.getMessage());
+                    blobRepository.updateUploadStatus(hash, UploadStatus.DELETING, UploadStatus.FAILED);
+                }
+            } finally {
+                deletions.remove(hash, deletion);
+                deletion.complete(null);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Uploads a diagram to the blob store in the background, and stores the status of the upload in the diagram and in the stepper sessions that are waiting for it when the upload is finished.
+     * If the upload succeeds, the stepper sessions of which an earlier upload of the same diagram has failed are marked as uploaded as well, because they refer to the same key.
+     *
+     * @param hash The hash of the diagram.
+     * @param content The content of the diagram.
+     */
+    private void upload(String hash, byte[] content) {
+        blobStore.uploadFileAsync(KEY_PREFIX + hash, content).whenComplete((result, error) -> {
+            if (error != null) {
+                System.err.println("Could not upload UML diagram " + hash + ": " + error.getMessage());
+            }
+            UploadStatus status = error == null ? UploadStatus.UPLOADED : UploadStatus.FAILED;
+            blobRepository.updateUploadStatus(hash, status);
+            sessionRepository.updateUploadStatus(hash, UploadStatus.PENDING, status);
+            if (status == UploadStatus.UPLOADED) {
+                sessionRepository.updateUploadStatus(hash, UploadStatus.FAILED, UploadStatus.UPLOADED);
+            }
+        });
+    }
+
+    /**
+     * Marks the uploads that were still pending when the application was stopped as failed when the application has started, because their content was only held in memory.
+     * Diagrams of which the deletion was interrupted are marked as failed as well, because it is unknown whether they are still in the blob store.
+     * A failed diagram is uploaded again by the next stepper session that saves it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failPendingUploads() {
+        blobRepository.updateUploadStatus(UploadStatus.PENDING, UploadStatus.FAILED);
+        blobRepository.updateUploadStatus(UploadStatus.DELETING, UploadStatus.FAILED);
+        sessionRepository.updateUploadStatus(UploadStatus.PENDING, UploadStatus.FAILED);
+    }
+}
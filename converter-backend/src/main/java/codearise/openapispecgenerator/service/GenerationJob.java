@@ -0,0 +1,162 @@
+package codearise.openapispecgenerator.service;
+
+import codearise.openapispecgenerator.util.GenerationProgress;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+
+/**
+ * Class that contains the state of a single asynchronous generation of an OpenAPI specification.
+ */
+public class GenerationJob {
+    /**
+     * The states of a generation job.
+     */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        /**
+         * Returns whether a job in this state has stopped running.
+         *
+         * @return Boolean that indicates whether the state is final.
+         */
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final Path outputPath;
+    private final GenerationProgress progress = new GenerationProgress();
+    private final Instant createdAt = Instant.now();
+
+    /**
+     * The clients that follow the progress of the job through server-sent events.
+     */
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    /**
+     * The constructor of GenerationJob.
+     *
+     * @param id The id of the job.
+     * @param outputPath The path of the file in which the OpenAPI specification of the job is saved.
+     */
+    public GenerationJob(String id, Path outputPath) {
+        this.id = id;
+        this.outputPath = outputPath;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getOutputPath() {
+        return outputPath;
+    }
+
+    public GenerationProgress getProgress() {
+        return progress;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    List<SseEmitter> getEmitters() {
+        return emitters;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void completed(String message) {
+        this.message = message;
+        finish(Status.COMPLETED);
+    }
+
+    void failed(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    void cancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    private synchronized void finish(Status finalStatus) {
+        if (!status.isFinished()) {
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+    }
+
+    /**
+     * Returns the estimated amount of seconds until the job is finished, which is extrapolated from the time the job has been running and the fraction of the work that has been done.
+     *
+     * @return The estimated amount of seconds, or null if there is not enough progress yet to make an estimate or the job has stopped running.
+     */
+    public Long getEtaSeconds() {
+        double fraction = progress.getFractionDone();
+        Instant start = startedAt;
+        if (status != Status.RUNNING || start == null || fraction <= 0) {
+            return null;
+        }
+        long elapsed = Duration.between(start, Instant.now()).toMillis();
+        return Math.round(elapsed * (1 - fraction) / fraction / 1000);
+    }
+
+    /**
+     * Creates a summary of the state and progress of the job, which is returned by the polling endpoint and sent as server-sent event.
+     *
+     * @return Map that contains the state and progress of the job.
+     */
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("jobId", id);
+        summary.put("status", status.name());
+        summary.put("createdAt", createdAt.toString());
+        summary.put("totalClasses", progress.getTotalClasses());
+        summary.put("classesDone", progress.getClassesDone());
+        summary.put("promptsIssued", progress.getPromptsIssued());
+        summary.put("promptsCompleted", progress.getPromptsCompleted());
+        summary.put("cacheHits", progress.getCacheHits());
+        summary.put("fragmentsReused", progress.getFragmentsReused());
+        summary.put("percentDone", status == Status.COMPLETED ? 100 : (int) Math.floor(progress.getFractionDone() * 100));
+        summary.put("etaSeconds", getEtaSeconds());
+        if (message != null) {
+            summary.put("message", message);
+        }
+        if (error != null) {
+            summary.put("error", error);
+        }
+        return summary;
+    }
+}
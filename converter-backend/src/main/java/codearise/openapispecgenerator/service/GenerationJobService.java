@@ -0,0 +1,239 @@
+package codearise.openapispecgenerator.service;
+
+import codearise.openapispecgenerator.util.GenerationProgress;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Service that runs generations of OpenAPI specifications as asynchronous jobs on a bounded pool of threads.
+ * The progress of a job can be polled or followed through server-sent events, a job can be cancelled, and the generated specification of a finished job can be retrieved by the id of the job.
+ */
+@Service
+public class GenerationJobService {
+    /**
+     * The work that is done by a generation job.
+     */
+    @FunctionalInterface
+    public interface GenerationTask {
+        /**
+         * Generates an OpenAPI specification.
+         *
+         * @param progress The progress of the generation run, which is also checked for cancellation.
+         * @param outputPath The path of the file in which the OpenAPI specification is saved.
+         * @return Message that indicates whether the generation process has completed successfully.
+         * @throws Exception Is returned if an error occurs during the generation process.
+         */
+        String run(GenerationProgress progress, Path outputPath) throws Exception;
+    }
+
+    /**
+     * Map in which the key is the id of a job and the value is the job.
+     */
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The scheduler that sends the progress of the jobs to the clients that follow them and removes expired jobs.
+     */
+    private final ScheduledExecutorService publisher;
+
+    /**
+     * The directory in which the OpenAPI specifications of the jobs are saved.
+     */
+    private final Path jobsDirectory;
+
+    /**
+     * The amount of time a finished job is kept before it and its OpenAPI specification are removed.
+     */
+    private final Duration retention;
+
+    /**
+     * The constructor of GenerationJobService.
+     *
+     * @param maxConcurrentJobs The maximum amount of jobs that run at the same time.
+     * @param queueCapacity The maximum amount of jobs that wait for a thread. Jobs that are submitted while the queue is full are rejected.
+     * @param retentionMinutes The amount of minutes a finished job is kept.
+     * @param progressIntervalMillis The amount of milliseconds between two progress events that are sent to the clients that follow a job.
+     * @param jobsDirectory The directory in which the OpenAPI specifications of the jobs are saved.
+     */
+    @Autowired
+    public GenerationJobService(@Value("${generation.jobs.max-concurrent:2}") int maxConcurrentJobs,
+                                @Value("${generation.jobs.queue-capacity:16}") int queueCapacity,
+                                @Value("${generation.jobs.retention-minutes:60}") long retentionMinutes,
+                                @Value("${generation.jobs.progress-interval-ms:500}") long progressIntervalMillis,
+                                @Value("${generation.jobs.directory:./data/jobs}") String jobsDirectory) {
+        this.jobsDirectory = Path.of(jobsDirectory);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), daemonThreads("generation-job"));
+        this.publisher = Executors.newSingleThreadScheduledExecutor(daemonThreads("generation-progress"));
+        this.publisher.scheduleWithFixedDelay(this::publishProgress, progressIntervalMillis, progressIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits a generation job. The job starts as soon as a thread is available.
+     *
+     * @param task The work that is done by the job.
+     * @return The submitted job.
+     * @throws IOException Is returned if the directory for the OpenAPI specifications of the jobs cannot be created.
+     * @throws RejectedExecutionException Is returned if the maximum amount of waiting jobs has been reached.
+     */
+    public GenerationJob submit(GenerationTask task) throws IOException {
+        Files.createDirectories(jobsDirectory);
+        String id = UUID.randomUUID().toString();
+        GenerationJob job = new GenerationJob(id, jobsDirectory.resolve(id + ".yml"));
+        jobs.put(id, job);
+        try {
+            job.setFuture(executor.submit(() -> run(job, task)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Runs a generation job and records its outcome.
+     *
+     * @param job The job that is run.
+     * @param task The work that is done by the job.
+     */
+    private void run(GenerationJob job, GenerationTask task) {
+        if (job.getProgress().isCancelled()) {
+            job.cancelled();
+            return;
+        }
+        job.started();
+        try {
+            job.completed(task.run(job.getProgress(), job.getOutputPath()));
+        } catch (CancellationException | InterruptedIOException e) {
+            job.cancelled();
+        } catch (Exception e) {
+            if (job.getProgress().isCancelled()) {
+                job.cancelled();
+            } else {
+                job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Returns the job with the specified id.
+     *
+     * @param id The id of the job.
+     * @return The job, or null if there is no job with the specified id.
+     */
+    public GenerationJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Cancels the job with the specified id. A waiting job does not start, and a running job stops at the next point where it checks for cancellation or where it waits for a response.
+     *
+     * @param id The id of the job.
+     * @return The cancelled job, or null if there is no job with the specified id.
+     */
+    public GenerationJob cancel(String id) {
+        GenerationJob job = jobs.get(id);
+        if (job == null || job.getStatus().isFinished()) {
+            return job;
+        }
+        job.getProgress().cancel();
+        Future<?> future = job.getFuture();
+        if (future != null) {
+            future.cancel(true);
+        }
+        if (job.getStatus() == GenerationJob.Status.QUEUED) {
+            job.cancelled();
+        }
+        return job;
+    }
+
+    /**
+     * Registers a client that follows the progress of a job through server-sent events. The client receives a "progress" event with the summary of the job at every interval and a final "done" event, after which the stream is closed.
+     *
+     * @param job The job that is followed.
+     * @return The emitter of the server-sent events.
+     */
+    public SseEmitter subscribe(GenerationJob job) {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> job.getEmitters().remove(emitter));
+        emitter.onTimeout(() -> job.getEmitters().remove(emitter));
+        emitter.onError(error -> job.getEmitters().remove(emitter));
+        job.getEmitters().add(emitter);
+        publish(job);
+        return emitter;
+    }
+
+    /**
+     * Sends the progress of every followed job to its clients and removes the jobs that have been finished for longer than the retention time.
+     */
+    private void publishProgress() {
+        Instant expiry = Instant.now().minus(retention);
+        for (GenerationJob job : jobs.values()) {
+            publish(job);
+            if (job.getStatus().isFinished() && job.getFinishedAt().isBefore(expiry)) {
+                jobs.remove(job.getId());
+                try {
+                    Files.deleteIfExists(job.getOutputPath());
+                } catch (IOException e) {
+                    System.err.println("Could not delete the OpenAPI specification of job " + job.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the summary of a job to its clients, and closes their streams if the job has stopped running.
+     *
+     * @param job The job of which the summary is sent.
+     */
+    private void publish(GenerationJob job) {
+        if (job.getEmitters().isEmpty()) {
+            return;
+        }
+        boolean finished = job.getStatus().isFinished();
+        Map<String, Object> summary = job.toSummary();
+        for (SseEmitter emitter : job.getEmitters()) {
+            try {
+                emitter.send(SseEmitter.event().name(finished ? "done" : "progress").data(summary));
+                if (finished) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                job.getEmitters().remove(emitter);
+            }
+        }
+    }
+
+    /**
+     * Stops the threads of the service when the application shuts down. Running jobs are interrupted.
+     */
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
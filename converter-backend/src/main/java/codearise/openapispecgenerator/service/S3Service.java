@@ -1,53 +1,167 @@
 package codearise.openapispecgenerator.service;
 
+import codearise.openapispecgenerator.storage.BlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.UUID;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Store that uploads the UML diagrams of stepper sessions to S3.
+ * The diagrams are uploaded from memory with an asynchronous client, which splits diagrams that are larger than the multipart threshold into parts that are uploaded in parallel.
+ */
 @Service
-public class S3Service {
+@ConditionalOnProperty(name = "blobs.store", havingValue = "s3", matchIfMissing = true)
+public class S3Service implements BlobStore {
 
-    private final S3Client s3Client;
+    private final S3AsyncClient s3Client;
 
-    @Value("${aws.bucketName}")
-    private String bucketName;
+    private final String bucketName;
 
+    /**
+     * The maximum amount of attempts to upload a diagram.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The delay before the second attempt to upload a diagram, which is doubled for every further attempt.
+     */
+    private final long retryDelayMillis;
+
+    /**
+     * The constructor of S3Service.
+     *
+     * @param accessKeyId The ID of the AWS access key.
+     * @param secretKey The secret of the AWS access key.
+     * @param bucketName The name of the S3 bucket to which the diagrams are uploaded.
+     * @param multipartThresholdBytes The size from which diagrams are uploaded in multiple parts.
+     * @param partSizeBytes The size of the parts of a multipart upload.
+     * @param maxAttempts The maximum amount of attempts to upload a diagram.
+     * @param retryDelayMillis The delay before the second attempt to upload a diagram, which is doubled for every further attempt.
+     */
+    @Autowired
     public S3Service(
             @Value("${aws.accessKeyId}") String accessKeyId,
             @Value("${aws.secretKey}") String secretKey,
-            @Value("${aws.bucketName}") String bucketName) {
+            @Value("${aws.bucketName}") String bucketName,
+            @Value("${aws.upload.multipart-threshold-bytes:8388608}") long multipartThresholdBytes,
+            @Value("${aws.upload.part-size-bytes:8388608}") long partSizeBytes,
+            @Value("${aws.upload.max-attempts:3}") int maxAttempts,
+            @Value("${aws.upload.retry-delay-ms:1000}") long retryDelayMillis) {
+        this(S3AsyncClient.builder()
+                        .region(Region.EU_WEST_2)
+                        .credentialsProvider(StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(accessKeyId, secretKey)))
+                        .multipartEnabled(true)
+                        .multipartConfiguration(configuration -> configuration
+                                .thresholdInBytes(multipartThresholdBytes)
+                                .minimumPartSizeInBytes(partSizeBytes))
+                        .build(),
+                bucketName, maxAttempts, retryDelayMillis);
+    }
 
+    /**
+     * The constructor of S3Service with an existing client.
+     *
+     * @param s3Client The asynchronous S3 client.
+     * @param bucketName The name of the S3 bucket to which the diagrams are uploaded.
+     * @param maxAttempts The maximum amount of attempts to upload a diagram.
+     * @param retryDelayMillis The delay before the second attempt to upload a diagram, which is doubled for every further attempt.
+     */
+    public S3Service(S3AsyncClient s3Client, String bucketName, int maxAttempts, long retryDelayMillis) {
+        this.s3Client = s3Client;
         this.bucketName = bucketName;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = Math.max(0, retryDelayMillis);
+    }
 
-        this.s3Client = S3Client.builder()
-                .region(Region.EU_WEST_2)
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretKey)))
+    /**
+     * Returns the URL from which a diagram can be downloaded once it has been uploaded.
+     *
+     * @param key The key of the diagram in the S3 bucket.
+     * @return The URL of the diagram.
+     */
+    @Override
+    public String getUrl(String key) {
+        return "https://" + bucketName + ".s3.amazonaws.com/" + key;
+    }
+
+    /**
+     * Uploads a diagram to the S3 bucket in the background, and attempts the upload again with an increasing delay if it fails.
+     * The content is uploaded directly from memory and must not be modified after it has been passed to this method.
+     *
+     * @param key The key of the diagram in the S3 bucket.
+     * @param fileData The content of the diagram.
+     * @return Future that is completed when the diagram has been uploaded, or completed exceptionally when all attempts have failed.
+     */
+    @Override
+    public CompletableFuture<Void> uploadFileAsync(String key, byte[] fileData) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentLength((long) fileData.length)
                 .build();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        attemptUpload(putObjectRequest, fileData, 1, result);
+        return result;
     }
 
-    public String uploadFile(byte[] fileData, String originalFilename) {
-        String key = UUID.randomUUID().toString() + "_" + originalFilename;
-        Path tempFile = Path.of(System.getProperty("java.io.tmpdir"), key);
+    private void attemptUpload(PutObjectRequest putObjectRequest, byte[] fileData, int attempt, CompletableFuture<Void> result) {
+        CompletableFuture<PutObjectResponse> upload;
         try {
-            Files.write(tempFile, fileData);
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
-            s3Client.putObject(putObjectRequest, tempFile);
-            Files.delete(tempFile);
-            return "https://" + bucketName + ".s3.amazonaws.com/" + key;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to upload file to S3", e);
+            upload = s3Client.putObject(putObjectRequest, AsyncRequestBody.fromBytesUnsafe(fileData));
+        } catch (RuntimeException e) {
+            upload = CompletableFuture.failedFuture(e);
         }
+        upload.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(null);
+            } else if (attempt >= maxAttempts) {
+                result.completeExceptionally(new RuntimeException("Failed to upload file to S3", error));
+            } else {
+                long delay = retryDelayMillis << (attempt - 1);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                        .execute(() -> attemptUpload(putObjectRequest, fileData, attempt + 1, result));
+            }
+        });
+    }
+
+    /**
+     * Deletes a diagram from the S3 bucket in the background.
+     *
+     * @param key The key of the diagram in the S3 bucket.
+     * @return Future that is completed when the diagram has been deleted, or completed exceptionally when the deletion has failed.
+     */
+    @Override
+    public CompletableFuture<Void> deleteFileAsync(String key) {
+        DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+        try {
+            return s3Client.deleteObject(deleteObjectRequest).thenApply(response -> null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Closes the S3 client when the application is stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        s3Client.close();
     }
 }
@@ -1,17 +1,32 @@
 package codearise.openapispecgenerator.service;
 
+import codearise.openapispecgenerator.entity.SpecBlob;
 import codearise.openapispecgenerator.entity.StepperSession;
+import codearise.openapispecgenerator.entity.UploadStatus;
+import codearise.openapispecgenerator.repository.SpecBlobRepository;
 import codearise.openapispecgenerator.repository.StepperSessionRepository;
+import codearise.openapispecgenerator.repository.StepperSessionSummary;
+import codearise.openapispecgenerator.util.Hashes;
+import codearise.openapispecgenerator.util.JsonMappers;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service for managing stepper sessions.
@@ -19,30 +34,156 @@ import java.util.Map;
 @Service
 public class StepperSessionService {
 
+    /**
+     * The maximum amount of stepper sessions on a page of the list of stepper sessions.
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * The amount of stepper sessions of which the uncompressed OpenAPI specifications are loaded at once during the migration to compressed specifications.
+     */
+    private static final int MIGRATION_BATCH_SIZE = 20;
+
     /**
      * Reference variable for the repository for entities related to stepper sessions.
      */
     @Autowired
     private StepperSessionRepository repository;
 
+    /**
+     * Reference variable for the repository for the compressed OpenAPI specifications of stepper sessions.
+     */
+    @Autowired
+    private SpecBlobRepository specBlobRepository;
+
     @Autowired
-    private S3Service s3Service;
+    private DiagramBlobService diagramBlobService;
 
     /**
      * Saves the current stepper session.
+     * The stepper session is returned as soon as it has been stored with the URL of its UML diagram. The diagram is uploaded to that URL in the background, after which the status of the upload is stored in the stepper session.
+     * A diagram with the same content as a diagram that has already been uploaded by another stepper session is not uploaded again.
      *
      * @param umlDiagram The UML diagram that is uploaded during the current stepper session.
+     * @param umlFilename The name of the file of the UML diagram.
      * @param openApiSpec The OpenAPI specification that is generated during the current stepper session.
      * @return The saved stepper session.
      */
     public StepperSession saveSession(byte[] umlDiagram, String umlFilename, String openApiSpec) {
-        String umlDiagramUrl = s3Service.uploadFile(umlDiagram, umlFilename);
+        String diagramHash = diagramBlobService.hash(umlDiagram);
 
         StepperSession session = new StepperSession();
-        session.setUmlDiagramUrl(umlDiagramUrl);
+        session.setUmlDiagramUrl(diagramBlobService.getUrl(diagramHash));
+        session.setUmlFilename(umlFilename);
+        session.setDiagramHash(diagramHash);
+        session.setUploadStatus(UploadStatus.PENDING);
         session.setOpenApiSpec(openApiSpec);
         session.setCreatedAt(LocalDateTime.now());
-        return repository.save(session);
+        summarise(session);
+        compress(session);
+        StepperSession saved = repository.save(session);
+
+        UploadStatus uploadStatus = diagramBlobService.addReference(diagramHash, umlDiagram);
+        if (uploadStatus != UploadStatus.PENDING) {
+            repository.updateUploadStatus(saved.getId(), uploadStatus);
+            saved.setUploadStatus(uploadStatus);
+        }
+        return saved;
+    }
+
+    /**
+     * Deletes a stepper session and removes its references to its UML diagram and its compressed OpenAPI specification. The diagram is deleted from the blob store and the specification is deleted from the database when no other stepper session refers to them.
+     *
+     * @param id The ID of the stepper session.
+     * @return Boolean that indicates whether the stepper session existed.
+     */
+    public boolean deleteSession(Long id) {
+        StepperSession session = repository.findById(id).orElse(null);
+        if (session == null) {
+            return false;
+        }
+        repository.delete(session);
+        if (session.getDiagramHash() != null) {
+            diagramBlobService.releaseReference(session.getDiagramHash());
+        }
+        if (session.getSpecHash() != null && specBlobRepository.decrementReferenceCount(session.getSpecHash()) > 0) {
+            specBlobRepository.deleteUnreferenced(session.getSpecHash());
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the compressed OpenAPI specification of a specific stepper session.
+     * The specification of a stepper session that was saved before the specifications were stored compressed is compressed first.
+     *
+     * @param id The ID of the stepper session.
+     * @return The compressed specification, or null if the stepper session or its specification does not exist.
+     */
+    public SpecBlob getSpec(Long id) {
+        StepperSession session = repository.findById(id).orElse(null);
+        if (session == null) {
+            return null;
+        }
+        if (session.getSpecHash() == null) {
+            if (session.getOpenApiSpec() == null) {
+                return null;
+            }
+            compress(session);
+            repository.save(session);
+        }
+        return specBlobRepository.findById(session.getSpecHash()).orElse(null);
+    }
+
+    /**
+     * Moves the uncompressed OpenAPI specification of a stepper session to a compressed blob and stores the hash of the specification in the stepper session.
+     * A blob is only created if no stepper session has saved the same specification before. Otherwise, the stepper session is added as a reference to the existing blob.
+     *
+     * @param session The stepper session of which the OpenAPI specification is compressed.
+     */
+    private void compress(StepperSession session) {
+        byte[] spec = session.getOpenApiSpec().getBytes(StandardCharsets.UTF_8);
+        String hash = hash(spec);
+        if (specBlobRepository.incrementReferenceCount(hash) == 0) {
+            SpecBlob blob = new SpecBlob();
+            blob.setHash(hash);
+            blob.setContent(gzip(spec));
+            blob.setOriginalSize(spec.length);
+            blob.setReferenceCount(1);
+            try {
+                specBlobRepository.saveAndFlush(blob);
+            } catch (DataIntegrityViolationException e) {
+                // The same specification was saved concurrently by another stepper session.
+                specBlobRepository.incrementReferenceCount(hash);
+            }
+        }
+        session.setSpecHash(hash);
+        session.setOpenApiSpec(null);
+    }
+
+    /**
+     * Computes the SHA-256 hash of an OpenAPI specification.
+     *
+     * @param spec The uncompressed specification.
+     * @return The hexadecimal SHA-256 hash.
+     */
+    private static String hash(byte[] spec) {
+        return Hashes.sha256(spec);
+    }
+
+    /**
+     * Compresses an OpenAPI specification with gzip.
+     *
+     * @param spec The uncompressed specification.
+     * @return The compressed specification.
+     */
+    private static byte[] gzip(byte[] spec) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, spec.length / 8));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(spec);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
     }
 
     /**
@@ -56,82 +197,124 @@ public class StepperSessionService {
     }
 
     /**
-     * Extracts classes and their corresponding attributes from an OpenAPI specification that was generated during a stepper session and creates a string that describes them for the specified stepper session.
+     * Extracts classes and their corresponding attributes from the OpenAPI specification of a stepper session and stores a string that describes them, the amount of classes and the amount of attributes in the specified stepper session.
+     * This is done once when a stepper session is saved, so the list of stepper sessions can be retrieved without reading the OpenAPI specifications.
      *
-     * @param openApiSpec The OpenAPI specification from which its classes and attributes are extracted.
-     * @return String that gives a summary about the classes and their corresponding attributes that are extracted from the specified stepper session.
-     * @throws IOException Is returned if an error occurs during the extraction process.
+     * @param session The stepper session of which the OpenAPI specification is summarised.
      */
-    public String extractClassesAndAttributes(String openApiSpec) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode rootNode = mapper.readTree(openApiSpec);
-        StringBuilder result = new StringBuilder("An OpenAPI specification that has ");
-
-        JsonNode componentsNode = rootNode.path("components").path("schemas");
-        if (componentsNode.isMissingNode()) {
-            return "No classes found in OpenAPI specification.";
-        }
+    public void summarise(StepperSession session) {
+        try {
+            JsonNode componentsNode = JsonMappers.shared().json().readTree(session.getOpenApiSpec()).path("components").path("schemas");
+            if (componentsNode.isMissingNode()) {
+                session.setSummary("No classes found in OpenAPI specification.");
+                session.setClassCount(0);
+                session.setAttributeCount(0);
+                return;
+            }
 
-        Iterator<Map.Entry<String, JsonNode>> fields = componentsNode.fields();
-        int classCount = 0;
+            StringBuilder result = new StringBuilder("An OpenAPI specification that has ");
+            Iterator<Map.Entry<String, JsonNode>> fields = componentsNode.fields();
+            int classCount = 0;
+            int totalAttributeCount = 0;
 
-        while (fields.hasNext()) {
-            classCount++;
-            Map.Entry<String, JsonNode> field = fields.next();
-            String className = field.getKey();
-            JsonNode classNode = field.getValue();
+            while (fields.hasNext()) {
+                classCount++;
+                Map.Entry<String, JsonNode> field = fields.next();
+                String className = field.getKey();
+                JsonNode classNode = field.getValue();
 
-            result.append("the class ").append(className).append(" (with ");
+                result.append("the class ").append(className).append(" (with ");
 
-            JsonNode propertiesNode = classNode.path("properties");
-            if (propertiesNode.isMissingNode()) {
-                result.append("no attributes");
-            } else {
-                int attributeCount = 0;
-                Iterator<Map.Entry<String, JsonNode>> properties = propertiesNode.fields();
-                while (properties.hasNext()) {
-                    attributeCount++;
-                    Map.Entry<String, JsonNode> property = properties.next();
-                    String attributeName = property.getKey();
-                    result.append(attributeName);
-
-                    if (properties.hasNext()) {
-                        result.append(", ");
+                JsonNode propertiesNode = classNode.path("properties");
+                if (propertiesNode.isMissingNode()) {
+                    result.append("no attributes");
+                } else {
+                    int attributeCount = 0;
+                    Iterator<Map.Entry<String, JsonNode>> properties = propertiesNode.fields();
+                    while (properties.hasNext()) {
+                        attributeCount++;
+                        Map.Entry<String, JsonNode> property = properties.next();
+                        String attributeName = property.getKey();
+                        result.append(attributeName);
+
+                        if (properties.hasNext()) {
+                            result.append(", ");
+                        }
                     }
+                    totalAttributeCount += attributeCount;
+                    result.append(" attribute").append(attributeCount > 1 ? "s" : "");
+                }
+                result.append(")");
+                if (fields.hasNext()) {
+                    result.append(", ");
                 }
-                result.append(" attribute").append(attributeCount > 1 ? "s" : "");
             }
-            result.append(")");
-            if (fields.hasNext()) {
-                result.append(", ");
+
+            if (classCount == 1) {
+                result.insert(result.indexOf("the class"), "one ");
+            } else if (classCount > 1) {
+                result.insert(result.indexOf("the class"), classCount + " classes, including ");
+            } else {
+                result.append("no classes");
             }
+
+            session.setSummary(result.toString());
+            session.setClassCount(classCount);
+            session.setAttributeCount(totalAttributeCount);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            session.setSummary("Error extracting OpenAPI summary");
+            session.setClassCount(0);
+            session.setAttributeCount(0);
         }
+    }
 
-        if (classCount == 1) {
-            result.insert(result.indexOf("the class"), "one ");
-        } else {
-            result.insert(result.indexOf("the class"), classCount + " classes, including ");
+    /**
+     * Retrieves a page of the summaries of the saved stepper sessions, from the most recently saved stepper session to the oldest one.
+     * The pages are selected with the ID of the last stepper session of the previous page instead of an offset, so every page is retrieved with the index of the primary key regardless of how many stepper sessions have been saved.
+     *
+     * @param before The ID of the last stepper session of the previous page, or null to retrieve the first page.
+     * @param limit The maximum amount of stepper sessions on the page.
+     * @return Map that contains the summaries of the stepper sessions on the page and the cursor of the next page, which is null if there are no older stepper sessions.
+     */
+    public Map<String, Object> getSessionSummaries(Long before, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<StepperSessionSummary> sessions = before == null
+                ? repository.findByOrderByIdDesc(pageable)
+                : repository.findByIdLessThanOrderByIdDesc(before, pageable);
+
+        Long nextCursor = null;
+        if (sessions.size() > pageSize) {
+            sessions = sessions.subList(0, pageSize);
+            nextCursor = sessions.get(pageSize - 1).getId();
         }
 
-        return result.toString();
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("sessions", sessions);
+        page.put("nextCursor", nextCursor);
+        return page;
     }
 
     /**
-     * Retrieves all saved stepper sessions.
-     *
-     * @return List that contains all saved stepper sessions.
+     * Migrates the stepper sessions that were saved by earlier versions of the application, in batches, when the application has started.
+     * The specifications that are still stored uncompressed are summarised if needed and compressed, after which the summaries of the remaining stepper sessions are stored.
      */
-    public List<StepperSession> getAllSessions() {
-        List<StepperSession> sessions = repository.findAll();
-        for (StepperSession session : sessions) {
-            try {
-                String summary = extractClassesAndAttributes(session.getOpenApiSpec());
-                session.setOpenApiSpec(summary);
-            } catch (IOException e) {
-                e.printStackTrace();
-                session.setOpenApiSpec("Error extracting OpenAPI summary");
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateExistingSessions() {
+        List<StepperSession> sessions;
+        while (!(sessions = repository.findByOpenApiSpecIsNotNull(PageRequest.of(0, MIGRATION_BATCH_SIZE))).isEmpty()) {
+            for (StepperSession session : sessions) {
+                if (session.getSummary() == null) {
+                    summarise(session);
+                }
+                compress(session);
             }
+            repository.saveAll(sessions);
+        }
+        while (!(sessions = repository.findBySummaryIsNull(PageRequest.of(0, MAX_PAGE_SIZE))).isEmpty()) {
+            sessions.forEach(this::summarise);
+            repository.saveAll(sessions);
         }
-        return sessions;
     }
 }
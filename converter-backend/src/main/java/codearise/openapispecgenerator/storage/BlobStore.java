@@ -0,0 +1,34 @@
+package codearise.openapispecgenerator.storage;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Store in which the uploaded UML diagrams of stepper sessions are kept, and from which they can be downloaded through a URL.
+ */
+public interface BlobStore {
+
+    /**
+     * Returns the URL from which a blob can be downloaded once it has been uploaded.
+     *
+     * @param key The key of the blob.
+     * @return The URL of the blob.
+     */
+    String getUrl(String key);
+
+    /**
+     * Uploads a blob in the background. The content must not be modified after it has been passed to this method.
+     *
+     * @param key The key of the blob.
+     * @param fileData The content of the blob.
+     * @return Future that is completed when the blob has been uploaded, or completed exceptionally when the upload has failed.
+     */
+    CompletableFuture<Void> uploadFileAsync(String key, byte[] fileData);
+
+    /**
+     * Deletes a blob in the background. Deleting a blob that does not exist is not an error.
+     *
+     * @param key The key of the blob.
+     * @return Future that is completed when the blob has been deleted, or completed exceptionally when the deletion has failed.
+     */
+    CompletableFuture<Void> deleteFileAsync(String key);
+}
@@ -0,0 +1,105 @@
+package codearise.openapispecgenerator.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Store that keeps the uploaded UML diagrams in a directory of the local file system, for deployments without access to S3.
+ * The directory is served by the application under the base URL of the store.
+ */
+@Component
+@ConditionalOnProperty(name = "blobs.store", havingValue = "filesystem")
+public class FileSystemBlobStore implements BlobStore {
+
+    /**
+     * The directory in which the blobs are stored.
+     */
+    private final Path directory;
+
+    /**
+     * The URL under which the directory is served.
+     */
+    private final String baseUrl;
+
+    /**
+     * The constructor of FileSystemBlobStore.
+     *
+     * @param directory The directory in which the blobs are stored.
+     * @param baseUrl The URL under which the directory is served.
+     */
+    public FileSystemBlobStore(@Value("${blobs.directory:./data/blobs}") String directory,
+                               @Value("${blobs.base-url:http://localhost:8080/data/blobs/}") String baseUrl) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return baseUrl + key;
+    }
+
+    /**
+     * Writes a blob to the directory of the store in the background.
+     * The blob is written to a temporary file first and then moved to its place, so a blob is never read while it is incomplete.
+     *
+     * @param key The key of the blob, which is its path relative to the directory of the store.
+     * @param fileData The content of the blob.
+     * @return Future that is completed when the blob has been written.
+     */
+    @Override
+    public CompletableFuture<Void> uploadFileAsync(String key, byte[] fileData) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Path file = resolve(key);
+                Files.createDirectories(file.getParent());
+                Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+                try {
+                    Files.write(temporaryFile, fileData);
+                    try {
+                        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                } finally {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write file to " + directory, e);
+            }
+        });
+    }
+
+    /**
+     * Deletes a blob from the directory of the store in the background.
+     *
+     * @param key The key of the blob, which is its path relative to the directory of the store.
+     * @return Future that is completed when the blob has been deleted.
+     */
+    @Override
+    public CompletableFuture<Void> deleteFileAsync(String key) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                Files.deleteIfExists(resolve(key));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete file from " + directory, e);
+            }
+        });
+    }
+
+    private Path resolve(String key) {
+        Path file = directory.resolve(key).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return file;
+    }
+}
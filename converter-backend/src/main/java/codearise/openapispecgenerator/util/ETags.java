@@ -0,0 +1,33 @@
+package codearise.openapispecgenerator.util;
+
+/**
+ * Class that handles the ETags of the responses that the frontend caches, such as the OpenAPI specification of a workspace and the compressed specification of a stepper session.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    /**
+     * Checks whether the value of an If-None-Match header refers to the specified ETag.
+     * Weak ETags are compared as if they were strong, because the responses are not transformed in a way that changes their meaning.
+     *
+     * @param ifNoneMatch The value of the If-None-Match header, which may contain several ETags, or null if the header is not present.
+     * @param eTag The ETag of the response.
+     * @return Boolean that indicates whether the client already has the response.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
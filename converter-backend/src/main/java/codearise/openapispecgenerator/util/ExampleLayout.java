@@ -0,0 +1,32 @@
+package codearise.openapispecgenerator.util;
+
+/**
+ * The ways in which the example instances of the classes are laid out in the generated OpenAPI specification.
+ */
+public enum ExampleLayout {
+    /**
+     * The example instances are repeated in the schema of a class and in every operation and content type that shows them.
+     */
+    INLINE,
+
+    /**
+     * The example instances are saved once in the examples of the components section, and the operations refer to them with a $ref, so they only have to be updated in a single place.
+     */
+    SHARED;
+
+    /**
+     * Returns the layout with the specified name, ignoring case.
+     *
+     * @param name The name of the layout, such as "shared" or "inline".
+     * @return The layout.
+     * @throws IllegalArgumentException Is returned if there is no layout with the specified name.
+     */
+    public static ExampleLayout fromName(String name) {
+        for (ExampleLayout layout : values()) {
+            if (layout.name().equalsIgnoreCase(name.trim())) {
+                return layout;
+            }
+        }
+        throw new IllegalArgumentException("Unknown example layout: " + name + ". Available layouts: inline, shared");
+    }
+}
@@ -0,0 +1,94 @@
+package codearise.openapispecgenerator.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that contains the example instances of a single class of the UML diagram.
+ * The table is generated once per class and generation run, and is shared by the class schema and all operations of the class, so that every part of the OpenAPI specification shows the same example values.
+ */
+public final class ExampleTable {
+    /**
+     * The name of the class to which the example instances belong.
+     */
+    private final String className;
+
+    /**
+     * The example instances, each of which contains its id and a value for every attribute of the class.
+     */
+    private final List<Map<String, Object>> rows;
+
+    /**
+     * The constructor of ExampleTable.
+     *
+     * @param className The name of the class to which the example instances belong.
+     * @param rows The example instances, each of which contains its id and a value for every attribute of the class.
+     */
+    public ExampleTable(String className, List<Map<String, Object>> rows) {
+        this.className = className;
+        List<Map<String, Object>> copy = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            copy.add(Collections.unmodifiableMap(new LinkedHashMap<>(row)));
+        }
+        this.rows = Collections.unmodifiableList(copy);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public List<Map<String, Object>> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the example instances as named OpenAPI examples, in which the key is the id of the instance.
+     *
+     * @return Map in which the key is the id of an example instance and the value is an OpenAPI example object that contains the instance.
+     */
+    public Map<String, Object> getExamplesById() {
+        Map<String, Object> examplesById = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            examplesById.put(String.valueOf(row.get("id")), Map.of("value", row));
+        }
+        return examplesById;
+    }
+
+    /**
+     * Returns the name under which all example instances of a class are saved in the examples of the components section of the OpenAPI specification.
+     *
+     * @param className The name of the class.
+     * @return The name of the shared example that contains all example instances.
+     */
+    public static String sharedExampleName(String className) {
+        return className + "_all";
+    }
+
+    /**
+     * Returns the name under which a single example instance of a class is saved in the examples of the components section of the OpenAPI specification.
+     *
+     * @param className The name of the class.
+     * @param id The id of the example instance.
+     * @return The name of the shared example that contains the example instance.
+     */
+    public static String sharedExampleName(String className, Object id) {
+        return className + "_" + id;
+    }
+
+    /**
+     * Returns references to the shared examples of the single example instances, in which the key is the id of the instance.
+     *
+     * @return Map in which the key is the id of an example instance and the value is an OpenAPI reference to its shared example.
+     */
+    public Map<String, Object> getExampleReferencesById() {
+        Map<String, Object> references = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            Object id = row.get("id");
+            references.put(String.valueOf(id), Map.of("$ref", "#/components/examples/" + sharedExampleName(className, id)));
+        }
+        return references;
+    }
+}
@@ -0,0 +1,59 @@
+package codearise.openapispecgenerator.util;
+
+import codearise.openapispecgenerator.model.UmlClass;
+import codearise.openapispecgenerator.model.UmlModel;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface for the sources of the example values that are shown in the generated OpenAPI specification.
+ */
+public interface ExampleValueGenerator {
+    /**
+     * The amount of example instances that is generated for every class.
+     */
+    int EXAMPLE_COUNT = 7;
+
+    /**
+     * Returns the name by which this source of example values is selected.
+     *
+     * @return The name of the source.
+     */
+    String getSource();
+
+    /**
+     * Generates the example instances of all classes of a generation run. The value of an attribute is unique compared to the values of the same attribute in the other example instances of the class.
+     *
+     * @param attributes Map in which the key is the classname and the value is the list of attributes in the format "+name : type".
+     * @return Map in which the key is the classname and the value contains the example instances of the class.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    default Map<String, ExampleTable> generateExampleTables(Map<String, List<String>> attributes) throws IOException {
+        return generateExampleTables(attributes, new GenerationProgress());
+    }
+
+    /**
+     * Generates the example instances of all classes of a generation run and reports the prompts that are issued and the example values that are served from the cache to the specified progress.
+     *
+     * @param attributes Map in which the key is the classname and the value is the list of attributes in the format "+name : type".
+     * @param progress The progress of the generation run, which is also checked for cancellation.
+     * @return Map in which the key is the classname and the value contains the example instances of the class.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    default Map<String, ExampleTable> generateExampleTables(Map<String, List<String>> attributes, GenerationProgress progress) throws IOException {
+        return generateExampleTables(UmlModel.fromMaps(attributes.keySet(), attributes, null).getClasses(), progress);
+    }
+
+    /**
+     * Generates the example instances of the classes of a UML model and reports the prompts that are issued and the example values that are served from the cache to the specified progress.
+     *
+     * @param classes The classes for which example instances are generated, whose attributes have already been parsed into a name and a type.
+     * @param progress The progress of the generation run, which is also checked for cancellation.
+     * @return Map in which the key is the classname and the value contains the example instances of the class.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    Map<String, ExampleTable> generateExampleTables(Collection<UmlClass> classes, GenerationProgress progress) throws IOException;
+}
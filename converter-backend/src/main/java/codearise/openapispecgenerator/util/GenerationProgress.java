@@ -0,0 +1,146 @@
+package codearise.openapispecgenerator.util;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class that keeps track of the progress of a single generation run and whether it has been cancelled.
+ * The counters are updated by the OpenAPISpecGenerator and the generators of example values, which may do so from multiple threads at the same time.
+ */
+public class GenerationProgress {
+    private final AtomicInteger totalClasses = new AtomicInteger();
+    private final AtomicInteger classesDone = new AtomicInteger();
+    private final AtomicInteger promptsIssued = new AtomicInteger();
+    private final AtomicInteger promptsCompleted = new AtomicInteger();
+    private final AtomicInteger cacheHits = new AtomicInteger();
+    private final AtomicInteger fragmentsReused = new AtomicInteger();
+
+    private final Set<CompletableFuture<?>> requests = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cancelled;
+
+    /**
+     * Sets the amount of classes for which the generation run generates schemas and paths.
+     *
+     * @param count The amount of classes.
+     */
+    public void setTotalClasses(int count) {
+        totalClasses.set(count);
+    }
+
+    /**
+     * Registers that the schema and paths of a class have been generated.
+     */
+    public void classCompleted() {
+        classesDone.incrementAndGet();
+    }
+
+    /**
+     * Registers that a prompt has been sent to an external source of example values.
+     */
+    public void promptIssued() {
+        promptsIssued.incrementAndGet();
+    }
+
+    /**
+     * Registers that a response to a prompt has been received.
+     */
+    public void promptCompleted() {
+        promptsCompleted.incrementAndGet();
+    }
+
+    /**
+     * Registers that an example value was served from the cache instead of being requested.
+     */
+    public void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    /**
+     * Registers that the schema and paths of a class have been reused from an earlier generation run, because the class has not changed.
+     */
+    public void fragmentReused() {
+        fragmentsReused.incrementAndGet();
+    }
+
+    /**
+     * Marks the generation run as cancelled and cancels its outstanding requests. The run stops at the next point where it checks for cancellation.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (CompletableFuture<?> request : requests) {
+            request.cancel(false);
+        }
+    }
+
+    /**
+     * Registers a request that is made on behalf of the generation run, so that it is cancelled together with the generation run.
+     * A request that is registered after the generation run has been cancelled is cancelled immediately.
+     *
+     * @param request The future of the request.
+     * @return The same future.
+     */
+    public <T> CompletableFuture<T> track(CompletableFuture<T> request) {
+        requests.add(request);
+        request.whenComplete((result, error) -> requests.remove(request));
+        if (cancelled) {
+            request.cancel(false);
+        }
+        return request;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the generation run if it has been cancelled.
+     *
+     * @throws CancellationException Is returned if the generation run has been cancelled.
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("The generation run has been cancelled.");
+        }
+    }
+
+    public int getTotalClasses() {
+        return totalClasses.get();
+    }
+
+    public int getClassesDone() {
+        return classesDone.get();
+    }
+
+    public int getPromptsIssued() {
+        return promptsIssued.get();
+    }
+
+    public int getPromptsCompleted() {
+        return promptsCompleted.get();
+    }
+
+    public int getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public int getFragmentsReused() {
+        return fragmentsReused.get();
+    }
+
+    /**
+     * Returns the fraction of the work of the generation run that has been done, in which every issued prompt and every class counts as one unit of work.
+     *
+     * @return The fraction between 0 and 1.
+     */
+    public double getFractionDone() {
+        int total = promptsIssued.get() + totalClasses.get();
+        if (total == 0) {
+            return 0;
+        }
+        return Math.min(1, (double) (promptsCompleted.get() + classesDone.get()) / total);
+    }
+}
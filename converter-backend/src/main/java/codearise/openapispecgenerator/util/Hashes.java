@@ -0,0 +1,36 @@
+package codearise.openapispecgenerator.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Class that computes the SHA-256 hashes that identify diagrams, specifications and the entries of the caches of the backend.
+ */
+public final class Hashes {
+    private Hashes() {
+    }
+
+    /**
+     * Computes the SHA-256 hash of the specified parts, which are digested in the specified order.
+     *
+     * @param parts The parts of the input of the hash.
+     * @return The hexadecimal SHA-256 hash in lower case.
+     */
+    public static String sha256(byte[]... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (byte[] part : parts) {
+            digest.update(part);
+        }
+        byte[] hash = digest.digest();
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
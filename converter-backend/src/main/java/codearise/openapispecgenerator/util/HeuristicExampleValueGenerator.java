@@ -0,0 +1,251 @@
+package codearise.openapispecgenerator.util;
+
+import codearise.openapispecgenerator.model.UmlAttribute;
+import codearise.openapispecgenerator.model.UmlClass;
+import codearise.openapispecgenerator.model.UmlModel;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static codearise.openapispecgenerator.util.OpenAPISpecGenerator.mapType;
+
+/**
+ * Implementation of the ExampleValueGenerator interface that generates example values locally, without sending requests to an external service.
+ * Values are chosen from the name and type of an attribute with a set of heuristics and fixed dictionaries. The choice is seeded by the classname and attribute name, so the same diagram always results in the same example values.
+ * Every dictionary contains at least as many entries as there are example instances, so the values of an attribute are unique across the ids of a class.
+ */
+public class HeuristicExampleValueGenerator implements ExampleValueGenerator {
+    /**
+     * The name by which this source of example values is selected.
+     */
+    public static final String SOURCE = "offline";
+
+    private static final String[] FIRST_NAMES = {"Emma", "Liam", "Olivia", "Noah", "Sophie", "Lucas", "Mila", "Daan", "Julia", "Sem", "Tess", "Finn"};
+
+    private static final String[] LAST_NAMES = {"de Vries", "Jansen", "Bakker", "Visser", "Smit", "Meijer", "Mulder", "de Boer", "Bos", "Vos", "Peters", "Hendriks"};
+
+    private static final String[] CITIES = {"Amsterdam", "Rotterdam", "Utrecht", "Eindhoven", "Groningen", "Tilburg", "Almere", "Breda", "Nijmegen", "Leiden", "Haarlem", "Arnhem"};
+
+    private static final String[] COUNTRIES = {"Netherlands", "Belgium", "Germany", "France", "Spain", "Italy", "Sweden", "Norway", "Denmark", "Austria", "Portugal", "Ireland"};
+
+    private static final String[] STREETS = {"Main Street", "Station Road", "Church Lane", "Market Square", "Park Avenue", "Mill Road", "High Street", "Canal Side", "Garden Way", "Harbour Lane", "Oak Street", "River Road"};
+
+    private static final String[] STATUSES = {"ACTIVE", "INACTIVE", "PENDING", "APPROVED", "REJECTED", "ARCHIVED", "SUSPENDED", "COMPLETED", "CANCELLED", "DRAFT"};
+
+    private static final String[] CATEGORIES = {"Standard", "Premium", "Basic", "Professional", "Enterprise", "Economy", "Deluxe", "Limited", "Classic", "Special"};
+
+    private static final String[] COLORS = {"Red", "Blue", "Green", "Yellow", "Purple", "Orange", "Black", "White", "Grey", "Teal"};
+
+    private static final String[] WORDS = {"Aurora", "Breeze", "Cascade", "Delta", "Ember", "Falcon", "Glacier", "Horizon", "Island", "Jasmine", "Krypton", "Lagoon", "Meadow", "Nebula"};
+
+    /**
+     * The classnames for which an attribute called "name" contains the name of a person.
+     */
+    private static final Set<String> PERSON_CLASSES = Set.of("person", "user", "customer", "client", "author", "employee", "student", "teacher", "member", "owner", "patient", "contact", "manager", "driver", "guest", "account");
+
+    @Override
+    public String getSource() {
+        return SOURCE;
+    }
+
+    @Override
+    public Map<String, ExampleTable> generateExampleTables(Map<String, List<String>> attributes) {
+        return generateExampleTables(UmlModel.fromMaps(attributes.keySet(), attributes, null).getClasses(), new GenerationProgress());
+    }
+
+    @Override
+    public Map<String, ExampleTable> generateExampleTables(Collection<UmlClass> classes, GenerationProgress progress) {
+        Map<String, ExampleTable> exampleTables = new LinkedHashMap<>();
+        for (UmlClass umlClass : classes) {
+            progress.checkCancelled();
+            exampleTables.put(umlClass.getName(), generateExampleTable(umlClass));
+        }
+        return exampleTables;
+    }
+
+    /**
+     * Generates the example instances of a single class.
+     *
+     * @param umlClass The class for which example instances are generated.
+     * @return The example instances of the class.
+     */
+    private ExampleTable generateExampleTable(UmlClass umlClass) {
+        String className = umlClass.getName();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 1; i <= EXAMPLE_COUNT; i++) {
+            Map<String, Object> exampleItem = new LinkedHashMap<>();
+            exampleItem.put("id", i);
+            rows.add(exampleItem);
+        }
+
+        for (UmlAttribute attribute : umlClass.getAttributes()) {
+            String name = attribute.getName();
+            int seed = seed(className, name);
+            for (int i = 1; i <= EXAMPLE_COUNT; i++) {
+                rows.get(i - 1).put(name, generateValue(className, name, attribute.getType(), i, seed));
+            }
+        }
+        return new ExampleTable(className, rows);
+    }
+
+    /**
+     * Generates the example value of an attribute for a single example instance.
+     *
+     * @param className The name of the class.
+     * @param name The name of the attribute.
+     * @param type The UML data type of the attribute.
+     * @param id The id of the example instance, starting at 1.
+     * @param seed The seed that is derived from the classname and the attribute name.
+     * @return The example value, which is an Integer, Double, Boolean or String depending on the type of the attribute.
+     */
+    private Object generateValue(String className, String name, String type, int id, int seed) {
+        String attribute = name.toLowerCase(Locale.ROOT);
+        switch (mapType(type)) {
+            case "integer":
+                return generateInteger(attribute, id, seed);
+            case "number":
+                return generateNumber(attribute, id, seed);
+            case "boolean":
+                return (id + seed) % 2 == 0;
+            default:
+                return generateString(className, attribute, type.toLowerCase(Locale.ROOT), id, seed);
+        }
+    }
+
+    private Integer generateInteger(String attribute, int id, int seed) {
+        if (containsAny(attribute, "page", "duration", "length", "capacity")) {
+            return 50 + (seed % 50) + id * 25;
+        }
+        if (attribute.equals("age") || attribute.endsWith("age") && !attribute.endsWith("percentage")) {
+            return 18 + (seed % 20) + id * 4;
+        }
+        if (attribute.contains("year")) {
+            return 1990 + (seed % 10) + id * 3;
+        }
+        if (containsAny(attribute, "quantity", "count", "amount", "stock", "number", "size")) {
+            return 1 + (seed % 5) + id * 3;
+        }
+        if (attribute.endsWith("id")) {
+            return 1000 + (seed % 1000) * 10 + id;
+        }
+        return 10 + (seed % 90) + id * 10;
+    }
+
+    private Double generateNumber(String attribute, int id, int seed) {
+        if (containsAny(attribute, "rating", "score")) {
+            return 1.0 + id * 0.5;
+        }
+        if (attribute.startsWith("lat")) {
+            return round(50.0 + (seed % 300) / 100.0 + id * 0.137);
+        }
+        if (attribute.startsWith("lon") || attribute.startsWith("lng")) {
+            return round(3.0 + (seed % 400) / 100.0 + id * 0.211);
+        }
+        if (containsAny(attribute, "percent", "rate", "discount", "tax")) {
+            return round(2.5 + id * 2.5);
+        }
+        if (containsAny(attribute, "weight", "height", "width", "depth", "distance")) {
+            return round(1.2 + (seed % 10) + id * 1.3);
+        }
+        return round(4.99 + (seed % 20) + id * 5.0);
+    }
+
+    private String generateString(String className, String attribute, String type, int id, int seed) {
+        int index = seed % 1000 + id - 1;
+        if (attribute.contains("email") || attribute.contains("mail")) {
+            return (pick(FIRST_NAMES, index) + "." + pick(LAST_NAMES, index)).toLowerCase(Locale.ROOT).replace(" ", "") + "@example.com";
+        }
+        if (containsAny(attribute, "uuid", "guid") || type.equals("uuid")) {
+            return UUID.nameUUIDFromBytes((className + "." + attribute + "." + id).getBytes(StandardCharsets.UTF_8)).toString();
+        }
+        if (containsAny(attribute, "firstname", "givenname")) {
+            return pick(FIRST_NAMES, index);
+        }
+        if (containsAny(attribute, "lastname", "surname", "familyname")) {
+            return pick(LAST_NAMES, index);
+        }
+        if (containsAny(attribute, "username", "login")) {
+            return pick(FIRST_NAMES, index).toLowerCase(Locale.ROOT) + (seed % 90 + 10);
+        }
+        if (attribute.equals("name") || attribute.equals("fullname")) {
+            return PERSON_CLASSES.contains(className.toLowerCase(Locale.ROOT))
+                    ? pick(FIRST_NAMES, index) + " " + pick(LAST_NAMES, index)
+                    : className + " " + pick(WORDS, index);
+        }
+        if (type.contains("datetime") || type.contains("timestamp") || containsAny(attribute, "createdat", "updatedat", "timestamp", "time")) {
+            return LocalDateTime.of(2024, 1, 1, 9, 0).plusDays(seed % 200 + id * 3L).plusHours(id).toString();
+        }
+        if (type.equals("date") || containsAny(attribute, "date", "birth", "created", "updated", "deadline", "day")) {
+            return LocalDate.of(2024, 1, 1).plusDays(seed % 200 + id * 7L).toString();
+        }
+        if (containsAny(attribute, "phone", "mobile", "tel")) {
+            return String.format("+31 6 %04d %04d", seed % 10000, 1000 + id * 137);
+        }
+        if (containsAny(attribute, "url", "website", "link", "homepage")) {
+            return "https://example.com/" + className.toLowerCase(Locale.ROOT) + "/" + id;
+        }
+        if (containsAny(attribute, "image", "photo", "avatar", "picture")) {
+            return "https://example.com/images/" + className.toLowerCase(Locale.ROOT) + "-" + id + ".png";
+        }
+        if (containsAny(attribute, "street", "address")) {
+            return pick(STREETS, index) + " " + (seed % 100 + id);
+        }
+        if (attribute.contains("city") || attribute.contains("town")) {
+            return pick(CITIES, index);
+        }
+        if (attribute.contains("country")) {
+            return pick(COUNTRIES, index);
+        }
+        if (containsAny(attribute, "zip", "postal", "postcode")) {
+            return String.format("%04d AB", 1000 + (seed % 8000) + id);
+        }
+        if (containsAny(attribute, "status", "state")) {
+            return pick(STATUSES, index);
+        }
+        if (containsAny(attribute, "category", "type", "kind", "level", "tier", "role", "genre")) {
+            return pick(CATEGORIES, index);
+        }
+        if (containsAny(attribute, "color", "colour")) {
+            return pick(COLORS, index);
+        }
+        if (containsAny(attribute, "isbn", "sku", "code", "serial", "reference")) {
+            return attribute.substring(0, Math.min(3, attribute.length())).toUpperCase(Locale.ROOT) + "-" + (seed % 9000 + 1000) + "-" + id;
+        }
+        if (containsAny(attribute, "password", "secret", "token")) {
+            return "s3cr3t-" + Integer.toHexString(seed + id * 7919);
+        }
+        if (containsAny(attribute, "description", "comment", "note", "summary", "text", "bio")) {
+            return pick(WORDS, index) + " " + className.toLowerCase(Locale.ROOT) + " number " + id;
+        }
+        if (type.equals("char")) {
+            return String.valueOf((char) ('A' + (seed + id - 1) % 26));
+        }
+        return pick(WORDS, index) + (attribute.equals("title") ? " " + pick(CATEGORIES, index) : "");
+    }
+
+    /**
+     * Derives a stable seed between 0 and 999,999 from the classname and the attribute name.
+     */
+    private static int seed(String className, String attributeName) {
+        return ((className.toLowerCase(Locale.ROOT) + "." + attributeName.toLowerCase(Locale.ROOT)).hashCode() & 0x7fffffff) % 1_000_000;
+    }
+
+    private static String pick(String[] dictionary, int index) {
+        return dictionary[index % dictionary.length];
+    }
+
+    private static boolean containsAny(String attribute, String... fragments) {
+        for (String fragment : fragments) {
+            if (attribute.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
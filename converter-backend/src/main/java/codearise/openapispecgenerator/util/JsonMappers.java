@@ -0,0 +1,141 @@
+package codearise.openapispecgenerator.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that contains the JSON and YAML mappers of the backend together with the readers and writers for the types that are read and written most often.
+ * Creating an ObjectMapper is expensive, because it builds its serializers and deserializers on first use, so a single configured instance is shared instead of creating a new mapper for every request. The mappers, readers and writers are thread-safe.
+ * The shared instance is registered as a bean by JacksonConfig, and classes that are not created by Spring use the shared method.
+ */
+public final class JsonMappers {
+    private static final JsonMappers SHARED = new JsonMappers();
+
+    private final ObjectMapper json;
+    private final ObjectMapper yaml;
+
+    /**
+     * Reads an OpenAPI specification in the YAML format, which also accepts JSON.
+     */
+    private final ObjectReader specReader;
+
+    /**
+     * Writes an OpenAPI specification in the YAML format.
+     */
+    private final ObjectWriter specWriter;
+
+    /**
+     * Reads the body of a response of the OpenAI chat completions API.
+     */
+    private final ObjectReader chatCompletionReader;
+
+    /**
+     * Writes the body of a request to the OpenAI chat completions API.
+     */
+    private final ObjectWriter chatCompletionWriter;
+
+    /**
+     * Reads the HTTP methods the user has selected per class in the Manage Elements step of the stepper.
+     */
+    private final ObjectReader selectedHttpMethodsReader;
+
+    /**
+     * Reads the relationships the user has applied in the stepper.
+     */
+    private final ObjectReader relationshipsReader;
+
+    /**
+     * Reads a table of example values that is returned by the OpenAI model.
+     */
+    private final ObjectReader exampleTableReader;
+
+    /**
+     * Reads and writes a single record of a file-based cache, in which both the keys and the values are strings.
+     */
+    private final ObjectReader recordReader;
+    private final ObjectWriter recordWriter;
+
+    private JsonMappers() {
+        json = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        yaml = new ObjectMapper(new YAMLFactory()).disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        specReader = yaml.readerFor(new TypeReference<Map<String, Object>>() {});
+        specWriter = yaml.writer();
+        chatCompletionReader = json.readerFor(new TypeReference<Map<String, Object>>() {});
+        chatCompletionWriter = json.writerFor(new TypeReference<Map<String, Object>>() {});
+        selectedHttpMethodsReader = json.readerFor(new TypeReference<Map<String, List<String>>>() {});
+        relationshipsReader = json.readerFor(new TypeReference<List<Map<String, String>>>() {});
+        exampleTableReader = json.readerFor(new TypeReference<List<Object>>() {});
+        recordReader = json.readerFor(new TypeReference<Map<String, String>>() {});
+        recordWriter = json.writerFor(new TypeReference<Map<String, String>>() {});
+    }
+
+    /**
+     * Returns the instance that is shared by the whole backend.
+     *
+     * @return The shared mappers.
+     */
+    public static JsonMappers shared() {
+        return SHARED;
+    }
+
+    public ObjectMapper json() {
+        return json;
+    }
+
+    public ObjectMapper yaml() {
+        return yaml;
+    }
+
+    public JsonFactory jsonFactory() {
+        return json.getFactory();
+    }
+
+    public JsonFactory yamlFactory() {
+        return yaml.getFactory();
+    }
+
+    public ObjectReader specReader() {
+        return specReader;
+    }
+
+    public ObjectWriter specWriter() {
+        return specWriter;
+    }
+
+    public ObjectReader chatCompletionReader() {
+        return chatCompletionReader;
+    }
+
+    public ObjectWriter chatCompletionWriter() {
+        return chatCompletionWriter;
+    }
+
+    public ObjectReader selectedHttpMethodsReader() {
+        return selectedHttpMethodsReader;
+    }
+
+    public ObjectReader relationshipsReader() {
+        return relationshipsReader;
+    }
+
+    public ObjectReader exampleTableReader() {
+        return exampleTableReader;
+    }
+
+    public ObjectReader recordReader() {
+        return recordReader;
+    }
+
+    public ObjectWriter recordWriter() {
+        return recordWriter;
+    }
+}
@@ -0,0 +1,150 @@
+package codearise.openapispecgenerator.util;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Class that sends prompts to the OpenAI chat completions API asynchronously.
+ * All requests go through an OpenAIRequestScheduler, which limits how many requests are in flight and how many are sent per minute, and which holds requests back while the API is rate limiting the client.
+ */
+public class OpenAIClient {
+    /**
+     * The endpoint of the OpenAI chat completions API.
+     */
+    public static final String DEFAULT_ENDPOINT = "https://api.openai.com/v1/chat/completions";
+
+    /**
+     * The priority of requests for which the caller does not specify a priority, which are sent before the requests of any generation job.
+     */
+    public static final long DEFAULT_PRIORITY = 0;
+
+    /**
+     * The OpenAI model that is used for generating example values.
+     */
+    private static final String OPENAI_ENGINE = "gpt-3.5-turbo";
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    /**
+     * The API key that is used to access the OpenAI model.
+     */
+    private final String apiKey;
+
+    /**
+     * The URL to which the prompts are sent.
+     */
+    private final String endpoint;
+
+    /**
+     * The scheduler through which all requests are sent.
+     */
+    private final OpenAIRequestScheduler scheduler;
+
+    /**
+     * The constructor of OpenAIClient that does not limit the amount of requests per minute beyond the rate limits the API reports.
+     * The client creates its own scheduler, which has to be stopped with the shutdown method when the client is no longer used.
+     *
+     * @param apiKey The API key that is used to access the OpenAI model.
+     * @param maxConcurrentRequests The maximum amount of requests that are in flight at the same time.
+     * @param endpoint The URL to which the prompts are sent.
+     */
+    public OpenAIClient(String apiKey, int maxConcurrentRequests, String endpoint) {
+        this(apiKey, new OpenAIRequestScheduler(maxConcurrentRequests, Integer.MAX_VALUE / 2), endpoint);
+    }
+
+    /**
+     * The constructor of OpenAIClient that sends its requests through the specified scheduler.
+     *
+     * @param apiKey The API key that is used to access the OpenAI model.
+     * @param scheduler The scheduler through which all requests are sent.
+     * @param endpoint The URL to which the prompts are sent.
+     */
+    public OpenAIClient(String apiKey, OpenAIRequestScheduler scheduler, String endpoint) {
+        this.apiKey = apiKey;
+        this.scheduler = scheduler;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Sends a prompt to the OpenAI model with the default priority, without blocking the calling thread.
+     *
+     * @param prompt The prompt that is sent to the OpenAI model.
+     * @param maxTokens The maximum amount of tokens in the response.
+     * @return Future that is completed with the trimmed content of the response, or completed exceptionally with an IOException if the request fails.
+     */
+    public CompletableFuture<String> complete(String prompt, int maxTokens) {
+        return complete(prompt, maxTokens, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Sends a prompt to the OpenAI model without blocking the calling thread.
+     *
+     * @param prompt The prompt that is sent to the OpenAI model.
+     * @param maxTokens The maximum amount of tokens in the response.
+     * @param priority The priority of the request. Requests with a lower value are sent first.
+     * @return Future that is completed with the trimmed content of the response, or completed exceptionally with an IOException if the request fails. Cancelling the future also cancels the request.
+     */
+    public CompletableFuture<String> complete(String prompt, int maxTokens, long priority) {
+        Request request;
+        try {
+            Map<String, Object> payload = Map.of(
+                    "model", OPENAI_ENGINE,
+                    "messages", List.of(Map.of("role", "user", "content", prompt)),
+                    "max_tokens", maxTokens,
+                    "temperature", 0.9
+            );
+            request = new Request.Builder()
+                    .url(endpoint)
+                    .post(RequestBody.create(JsonMappers.shared().chatCompletionWriter().writeValueAsBytes(payload), JSON))
+                    .addHeader("Content-Type", "application/json")
+                    .addHeader("Authorization", "Bearer " + apiKey)
+                    .build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<String> submitted = scheduler.submit(request, priority);
+        CompletableFuture<String> content = submitted.thenApply(this::extractContent);
+        content.whenComplete((result, error) -> {
+            if (content.isCancelled()) {
+                submitted.cancel(false);
+            }
+        });
+        return content;
+    }
+
+    /**
+     * Shuts down the scheduler of the client, which stops its threads and closes its connections.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Extracts the content of the first choice from a response of the OpenAI chat completions API.
+     *
+     * @param responseBody The body of the response.
+     * @return The trimmed content of the first choice or an empty string if the response has no choices.
+     */
+    private String extractContent(String responseBody) {
+        Map<String, Object> responseMap;
+        try {
+            responseMap = JsonMappers.shared().chatCompletionReader().readValue(responseBody);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Map<String, Object>> choices = (List<Map<String, Object>>) responseMap.get("choices");
+        if (choices == null || choices.isEmpty()) {
+            return "";
+        }
+        Map<String, Object> messageContent = (Map<String, Object>) choices.get(0).get("message");
+        Object content = messageContent != null ? messageContent.get("content") : null;
+        return content != null ? content.toString().trim() : "";
+    }
+}
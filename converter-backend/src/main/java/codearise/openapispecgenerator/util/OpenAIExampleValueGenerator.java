@@ -0,0 +1,491 @@
+package codearise.openapispecgenerator.util;
+
+import codearise.openapispecgenerator.cache.ExampleCache;
+import codearise.openapispecgenerator.cache.ExampleKey;
+import codearise.openapispecgenerator.model.UmlAttribute;
+import codearise.openapispecgenerator.model.UmlClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static codearise.openapispecgenerator.util.OpenAPISpecGenerator.mapType;
+
+/**
+ * Implementation of the ExampleValueGenerator interface that requests example values from the OpenAI model.
+ */
+public class OpenAIExampleValueGenerator implements ExampleValueGenerator {
+    /**
+     * The name by which this source of example values is selected.
+     */
+    public static final String SOURCE = "openai";
+
+    /**
+     * The maximum amount of tokens in a generated example value.
+     */
+    private static final int EXAMPLE_MAX_TOKENS = 10;
+
+    /**
+     * The maximum amount of tokens that is reserved for a single cell of a batched example table, which includes the attribute name and the JSON syntax around the value.
+     */
+    private static final int BATCH_TOKENS_PER_CELL = 16;
+
+    /**
+     * The maximum amount of times an example value is regenerated because it is not unique compared to the other ids. After that, the duplicate value is accepted.
+     */
+    private static final int MAX_REGENERATIONS = 5;
+
+    /**
+     * The client that sends the prompts for generating example values to the OpenAI model.
+     */
+    private final OpenAIClient openAIClient;
+
+    /**
+     * Boolean that indicates whether the example values of a class are requested as a single table instead of one request per attribute and id.
+     */
+    private final boolean batchExamples;
+
+    /**
+     * Cache for generated example values, which is filled concurrently by the responses of the OpenAI model and shared by all generation runs.
+     */
+    private final ExampleCache exampleCache;
+
+    /**
+     * The sequence number of the last generation job. Every job sends its requests with its own sequence number as priority, so that the requests of earlier jobs are sent before the requests of later jobs.
+     */
+    private final AtomicLong jobSequence = new AtomicLong();
+
+    /**
+     * The constructor of OpenAIExampleValueGenerator.
+     *
+     * @param apiKey The API key that is used to access the OpenAI model that is required for generating example values.
+     * @param maxConcurrentRequests The maximum amount of requests to the OpenAI model that are in flight at the same time.
+     * @param requestsPerMinute The maximum amount of requests that is sent to the OpenAI model per minute.
+     * @param batchExamples Boolean that indicates whether the example values of a class are requested as a single table.
+     * @param exampleCache The cache for generated example values.
+     */
+    @Autowired
+    public OpenAIExampleValueGenerator(@Value("${openai.api.key}") String apiKey,
+                                       @Value("${openai.max-concurrent-requests:8}") int maxConcurrentRequests,
+                                       @Value("${openai.requests-per-minute:3000}") int requestsPerMinute,
+                                       @Value("${openai.batch-examples:true}") boolean batchExamples,
+                                       ExampleCache exampleCache) {
+        this(new OpenAIClient(apiKey, new OpenAIRequestScheduler(maxConcurrentRequests, requestsPerMinute), OpenAIClient.DEFAULT_ENDPOINT), batchExamples, exampleCache);
+    }
+
+    /**
+     * The constructor of OpenAIExampleValueGenerator that uses the specified client for generating example values.
+     *
+     * @param openAIClient The client that sends the prompts for generating example values to the OpenAI model.
+     * @param batchExamples Boolean that indicates whether the example values of a class are requested as a single table.
+     * @param exampleCache The cache for generated example values.
+     */
+    public OpenAIExampleValueGenerator(OpenAIClient openAIClient, boolean batchExamples, ExampleCache exampleCache) {
+        this.openAIClient = openAIClient;
+        this.batchExamples = batchExamples;
+        this.exampleCache = exampleCache;
+    }
+
+    @Override
+    public String getSource() {
+        return SOURCE;
+    }
+
+    /**
+     * Shuts down the client of the OpenAI model when the application is stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        openAIClient.shutdown();
+    }
+
+    /**
+     * Generates the example instances of all classes. The example values of all classes are requested from the OpenAI model at the same time before the tables are built.
+     *
+     * @param classes The classes for which example instances are generated.
+     * @param progress The progress of the generation run, which is also checked for cancellation.
+     * @return Map in which the key is the classname and the value contains the example instances of the class.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    @Override
+    public Map<String, ExampleTable> generateExampleTables(Collection<UmlClass> classes, GenerationProgress progress) throws IOException {
+        long priority = jobSequence.incrementAndGet();
+        prefetchExampleValues(classes, priority, progress);
+
+        Map<String, ExampleTable> exampleTables = new LinkedHashMap<>();
+        for (UmlClass umlClass : classes) {
+            exampleTables.put(umlClass.getName(), buildExampleTable(umlClass, priority, progress));
+        }
+        return exampleTables;
+    }
+
+    /**
+     * Builds the example instances of a class from the generated example values. The value of an attribute is unique compared to the values of the same attribute for the other ids, except for boolean attributes, which only have two possible values.
+     *
+     * @param umlClass The class for which example instances are built.
+     * @param priority The priority of the requests of the generation job.
+     * @param progress The progress of the generation run.
+     * @return The example instances of the class, which are shared by its schema and its operations.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    private ExampleTable buildExampleTable(UmlClass umlClass, long priority, GenerationProgress progress) throws IOException {
+        String className = umlClass.getName();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 1; i <= EXAMPLE_COUNT; i++) {
+            Map<String, Object> exampleItem = new LinkedHashMap<>();
+            exampleItem.put("id", i);
+            rows.add(exampleItem);
+        }
+
+        for (UmlAttribute attribute : umlClass.getAttributes()) {
+            Set<String> usedExamples = new HashSet<>();
+            for (int i = 1; i <= EXAMPLE_COUNT; i++) {
+                String value = generateUniqueExampleValue(className, attribute, i, usedExamples, priority, progress);
+                rows.get(i - 1).put(attribute.getName(), castToCorrectType(value, attribute.getType()));
+            }
+        }
+        return new ExampleTable(className, rows);
+    }
+
+    /**
+     * Sends the prompts for all example values of all classes to the OpenAI model at the same time and waits until every response has been added to the cache.
+     * The amount of requests that are in flight is bounded by the OpenAIClient, so the duration of this method depends on the slowest requests instead of the sum of all requests.
+     * In batch mode, the example values of a class are first requested as a single table, and only the classes for which no valid table is returned fall back to one request per attribute and id.
+     *
+     * @param classes The classes for which example values are generated.
+     * @param priority The priority of the requests of the generation job.
+     * @param progress The progress of the generation run.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    private void prefetchExampleValues(Collection<UmlClass> classes, long priority, GenerationProgress progress) throws IOException {
+        if (batchExamples) {
+            List<CompletableFuture<?>> tables = new ArrayList<>();
+            for (UmlClass umlClass : classes) {
+                Collection<UmlAttribute> classAttributes = umlClass.getAttributes();
+                if (!classAttributes.isEmpty() && !isCached(umlClass.getName(), classAttributes)) {
+                    progress.checkCancelled();
+                    progress.promptIssued();
+                    tables.add(progress.track(openAIClient.complete(buildTablePrompt(umlClass.getName(), classAttributes), classAttributes.size() * EXAMPLE_COUNT * BATCH_TOKENS_PER_CELL, priority))
+                            .handle((content, error) -> {
+                                progress.promptCompleted();
+                                return error == null && cacheExampleTable(umlClass.getName(), classAttributes, content);
+                            }));
+                }
+            }
+            await(CompletableFuture.allOf(tables.toArray(new CompletableFuture[0])));
+        }
+
+        Map<ExampleKey, String> prompts = new LinkedHashMap<>();
+        for (UmlClass umlClass : classes) {
+            for (int i = 1; i <= EXAMPLE_COUNT; i++) {
+                for (UmlAttribute attribute : umlClass.getAttributes()) {
+                    prompts.put(exampleKey(umlClass.getName(), attribute, i), buildPrompt(umlClass.getName(), attribute, i));
+                }
+            }
+        }
+        fetchExampleValues(prompts, priority, progress);
+    }
+
+    /**
+     * Checks whether the example values of all attributes and ids of a class are already in the cache.
+     *
+     * @param className The name of the class.
+     * @param attributes The list of attributes in the class.
+     * @return Boolean that indicates whether every example value of the class is cached.
+     */
+    private boolean isCached(String className, Collection<UmlAttribute> attributes) {
+        for (int i = 1; i <= EXAMPLE_COUNT; i++) {
+            for (UmlAttribute attribute : attributes) {
+                if (exampleCache.get(exampleKey(className, attribute, i)) == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the prompt that asks for all example values of a class at once, as a JSON array with one object per id.
+     *
+     * @param className The name of the class.
+     * @param attributes The list of attributes in the class.
+     * @return The prompt for the OpenAI model.
+     */
+    private String buildTablePrompt(String className, Collection<UmlAttribute> attributes) {
+        StringBuilder columns = new StringBuilder();
+        for (UmlAttribute attribute : attributes) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append('"').append(attribute.getName()).append("\" (").append(mapType(attribute.getType())).append(')');
+        }
+        return "Generate " + EXAMPLE_COUNT + " example instances of a class " + className + ". "
+                + "Respond with only a JSON array of " + EXAMPLE_COUNT + " objects, without any explanation. "
+                + "Every object has exactly these keys with a value of the given JSON type: " + columns + ". "
+                + "Every value is short (one or two words) and unique compared to the values of the same key in the other objects.";
+    }
+
+    /**
+     * Validates a table of example values that is returned by the OpenAI model and adds its cells to the cache under the prompts that would have been used to request them separately.
+     * The table is only used if it contains an object for every id with a value of the correct type for every attribute, so a malformed reply leaves the cache untouched.
+     *
+     * @param className The name of the class.
+     * @param attributes The list of attributes in the class.
+     * @param content The content of the response of the OpenAI model.
+     * @return Boolean that indicates whether the table was valid and has been added to the cache.
+     */
+    private boolean cacheExampleTable(String className, Collection<UmlAttribute> attributes, String content) {
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        if (start < 0 || end < start) {
+            return false;
+        }
+
+        List<Object> rows;
+        try {
+            rows = JsonMappers.shared().exampleTableReader().readValue(content.substring(start, end + 1));
+        } catch (IOException e) {
+            return false;
+        }
+        if (rows.size() < EXAMPLE_COUNT) {
+            return false;
+        }
+
+        Map<ExampleKey, String> cells = new HashMap<>();
+        for (int i = 1; i <= EXAMPLE_COUNT; i++) {
+            if (!(rows.get(i - 1) instanceof Map)) {
+                return false;
+            }
+            Map<?, ?> row = (Map<?, ?>) rows.get(i - 1);
+            for (UmlAttribute attribute : attributes) {
+                Object value = row.get(attribute.getName());
+                if (!matchesType(value, mapType(attribute.getType()))) {
+                    return false;
+                }
+                cells.put(exampleKey(className, attribute, i), value.toString());
+            }
+        }
+        cells.forEach(exampleCache::put);
+        return true;
+    }
+
+    /**
+     * Checks whether a value from a table of example values can be used for an attribute of the specified OpenAPI data type.
+     *
+     * @param value The value from the table.
+     * @param openApiType The OpenAPI data type of the attribute, as returned by the mapType method.
+     * @return Boolean that indicates whether the value matches the data type.
+     */
+    private static boolean matchesType(Object value, String openApiType) {
+        if (value == null || value instanceof Map || value instanceof List) {
+            return false;
+        }
+        String text = value.toString().trim();
+        switch (openApiType) {
+            case "integer":
+                return value instanceof Integer || value instanceof Long || text.matches("-?\\d+");
+            case "number":
+                return value instanceof Number || text.matches("-?\\d+(\\.\\d+)?");
+            case "boolean":
+                return value instanceof Boolean || text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false");
+            default:
+                return !text.isEmpty();
+        }
+    }
+
+    /**
+     * Sends the prompts whose example values are not in the cache yet to the OpenAI model concurrently and adds the responses to the cache.
+     *
+     * @param prompts Map in which the key identifies an example value and the value is the prompt that is used to generate it.
+     * @param priority The priority of the requests of the generation job.
+     * @param progress The progress of the generation run.
+     * @throws IOException Is returned if one of the requests fails.
+     */
+    private void fetchExampleValues(Map<ExampleKey, String> prompts, long priority, GenerationProgress progress) throws IOException {
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+        for (Map.Entry<ExampleKey, String> prompt : prompts.entrySet()) {
+            if (exampleCache.get(prompt.getKey()) != null) {
+                progress.cacheHit();
+                continue;
+            }
+            progress.checkCancelled();
+            progress.promptIssued();
+            requests.add(progress.track(openAIClient.complete(prompt.getValue(), EXAMPLE_MAX_TOKENS, priority))
+                    .whenComplete((content, error) -> progress.promptCompleted())
+                    .thenAccept(content -> exampleCache.put(prompt.getKey(), content)));
+        }
+        await(CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])));
+    }
+
+    /**
+     * Generates an example value for an attribute that is unique compared to the values that have already been used for the same attribute.
+     *
+     * @param className The name of the class.
+     * @param attribute The attribute of the class.
+     * @param id The id of the example instance.
+     * @param usedExamples Set that contains already used example values to enforce uniqueness.
+     * @param priority The priority of the requests of the generation job.
+     * @param progress The progress of the generation run.
+     * @return The generated example value.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    private String generateUniqueExampleValue(String className, UmlAttribute attribute, int id, Set<String> usedExamples, long priority, GenerationProgress progress) throws IOException {
+        ExampleKey key = exampleKey(className, attribute, id);
+        String type = key.getType();
+        String prompt = buildPrompt(className, attribute, id);
+
+        String cached = exampleCache.get(key);
+        if (cached == null) {
+            cached = await(request(prompt, priority, progress));
+            exampleCache.put(key, cached);
+        }
+        String result = convertExampleValue(cached, type);
+        if (!"boolean".equals(mapType(type))) {
+            for (int attempt = 0; attempt < MAX_REGENERATIONS && usedExamples.contains(result); attempt++) {
+                result = regenerateExampleValue(prompt, type, priority, progress);
+            }
+        }
+        usedExamples.add(result);
+        return result;
+    }
+
+    /**
+     * Regenerates a single example value based on previously generated example values to make sure that each example value generated for an attribute is unique.
+     * This method may increase the amount of requests needed and therefore the OpenAI API costs, but it is mandatory to prevent duplicate example values.
+     *
+     * @param prompt The prompt that is used to generate an example value.
+     * @param type The UML data type of the attribute.
+     * @param priority The priority of the requests of the generation job.
+     * @param progress The progress of the generation run.
+     * @return The regenerated example value.
+     * @throws IOException Is returned if an error occurs during the generation process.
+     */
+    private String regenerateExampleValue(String prompt, String type, long priority, GenerationProgress progress) throws IOException {
+        return convertExampleValue(await(request(prompt, priority, progress)), type);
+    }
+
+    /**
+     * Creates the cache key of the example value for an attribute of a class.
+     *
+     * @param className The name of the class.
+     * @param attribute The attribute of the class.
+     * @param id The id of the example instance.
+     * @return The cache key of the example value.
+     */
+    private ExampleKey exampleKey(String className, UmlAttribute attribute, int id) {
+        return new ExampleKey(className, attribute.getName(), attribute.getType(), id);
+    }
+
+    /**
+     * Builds the prompt that is used to generate an example value for an attribute of a class.
+     *
+     * @param className The name of the class.
+     * @param attribute The attribute of the class.
+     * @param id The id of the example for which the value is generated.
+     * @return The prompt for the OpenAI model.
+     */
+    private String buildPrompt(String className, UmlAttribute attribute, int id) {
+        return "Generate a unique, short (one or two words) example value for a " + attribute.getType() + " attribute named " + attribute.getName() + " for a class " + className + " with id " + id + ". Ensure this value is unique compared to other ids.";
+    }
+
+    /**
+     * Sends a single prompt for an example value to the OpenAI model and registers it in the progress of the generation run.
+     *
+     * @param prompt The prompt that is used to generate an example value.
+     * @param priority The priority of the requests of the generation job.
+     * @param progress The progress of the generation run.
+     * @return Future that is completed with the content of the response.
+     */
+    private CompletableFuture<String> request(String prompt, long priority, GenerationProgress progress) {
+        progress.checkCancelled();
+        progress.promptIssued();
+        return progress.track(openAIClient.complete(prompt, EXAMPLE_MAX_TOKENS, priority)).whenComplete((content, error) -> progress.promptCompleted());
+    }
+
+    /**
+     * Waits for the specified future to complete and unwraps the exception with which it has failed. The wait ends early if the generation thread is interrupted, for example because the generation job has been cancelled.
+     *
+     * @param future The future to wait for.
+     * @return The result of the future.
+     * @throws IOException Is returned if the future has failed or if the wait has been interrupted.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response from OpenAI API.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not get a response from OpenAI API.", e.getCause());
+        }
+    }
+
+    private String convertExampleValue(String value, String type) {
+        value = value.trim();
+        if (value.isEmpty()) {
+            value = getDefaultValueForType(type);
+        }
+        try {
+            switch (type.toLowerCase()) {
+                case "int":
+                case "integer":
+                    return String.valueOf(Integer.parseInt(value.replaceAll("[^0-9-]", "")));
+                case "float":
+                case "double":
+                case "decimal":
+                case "number":
+                    return String.valueOf(Double.parseDouble(value.replaceAll("[^0-9.-]", "")));
+                case "boolean":
+                    return String.valueOf(Boolean.parseBoolean(value));
+                default:
+                    return value.replaceAll("^\"|\"$", "");
+            }
+        } catch (NumberFormatException e) {
+            return getDefaultValueForType(type);
+        }
+    }
+
+    private String getDefaultValueForType(String type) {
+        switch (type.toLowerCase()) {
+            case "int":
+            case "integer":
+                return "0";
+            case "float":
+            case "double":
+            case "decimal":
+                return "0.0";
+            case "boolean":
+                return "false";
+            default:
+                return "example";
+        }
+    }
+
+    private Object castToCorrectType(String value, String type) {
+        try {
+            switch (type.toLowerCase()) {
+                case "integer":
+                case "int":
+                    return Integer.parseInt(value);
+                case "number":
+                case "float":
+                case "double":
+                case "decimal":
+                    return Double.parseDouble(value);
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            return getDefaultValueForType(type);
+        }
+    }
+}
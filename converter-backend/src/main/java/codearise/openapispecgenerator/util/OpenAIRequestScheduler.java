@@ -0,0 +1,407 @@
+package codearise.openapispecgenerator.util;
+
+import okhttp3.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Class that schedules all requests to the OpenAI API of the application through a single queue.
+ * Requests are sent in the order of their priority, are limited by a token bucket that refills at the configured amount of requests per minute, and are bounded by a maximum amount of requests in flight.
+ * When the API rate limits a request or reports through its rate limit headers that no requests remain, the whole queue is paused until the time the API asks for has passed. No thread is blocked while requests wait, because the queue is drained from the callbacks of the HTTP client and from a scheduler.
+ */
+public class OpenAIRequestScheduler {
+    /**
+     * The maximum amount of retries that is tolerated for sending API requests to the OpenAI model.
+     */
+    private static final int MAX_RETRIES = 5;
+
+    /**
+     * The initial backoff time in milliseconds for retrying sending API requests to the OpenAI model.
+     */
+    private static final long INITIAL_BACKOFF = 1000;
+
+    /**
+     * Matches a single part of a duration in the format of the rate limit headers of the OpenAI API, such as 6m0s or 20ms.
+     */
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final OkHttpClient httpClient;
+    private final int maxInFlight;
+
+    /**
+     * The amount of tokens that is added to the bucket per millisecond.
+     */
+    private final double tokensPerMilli;
+
+    /**
+     * The maximum amount of tokens in the bucket, which is the amount of requests that can be sent in a burst.
+     */
+    private final double bucketCapacity;
+
+    private final ScheduledExecutorService wakeupScheduler;
+
+    /**
+     * The requests that are waiting to be sent, ordered by their priority and the order in which they were submitted.
+     */
+    private final PriorityQueue<PendingRequest> queue = new PriorityQueue<>();
+
+    private double tokens;
+    private long lastRefill;
+    private int inFlight;
+    private long pausedUntil;
+    private long sequence;
+    private boolean wakeupScheduled;
+    private boolean shutdown;
+
+    /**
+     * The constructor of OpenAIRequestScheduler.
+     *
+     * @param maxInFlight The maximum amount of requests that are in flight at the same time.
+     * @param requestsPerMinute The maximum amount of requests that is sent per minute.
+     */
+    public OpenAIRequestScheduler(int maxInFlight, int requestsPerMinute) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.tokensPerMilli = Math.max(1, requestsPerMinute) / 60_000.0;
+        this.bucketCapacity = Math.max(1, requestsPerMinute / 60.0);
+        this.tokens = bucketCapacity;
+        this.lastRefill = System.currentTimeMillis();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(this.maxInFlight);
+        dispatcher.setMaxRequestsPerHost(this.maxInFlight);
+        this.httpClient = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+
+        this.wakeupScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "openai-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a request to the queue.
+     *
+     * @param request The request to the OpenAI API.
+     * @param priority The priority of the request. Requests with a lower value are sent first, and requests with the same priority are sent in the order in which they were submitted.
+     * @return Future that is completed with the body of the successful response, or completed exceptionally with an IOException if the request fails or the scheduler has been shut down. Cancelling the future removes the request from the queue.
+     */
+    public CompletableFuture<String> submit(Request request, long priority) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        PendingRequest pending;
+        synchronized (this) {
+            if (shutdown) {
+                return CompletableFuture.failedFuture(new IOException("The OpenAI request scheduler has been shut down."));
+            }
+            pending = new PendingRequest(request, priority, sequence++, result);
+            queue.add(pending);
+        }
+        result.whenComplete((body, error) -> {
+            if (result.isCancelled()) {
+                cancel(pending);
+            }
+        });
+        drain();
+        return result;
+    }
+
+    /**
+     * Removes a cancelled request from the queue, or cancels its HTTP call if it has already been sent, so it no longer uses the rate limit of the API.
+     *
+     * @param pending The cancelled request.
+     */
+    private void cancel(PendingRequest pending) {
+        Call call;
+        synchronized (this) {
+            queue.remove(pending);
+            call = pending.call;
+        }
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    /**
+     * Returns the amount of requests that are waiting to be sent.
+     *
+     * @return The amount of queued requests.
+     */
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the thread that wakes up the queue and the threads and connections of the HTTP client. Requests that are still queued or in flight are completed exceptionally, and requests that are submitted afterwards fail immediately.
+     */
+    public void shutdown() {
+        List<PendingRequest> queued;
+        synchronized (this) {
+            shutdown = true;
+            queued = new ArrayList<>(queue);
+            queue.clear();
+        }
+        IOException error = new IOException("The OpenAI request scheduler has been shut down.");
+        for (PendingRequest pending : queued) {
+            pending.result.completeExceptionally(error);
+        }
+        wakeupScheduler.shutdownNow();
+        httpClient.dispatcher().cancelAll();
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * Sends queued requests for as long as the limits allow it. If a request is waiting for the bucket to refill or for a rate limit pause to end, a wakeup is scheduled at the moment it can be sent.
+     * Requests that have been cancelled are dropped without being sent.
+     */
+    private void drain() {
+        synchronized (this) {
+            while (!shutdown && !queue.isEmpty() && inFlight < maxInFlight) {
+                if (queue.peek().result.isDone()) {
+                    queue.poll();
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                long wait = pausedUntil - now;
+                if (wait <= 0) {
+                    refill(now);
+                    if (tokens < 1) {
+                        wait = (long) Math.ceil((1 - tokens) / tokensPerMilli);
+                    }
+                }
+                if (wait > 0) {
+                    scheduleWakeup(wait);
+                    return;
+                }
+                tokens -= 1;
+                inFlight++;
+                dispatch(queue.poll());
+            }
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(bucketCapacity, tokens + (now - lastRefill) * tokensPerMilli);
+        lastRefill = now;
+    }
+
+    private void scheduleWakeup(long delay) {
+        if (!wakeupScheduled) {
+            wakeupScheduled = true;
+            wakeupScheduler.schedule(() -> {
+                synchronized (this) {
+                    wakeupScheduled = false;
+                }
+                drain();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends a request and handles its response once it arrives.
+     *
+     * @param pending The request that is sent.
+     */
+    private void dispatch(PendingRequest pending) {
+        Call call = httpClient.newCall(pending.request);
+        pending.call = call;
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                complete();
+                pending.result.completeExceptionally(e);
+                drain();
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    long now = System.currentTimeMillis();
+                    applyRateLimitHeaders(response, now);
+                    if (response.isSuccessful()) {
+                        String body = response.body().string();
+                        complete();
+                        pending.result.complete(body);
+                    } else if (response.code() == 429) {
+                        retry(pending, response, now);
+                    } else {
+                        complete();
+                        pending.result.completeExceptionally(toException(response));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    complete();
+                    pending.result.completeExceptionally(e);
+                }
+                drain();
+            }
+        });
+    }
+
+    private synchronized void complete() {
+        inFlight--;
+    }
+
+    /**
+     * Pauses the queue after a rate limited response and puts the request back into the queue, where it keeps its position relative to the other requests.
+     *
+     * @param pending The request that was rate limited.
+     * @param response The rate limited response.
+     * @param now The time at which the response was received.
+     * @throws IOException Is returned if the request has been rate limited too often.
+     */
+    private void retry(PendingRequest pending, Response response, long now) throws IOException {
+        if (pending.retryCount + 1 >= MAX_RETRIES) {
+            throw new IOException("Max retries reached. Could not get a response from OpenAI API.");
+        }
+        long waitTime = Math.max(pending.backoffTime, retryAfter(response));
+        synchronized (this) {
+            inFlight--;
+            pausedUntil = Math.max(pausedUntil, now + waitTime);
+            pending.retryCount++;
+            pending.backoffTime *= 2;
+            pending.call = null;
+            if (!pending.result.isDone()) {
+                queue.add(pending);
+            }
+        }
+    }
+
+    /**
+     * Pauses the queue if the rate limit headers of a response report that no requests or tokens remain until the limit is reset.
+     *
+     * @param response The response of the OpenAI API.
+     * @param now The time at which the response was received.
+     */
+    private void applyRateLimitHeaders(Response response, long now) {
+        long pause = Math.max(exhaustedFor(response, "requests"), exhaustedFor(response, "tokens"));
+        String remainingRequests = response.header("x-ratelimit-remaining-requests");
+        synchronized (this) {
+            if (pause > 0) {
+                pausedUntil = Math.max(pausedUntil, now + pause);
+            }
+            if (remainingRequests != null) {
+                try {
+                    tokens = Math.min(tokens, Long.parseLong(remainingRequests.trim()));
+                } catch (NumberFormatException e) {
+                    // The header is only used as a hint, so an invalid value is ignored.
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the time until the limit of the specified kind is reset if none of it remains.
+     *
+     * @param response The response of the OpenAI API.
+     * @param kind The kind of limit, which is "requests" or "tokens".
+     * @return The time in milliseconds until the limit is reset, or 0 if the limit has not been reached.
+     */
+    private long exhaustedFor(Response response, String kind) {
+        String remaining = response.header("x-ratelimit-remaining-" + kind);
+        if (remaining == null || !remaining.trim().equals("0")) {
+            return 0;
+        }
+        return parseDuration(response.header("x-ratelimit-reset-" + kind));
+    }
+
+    /**
+     * Reads the time the API asks the client to wait from the Retry-After header, or from the reset time of the request limit if that header is missing.
+     *
+     * @param response The rate limited response.
+     * @return The time in milliseconds to wait, or 0 if the response does not specify it.
+     */
+    private long retryAfter(Response response) {
+        String header = response.header("Retry-After");
+        if (header != null) {
+            try {
+                return (long) (Double.parseDouble(header.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return parseDuration(response.header("x-ratelimit-reset-requests"));
+    }
+
+    /**
+     * Parses a duration in the format of the rate limit headers of the OpenAI API, such as 1s, 6m0s or 20ms.
+     *
+     * @param value The duration.
+     * @return The duration in milliseconds, or 0 if the value is missing or cannot be parsed.
+     */
+    static long parseDuration(String value) {
+        if (value == null) {
+            return 0;
+        }
+        double millis = 0;
+        Matcher matcher = DURATION_PART.matcher(value.trim());
+        while (matcher.find()) {
+            double amount = Double.parseDouble(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "h":
+                    millis += amount * 3_600_000;
+                    break;
+                case "m":
+                    millis += amount * 60_000;
+                    break;
+                case "s":
+                    millis += amount * 1000;
+                    break;
+                default:
+                    millis += amount;
+                    break;
+            }
+        }
+        return (long) Math.ceil(millis);
+    }
+
+    private IOException toException(Response response) throws IOException {
+        switch (response.code()) {
+            case 401:
+                return new IOException("Unauthorized: Invalid API key.");
+            case 404:
+                return new IOException("Invalid endpoint. Please check the URL and endpoint.");
+            case 400:
+                return new IOException("Bad request: " + response.body().string());
+            default:
+                return new IOException("Unexpected code " + response);
+        }
+    }
+
+    /**
+     * A request that is waiting to be sent, together with the future that is completed with its response.
+     */
+    private static final class PendingRequest implements Comparable<PendingRequest> {
+        private final Request request;
+        private final long priority;
+        private final long sequence;
+        private final CompletableFuture<String> result;
+        private int retryCount;
+        private long backoffTime = INITIAL_BACKOFF;
+
+        /**
+         * The HTTP call of the request while it is in flight, which is guarded by the lock of the scheduler.
+         */
+        private Call call;
+
+        private PendingRequest(Request request, long priority, long sequence, CompletableFuture<String> result) {
+            this.request = request;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.result = result;
+        }
+
+        @Override
+        public int compareTo(PendingRequest other) {
+            int comparison = Long.compare(priority, other.priority);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package codearise.openapispecgenerator.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import okhttp3.*;
+import codearise.openapispecgenerator.model.UmlAttribute;
+import codearise.openapispecgenerator.model.UmlClass;
+import codearise.openapispecgenerator.model.UmlModel;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 /**
@@ -14,42 +17,86 @@ import java.util.*;
  */
 public class OpenAPISpecGenerator {
     /**
-     * The API key that is used to access the OpenAI model that is required for generating example values.
+     * The generators of example values that can be selected for a generation run, in which the key is the name of the source.
      */
-    private final String apiKey;
+    private final Map<String, ExampleValueGenerator> exampleValueGenerators;
 
     /**
-     * The HTTP client that is used for initiating API requests.
+     * The name of the example value source that is used if a generation run does not select one.
      */
-    private static final OkHttpClient httpClient = new OkHttpClient();
+    private final String defaultExampleSource;
 
     /**
-     * The maximum amount of retries that is tolerated for sending API requests to the OpenAI model.
+     * The way in which the example instances are laid out in the generated OpenAPI specification.
      */
-    private static final int MAX_RETRIES = 5;
+    private final ExampleLayout exampleLayout;
 
     /**
-     * The initial backoff time for retrying sending API requests to the OpenAI model.
+     * The amount of class fragments that is cached if no other amount is configured.
      */
-    private static final int INITIAL_BACKOFF = 1000;
+    public static final int DEFAULT_FRAGMENT_CACHE_SIZE = 1000;
 
     /**
-     * The OpenAI model that is used for generating example values.
+     * The cache of the parts of the specification that belong to a single class, which are reused by generation runs in which the class has not changed.
      */
-    private static final String OPENAI_ENGINE = "gpt-3.5-turbo";
+    private final SpecFragmentCache fragmentCache;
 
     /**
-     * Cache for temporarily storing generated example values. This makes sure that the same generated example values are used in both the generateClassSchema method and the createGetAllOperation method, so that both the GET endpoints for a class contain the same example values.
+     * The constructor of OpenAPISpecGenerator.
+     *
+     * @param openAIExampleValueGenerator The generator that requests example values from the OpenAI model.
+     * @param defaultExampleSource The name of the example value source that is used if a generation run does not select one.
+     * @param exampleLayout The name of the way in which the example instances are laid out, which is "shared" or "inline".
+     * @param specFragmentCache The cache of the parts of the specification that belong to a single class.
      */
-    private static final Map<String, Object> exampleCache = new HashMap<>();
+    @Autowired
+    public OpenAPISpecGenerator(OpenAIExampleValueGenerator openAIExampleValueGenerator,
+                                @Value("${examples.source:" + OpenAIExampleValueGenerator.SOURCE + "}") String defaultExampleSource,
+                                @Value("${examples.layout:shared}") String exampleLayout,
+                                SpecFragmentCache specFragmentCache) {
+        this(List.of(openAIExampleValueGenerator, new HeuristicExampleValueGenerator()), defaultExampleSource, ExampleLayout.fromName(exampleLayout), specFragmentCache);
+    }
 
     /**
-     * The constructor of OpenAPISpecGenerator.
+     * The constructor of OpenAPISpecGenerator that uses the specified generators of example values and the shared example layout.
      *
-     * @param apiKey The API key that is used to access the OpenAI model that is required for generating example values.
+     * @param exampleValueGenerators The generators of example values that can be selected for a generation run.
+     * @param defaultExampleSource The name of the example value source that is used if a generation run does not select one.
      */
-    public OpenAPISpecGenerator(@Value("${openai.api.key}") String apiKey) {
-        this.apiKey = apiKey;
+    public OpenAPISpecGenerator(List<ExampleValueGenerator> exampleValueGenerators, String defaultExampleSource) {
+        this(exampleValueGenerators, defaultExampleSource, ExampleLayout.SHARED);
+    }
+
+    /**
+     * The constructor of OpenAPISpecGenerator that uses the specified generators of example values and example layout.
+     *
+     * @param exampleValueGenerators The generators of example values that can be selected for a generation run.
+     * @param defaultExampleSource The name of the example value source that is used if a generation run does not select one.
+     * @param exampleLayout The way in which the example instances are laid out in the generated OpenAPI specification.
+     */
+    public OpenAPISpecGenerator(List<ExampleValueGenerator> exampleValueGenerators, String defaultExampleSource, ExampleLayout exampleLayout) {
+        this(exampleValueGenerators, defaultExampleSource, exampleLayout, new SpecFragmentCache(DEFAULT_FRAGMENT_CACHE_SIZE));
+    }
+
+    /**
+     * The constructor of OpenAPISpecGenerator that uses the specified generators of example values, example layout and cache of class fragments.
+     *
+     * @param exampleValueGenerators The generators of example values that can be selected for a generation run.
+     * @param defaultExampleSource The name of the example value source that is used if a generation run does not select one.
+     * @param exampleLayout The way in which the example instances are laid out in the generated OpenAPI specification.
+     * @param fragmentCache The cache of the parts of the specification that belong to a single class.
+     */
+    public OpenAPISpecGenerator(List<ExampleValueGenerator> exampleValueGenerators, String defaultExampleSource, ExampleLayout exampleLayout, SpecFragmentCache fragmentCache) {
+        this.exampleLayout = exampleLayout;
+        this.fragmentCache = fragmentCache;
+        this.exampleValueGenerators = new LinkedHashMap<>();
+        for (ExampleValueGenerator generator : exampleValueGenerators) {
+            this.exampleValueGenerators.put(generator.getSource(), generator);
+        }
+        if (!this.exampleValueGenerators.containsKey(defaultExampleSource)) {
+            throw new IllegalArgumentException("Unknown example source: " + defaultExampleSource + ". Available sources: " + this.exampleValueGenerators.keySet());
+        }
+        this.defaultExampleSource = defaultExampleSource;
     }
 
     /**
@@ -72,73 +119,100 @@ public class OpenAPISpecGenerator {
                                Map<String, List<Map<String, String>>> relationships,
                                String outputPath,
                                Map<String, Map<String, Boolean>> selectedHttpMethods) throws Exception {
-        try {
-            Map<String, Object> openAPISpec = new LinkedHashMap<>();
-            openAPISpec.put("openapi", "3.0.0");
-
-            Map<String, Object> info = new LinkedHashMap<>();
-            info.put("title", "Generated API");
-            info.put("version", "1.0.0");
-            info.put("description", "API dynamically generated from UML.");
-            openAPISpec.put("info", info);
-
-            List<Map<String, String>> servers = new ArrayList<>();
-            Map<String, String> server = new LinkedHashMap<>();
-            server.put("url", "http://localhost:4010");
-            servers.add(server);
-            openAPISpec.put("servers", servers);
-
-            Map<String, Object> paths = new LinkedHashMap<>();
-            Map<String, Object> components = new LinkedHashMap<>();
-            Map<String, Object> schemas = new LinkedHashMap<>();
-
-            for (String className : classes.keySet()) {
-                List<String> classAttributes = attributes.getOrDefault(className, new ArrayList<>());
-                Map<String, Object> classSchema = generateClassSchema(className, classAttributes);
-                schemas.put(className, classSchema);
-
-                String lowerCaseClassName = className.toLowerCase();
-                String path = "/" + lowerCaseClassName;
-                Map<String, Object> pathItem = new LinkedHashMap<>();
-                pathItem.put("get", createGetAllOperation(className, classAttributes));
-                paths.put(path, pathItem);
-
-                Map<String, Boolean> selectedMethods = selectedHttpMethods.getOrDefault(className, new HashMap<>());
-                for (Map.Entry<String, Boolean> entry : selectedMethods.entrySet()) {
-                    if (Boolean.TRUE.equals(entry.getValue())) {
-                        String method = entry.getKey().toUpperCase();
-                        String lowerCaseMethod = method.toLowerCase();
-                        String methodPath = "/" + lowerCaseClassName + (method.equals("GET") || method.equals("DELETE") || method.equals("PUT") ? "/{id}" : "");
-                        Map<String, Object> methodPathItem = (Map<String, Object>) paths.getOrDefault(methodPath, new LinkedHashMap<>());
-                        methodPathItem.put(lowerCaseMethod, createOperation(className, method, classSchema, method.equals("GET")));
-                        paths.put(methodPath, methodPathItem);
-                    }
-                }
-            }
+        return generateSpec(classes, attributes, methods, mappings, relationships, outputPath, selectedHttpMethods, null);
+    }
 
-            if (relationships != null) {
-                for (Map.Entry<String, List<Map<String, String>>> entry : relationships.entrySet()) {
-                    String className = entry.getKey();
-                    List<Map<String, String>> relationshipList = entry.getValue();
-                    for (Map<String, String> relationship : relationshipList) {
-                        String fromClass = relationship.get("classFrom");
-                        String toClass = relationship.get("classTo");
-                        String relationshipType = relationship.get("relationshipType");
-
-                        String relationshipPath = "/relationships/" + fromClass.toLowerCase() + "-" + toClass.toLowerCase();
-                        Map<String, Object> pathItem = new LinkedHashMap<>();
-                        pathItem.put("get", createRelationshipOperation(fromClass, toClass, relationshipType));
-                        paths.put(relationshipPath, pathItem);
-                    }
-                }
-            }
+    /**
+     * Generates the OpenAPI specification based on the configuration that the user has provided in the stepper, with example values from the specified source.
+     *
+     * @param classes Map in which the key is the classname and the value is its corresponding path.
+     * @param attributes Map in which the key is the classname and the value is the corresponding attribute.
+     * @param methods Map in which the key is the classname and the value is the corresponding method.
+     * @param mappings The list that contains the mappings and modifications done by the user in the Mapping step of the stepper.
+     * @param relationships The list of relationships between classes.
+     * @param outputPath The path of the directory in which the generated OpenAPI specification is saved.
+     * @param selectedHttpMethods Map in which the key is the classname and the value contains the corresponding HTTP methods the user has selected in the Manage Elements tab of the Mapping step of the stepper.
+     * @param exampleSource The name of the source of the example values, such as "openai" or "offline", or null to use the configured default source.
+     * @return Message that indicates whether the generation process has completed successfully.
+     * @throws Exception Is returned if an error occurs during the generation process.
+     */
+    public String generateSpec(Map<String, List<String>> classes,
+                               Map<String, List<String>> attributes,
+                               Map<String, List<String>> methods,
+                               List<Map<String, Object>> mappings,
+                               Map<String, List<Map<String, String>>> relationships,
+                               String outputPath,
+                               Map<String, Map<String, Boolean>> selectedHttpMethods,
+                               String exampleSource) throws Exception {
+        return generateSpec(classes, attributes, methods, mappings, relationships, outputPath, selectedHttpMethods, exampleSource, new GenerationProgress());
+    }
 
-            components.put("schemas", schemas);
-            openAPISpec.put("paths", paths);
-            openAPISpec.put("components", components);
+    /**
+     * Generates the OpenAPI specification based on the configuration that the user has provided in the stepper and reports the progress of the generation run.
+     *
+     * @param classes Map in which the key is the classname and the value is its corresponding path.
+     * @param attributes Map in which the key is the classname and the value is the corresponding attribute.
+     * @param methods Map in which the key is the classname and the value is the corresponding method.
+     * @param mappings The list that contains the mappings and modifications done by the user in the Mapping step of the stepper.
+     * @param relationships The list of relationships between classes.
+     * @param outputPath The path of the directory in which the generated OpenAPI specification is saved.
+     * @param selectedHttpMethods Map in which the key is the classname and the value contains the corresponding HTTP methods the user has selected in the Manage Elements tab of the Mapping step of the stepper.
+     * @param exampleSource The name of the source of the example values, such as "openai" or "offline", or null to use the configured default source.
+     * @param progress The progress of the generation run, which is also checked for cancellation before every class.
+     * @return Message that indicates whether the generation process has completed successfully.
+     * @throws Exception Is returned if an error occurs during the generation process or if the generation run has been cancelled.
+     */
+    public String generateSpec(Map<String, List<String>> classes,
+                               Map<String, List<String>> attributes,
+                               Map<String, List<String>> methods,
+                               List<Map<String, Object>> mappings,
+                               Map<String, List<Map<String, String>>> relationships,
+                               String outputPath,
+                               Map<String, Map<String, Boolean>> selectedHttpMethods,
+                               String exampleSource,
+                               GenerationProgress progress) throws Exception {
+        return generateSpec(UmlModel.fromMaps(classes.keySet(), attributes, methods), mappings, relationships, outputPath, selectedHttpMethods, exampleSource, progress);
+    }
 
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-            mapper.writeValue(new File(outputPath), openAPISpec);
+    /**
+     * Generates the OpenAPI specification for the classes of a UML model and reports the progress of the generation run.
+     *
+     * @param model The UML model that contains the classes and their attributes and operations.
+     * @param mappings The list that contains the mappings and modifications done by the user in the Mapping step of the stepper.
+     * @param relationships The list of relationships between classes.
+     * @param outputPath The path of the directory in which the generated OpenAPI specification is saved.
+     * @param selectedHttpMethods Map in which the key is the classname and the value contains the corresponding HTTP methods the user has selected in the Manage Elements tab of the Mapping step of the stepper.
+     * @param exampleSource The name of the source of the example values, such as "openai" or "offline", or null to use the configured default source.
+     * @param progress The progress of the generation run, which is also checked for cancellation before every class.
+     * @return Message that indicates whether the generation process has completed successfully.
+     * @throws Exception Is returned if an error occurs during the generation process or if the generation run has been cancelled.
+     */
+    public String generateSpec(UmlModel model,
+                               List<Map<String, Object>> mappings,
+                               Map<String, List<Map<String, String>>> relationships,
+                               String outputPath,
+                               Map<String, Map<String, Boolean>> selectedHttpMethods,
+                               String exampleSource,
+                               GenerationProgress progress) throws Exception {
+        try {
+            ExampleValueGenerator exampleValueGenerator = getExampleValueGenerator(exampleSource);
+            Collection<UmlClass> classes = model.getClasses();
+            progress.setTotalClasses(classes.size());
+
+            FragmentSource fragments = new FragmentSource(classes, selectedHttpMethods, exampleValueGenerator, progress);
+            progress.checkCancelled();
+
+            Path target = Path.of(outputPath);
+            Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                try (OpenAPISpecWriter writer = OpenAPISpecWriter.open(temporary, OpenAPISpecWriter.isJson(target))) {
+                    writeSpec(writer, classes, fragments, relationships, progress);
+                }
+                progress.checkCancelled();
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
 
             return "OpenAPI specification generated successfully at " + outputPath;
         } catch (Exception e) {
@@ -148,6 +222,228 @@ public class OpenAPISpecGenerator {
         }
     }
 
+    /**
+     * Source of the fragments of the specification for the classes of a generation run, from which the fragments are taken one class at a time while the specification is written.
+     * Fragments of classes that have not changed since an earlier run are taken from the cache, and only the example values of the other classes are generated, all at once before the specification is written.
+     * A fragment is built when it is first needed and stored in the cache, so the generation run does not hold the fragments of all classes itself.
+     */
+    private final class FragmentSource {
+        private final Map<String, Map<String, Boolean>> selectedHttpMethods;
+        private final ExampleValueGenerator exampleValueGenerator;
+        private final GenerationProgress progress;
+
+        /**
+         * The keys of the fragments, in which the key is the classname.
+         */
+        private final Map<String, String> keys = new HashMap<>();
+
+        /**
+         * The example instances of the classes of which the fragment was not in the cache, in which the key is the classname.
+         */
+        private final Map<String, ExampleTable> exampleTables = new HashMap<>();
+
+        /**
+         * The constructor of FragmentSource, which looks up the fragments of the classes in the cache and generates the example values of the classes that have changed.
+         *
+         * @param classes The classes of the UML model.
+         * @param selectedHttpMethods Map in which the key is the classname and the value contains the corresponding HTTP methods the user has selected.
+         * @param exampleValueGenerator The generator of the example values of the classes that have changed.
+         * @param progress The progress of the generation run.
+         * @throws IOException Is returned if an error occurs while generating the example values.
+         */
+        private FragmentSource(Collection<UmlClass> classes,
+                               Map<String, Map<String, Boolean>> selectedHttpMethods,
+                               ExampleValueGenerator exampleValueGenerator,
+                               GenerationProgress progress) throws IOException {
+            this.selectedHttpMethods = selectedHttpMethods;
+            this.exampleValueGenerator = exampleValueGenerator;
+            this.progress = progress;
+            List<UmlClass> changedClasses = new ArrayList<>();
+            for (UmlClass umlClass : classes) {
+                String key = SpecFragment.key(umlClass, selectedHttpMethods.getOrDefault(umlClass.getName(), Map.of()), exampleValueGenerator.getSource(), exampleLayout);
+                keys.put(umlClass.getName(), key);
+                if (fragmentCache.get(key) == null) {
+                    changedClasses.add(umlClass);
+                }
+            }
+            if (!changedClasses.isEmpty()) {
+                exampleTables.putAll(exampleValueGenerator.generateExampleTables(changedClasses, progress));
+            }
+        }
+
+        /**
+         * Checks whether the fragment of a class was taken from the cache instead of being built in this generation run.
+         *
+         * @param umlClass The class.
+         * @return Boolean that indicates whether the fragment has been reused.
+         */
+        private boolean isReused(UmlClass umlClass) {
+            return !exampleTables.containsKey(umlClass.getName());
+        }
+
+        /**
+         * Returns the fragment of a class from the cache, or builds it and adds it to the cache if it is not there.
+         * If the fragment of an unchanged class has been evicted during the generation run, because the run has more classes than the cache can hold, the example values of the class are generated again.
+         *
+         * @param umlClass The class.
+         * @return The fragment of the class.
+         * @throws IOException Is returned if an error occurs while generating the example values.
+         */
+        private SpecFragment get(UmlClass umlClass) throws IOException {
+            String className = umlClass.getName();
+            String key = keys.get(className);
+            SpecFragment fragment = fragmentCache.peek(key);
+            if (fragment != null) {
+                return fragment;
+            }
+            ExampleTable exampleTable = exampleTables.get(className);
+            if (exampleTable == null) {
+                exampleTable = exampleValueGenerator.generateExampleTables(List.of(umlClass), progress).get(className);
+                exampleTables.put(className, exampleTable);
+            }
+            fragment = createFragment(key, umlClass, exampleTable, selectedHttpMethods);
+            fragmentCache.put(fragment);
+            return fragment;
+        }
+    }
+
+    /**
+     * Creates the fragment of the specification for a class, which contains its path items, its schema and, with the shared example layout, its examples in the components section.
+     *
+     * @param key The content hash of the inputs of the fragment.
+     * @param umlClass The class.
+     * @param exampleTable The example instances of the class.
+     * @param selectedHttpMethods Map in which the key is the classname and the value contains the corresponding HTTP methods the user has selected.
+     * @return The fragment of the class.
+     */
+    private SpecFragment createFragment(String key, UmlClass umlClass, ExampleTable exampleTable, Map<String, Map<String, Boolean>> selectedHttpMethods) {
+        String className = umlClass.getName();
+        String lowerCaseClassName = className.toLowerCase();
+        Map<String, Map<String, Object>> pathItems = new LinkedHashMap<>();
+        pathItems.computeIfAbsent("/" + lowerCaseClassName, path -> new LinkedHashMap<>()).put("get", createGetAllOperation(className, exampleTable));
+
+        Map<String, Boolean> selectedMethods = selectedHttpMethods.getOrDefault(className, new HashMap<>());
+        for (Map.Entry<String, Boolean> entry : selectedMethods.entrySet()) {
+            if (Boolean.TRUE.equals(entry.getValue())) {
+                String method = entry.getKey().toUpperCase();
+                String methodPath = "/" + lowerCaseClassName + (method.equals("GET") || method.equals("DELETE") || method.equals("PUT") ? "/{id}" : "");
+                pathItems.computeIfAbsent(methodPath, path -> new LinkedHashMap<>()).put(method.toLowerCase(), createOperation(className, method, exampleTable, method.equals("GET")));
+            }
+        }
+
+        Map<String, Object> examples = new LinkedHashMap<>();
+        if (exampleLayout == ExampleLayout.SHARED) {
+            examples.put(ExampleTable.sharedExampleName(className), exampleTable.getRows());
+            if (isSelected(selectedHttpMethods, className, "GET")) {
+                for (Map<String, Object> row : exampleTable.getRows()) {
+                    examples.put(ExampleTable.sharedExampleName(className, row.get("id")), row);
+                }
+            }
+        }
+        return new SpecFragment(key, className, pathItems, generateClassSchema(umlClass, exampleTable), examples);
+    }
+
+    /**
+     * Writes the OpenAPI specification section by section from the fragments of the classes. Every section takes the fragments from the source one class at a time, so a fragment is written as soon as it has been found or built.
+     * With the shared example layout, the example instances of a class are written once to the examples of the components section, and the operations refer to them, so the example values are not repeated for every operation and content type.
+     *
+     * @param writer The writer to which the specification is written.
+     * @param classes The classes of the UML model.
+     * @param fragments The source of the fragments of the classes.
+     * @param relationships The list of relationships between classes.
+     * @param progress The progress of the generation run, which is also checked for cancellation before every class.
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    private void writeSpec(OpenAPISpecWriter writer,
+                           Collection<UmlClass> classes,
+                           FragmentSource fragments,
+                           Map<String, List<Map<String, String>>> relationships,
+                           GenerationProgress progress) throws IOException {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("title", "Generated API");
+        info.put("version", "1.0.0");
+        info.put("description", "API dynamically generated from UML.");
+        writer.writeHeader(info, "http://localhost:4010");
+
+        for (UmlClass umlClass : classes) {
+            progress.checkCancelled();
+            for (Map.Entry<String, Map<String, Object>> pathItem : fragments.get(umlClass).getPathItems().entrySet()) {
+                writer.writePathItem(pathItem.getKey(), pathItem.getValue());
+            }
+            if (fragments.isReused(umlClass)) {
+                progress.fragmentReused();
+            }
+            progress.classCompleted();
+        }
+
+        if (relationships != null) {
+            Map<String, Map<String, Object>> relationshipPaths = new LinkedHashMap<>();
+            for (List<Map<String, String>> relationshipList : relationships.values()) {
+                for (Map<String, String> relationship : relationshipList) {
+                    String fromClass = relationship.get("classFrom");
+                    String toClass = relationship.get("classTo");
+                    String relationshipType = relationship.get("relationshipType");
+
+                    String relationshipPath = "/relationships/" + fromClass.toLowerCase() + "-" + toClass.toLowerCase();
+                    relationshipPaths.put(relationshipPath, Map.of("get", createRelationshipOperation(fromClass, toClass, relationshipType)));
+                }
+            }
+            for (Map.Entry<String, Map<String, Object>> pathItem : relationshipPaths.entrySet()) {
+                writer.writePathItem(pathItem.getKey(), pathItem.getValue());
+            }
+        }
+
+        writer.startSchemas();
+        for (UmlClass umlClass : classes) {
+            SpecFragment fragment = fragments.get(umlClass);
+            writer.writeSchema(fragment.getClassName(), fragment.getSchema());
+        }
+
+        if (exampleLayout == ExampleLayout.INLINE) {
+            writer.finish();
+            return;
+        }
+        writer.startExamples();
+        for (UmlClass umlClass : classes) {
+            for (Map.Entry<String, Object> example : fragments.get(umlClass).getExamples().entrySet()) {
+                writer.writeExample(example.getKey(), example.getValue());
+            }
+        }
+        writer.finish();
+    }
+
+    /**
+     * Checks whether the user has selected an HTTP method for a class.
+     *
+     * @param selectedHttpMethods Map in which the key is the classname and the value contains the corresponding HTTP methods the user has selected.
+     * @param className The name of the class.
+     * @param method The HTTP method.
+     * @return Boolean that indicates whether the HTTP method is selected for the class.
+     */
+    private static boolean isSelected(Map<String, Map<String, Boolean>> selectedHttpMethods, String className, String method) {
+        for (Map.Entry<String, Boolean> entry : selectedHttpMethods.getOrDefault(className, Map.of()).entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(method) && Boolean.TRUE.equals(entry.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the generator of example values for the specified source.
+     *
+     * @param exampleSource The name of the source of the example values, or null or an empty string to use the configured default source.
+     * @return The generator of example values.
+     */
+    private ExampleValueGenerator getExampleValueGenerator(String exampleSource) {
+        String source = exampleSource == null || exampleSource.isBlank() ? defaultExampleSource : exampleSource.trim().toLowerCase();
+        ExampleValueGenerator generator = exampleValueGenerators.get(source);
+        if (generator == null) {
+            throw new IllegalArgumentException("Unknown example source: " + exampleSource + ". Available sources: " + exampleValueGenerators.keySet());
+        }
+        return generator;
+    }
+
     private Map<String, Object> createRelationshipOperation(String fromClass, String toClass, String relationshipType) {
         Map<String, Object> operation = new LinkedHashMap<>();
         operation.put("tags", List.of("Relationships"));
@@ -183,275 +479,42 @@ public class OpenAPISpecGenerator {
     }
 
     /**
-     * Generates the class schema that contains classnames, the attributes, and an array that consists of their corresponding example values.
+     * Generates the class schema that contains classnames, the attributes, and with the inline example layout an array that consists of their corresponding example values.
      *
-     * @param className The name of the class.
-     * @param attributes The list of attributes in a class.
+     * @param umlClass The class for which the schema is generated.
+     * @param exampleTable The example instances of the class.
      * @return Map that contains the generated class schema.
-     * @throws IOException Is returned if an error occurs during the generation process.
      */
-    private Map<String, Object> generateClassSchema(String className, List<String> attributes) throws IOException {
+    private Map<String, Object> generateClassSchema(UmlClass umlClass, ExampleTable exampleTable) {
+        String className = umlClass.getName();
         Map<String, Object> properties = new LinkedHashMap<>();
-        List<Map<String, Object>> exampleArray = new ArrayList<>();
-
-        for (int i = 1; i <= 7; i++) {
-            Map<String, Object> exampleItem = new LinkedHashMap<>();
-            exampleItem.put("id", i);
-
-            List<String> prompts = new ArrayList<>();
-            for (String attribute : attributes) {
-                String[] parts = attribute.split(" ");
-                String name = parts[0].substring(1);
-                String type = parts[2];
-                prompts.add("Generate a unique, short (one or two words) example value for a " + type + " attribute named " + name + " for a class " + className + " with id " + i + ". Ensure this value is unique compared to other ids.");
-            }
-
-            List<Object> generatedValues = generateUniqueExampleValues(prompts, apiKey, new HashSet<>(), attributes);
-            for (int j = 0; j < attributes.size(); j++) {
-                String[] parts = attributes.get(j).split(" ");
-                String name = parts[0].substring(1);
-                String type = parts[2];
-                String format = getTypeFormat(type);
-
-                Object value = castToCorrectType(generatedValues.get(j).toString(), type);
-
-                Map<String, Object> attributeSchema = new LinkedHashMap<>();
-                attributeSchema.put("type", mapType(type));
-                if (format != null) {
-                    attributeSchema.put("format", format);
-                }
-                properties.put(name, attributeSchema);
-                exampleItem.put(name, value);
-            }
-            exampleArray.add(exampleItem);
-        }
-
-        return Map.of(
-                "type", "object",
-                "properties", properties,
-                "example", exampleArray.get(0),
-                "examples", Map.of("exampleArray", exampleArray),
-                "xml", Map.of(
-                        "name", className.toLowerCase(),
-                        "wrapped", true,
-                        "namespace", "http://example.com/schema"
-                )
-        );
-    }
-
-    /**
-     * Generates unique example values for the attributes of the classes in a class schema based on the specified prompt.
-     *
-     * @param prompts List that contains the prompts that are used to generate example values for the attributes of the classes.
-     * @param apiKey The API key that is used to access the OpenAI model that is required for generating example values.
-     * @param usedExamples Set that contains already used example values to enforce uniqueness.
-     * @param attributes List of attributes that are being processed.
-     * @return List of generated example values for the attributes of the classes.
-     * @throws IOException Is returned if an error occurs during the generation process.
-     */
-    private List<Object> generateUniqueExampleValues(List<String> prompts, String apiKey, Set<String> usedExamples, List<String> attributes) throws IOException {
-        MediaType JSON = MediaType.get("application/json; charset=utf-8");
-
-        for (String prompt : prompts) {
-            if (exampleCache.containsKey(prompt)) {
-                continue;
-            }
-
-            String json = "{ \"model\": \"" + OPENAI_ENGINE + "\", \"messages\": [{\"role\": \"user\", \"content\": \"" + prompt + "\"}], \"max_tokens\": 10, \"temperature\": 0.9 }";
-            RequestBody body = RequestBody.create(json, JSON);
-
-            int retryCount = 0;
-            int backoffTime = INITIAL_BACKOFF;
-
-            while (retryCount < MAX_RETRIES) {
-                Request request = new Request.Builder()
-                        .url("https://api.openai.com/v1/chat/completions")
-                        .post(body)
-                        .addHeader("Content-Type", "application/json")
-                        .addHeader("Authorization", "Bearer " + apiKey)
-                        .build();
-
-                try (Response response = httpClient.newCall(request).execute()) {
-                    if (response.isSuccessful()) {
-                        String responseBody = response.body().string();
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
-
-                        List<Map<String, Object>> choices = (List<Map<String, Object>>) responseMap.get("choices");
-                        if (choices != null && !choices.isEmpty()) {
-                            Map<String, Object> messageContent = (Map<String, Object>) choices.get(0).get("message");
-                            String content = messageContent.get("content").toString().trim();
-                            if (content.isEmpty()) {
-                                content = getDefaultValueForType(prompts.get(prompts.indexOf(prompt)));
-                            }
-                            exampleCache.put(prompt, content);
-                            break;
-                        }
-                    } else if (response.code() == 429) {
-                        retryCount++;
-                        System.err.println("Rate limited. Retrying in " + backoffTime + "ms");
-                        Thread.sleep(backoffTime);
-                        backoffTime *= 2;
-                    } else if (response.code() == 401) {
-                        throw new IOException("Unauthorized: Invalid API key.");
-                    } else if (response.code() == 404) {
-                        throw new IOException("Invalid endpoint. Please check the URL and endpoint.");
-                    } else if (response.code() == 400) {
-                        String responseBody = response.body().string();
-                        throw new IOException("Bad request: " + responseBody);
-                    } else {
-                        throw new IOException("Unexpected code " + response);
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IOException("Thread interrupted during backoff", e);
-                }
-            }
-
-            if (retryCount == MAX_RETRIES) {
-                throw new IOException("Max retries reached. Could not get a response from OpenAI API.");
+        for (UmlAttribute attribute : umlClass.getAttributes()) {
+            String name = attribute.getName();
+            String type = attribute.getType();
+            String format = getTypeFormat(type);
+
+            Map<String, Object> attributeSchema = new LinkedHashMap<>();
+            attributeSchema.put("type", mapType(type));
+            if (format != null) {
+                attributeSchema.put("format", format);
             }
+            properties.put(name, attributeSchema);
         }
 
-        List<Object> results = new ArrayList<>();
-        for (int i = 0; i < prompts.size(); i++) {
-            String result = exampleCache.get(prompts.get(i)).toString();
-            String[] parts = attributes.get(i).split(" ");
-            String type = parts[2];
-            result = convertExampleValue(result, type);
-            while (usedExamples.contains(result) || result.isEmpty()) {
-                result = regenerateExampleValue(prompts.get(i), apiKey, type);
-            }
-            usedExamples.add(result);
-            results.add(result);
-        }
-
-        return results;
-    }
-
-    /**
-     * Regenerates a single example value based on previously generated example values to make sure that each example value generated for an attribute is unique.
-     * This method may increase the amount of requests needed and therefore the OpenAI API costs, but it is mandatory to prevent duplicate example values.
-     *
-     * @param prompt The prompt that is used to generate an example value.
-     * @param apiKey The API key that is used to access the OpenAI model.
-     * @return The regenerated example value.
-     * @throws IOException Is returned if an error occurs during the generation process.
-     */
-    private String regenerateExampleValue(String prompt, String apiKey, String type) throws IOException {
-        MediaType JSON = MediaType.get("application/json; charset=utf-8");
-
-        String json = "{ \"model\": \"" + OPENAI_ENGINE + "\", \"messages\": [{\"role\": \"user\", \"content\": \"" + prompt + "\"}], \"max_tokens\": 10, \"temperature\": 0.9 }";
-        RequestBody body = RequestBody.create(json, JSON);
-
-        int retryCount = 0;
-        int backoffTime = INITIAL_BACKOFF;
-
-        while (retryCount < MAX_RETRIES) {
-            Request request = new Request.Builder()
-                    .url("https://api.openai.com/v1/chat/completions")
-                    .post(body)
-                    .addHeader("Content-Type", "application/json")
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .build();
-
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.isSuccessful()) {
-                    String responseBody = response.body().string();
-                    ObjectMapper objectMapper = new ObjectMapper();
-                    Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
-
-                    List<Map<String, Object>> choices = (List<Map<String, Object>>) responseMap.get("choices");
-                    if (choices != null && !choices.isEmpty()) {
-                        Map<String, Object> messageContent = (Map<String, Object>) choices.get(0).get("message");
-                        String content = messageContent.get("content").toString().trim();
-                        if (content.isEmpty()) {
-                            content = getDefaultValueForType(type);
-                        }
-                        return convertExampleValue(content, type);
-                    }
-                } else if (response.code() == 429) {
-                    retryCount++;
-                    System.err.println("Rate limited. Retrying in " + backoffTime + "ms");
-                    Thread.sleep(backoffTime);
-                    backoffTime *= 2;
-                } else if (response.code() == 401) {
-                    throw new IOException("Unauthorized: Invalid API key.");
-                } else if (response.code() == 404) {
-                    throw new IOException("Invalid endpoint. Please check the URL and endpoint.");
-                } else if (response.code() == 400) {
-                    String responseBody = response.body().string();
-                    throw new IOException("Bad request: " + responseBody);
-                } else {
-                    throw new IOException("Unexpected code " + response);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IOException("Thread interrupted during backoff", e);
-            }
-        }
-
-        throw new IOException("Max retries reached. Could not get a response from OpenAI API.");
-    }
-
-    private String convertExampleValue(String value, String type) {
-        value = value.trim();
-        if (value.isEmpty()) {
-            value = getDefaultValueForType(type);
-        }
-        try {
-            switch (type.toLowerCase()) {
-                case "int":
-                case "integer":
-                    return String.valueOf(Integer.parseInt(value.replaceAll("[^0-9-]", "")));
-                case "float":
-                case "double":
-                case "decimal":
-                case "number":
-                    return String.valueOf(Double.parseDouble(value.replaceAll("[^0-9.-]", "")));
-                case "boolean":
-                    return String.valueOf(Boolean.parseBoolean(value));
-                default:
-                    return value.replaceAll("^\"|\"$", "");
-            }
-        } catch (NumberFormatException e) {
-            return getDefaultValueForType(type);
-        }
-    }
-
-    private String getDefaultValueForType(String type) {
-        switch (type.toLowerCase()) {
-            case "int":
-            case "integer":
-                return "0";
-            case "float":
-            case "double":
-            case "decimal":
-                return "0.0";
-            case "boolean":
-                return "false";
-            default:
-                return "example";
-        }
-    }
-
-    private Object castToCorrectType(String value, String type) {
-        try {
-            switch (type.toLowerCase()) {
-                case "integer":
-                case "int":
-                    return Integer.parseInt(value);
-                case "number":
-                case "float":
-                case "double":
-                case "decimal":
-                    return Double.parseDouble(value);
-                default:
-                    return value;
-            }
-        } catch (NumberFormatException e) {
-            return getDefaultValueForType(type);
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", "object");
+        schema.put("properties", properties);
+        if (exampleLayout == ExampleLayout.INLINE) {
+            List<Map<String, Object>> exampleArray = exampleTable.getRows();
+            schema.put("example", exampleArray.get(0));
+            schema.put("examples", Map.of("exampleArray", exampleArray));
         }
+        schema.put("xml", Map.of(
+                "name", className.toLowerCase(),
+                "wrapped", true,
+                "namespace", "http://example.com/schema"
+        ));
+        return schema;
     }
 
     /**
@@ -460,7 +523,7 @@ public class OpenAPISpecGenerator {
      * @param type The UML data type that is used as input.
      * @return The corresponding data type that can be used in the generated OpenAPI specification.
      */
-    private static String mapType(String type) {
+    static String mapType(String type) {
         switch (type.toLowerCase()) {
             case "int":
             case "integer":
@@ -512,38 +575,18 @@ public class OpenAPISpecGenerator {
      * Creates a GET HTTP method for fetching all instances of a class.
      *
      * @param className The name of the class.
-     * @param attributes List of attributes for the specified class.
+     * @param exampleTable The example instances of the class.
      * @return Map that contains all the data that is used for creating the GET HTTP method.
-     * @throws Exception Is returned if an error occurs during the generation process.
      */
-    private Map<String, Object> createGetAllOperation(String className, List<String> attributes) throws Exception {
+    private Map<String, Object> createGetAllOperation(String className, ExampleTable exampleTable) {
         Map<String, Object> operation = new LinkedHashMap<>();
         operation.put("tags", List.of(className));
         operation.put("summary", "Get all instances of " + className);
         operation.put("description", "Fetches all instances of " + className);
 
-        List<Map<String, Object>> examples = new ArrayList<>();
-        for (int i = 1; i <= 7; i++) {
-            Map<String, Object> exampleItem = new LinkedHashMap<>();
-            exampleItem.put("id", i);
-
-            List<String> prompts = new ArrayList<>();
-            for (String attribute : attributes) {
-                String[] parts = attribute.split(" ");
-                String name = parts[0].substring(1);
-                String type = parts[2];
-                prompts.add("Generate a unique, short (one or two words) example value for a " + type + " attribute named " + name + " for a class " + className + " with id " + i + ". Ensure this value is unique compared to other ids.");
-            }
-
-            List<Object> generatedValues = generateUniqueExampleValues(prompts, apiKey, new HashSet<>(), attributes);
-            for (int j = 0; j < attributes.size(); j++) {
-                String[] parts = attributes.get(j).split(" ");
-                String name = parts[0].substring(1);
-                exampleItem.put(name, generatedValues.get(j));
-            }
-            examples.add(exampleItem);
-        }
-
+        Map<String, Object> examples = Map.of("exampleArray", exampleLayout == ExampleLayout.SHARED
+                ? Map.of("$ref", "#/components/examples/" + ExampleTable.sharedExampleName(className))
+                : Map.of("value", exampleTable.getRows()));
         operation.put("responses", Map.of(
                 "200", Map.of(
                         "description", "Successful retrieval",
@@ -553,7 +596,7 @@ public class OpenAPISpecGenerator {
                                                 "type", "array",
                                                 "items", Map.of("$ref", "#/components/schemas/" + className)
                                         ),
-                                        "examples", Map.of("exampleArray", Map.of("value", examples))
+                                        "examples", examples
                                 ),
                                 "application/xml", Map.of(
                                         "schema", Map.of(
@@ -565,7 +608,7 @@ public class OpenAPISpecGenerator {
                                                         "namespace", "http://example.com/schema"
                                                 )
                                         ),
-                                        "examples", Map.of("exampleArray", Map.of("value", examples))
+                                        "examples", examples
                                 )
                         )
                 )
@@ -578,12 +621,11 @@ public class OpenAPISpecGenerator {
      *
      * @param className The name of the class.
      * @param method The selected HTTP method.
-     * @param classSchema The schema of the class that defines its structure.
+     * @param exampleTable The example instances of the class.
      * @param isGetMethod Boolean that indicates whether the endpoint is a GET HTTP method.
      * @return Map that contains all the data that is used for creating the HTTP method.
-     * @throws Exception Is returned if an error occurs during the generation process.
      */
-    private Map<String, Object> createOperation(String className, String method, Map<String, Object> classSchema, boolean isGetMethod) throws Exception {
+    private Map<String, Object> createOperation(String className, String method, ExampleTable exampleTable, boolean isGetMethod) {
         Map<String, Object> operation = new LinkedHashMap<>();
         operation.put("tags", List.of(className));
         operation.put("summary", method + " operation for " + className);
@@ -619,12 +661,7 @@ public class OpenAPISpecGenerator {
         }
 
         if (isGetMethod) {
-            List<Map<String, Object>> examples = (List<Map<String, Object>>) ((Map<String, Object>) classSchema.get("examples")).get("exampleArray");
-            Map<String, Object> exampleById = new LinkedHashMap<>();
-            for (Map<String, Object> example : examples) {
-                int id = (int) example.get("id");
-                exampleById.put(String.valueOf(id), Map.of("value", example));
-            }
+            Map<String, Object> exampleById = exampleLayout == ExampleLayout.SHARED ? exampleTable.getExampleReferencesById() : exampleTable.getExamplesById();
             operation.put("responses", Map.of(
                     "200", Map.of(
                             "description", "Successful operation",
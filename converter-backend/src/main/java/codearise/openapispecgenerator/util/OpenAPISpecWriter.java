@@ -0,0 +1,166 @@
+package codearise.openapispecgenerator.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class that writes an OpenAPI specification section by section to a file, so the specification does not have to be built as a single tree in memory before it is saved.
+ * Every path item, schema and example is written as soon as it has been created and can be garbage collected afterwards, so the memory that is used for writing does not grow with the size of the specification.
+ * The sections have to be written in the order header, paths, schemas, examples. Files that end with ".json" are written as JSON, and all other files as YAML.
+ */
+public final class OpenAPISpecWriter implements Closeable {
+    private final JsonGenerator generator;
+
+    /**
+     * The paths that have been written, which is used to skip a path that would otherwise be written twice.
+     */
+    private final Set<String> writtenPaths = new HashSet<>();
+
+    private boolean inComponents;
+
+    /**
+     * The constructor of OpenAPISpecWriter.
+     *
+     * @param generator The Jackson generator to which the specification is written.
+     */
+    public OpenAPISpecWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Creates a writer for the specified file.
+     *
+     * @param file The path of the file to which the specification is written.
+     * @param json Boolean that indicates whether the specification is written as JSON instead of YAML.
+     * @return The writer of the specification.
+     * @throws IOException Is returned if the file cannot be opened.
+     */
+    public static OpenAPISpecWriter open(Path file, boolean json) throws IOException {
+        JsonFactory factory = json ? JsonMappers.shared().jsonFactory() : JsonMappers.shared().yamlFactory();
+        Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        JsonGenerator generator = factory.createGenerator(writer);
+        return new OpenAPISpecWriter(json ? generator.useDefaultPrettyPrinter() : generator);
+    }
+
+    /**
+     * Checks whether a specification is saved as JSON, which is the case for files that end with ".json".
+     *
+     * @param outputPath The path where the specification is saved.
+     * @return Boolean that indicates whether the specification is saved as JSON instead of YAML.
+     */
+    public static boolean isJson(Path outputPath) {
+        return outputPath.getFileName().toString().toLowerCase().endsWith(".json");
+    }
+
+    /**
+     * Writes the start of the specification, which contains the OpenAPI version, the info section and the servers, and opens the paths section.
+     *
+     * @param info Map that contains the title, version and description of the API.
+     * @param serverUrl The URL of the server on which the API is available.
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    public void writeHeader(Map<String, Object> info, String serverUrl) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("openapi", "3.0.0");
+        generator.writeObjectField("info", info);
+        generator.writeArrayFieldStart("servers");
+        generator.writeStartObject();
+        generator.writeStringField("url", serverUrl);
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeObjectFieldStart("paths");
+    }
+
+    /**
+     * Writes a path item with its operations. A path that has already been written is skipped, because a key can only occur once in the paths section.
+     *
+     * @param path The path of the endpoints, such as "/book".
+     * @param pathItem Map in which the key is the lower case HTTP method and the value is the operation.
+     * @return Boolean that indicates whether the path item has been written.
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    public boolean writePathItem(String path, Map<String, Object> pathItem) throws IOException {
+        if (!writtenPaths.add(path)) {
+            System.err.println("Skipping duplicate path in OpenAPI specification: " + path);
+            return false;
+        }
+        generator.writeObjectField(path, pathItem);
+        return true;
+    }
+
+    /**
+     * Closes the paths section and opens the schemas in the components section.
+     *
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    public void startSchemas() throws IOException {
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("components");
+        generator.writeObjectFieldStart("schemas");
+        inComponents = true;
+    }
+
+    /**
+     * Writes the schema of a class.
+     *
+     * @param className The name of the class.
+     * @param schema Map that contains the schema of the class.
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    public void writeSchema(String className, Map<String, Object> schema) throws IOException {
+        generator.writeObjectField(className, schema);
+    }
+
+    /**
+     * Closes the schemas and opens the examples in the components section, which contain the example values that are referenced by the operations.
+     *
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    public void startExamples() throws IOException {
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("examples");
+    }
+
+    /**
+     * Writes a shared example.
+     *
+     * @param name The name of the example, which is referenced as "#/components/examples/{name}".
+     * @param value The value of the example.
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    public void writeExample(String name, Object value) throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeObjectField("value", value);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Closes the open sections and flushes the specification to the file.
+     *
+     * @throws IOException Is returned if an error occurs while writing.
+     */
+    public void finish() throws IOException {
+        if (!inComponents) {
+            startSchemas();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,85 @@
+package codearise.openapispecgenerator.util;
+
+import codearise.openapispecgenerator.model.UmlAttribute;
+import codearise.openapispecgenerator.model.UmlClass;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Class that contains the parts of a generated OpenAPI specification that belong to a single class: its path items, its schema and, with the shared example layout, its examples in the components section.
+ * A fragment only depends on the inputs that are hashed into its key, so it can be reused by later generation runs in which the class has not changed, without generating its example values and building its paths again.
+ */
+public final class SpecFragment {
+    private final String key;
+    private final String className;
+    private final Map<String, Map<String, Object>> pathItems;
+    private final Map<String, Object> schema;
+    private final Map<String, Object> examples;
+
+    /**
+     * The constructor of SpecFragment.
+     *
+     * @param key The content hash of the inputs from which the fragment was generated.
+     * @param className The name of the class.
+     * @param pathItems Map in which the key is a path of the class and the value contains its operations.
+     * @param schema The schema of the class.
+     * @param examples Map in which the key is the name of an example in the components section and the value is the example value, which is empty with the inline example layout.
+     */
+    public SpecFragment(String key, String className, Map<String, Map<String, Object>> pathItems, Map<String, Object> schema, Map<String, Object> examples) {
+        this.key = key;
+        this.className = className;
+        this.pathItems = Collections.unmodifiableMap(pathItems);
+        this.schema = Collections.unmodifiableMap(schema);
+        this.examples = Collections.unmodifiableMap(examples);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Map<String, Map<String, Object>> getPathItems() {
+        return pathItems;
+    }
+
+    public Map<String, Object> getSchema() {
+        return schema;
+    }
+
+    public Map<String, Object> getExamples() {
+        return examples;
+    }
+
+    /**
+     * Computes the key of the fragment of a class, which is a SHA-256 hash of everything the fragment depends on: the name and attributes of the class, the HTTP methods that are selected for it, the source of the example values and the example layout.
+     * The operations of the class are not part of the key, because they do not appear in the generated specification.
+     *
+     * @param umlClass The class.
+     * @param selectedMethods Map in which the key is an HTTP method and the value indicates whether the user has selected it for the class.
+     * @param exampleSource The name of the source of the example values.
+     * @param layout The example layout of the specification.
+     * @return The hexadecimal SHA-256 hash.
+     */
+    public static String key(UmlClass umlClass, Map<String, Boolean> selectedMethods, String exampleSource, ExampleLayout layout) {
+        StringBuilder input = new StringBuilder();
+        input.append(layout).append('\n').append(exampleSource).append('\n').append(umlClass.getName()).append('\n');
+        for (UmlAttribute attribute : umlClass.getAttributes()) {
+            input.append(attribute.getName()).append(':').append(attribute.getType()).append('\n');
+        }
+        TreeSet<String> methods = new TreeSet<>();
+        selectedMethods.forEach((method, selected) -> {
+            if (Boolean.TRUE.equals(selected)) {
+                methods.add(method.toUpperCase());
+            }
+        });
+        input.append(methods);
+
+        return Hashes.sha256(input.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
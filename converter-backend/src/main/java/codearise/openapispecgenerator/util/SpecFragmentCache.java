@@ -0,0 +1,83 @@
+package codearise.openapispecgenerator.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the fragments of generated OpenAPI specifications, in which the key is the content hash of the inputs of a fragment.
+ * The cache is bounded by a maximum amount of fragments, after which the least recently used fragment is evicted.
+ */
+public class SpecFragmentCache {
+    private final int maxSize;
+
+    /**
+     * The fragments in access order, so that the first entry is the least recently used one.
+     */
+    private final LinkedHashMap<String, SpecFragment> fragments = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The constructor of SpecFragmentCache.
+     *
+     * @param maxSize The maximum amount of fragments in the cache.
+     */
+    public SpecFragmentCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Returns the fragment with the specified key.
+     *
+     * @param key The content hash of the inputs of the fragment.
+     * @return The fragment, or null if it is not in the cache.
+     */
+    public synchronized SpecFragment get(String key) {
+        SpecFragment fragment = fragments.get(key);
+        if (fragment == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return fragment;
+    }
+
+    /**
+     * Returns the fragment with the specified key without counting the lookup as a hit or a miss, for a fragment that has already been looked up during the same generation run.
+     *
+     * @param key The content hash of the inputs of the fragment.
+     * @return The fragment, or null if it is not in the cache.
+     */
+    public synchronized SpecFragment peek(String key) {
+        return fragments.get(key);
+    }
+
+    /**
+     * Adds a fragment to the cache and evicts the least recently used fragments if the cache is full.
+     *
+     * @param fragment The fragment.
+     */
+    public synchronized void put(SpecFragment fragment) {
+        fragments.put(fragment.getKey(), fragment);
+        Iterator<Map.Entry<String, SpecFragment>> iterator = fragments.entrySet().iterator();
+        while (fragments.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return fragments.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+}
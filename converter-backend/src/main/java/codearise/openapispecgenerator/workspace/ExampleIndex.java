@@ -0,0 +1,225 @@
+package codearise.openapispecgenerator.workspace;
+
+import codearise.openapispecgenerator.util.ExampleTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the places in a parsed OpenAPI specification that contain an example instance of a class, so an example value can be updated without walking every path, operation and content type of the specification.
+ * An example instance can occur in the schema of its class, in the examples of the components section, in the list of all instances of a GET operation, and in the examples by id of a GET by id operation. The index contains every occurrence of both the shared and the inline example layout.
+ * The indexed nodes are the maps of the parsed specification, so the index has to be built again after the specification has been modified in any other way than through the index.
+ */
+class ExampleIndex {
+    private static final String SCHEMA_REFERENCE_PREFIX = "#/components/schemas/";
+
+    /**
+     * Map in which the key is the classname and the value contains, for every example instance of the class, the nodes in the specification that contain that instance.
+     */
+    private final Map<String, List<List<Map<String, Object>>>> occurrences = new HashMap<>();
+
+    /**
+     * Map in which the key is the classname and the value maps the id of every example instance of the class to the index of the instance.
+     */
+    private final Map<String, Map<String, Integer>> indexesById = new HashMap<>();
+
+    private ExampleIndex() {
+    }
+
+    /**
+     * Builds the index of the example instances of a parsed OpenAPI specification.
+     *
+     * @param spec The parsed OpenAPI specification.
+     * @return The index of the example instances.
+     */
+    static ExampleIndex build(Map<String, Object> spec) {
+        ExampleIndex index = new ExampleIndex();
+        Map<String, Object> components = asMap(spec.get("components"));
+        Map<String, Object> schemas = components == null ? null : asMap(components.get("schemas"));
+        Map<String, Object> sharedExamples = components == null ? null : asMap(components.get("examples"));
+        if (schemas != null) {
+            for (Map.Entry<String, Object> schemaEntry : schemas.entrySet()) {
+                index.addSchema(schemaEntry.getKey(), asMap(schemaEntry.getValue()), sharedExamples);
+            }
+        }
+
+        Map<String, Object> paths = asMap(spec.get("paths"));
+        if (paths != null) {
+            for (Object pathItem : paths.values()) {
+                Map<String, Object> operations = asMap(pathItem);
+                if (operations != null) {
+                    for (Object operation : operations.values()) {
+                        index.addOperation(asMap(operation));
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Sets the value of an attribute in every occurrence of an example instance.
+     *
+     * @param className The name of the class.
+     * @param exampleIndex The index of the example instance.
+     * @param attributeName The name of the attribute.
+     * @param newValue The new example value of the attribute.
+     * @return The amount of nodes that have been updated, which is zero if the class has no example instance with the specified index.
+     */
+    int update(String className, int exampleIndex, String attributeName, Object newValue) {
+        List<List<Map<String, Object>>> classOccurrences = occurrences.get(className);
+        if (classOccurrences == null || exampleIndex < 0 || exampleIndex >= classOccurrences.size()) {
+            return 0;
+        }
+        List<Map<String, Object>> nodes = classOccurrences.get(exampleIndex);
+        for (Map<String, Object> node : nodes) {
+            node.put(attributeName, newValue);
+        }
+        return nodes.size();
+    }
+
+    /**
+     * Adds the example instances in the schema of a class and in the examples of the components section that belong to the class.
+     *
+     * @param className The name of the class.
+     * @param schema The schema of the class.
+     * @param sharedExamples The examples of the components section, or null if the specification does not contain them.
+     */
+    private void addSchema(String className, Map<String, Object> schema, Map<String, Object> sharedExamples) {
+        List<Object> rows = null;
+        if (schema != null) {
+            Map<String, Object> schemaExamples = asMap(schema.get("examples"));
+            if (schemaExamples != null && schemaExamples.get("exampleArray") instanceof List) {
+                rows = (List<Object>) schemaExamples.get("exampleArray");
+                addAll(className, rows);
+            }
+            Map<String, Object> firstExample = asMap(schema.get("example"));
+            if (firstExample != null && rows != null) {
+                add(className, 0, firstExample);
+            }
+        }
+
+        if (sharedExamples != null) {
+            Map<String, Object> allExamples = asMap(sharedExamples.get(ExampleTable.sharedExampleName(className)));
+            if (allExamples != null && allExamples.get("value") instanceof List) {
+                rows = (List<Object>) allExamples.get("value");
+                addAll(className, rows);
+            }
+        }
+        if (rows == null) {
+            return;
+        }
+
+        Map<String, Integer> classIndexesById = indexesById.computeIfAbsent(className, key -> new HashMap<>());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = asMap(rows.get(i));
+            if (row == null || !row.containsKey("id")) {
+                continue;
+            }
+            Object id = row.get("id");
+            classIndexesById.put(String.valueOf(id), i);
+            if (sharedExamples != null) {
+                Map<String, Object> exampleById = asMap(sharedExamples.get(ExampleTable.sharedExampleName(className, id)));
+                Map<String, Object> value = exampleById == null ? null : asMap(exampleById.get("value"));
+                if (value != null) {
+                    add(className, i, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the example instances in the responses of an operation. The class of the instances is taken from the schema of the content type, and examples that refer to the examples of the components section are skipped, because those are indexed by the addSchema method.
+     *
+     * @param operation The operation, or null if the entry of the path item is not an operation.
+     */
+    private void addOperation(Map<String, Object> operation) {
+        Map<String, Object> responses = operation == null ? null : asMap(operation.get("responses"));
+        if (responses == null) {
+            return;
+        }
+        for (Object response : responses.values()) {
+            Map<String, Object> responseObject = asMap(response);
+            Map<String, Object> content = responseObject == null ? null : asMap(responseObject.get("content"));
+            if (content == null) {
+                continue;
+            }
+            for (Object mediaType : content.values()) {
+                Map<String, Object> mediaTypeObject = asMap(mediaType);
+                if (mediaTypeObject != null) {
+                    addMediaType(mediaTypeObject);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the example instances of a content type of a response.
+     *
+     * @param mediaType The content type, which contains the schema and the examples of the response.
+     */
+    private void addMediaType(Map<String, Object> mediaType) {
+        Map<String, Object> examples = asMap(mediaType.get("examples"));
+        String className = getReferencedClassName(asMap(mediaType.get("schema")));
+        if (examples == null || className == null) {
+            return;
+        }
+
+        for (Map.Entry<String, Object> exampleEntry : examples.entrySet()) {
+            Map<String, Object> example = asMap(exampleEntry.getValue());
+            if (example == null || example.containsKey("$ref")) {
+                continue;
+            }
+            Object value = example.get("value");
+            if ("exampleArray".equals(exampleEntry.getKey()) && value instanceof List) {
+                addAll(className, (List<Object>) value);
+            } else if (asMap(value) != null) {
+                Integer exampleIndex = indexesById.getOrDefault(className, Map.of()).get(exampleEntry.getKey());
+                if (exampleIndex != null) {
+                    add(className, exampleIndex, asMap(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the class that a schema refers to, either directly or as the items of an array.
+     *
+     * @param schema The schema of a content type, or null if the content type has no schema.
+     * @return The name of the class, or null if the schema does not refer to the schema of a class.
+     */
+    private static String getReferencedClassName(Map<String, Object> schema) {
+        if (schema == null) {
+            return null;
+        }
+        Map<String, Object> items = asMap(schema.get("items"));
+        Object reference = items != null ? items.get("$ref") : schema.get("$ref");
+        if (!(reference instanceof String) || !((String) reference).startsWith(SCHEMA_REFERENCE_PREFIX)) {
+            return null;
+        }
+        return ((String) reference).substring(SCHEMA_REFERENCE_PREFIX.length());
+    }
+
+    private void addAll(String className, List<Object> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = asMap(rows.get(i));
+            if (row != null) {
+                add(className, i, row);
+            }
+        }
+    }
+
+    private void add(String className, int exampleIndex, Map<String, Object> node) {
+        List<List<Map<String, Object>>> classOccurrences = occurrences.computeIfAbsent(className, key -> new ArrayList<>());
+        while (classOccurrences.size() <= exampleIndex) {
+            classOccurrences.add(new ArrayList<>());
+        }
+        classOccurrences.get(exampleIndex).add(node);
+    }
+
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+}
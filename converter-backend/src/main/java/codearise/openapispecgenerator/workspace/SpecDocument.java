@@ -0,0 +1,53 @@
+package codearise.openapispecgenerator.workspace;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * The generated OpenAPI specification of a workspace as it is kept in memory by the SpecStore, together with the state that is needed to serve it and to write it back to disk.
+ * The fields are only accessed while holding the lock of the workspace that owns the document.
+ */
+class SpecDocument {
+    /**
+     * The parsed OpenAPI specification, which is modified in place by the edits of the user.
+     */
+    final Map<String, Object> spec;
+
+    /**
+     * The version of the document, which is increased on every edit and is used as the ETag of the specification.
+     */
+    long version;
+
+    /**
+     * The specification serialized as JSON, which is reused by every read until the document is edited.
+     */
+    byte[] json;
+
+    /**
+     * The index of the example instances in the specification, which is built when an example value is updated for the first time and is removed by any other edit.
+     */
+    ExampleIndex exampleIndex;
+
+    /**
+     * The last modification time and the size of the file when it was read or last written by the store, which are used to detect that the file has been replaced by a new generation.
+     */
+    long fileModified;
+    long fileSize;
+
+    /**
+     * Boolean that indicates whether the document contains edits that have not been written to disk yet.
+     */
+    boolean dirty;
+
+    /**
+     * The scheduled write of the edits, or null if no write is scheduled.
+     */
+    ScheduledFuture<?> pendingWrite;
+
+    SpecDocument(Map<String, Object> spec, long version, long fileModified, long fileSize) {
+        this.spec = spec;
+        this.version = version;
+        this.fileModified = fileModified;
+        this.fileSize = fileSize;
+    }
+}
@@ -0,0 +1,328 @@
+package codearise.openapispecgenerator.workspace;
+
+import codearise.openapispecgenerator.util.ETags;
+import codearise.openapispecgenerator.util.JsonMappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Store that keeps the generated OpenAPI specification of every workspace in memory while the user personalises its example values, so the specification does not have to be read and parsed from disk for every request.
+ * Edits are applied in place to the parsed specification and are written back to disk after a short delay, so a series of rapid edits results in a single write. The file is written to a temporary file first and then renamed, so readers of the file never see a partially written specification.
+ * Every version of a specification has its own ETag, which allows clients to revalidate the specification they have already fetched without downloading it again.
+ */
+@Component
+public class SpecStore {
+    private final JsonMappers jsonMappers;
+    private final long writeDelayMillis;
+    private final ScheduledExecutorService writer;
+
+    /**
+     * The workspaces that contain edits that have not been written to disk yet.
+     */
+    private final Set<Workspace> pendingWorkspaces = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The counter from which every loaded or edited specification gets its version, so a specification that is read again after a new generation never reuses an earlier ETag.
+     */
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * The prefix of the ETags of this store, which differs between runs of the application because the versions start again at zero.
+     */
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * The constructor of SpecStore.
+     *
+     * @param jsonMappers The shared JSON and YAML mappers.
+     * @param writeDelayMillis The amount of milliseconds after the first unsaved edit after which the edits of a specification are written to disk.
+     */
+    @Autowired
+    public SpecStore(JsonMappers jsonMappers, @Value("${specs.write-delay-ms:500}") long writeDelayMillis) {
+        this.jsonMappers = jsonMappers;
+        this.writeDelayMillis = Math.max(0, writeDelayMillis);
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spec-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the current version of the OpenAPI specification of a workspace.
+     *
+     * @param workspace The workspace of which the specification is returned.
+     * @return The ETag and the JSON representation of the specification.
+     * @throws NoSuchFileException Is returned if no specification has been generated for the workspace.
+     * @throws IOException Is returned if the specification cannot be read.
+     */
+    public Snapshot read(Workspace workspace) throws IOException {
+        synchronized (workspace) {
+            SpecDocument document = load(workspace);
+            if (document.json == null) {
+                document.json = jsonMappers.json().writeValueAsBytes(document.spec);
+            }
+            return new Snapshot(eTag(document), document.json);
+        }
+    }
+
+    /**
+     * Reads a value from the OpenAPI specification of a workspace. The specification must not be modified or kept by the reader.
+     *
+     * @param workspace The workspace of which the specification is read.
+     * @param reader The function that reads the value from the specification.
+     * @param <T> The type of the value.
+     * @return The value that is returned by the reader.
+     * @throws NoSuchFileException Is returned if no specification has been generated for the workspace.
+     * @throws IOException Is returned if the specification cannot be read.
+     */
+    public <T> T read(Workspace workspace, Function<Map<String, Object>, T> reader) throws IOException {
+        synchronized (workspace) {
+            return reader.apply(load(workspace).spec);
+        }
+    }
+
+    /**
+     * Applies an edit to the OpenAPI specification of a workspace and schedules the write of the specification to disk.
+     * If a write is already scheduled, the edit is included in that write.
+     *
+     * @param workspace The workspace of which the specification is edited.
+     * @param edit The function that modifies the specification in place.
+     * @throws NoSuchFileException Is returned if no specification has been generated for the workspace.
+     * @throws IOException Is returned if the specification cannot be read.
+     */
+    public void update(Workspace workspace, Consumer<Map<String, Object>> edit) throws IOException {
+        synchronized (workspace) {
+            SpecDocument document = load(workspace);
+            try {
+                edit.accept(document.spec);
+            } finally {
+                // An edit that fails halfway may already have modified the specification, so it is treated as a new version in every case.
+                document.exampleIndex = null;
+                markEdited(workspace, document);
+            }
+        }
+    }
+
+    /**
+     * Updates the value of an attribute in every occurrence of an example instance in the OpenAPI specification of a workspace and schedules the write of the specification to disk.
+     * The occurrences are found through the index of the example instances, so only the nodes that contain the instance are visited.
+     *
+     * @param workspace The workspace of which the specification is edited.
+     * @param className The name of the class.
+     * @param exampleIndex The index of the example instance.
+     * @param attributeName The name of the attribute.
+     * @param newValue The new example value of the attribute.
+     * @return The amount of occurrences that have been updated, which is zero if the class has no example instance with the specified index.
+     * @throws NoSuchFileException Is returned if no specification has been generated for the workspace.
+     * @throws IOException Is returned if the specification cannot be read.
+     */
+    public int updateExample(Workspace workspace, String className, int exampleIndex, String attributeName, Object newValue) throws IOException {
+        synchronized (workspace) {
+            SpecDocument document = load(workspace);
+            if (document.exampleIndex == null) {
+                document.exampleIndex = ExampleIndex.build(document.spec);
+            }
+            int updated = document.exampleIndex.update(className, exampleIndex, attributeName, newValue);
+            if (updated > 0) {
+                markEdited(workspace, document);
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * Gives an edited specification a new version and schedules its write to disk if no write is scheduled yet.
+     * The caller must hold the lock of the workspace.
+     *
+     * @param workspace The workspace of which the specification has been edited.
+     * @param document The edited specification.
+     */
+    private void markEdited(Workspace workspace, SpecDocument document) {
+        document.version = versions.incrementAndGet();
+        document.json = null;
+        document.dirty = true;
+        if (document.pendingWrite == null) {
+            pendingWorkspaces.add(workspace);
+            document.pendingWrite = writer.schedule(() -> writeQuietly(workspace), writeDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the unsaved edits of the OpenAPI specification of a workspace to disk immediately, which is done before the file is read by something other than this store.
+     *
+     * @param workspace The workspace of which the specification is written.
+     * @throws IOException Is returned if the specification cannot be written.
+     */
+    public void flush(Workspace workspace) throws IOException {
+        write(workspace);
+    }
+
+    /**
+     * Removes the OpenAPI specification of a workspace from memory, which is done after a new specification has been generated for it. Edits that have not been written yet are discarded, because they belong to the previous specification.
+     *
+     * @param workspace The workspace of which the specification is removed.
+     */
+    public void invalidate(Workspace workspace) {
+        synchronized (workspace) {
+            SpecDocument document = workspace.getSpecDocument();
+            if (document != null && document.pendingWrite != null) {
+                document.pendingWrite.cancel(false);
+            }
+            workspace.setSpecDocument(null);
+            pendingWorkspaces.remove(workspace);
+        }
+    }
+
+    /**
+     * Returns the cached specification of a workspace, or reads it from disk if it is not cached yet or if the file has been replaced since it was read.
+     * The caller must hold the lock of the workspace.
+     *
+     * @param workspace The workspace of which the specification is returned.
+     * @return The cached specification.
+     * @throws IOException Is returned if the specification cannot be read.
+     */
+    private SpecDocument load(Workspace workspace) throws IOException {
+        Path file = workspace.getOutputPath();
+        SpecDocument document = workspace.getSpecDocument();
+        if (document != null && (document.dirty || isUnchanged(document, file))) {
+            return document;
+        }
+        if (!Files.exists(file)) {
+            throw new NoSuchFileException(file.toString(), null, "File not found");
+        }
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        long size = Files.size(file);
+        Map<String, Object> spec = jsonMappers.specReader().readValue(file.toFile());
+        document = new SpecDocument(spec, versions.incrementAndGet(), modified, size);
+        workspace.setSpecDocument(document);
+        return document;
+    }
+
+    /**
+     * Writes the unsaved edits of the specification of a workspace to a temporary file and renames it to the output path of the workspace.
+     * If the file has been replaced by a new generation since it was read, the edits are discarded instead, so they do not overwrite the new specification.
+     *
+     * @param workspace The workspace of which the specification is written.
+     * @throws IOException Is returned if the specification cannot be written.
+     */
+    private void write(Workspace workspace) throws IOException {
+        synchronized (workspace) {
+            SpecDocument document = workspace.getSpecDocument();
+            pendingWorkspaces.remove(workspace);
+            if (document == null || !document.dirty) {
+                return;
+            }
+            if (document.pendingWrite != null) {
+                document.pendingWrite.cancel(false);
+                document.pendingWrite = null;
+            }
+
+            Path file = workspace.getOutputPath().toAbsolutePath();
+            if (!isUnchanged(document, file)) {
+                System.err.println("Discarding edits of workspace " + workspace.getId() + ", because its OpenAPI specification has been replaced.");
+                workspace.setSpecDocument(null);
+                return;
+            }
+
+            Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                jsonMappers.specWriter().writeValue(temporaryFile.toFile(), document.spec);
+                try {
+                    Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+            document.fileModified = Files.getLastModifiedTime(file).toMillis();
+            document.fileSize = Files.size(file);
+            document.dirty = false;
+        }
+    }
+
+    private void writeQuietly(Workspace workspace) {
+        try {
+            write(workspace);
+        } catch (IOException e) {
+            System.err.println("Could not write the OpenAPI specification of workspace " + workspace.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether the file of a specification is still the file that was read or last written by this store.
+     *
+     * @param document The cached specification.
+     * @param file The path of the file of the specification.
+     * @return Boolean that indicates whether the file has not been replaced.
+     * @throws IOException Is returned if the file cannot be accessed.
+     */
+    private boolean isUnchanged(SpecDocument document, Path file) throws IOException {
+        return Files.exists(file) && Files.getLastModifiedTime(file).toMillis() == document.fileModified && Files.size(file) == document.fileSize;
+    }
+
+    private String eTag(SpecDocument document) {
+        return "\"" + instanceId + "-" + document.version + "\"";
+    }
+
+    /**
+     * Writes the unsaved edits of all workspaces to disk when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+        for (Workspace workspace : pendingWorkspaces) {
+            writeQuietly(workspace);
+        }
+    }
+
+    /**
+     * A version of an OpenAPI specification as it is returned to the frontend.
+     */
+    public static final class Snapshot {
+        private final String eTag;
+        private final byte[] json;
+
+        Snapshot(String eTag, byte[] json) {
+            this.eTag = eTag;
+            this.json = json;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Checks whether the value of an If-None-Match header refers to this version of the specification.
+         *
+         * @param ifNoneMatch The value of the If-None-Match header, which may contain several ETags, or null if the header is not present.
+         * @return Boolean that indicates whether the client already has this version of the specification.
+         */
+        public boolean matches(String ifNoneMatch) {
+            return ETags.matches(ifNoneMatch, eTag);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package codearise.openapispecgenerator.workspace;
+
+import codearise.openapispecgenerator.model.UmlModel;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that contains the state of a single stepper session: the uploaded UML diagram, the modifications done by the user, and the path and cached contents of the generated OpenAPI specification.
+ * The state is not thread-safe on its own. Requests that read or modify it synchronize on the workspace, so parallel requests of the same session do not interfere with each other.
+ */
+public class Workspace {
+    private final String id;
+
+    /**
+     * The path where the generated OpenAPI specification of this workspace is saved.
+     */
+    private final Path outputPath;
+
+    /**
+     * The model of the uploaded UML diagram, which also contains the modifications done by the user.
+     */
+    private UmlModel model = new UmlModel();
+
+    /**
+     * A list to store the mappings and modifications done and applied by the user in the Mapping step of the stepper.
+     */
+    private List<Map<String, Object>> mappings = new ArrayList<>();
+
+    /**
+     * Map in which the key is the classname and the value contains the relationships that start at the class.
+     */
+    private final Map<String, List<Map<String, String>>> relationships = new HashMap<>();
+
+    /**
+     * The generated OpenAPI specification as it is kept in memory by the SpecStore, or null if it has not been read since it was generated.
+     */
+    private SpecDocument specDocument;
+
+    private volatile long lastAccess;
+
+    /**
+     * The constructor of Workspace.
+     *
+     * @param id The id of the workspace.
+     * @param outputPath The path where the generated OpenAPI specification of this workspace is saved.
+     */
+    public Workspace(String id, Path outputPath) {
+        this.id = id;
+        this.outputPath = outputPath;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getOutputPath() {
+        return outputPath;
+    }
+
+    public UmlModel getModel() {
+        return model;
+    }
+
+    public void setModel(UmlModel model) {
+        this.model = model;
+    }
+
+    public List<Map<String, Object>> getMappings() {
+        return mappings;
+    }
+
+    public void setMappings(List<Map<String, Object>> mappings) {
+        this.mappings = mappings;
+    }
+
+    public Map<String, List<Map<String, String>>> getRelationships() {
+        return relationships;
+    }
+
+    SpecDocument getSpecDocument() {
+        return specDocument;
+    }
+
+    void setSpecDocument(SpecDocument specDocument) {
+        this.specDocument = specDocument;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,53 @@
+package codearise.openapispecgenerator.workspace;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Resolves the Workspace parameters of the endpoints from the X-Workspace-Id header of a request, or from the workspaceId query parameter for links that cannot set headers.
+ */
+public class WorkspaceArgumentResolver implements HandlerMethodArgumentResolver {
+    /**
+     * The header in which the frontend sends the id of its workspace.
+     */
+    public static final String WORKSPACE_HEADER = "X-Workspace-Id";
+
+    /**
+     * The query parameter that can be used instead of the header.
+     */
+    public static final String WORKSPACE_PARAMETER = "workspaceId";
+
+    private final WorkspaceStore workspaceStore;
+
+    /**
+     * The constructor of WorkspaceArgumentResolver.
+     *
+     * @param workspaceStore The store of the workspaces of the stepper sessions.
+     */
+    public WorkspaceArgumentResolver(WorkspaceStore workspaceStore) {
+        this.workspaceStore = workspaceStore;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return Workspace.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Workspace resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        String id = webRequest.getHeader(WORKSPACE_HEADER);
+        if (id == null) {
+            id = webRequest.getParameter(WORKSPACE_PARAMETER);
+        }
+        try {
+            return workspaceStore.getOrCreate(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
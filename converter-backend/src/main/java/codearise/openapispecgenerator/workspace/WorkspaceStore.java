@@ -0,0 +1,175 @@
+package codearise.openapispecgenerator.workspace;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Store of the workspaces of the stepper sessions that are in progress, in which the key is the id of the workspace that the frontend sends with every request.
+ * Workspaces that have not been used for longer than the idle timeout are removed, and if the maximum amount of workspaces is reached, the least recently used workspace is removed to bound the memory that is used by the store.
+ * The default workspace, which is used by requests without a workspace id, keeps the original output path and is never removed.
+ */
+@Component
+public class WorkspaceStore {
+    /**
+     * The id of the workspace that is used by requests that do not specify a workspace.
+     */
+    public static final String DEFAULT_WORKSPACE = "default";
+
+    /**
+     * The ids that are accepted for workspaces, which are also used as directory names.
+     */
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final Map<String, Workspace> workspaces = new ConcurrentHashMap<>();
+
+    /**
+     * The path where the generated OpenAPI specification of the default workspace is saved.
+     */
+    private final Path defaultOutputPath;
+
+    /**
+     * The directory that contains a subdirectory with the generated OpenAPI specification for every other workspace.
+     */
+    private final Path workspacesDirectory;
+
+    private final int maxWorkspaces;
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * The constructor of WorkspaceStore.
+     *
+     * @param defaultOutputPath The path where the generated OpenAPI specification of the default workspace is saved.
+     * @param workspacesDirectory The directory that contains the generated OpenAPI specifications of the other workspaces.
+     * @param maxWorkspaces The maximum amount of workspaces that are kept in memory.
+     * @param idleTimeoutMinutes The amount of minutes after which an unused workspace is removed.
+     */
+    @Autowired
+    public WorkspaceStore(@Value("${workspaces.default-output-path:./data/export.yml}") String defaultOutputPath,
+                          @Value("${workspaces.directory:./data/workspaces}") String workspacesDirectory,
+                          @Value("${workspaces.max-count:200}") int maxWorkspaces,
+                          @Value("${workspaces.idle-timeout-minutes:120}") long idleTimeoutMinutes) {
+        this.defaultOutputPath = Path.of(defaultOutputPath);
+        this.workspacesDirectory = Path.of(workspacesDirectory);
+        this.maxWorkspaces = Math.max(1, maxWorkspaces);
+        this.idleTimeoutMillis = TimeUnit.MINUTES.toMillis(idleTimeoutMinutes);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workspace-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, Math.min(idleTimeoutMinutes, 5));
+        this.sweeper.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Returns the workspace with the specified id and creates it if it does not exist yet.
+     *
+     * @param id The id of the workspace, or null or an empty string for the default workspace.
+     * @return The workspace.
+     * @throws IllegalArgumentException Is returned if the id contains characters other than letters, digits, dashes and underscores or is longer than 64 characters.
+     */
+    public Workspace getOrCreate(String id) {
+        String workspaceId = id == null || id.isBlank() ? DEFAULT_WORKSPACE : id.trim();
+        if (!VALID_ID.matcher(workspaceId).matches()) {
+            throw new IllegalArgumentException("Invalid workspace id: " + id);
+        }
+        Workspace workspace = workspaces.computeIfAbsent(workspaceId, this::createWorkspace);
+        workspace.touch();
+        if (workspaces.size() > maxWorkspaces) {
+            evictLeastRecentlyUsed(workspaceId);
+        }
+        return workspace;
+    }
+
+    /**
+     * Returns the amount of workspaces in the store.
+     *
+     * @return The amount of workspaces.
+     */
+    public int size() {
+        return workspaces.size();
+    }
+
+    private Workspace createWorkspace(String id) {
+        if (DEFAULT_WORKSPACE.equals(id)) {
+            return new Workspace(id, defaultOutputPath);
+        }
+        Path directory = workspacesDirectory.resolve(id);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create the directory of workspace " + id + ": " + e.getMessage(), e);
+        }
+        return new Workspace(id, directory.resolve("export.yml"));
+    }
+
+    /**
+     * Removes the workspaces that have not been used for longer than the idle timeout.
+     */
+    void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleTimeoutMillis;
+        for (Workspace workspace : workspaces.values()) {
+            if (workspace.getLastAccess() < threshold) {
+                remove(workspace);
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used workspaces until the amount of workspaces is within the limit again.
+     *
+     * @param currentId The id of the workspace that is used by the current request, which is never removed.
+     */
+    private void evictLeastRecentlyUsed(String currentId) {
+        while (workspaces.size() > maxWorkspaces) {
+            Workspace oldest = workspaces.values().stream()
+                    .filter(workspace -> !workspace.getId().equals(currentId) && !DEFAULT_WORKSPACE.equals(workspace.getId()))
+                    .min(Comparator.comparingLong(Workspace::getLastAccess))
+                    .orElse(null);
+            if (oldest == null) {
+                return;
+            }
+            remove(oldest);
+        }
+    }
+
+    /**
+     * Removes a workspace and the files it has generated. The default workspace is never removed.
+     *
+     * @param workspace The workspace that is removed.
+     */
+    private void remove(Workspace workspace) {
+        if (DEFAULT_WORKSPACE.equals(workspace.getId()) || !workspaces.remove(workspace.getId(), workspace)) {
+            return;
+        }
+        Path directory = workspace.getOutputPath().getParent();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete the files of workspace " + workspace.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the thread that removes idle workspaces when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
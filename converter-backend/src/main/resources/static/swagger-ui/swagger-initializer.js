@@ -1,9 +1,13 @@
 window.onload = function() {
   //<editor-fold desc="Changeable Configuration Block">
 
+  // the workspace of the stepper session is passed on, so that the OpenAPI specification of that session is loaded
+  const workspaceId = new URLSearchParams(window.location.search).get("workspaceId");
+  const specUrl = "http://localhost:8080/export.yml" + (workspaceId ? "?workspaceId=" + encodeURIComponent(workspaceId) : "");
+
   // the following lines will be replaced by docker/configurator, when it runs in a docker-container
   window.ui = SwaggerUIBundle({
-    url: "http://localhost:8080/export.yml",
+    url: specUrl,
     dom_id: '#swagger-ui',
     deepLinking: true,
     presets: [
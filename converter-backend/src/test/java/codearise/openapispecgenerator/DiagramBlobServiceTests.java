@@ -0,0 +1,210 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.entity.DiagramBlob;
+import codearise.openapispecgenerator.entity.UploadStatus;
+import codearise.openapispecgenerator.repository.DiagramBlobRepository;
+import codearise.openapispecgenerator.repository.StepperSessionRepository;
+import codearise.openapispecgenerator.service.DiagramBlobService;
+import codearise.openapispecgenerator.storage.BlobStore;
+import codearise.openapispecgenerator.storage.FileSystemBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the DiagramBlobService class and the FileSystemBlobStore class.
+ */
+public class DiagramBlobServiceTests {
+
+    @Mock
+    private DiagramBlobRepository blobRepository;
+
+    @Mock
+    private StepperSessionRepository sessionRepository;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @InjectMocks
+    private DiagramBlobService service;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Tests adding a reference to a diagram that has not been saved before, and finishing its upload.
+     * Expects the diagram to be saved with one reference under a key that is derived from its hash, and the finished upload to be stored in the diagram and the stepper sessions that wait for it.
+     */
+    @Test
+    public void testNewDiagramIsUploaded() {
+        byte[] diagram = {1, 2, 3};
+        String hash = service.hash(diagram);
+        CompletableFuture<Void> upload = new CompletableFuture<>();
+        when(blobRepository.incrementReferenceCount(hash)).thenReturn(0);
+        when(blobStore.uploadFileAsync("diagrams/" + hash, diagram)).thenReturn(upload);
+
+        assertEquals(UploadStatus.PENDING, service.addReference(hash, diagram));
+
+        ArgumentCaptor<DiagramBlob> blob = ArgumentCaptor.forClass(DiagramBlob.class);
+        verify(blobRepository).saveAndFlush(blob.capture());
+        assertEquals("diagrams/" + hash, blob.getValue().getStorageKey());
+        assertEquals(1, blob.getValue().getReferenceCount());
+        assertEquals(3, blob.getValue().getSize());
+
+        upload.complete(null);
+
+        verify(blobRepository).updateUploadStatus(hash, UploadStatus.UPLOADED);
+        verify(sessionRepository).updateUploadStatus(hash, UploadStatus.PENDING, UploadStatus.UPLOADED);
+    }
+
+    /**
+     * Tests adding a reference to a diagram that has already been uploaded by another stepper session.
+     * Expects the reference count to be incremented and the diagram not to be uploaded again.
+     */
+    @Test
+    public void testDuplicateDiagramIsNotUploaded() {
+        DiagramBlob blob = new DiagramBlob();
+        blob.setUploadStatus(UploadStatus.UPLOADED);
+        when(blobRepository.incrementReferenceCount("hash")).thenReturn(1);
+        when(blobRepository.findById("hash")).thenReturn(Optional.of(blob));
+
+        assertEquals(UploadStatus.UPLOADED, service.addReference("hash", new byte[]{1, 2, 3}));
+
+        verify(blobRepository, never()).saveAndFlush(any());
+        verify(blobStore, never()).uploadFileAsync(any(), any());
+    }
+
+    /**
+     * Tests adding a reference to a diagram of which the previous upload has failed.
+     * Expects the diagram to be uploaded again.
+     */
+    @Test
+    public void testFailedDiagramIsUploadedAgain() {
+        byte[] diagram = {1, 2, 3};
+        when(blobRepository.incrementReferenceCount("hash")).thenReturn(1);
+        when(blobRepository.updateUploadStatus("hash", UploadStatus.FAILED, UploadStatus.PENDING)).thenReturn(1);
+        when(blobStore.uploadFileAsync("diagrams/hash", diagram)).thenReturn(new CompletableFuture<>());
+
+        assertEquals(UploadStatus.PENDING, service.addReference("hash", diagram));
+
+        verify(blobStore).uploadFileAsync("diagrams/hash", diagram);
+    }
+
+    /**
+     * Tests removing the last reference to a diagram.
+     * Expects the diagram to be marked as being deleted, and to be deleted from the database only after it has been deleted from the blob store.
+     */
+    @Test
+    public void testUnreferencedDiagramIsDeleted() {
+        CompletableFuture<Void> deletion = new CompletableFuture<>();
+        when(blobRepository.decrementReferenceCount("hash")).thenReturn(1);
+        when(blobRepository.markDeleting("hash")).thenReturn(1);
+        when(blobStore.deleteFileAsync("diagrams/hash")).thenReturn(deletion);
+
+        assertTrue(service.releaseReference("hash"));
+
+        verify(blobStore).deleteFileAsync("diagrams/hash");
+        verify(blobRepository, never()).deleteUnreferenced(any());
+
+        deletion.complete(null);
+
+        verify(blobRepository).deleteUnreferenced("hash");
+    }
+
+    /**
+     * Tests removing the last reference to a diagram of which the deletion from the blob store fails.
+     * Expects the diagram to be kept in the database and to be marked as failed, so that it is uploaded again when it is saved again.
+     */
+    @Test
+    public void testFailedDeletionMarksDiagramAsFailed() {
+        CompletableFuture<Void> deletion = new CompletableFuture<>();
+        deletion.completeExceptionally(new RuntimeException("The blob store is not available."));
+        when(blobRepository.decrementReferenceCount("hash")).thenReturn(1);
+        when(blobRepository.markDeleting("hash")).thenReturn(1);
+        when(blobStore.deleteFileAsync("diagrams/hash")).thenReturn(deletion);
+
+        assertTrue(service.releaseReference("hash"));
+
+        verify(blobRepository, never()).deleteUnreferenced(any());
+        verify(blobRepository).updateUploadStatus("hash", UploadStatus.DELETING, UploadStatus.FAILED);
+    }
+
+    /**
+     * Tests removing a reference to a diagram that is still referred to by another stepper session.
+     * Expects the diagram to be kept in the database and in the blob store.
+     */
+    @Test
+    public void testSharedDiagramIsKept() {
+        when(blobRepository.decrementReferenceCount("hash")).thenReturn(1);
+        when(blobRepository.markDeleting("hash")).thenReturn(0);
+
+        assertFalse(service.releaseReference("hash"));
+
+        verify(blobStore, never()).deleteFileAsync(any());
+        verify(blobRepository, never()).deleteUnreferenced(any());
+    }
+
+    /**
+     * Tests adding a reference to a diagram while it is being deleted from a blob store whose deletion is delayed.
+     * Expects the diagram not to be uploaded before the deletion has finished, to be uploaded again afterwards, and to be kept in the database.
+     */
+    @Test
+    public void testDiagramIsUploadedAgainAfterDelayedDeletion() {
+        byte[] diagram = {1, 2, 3};
+        CompletableFuture<Void> deletion = new CompletableFuture<>();
+        when(blobRepository.decrementReferenceCount("hash")).thenReturn(1);
+        when(blobRepository.markDeleting("hash")).thenReturn(1);
+        when(blobStore.deleteFileAsync("diagrams/hash")).thenReturn(deletion);
+        when(blobRepository.incrementReferenceCount("hash")).thenReturn(1);
+        when(blobRepository.updateUploadStatus("hash", UploadStatus.DELETING, UploadStatus.PENDING)).thenReturn(1);
+        when(blobStore.uploadFileAsync("diagrams/hash", diagram)).thenReturn(new CompletableFuture<>());
+
+        assertTrue(service.releaseReference("hash"));
+        assertEquals(UploadStatus.PENDING, service.addReference("hash", diagram));
+
+        verify(blobStore, never()).uploadFileAsync(any(), any());
+
+        deletion.complete(null);
+
+        verify(blobRepository).deleteUnreferenced("hash");
+        verify(blobStore).uploadFileAsync("diagrams/hash", diagram);
+    }
+
+    /**
+     * Tests uploading a diagram to a file system blob store and deleting it again.
+     * Expects the diagram to be written to the directory of the store and to be available under the base URL of the store, a key outside the directory to be rejected, and the file to be removed when the diagram is deleted.
+     */
+    @Test
+    public void testFileSystemBlobStore(@TempDir Path directory) throws Exception {
+        FileSystemBlobStore blobStore = new FileSystemBlobStore(directory.toString(), "http://localhost:8080/data/blobs");
+
+        blobStore.uploadFileAsync("diagrams/hash", new byte[]{1, 2, 3}).get(5, TimeUnit.SECONDS);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(directory.resolve("diagrams/hash")));
+        assertEquals("http://localhost:8080/data/blobs/diagrams/hash", blobStore.getUrl("diagrams/hash"));
+        CompletionException error = assertThrows(CompletionException.class, () -> blobStore.uploadFileAsync("../outside", new byte[0]).join());
+        assertTrue(error.getCause() instanceof IllegalArgumentException);
+
+        blobStore.deleteFileAsync("diagrams/hash").get(5, TimeUnit.SECONDS);
+        assertFalse(Files.exists(directory.resolve("diagrams/hash")));
+    }
+}
@@ -0,0 +1,82 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.cache.DiagramParseCache;
+import codearise.openapispecgenerator.model.UmlModel;
+import codearise.openapispecgenerator.parser.DiagramParser;
+import codearise.openapispecgenerator.parser.PUMLParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DiagramParseCache class.
+ */
+public class DiagramParseCacheTests {
+
+    private static final byte[] LIBRARY = ("@startuml\n"
+            + "class Book {\n"
+            + "  +title : String\n"
+            + "}\n"
+            + "class Author\n"
+            + "Author --> Book\n"
+            + "@enduml\n").getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+
+    private final DiagramParser countingParser = inputStream -> {
+        parseCount.incrementAndGet();
+        return new PUMLParser().parseDiagram(inputStream);
+    };
+
+    /**
+     * Tests uploading the same diagram twice and modifying the model of the first upload.
+     * Expects the diagram to be parsed once, and the second upload to get its own copy of the model without the modification.
+     */
+    @Test
+    public void testRepeatedUploadIsParsedOnce() throws Exception {
+        DiagramParseCache cache = new DiagramParseCache(10);
+
+        DiagramParseCache.ParsedDiagram first = cache.getOrParse(countingParser, LIBRARY);
+        UmlModel firstModel = first.newModel();
+        firstModel.renameClass("Book", "Novel");
+        firstModel.putClass("Shelf", List.of(), null);
+
+        DiagramParseCache.ParsedDiagram second = cache.getOrParse(countingParser, LIBRARY.clone());
+        UmlModel secondModel = second.newModel();
+
+        assertEquals(1, parseCount.get());
+        assertSame(first, second);
+        assertEquals(List.of("Book", "Author"), secondModel.getClassNames());
+        assertEquals(List.of("Book", "Author"), second.getElements().get("classes"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Tests uploading a changed diagram, the same content with another parser type, and more diagrams than the maximum size of the cache.
+     * Expects every upload to be parsed, and the least recently used diagram to be evicted.
+     */
+    @Test
+    public void testChangedDiagramIsParsedAgainAndOldestIsEvicted() throws Exception {
+        DiagramParseCache cache = new DiagramParseCache(2);
+        byte[] changed = new String(LIBRARY, StandardCharsets.UTF_8).replace("Author", "Writer").getBytes(StandardCharsets.UTF_8);
+
+        cache.getOrParse(countingParser, LIBRARY);
+        cache.getOrParse(countingParser, changed);
+        assertEquals(2, parseCount.get());
+        assertEquals(2, cache.getMissCount());
+
+        cache.getOrParse(countingParser, changed);
+        cache.getOrParse(new PUMLParser(), LIBRARY);
+        cache.getOrParse(countingParser, LIBRARY);
+
+        assertEquals(3, parseCount.get());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+    }
+}
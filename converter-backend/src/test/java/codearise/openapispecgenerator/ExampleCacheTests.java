@@ -0,0 +1,182 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.cache.DiskExampleCache;
+import codearise.openapispecgenerator.cache.ExampleKey;
+import codearise.openapispecgenerator.cache.InMemoryExampleCache;
+import codearise.openapispecgenerator.cache.TieredExampleCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the implementations of the ExampleCache interface.
+ */
+public class ExampleCacheTests {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests creating keys for the same attribute with different formatting.
+     * Expects the keys to be equal.
+     */
+    @Test
+    public void testExampleKeyIsNormalized() {
+        ExampleKey key = new ExampleKey(" Book", "Title ", "STRING", 1);
+
+        assertEquals(new ExampleKey("book", "title", "String", 1), key);
+        assertEquals(key, ExampleKey.parse(key.toString()));
+    }
+
+    /**
+     * Tests adding more example values to the in-memory cache than its maximum size.
+     * Expects the least recently used example value to be evicted.
+     */
+    @Test
+    public void testInMemoryCacheEvictsLeastRecentlyUsed() {
+        InMemoryExampleCache cache = new InMemoryExampleCache(2, Duration.ofHours(1));
+        cache.put(key(1), "one");
+        cache.put(key(2), "two");
+        cache.get(key(1));
+        cache.put(key(3), "three");
+
+        assertEquals("one", cache.get(key(1)));
+        assertNull(cache.get(key(2)));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Tests looking up an example value after its time to live has passed.
+     * Expects the example value to be expired.
+     */
+    @Test
+    public void testInMemoryCacheExpiresEntries() {
+        MutableClock clock = new MutableClock();
+        InMemoryExampleCache cache = new InMemoryExampleCache(10, Duration.ofMinutes(5), clock);
+        cache.put(key(1), "one");
+
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals("one", cache.get(key(1)));
+        clock.advance(Duration.ofMinutes(2));
+        assertNull(cache.get(key(1)));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Tests creating a new disk cache on a file to which another disk cache has written example values.
+     * Expects the example values to be read from the file, with the latest value of a key taking precedence.
+     */
+    @Test
+    public void testDiskCachePersistsValues() throws Exception {
+        Path file = directory.resolve("example-cache.jsonl");
+        DiskExampleCache cache = new DiskExampleCache(file, 10, Duration.ofHours(1));
+        cache.put(key(1), "one");
+        cache.put(key(2), "two");
+        cache.put(key(1), "uno");
+        Files.writeString(file, "{\"key\":\"incomplete", StandardOpenOption.APPEND);
+
+        DiskExampleCache reopened = new DiskExampleCache(file, 10, Duration.ofHours(1));
+        assertEquals("uno", reopened.get(key(1)));
+        assertEquals("two", reopened.get(key(2)));
+        assertEquals(2, reopened.size());
+    }
+
+    /**
+     * Tests looking up an example value that has expired from the in-memory tier but is still in the persistent tier.
+     * Expects the example value to be returned and to be added to the in-memory tier again.
+     */
+    @Test
+    public void testTieredCacheFallsBackToPersistentTier() throws Exception {
+        InMemoryExampleCache memory = new InMemoryExampleCache(1, Duration.ofHours(1));
+        TieredExampleCache cache = new TieredExampleCache(memory, new DiskExampleCache(directory.resolve("example-cache.jsonl"), 10, Duration.ofHours(1)));
+        cache.put(key(1), "one");
+        cache.put(key(2), "two");
+
+        assertEquals("one", cache.get(key(1)));
+        assertEquals("one", memory.get(key(1)));
+        assertNull(cache.get(key(3)));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Tests looking up an example value after its time to live has passed in a tiered cache, and reopening the file of the persistent tier afterwards.
+     * Expects the example value to be expired in both tiers instead of being added to the in-memory tier again, and not to be read from the file again.
+     */
+    @Test
+    public void testTieredCacheDoesNotServeExpiredValuesFromPersistentTier() throws Exception {
+        MutableClock clock = new MutableClock();
+        Path file = directory.resolve("example-cache.jsonl");
+        InMemoryExampleCache memory = new InMemoryExampleCache(10, Duration.ofMinutes(5), clock);
+        TieredExampleCache cache = new TieredExampleCache(memory, new DiskExampleCache(file, 10, Duration.ofMinutes(5), clock));
+        cache.put(key(1), "one");
+
+        clock.advance(Duration.ofMinutes(6));
+
+        assertNull(cache.get(key(1)));
+        assertNull(memory.get(key(1)));
+        assertEquals(0, new DiskExampleCache(file, 10, Duration.ofMinutes(5), clock).size());
+    }
+
+    /**
+     * Tests adding more example values to the disk cache than its maximum size and reopening its file.
+     * Expects the least recently used example value to be evicted, and only the most recently written example values to be read from the file.
+     */
+    @Test
+    public void testDiskCacheEvictsLeastRecentlyUsed() throws Exception {
+        Path file = directory.resolve("example-cache.jsonl");
+        DiskExampleCache cache = new DiskExampleCache(file, 2, Duration.ofHours(1));
+        cache.put(key(1), "one");
+        cache.put(key(2), "two");
+        cache.get(key(1));
+        cache.put(key(3), "three");
+
+        assertNull(cache.get(key(2)));
+        assertEquals(1, cache.getEvictionCount());
+
+        DiskExampleCache reopened = new DiskExampleCache(file, 2, Duration.ofHours(1));
+        assertEquals(2, reopened.size());
+        assertNull(reopened.get(key(1)));
+        assertEquals("three", reopened.get(key(3)));
+    }
+
+    private ExampleKey key(int id) {
+        return new ExampleKey("Book", "title", "String", id);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.cache.InMemoryExampleCache;
+import codearise.openapispecgenerator.util.OpenAIClient;
+import codearise.openapispecgenerator.util.OpenAIExampleValueGenerator;
+import codearise.openapispecgenerator.util.OpenAPISpecGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the generation of example values by the OpenAPISpecGenerator class, which use a local HTTP server instead of the OpenAI API.
+ */
+public class ExampleGenerationTests {
+
+    private static final Pattern CELL_PROMPT = Pattern.compile("attribute named (\\w+) for a class \\w+ with id (\\d+)");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private HttpServer server;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private volatile Function<String, String> responder;
+
+    @TempDir
+    Path outputDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Tests generating a specification in batch mode when the model returns a valid table of example values.
+     * Expects a single request for the class and the values of the table in the generated specification.
+     */
+    @Test
+    public void testGenerateSpecRequestsTablePerClass() throws Exception {
+        responder = prompt -> {
+            StringBuilder table = new StringBuilder("```json\n[");
+            for (int i = 1; i <= 7; i++) {
+                table.append(i > 1 ? "," : "").append("{\"title\":\"Title ").append(i).append("\",\"pages\":").append(100 + i).append('}');
+            }
+            return table.append("]\n```").toString();
+        };
+
+        String spec = generate("BatchedBook", true);
+
+        assertEquals(1, requestCount.get());
+        assertTrue(spec.contains("Title 7"));
+        assertTrue(spec.contains("pages: 107"));
+    }
+
+    /**
+     * Tests generating a specification in batch mode when the model returns a malformed table.
+     * Expects the table request to be followed by one request per attribute and id.
+     */
+    @Test
+    public void testGenerateSpecFallsBackToCellRequests() throws Exception {
+        responder = prompt -> {
+            Matcher matcher = CELL_PROMPT.matcher(prompt);
+            if (!matcher.find()) {
+                return "[{\"title\": \"Only one row\"}]";
+            }
+            return "title".equals(matcher.group(1)) ? "Fallback " + matcher.group(2) : String.valueOf(200 + Integer.parseInt(matcher.group(2)));
+        };
+
+        String spec = generate("FallbackBook", true);
+
+        assertEquals(1 + 7 * 2, requestCount.get());
+        assertTrue(spec.contains("Fallback 7"));
+        assertTrue(spec.contains("pages: 207"));
+    }
+
+    /**
+     * Tests generating a specification with batch mode disabled.
+     * Expects one request per attribute and id.
+     */
+    @Test
+    public void testGenerateSpecWithoutBatchMode() throws Exception {
+        responder = prompt -> {
+            Matcher matcher = CELL_PROMPT.matcher(prompt);
+            matcher.find();
+            return "title".equals(matcher.group(1)) ? "Cell " + matcher.group(2) : matcher.group(2);
+        };
+
+        generate("CellBook", false);
+
+        assertEquals(7 * 2, requestCount.get());
+    }
+
+    /**
+     * Tests generating a specification for a class with a GET by id operation.
+     * Expects the shared examples, the GET all operation and the GET by id operation to contain the same example instances, with the values of an attribute being unique across the ids.
+     */
+    @Test
+    public void testGenerateSpecSharesExampleTable() throws Exception {
+        AtomicInteger pagesResponses = new AtomicInteger();
+        responder = prompt -> {
+            Matcher matcher = CELL_PROMPT.matcher(prompt);
+            matcher.find();
+            if ("title".equals(matcher.group(1))) {
+                return "Shared " + matcher.group(2);
+            }
+            int response = pagesResponses.incrementAndGet();
+            return response <= 7 ? "42" : String.valueOf(response);
+        };
+
+        Map<String, Object> spec = YAML_MAPPER.readValue(generate("SharedBook", false, Map.of("SharedBook", Map.of("GET", true))), Map.class);
+
+        Map<String, Object> sharedExamples = (Map<String, Object>) ((Map<String, Object>) spec.get("components")).get("examples");
+        List<Map<String, Object>> schemaExamples = (List<Map<String, Object>>) ((Map<String, Object>) sharedExamples.get("SharedBook_all")).get("value");
+        List<Map<String, Object>> getAllExamples = (List<Map<String, Object>>) exampleValue(spec, "/sharedbook", "exampleArray");
+
+        assertEquals(7, schemaExamples.size());
+        assertEquals(schemaExamples, getAllExamples);
+        assertEquals(schemaExamples.get(2), exampleValue(spec, "/sharedbook/{id}", "3"));
+        assertEquals(7, schemaExamples.stream().map(example -> example.get("pages")).distinct().count());
+    }
+
+    private Object exampleValue(Map<String, Object> spec, String path, String exampleName) {
+        Map<String, Object> paths = (Map<String, Object>) spec.get("paths");
+        Map<String, Object> operation = (Map<String, Object>) ((Map<String, Object>) paths.get(path)).get("get");
+        Map<String, Object> response = (Map<String, Object>) ((Map<String, Object>) operation.get("responses")).get("200");
+        Map<String, Object> json = (Map<String, Object>) ((Map<String, Object>) response.get("content")).get("application/json");
+        String reference = (String) ((Map<String, Object>) ((Map<String, Object>) json.get("examples")).get(exampleName)).get("$ref");
+        Map<String, Object> sharedExamples = (Map<String, Object>) ((Map<String, Object>) spec.get("components")).get("examples");
+        return ((Map<String, Object>) sharedExamples.get(reference.substring("#/components/examples/".length()))).get("value");
+    }
+
+    private String generate(String className, boolean batchExamples) throws Exception {
+        return generate(className, batchExamples, new HashMap<>());
+    }
+
+    private String generate(String className, boolean batchExamples, Map<String, Map<String, Boolean>> selectedHttpMethods) throws Exception {
+        OpenAIClient client = new OpenAIClient("key", 4, "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions");
+        OpenAIExampleValueGenerator exampleValueGenerator = new OpenAIExampleValueGenerator(client, batchExamples, new InMemoryExampleCache(1000, Duration.ofHours(1)));
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(exampleValueGenerator), OpenAIExampleValueGenerator.SOURCE);
+
+        Map<String, List<String>> classes = Map.of(className, new ArrayList<>());
+        Map<String, List<String>> attributes = Map.of(className, List.of("+title : String", "+pages : int"));
+        Path outputPath = outputDirectory.resolve("export.yml");
+        try {
+            generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), selectedHttpMethods);
+        } finally {
+            exampleValueGenerator.shutdown();
+        }
+        return Files.readString(outputPath);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requestCount.incrementAndGet();
+            Map<String, Object> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+            List<Map<String, Object>> messages = (List<Map<String, Object>>) request.get("messages");
+            String content = responder.apply(messages.get(0).get("content").toString());
+
+            Map<String, Object> response = Map.of("choices", List.of(Map.of("message", Map.of("content", content))));
+            byte[] body = objectMapper.writeValueAsString(response).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.service.GenerationJob;
+import codearise.openapispecgenerator.service.GenerationJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GenerationJobService class.
+ */
+public class GenerationJobServiceTests {
+
+    @TempDir
+    Path directory;
+
+    private GenerationJobService service;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        service = new GenerationJobService(1, 1, 60, 50, directory.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    /**
+     * Tests running a generation job that reports its progress.
+     * Expects the job to complete with the message of the task, the reported progress, and the specification in the output file of the job.
+     */
+    @Test
+    public void testSubmitRunsJobToCompletion() throws Exception {
+        GenerationJob job = service.submit((progress, outputPath) -> {
+            progress.setTotalClasses(2);
+            progress.promptIssued();
+            progress.promptCompleted();
+            progress.cacheHit();
+            progress.classCompleted();
+            progress.classCompleted();
+            Files.writeString(outputPath, "openapi: 3.0.0");
+            return "done";
+        });
+
+        awaitStatus(job, GenerationJob.Status.COMPLETED);
+        Map<String, Object> summary = service.getJob(job.getId()).toSummary();
+        assertEquals("done", summary.get("message"));
+        assertEquals(2, summary.get("classesDone"));
+        assertEquals(1, summary.get("promptsIssued"));
+        assertEquals(1, summary.get("cacheHits"));
+        assertEquals(100, summary.get("percentDone"));
+        assertEquals("openapi: 3.0.0", Files.readString(job.getOutputPath()));
+    }
+
+    /**
+     * Tests a generation job whose task fails.
+     * Expects the job to fail with the message of the exception.
+     */
+    @Test
+    public void testSubmitRecordsFailure() throws Exception {
+        GenerationJob job = service.submit((progress, outputPath) -> {
+            throw new IllegalStateException("broken diagram");
+        });
+
+        awaitStatus(job, GenerationJob.Status.FAILED);
+        assertEquals("broken diagram", job.toSummary().get("error"));
+    }
+
+    /**
+     * Tests cancelling a running generation job and a generation job that is waiting for a thread.
+     * Expects the running job to be interrupted, the waiting job to never start, and both jobs to be cancelled.
+     */
+    @Test
+    public void testCancelStopsRunningAndWaitingJobs() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean waitingJobRan = new AtomicBoolean();
+        GenerationJob running = service.submit((progress, outputPath) -> {
+            started.countDown();
+            release.await();
+            return "done";
+        });
+        GenerationJob waiting = service.submit((progress, outputPath) -> {
+            waitingJobRan.set(true);
+            return "done";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        service.cancel(waiting.getId());
+        service.cancel(running.getId());
+
+        awaitStatus(running, GenerationJob.Status.CANCELLED);
+        assertEquals(GenerationJob.Status.CANCELLED, waiting.getStatus());
+        assertFalse(waitingJobRan.get());
+    }
+
+    /**
+     * Tests submitting more generation jobs than there are threads and waiting places.
+     * Expects the job that does not fit to be rejected.
+     */
+    @Test
+    public void testSubmitRejectsJobsWhenQueueIsFull() throws Exception {
+        service.submit((progress, outputPath) -> {
+            release.await();
+            return "done";
+        });
+        service.submit((progress, outputPath) -> "done");
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit((progress, outputPath) -> "done"));
+    }
+
+    private void awaitStatus(GenerationJob job, GenerationJob.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(status, job.getStatus());
+    }
+}
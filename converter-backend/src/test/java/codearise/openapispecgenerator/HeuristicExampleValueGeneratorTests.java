@@ -0,0 +1,203 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.model.UmlClass;
+import codearise.openapispecgenerator.util.ExampleLayout;
+import codearise.openapispecgenerator.util.ExampleTable;
+import codearise.openapispecgenerator.util.ExampleValueGenerator;
+import codearise.openapispecgenerator.util.GenerationProgress;
+import codearise.openapispecgenerator.util.HeuristicExampleValueGenerator;
+import codearise.openapispecgenerator.util.OpenAPISpecGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the HeuristicExampleValueGenerator class.
+ */
+public class HeuristicExampleValueGeneratorTests {
+
+    private static final List<String> ATTRIBUTES = List.of("+email : String", "+name : String", "+price : double", "+birthDate : Date",
+            "+uuid : String", "+status : String", "+age : int", "+active : boolean", "+title : String");
+
+    @TempDir
+    Path outputDirectory;
+
+    /**
+     * Tests generating the example instances of a class with attributes that match different heuristics.
+     * Expects values of the correct type that are unique across the ids for every attribute except the boolean one.
+     */
+    @Test
+    public void testGenerateExampleTablesIsUniqueAndTyped() {
+        ExampleTable table = new HeuristicExampleValueGenerator().generateExampleTables(Map.of("Customer", ATTRIBUTES)).get("Customer");
+
+        assertEquals(7, table.getRows().size());
+        for (String attribute : ATTRIBUTES) {
+            String name = attribute.split(" ")[0].substring(1);
+            Set<Object> values = new HashSet<>();
+            table.getRows().forEach(row -> values.add(row.get(name)));
+            if (!name.equals("active")) {
+                assertEquals(7, values.size(), "Values of " + name + " are not unique");
+            }
+        }
+
+        Map<String, Object> row = table.getRows().get(0);
+        assertEquals(1, row.get("id"));
+        assertTrue(row.get("email").toString().endsWith("@example.com"));
+        assertTrue(row.get("name").toString().contains(" "));
+        assertTrue(row.get("price") instanceof Double);
+        assertTrue(row.get("birthDate").toString().matches("\\d{4}-\\d{2}-\\d{2}"));
+        assertEquals(36, row.get("uuid").toString().length());
+        assertTrue(row.get("age") instanceof Integer);
+        assertTrue(row.get("active") instanceof Boolean);
+    }
+
+    /**
+     * Tests generating the example instances of the same class twice.
+     * Expects the same example values both times.
+     */
+    @Test
+    public void testGenerateExampleTablesIsDeterministic() {
+        Map<String, List<String>> attributes = Map.of("Product", ATTRIBUTES);
+
+        assertEquals(new HeuristicExampleValueGenerator().generateExampleTables(attributes).get("Product").getRows(),
+                new HeuristicExampleValueGenerator().generateExampleTables(attributes).get("Product").getRows());
+    }
+
+    /**
+     * Tests generating a specification with 100 classes from the offline source.
+     * Expects every class to be in the specification without any requests to the OpenAI model.
+     */
+    @Test
+    public void testGenerateSpecWithOfflineSource() throws Exception {
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            classes.put("Class" + i, new ArrayList<>());
+            attributes.put("Class" + i, ATTRIBUTES);
+        }
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE);
+        Path outputPath = outputDirectory.resolve("export.yml");
+
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), new HashMap<>(), "offline");
+
+        String spec = Files.readString(outputPath);
+        assertTrue(spec.contains("Class99:"));
+        assertTrue(spec.contains("@example.com"));
+    }
+
+    /**
+     * Tests generating a specification to a file with the .json extension for a class with a GET by id operation.
+     * Expects a JSON document in which the operations refer to the example instances in the examples of the components section instead of repeating them.
+     */
+    @Test
+    public void testGenerateSpecAsJsonWithSharedExamples() throws Exception {
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE);
+        Path outputPath = outputDirectory.resolve("export.json");
+
+        generator.generateSpec(Map.of("Customer", new ArrayList<>()), Map.of("Customer", ATTRIBUTES), new HashMap<>(), new ArrayList<>(), null,
+                outputPath.toString(), Map.of("Customer", Map.of("GET", true)), "offline");
+
+        Map<String, Object> spec = new ObjectMapper().readValue(outputPath.toFile(), Map.class);
+        Map<String, Object> sharedExamples = (Map<String, Object>) ((Map<String, Object>) spec.get("components")).get("examples");
+        List<Object> rows = (List<Object>) ((Map<String, Object>) sharedExamples.get("Customer_all")).get("value");
+        assertEquals(7, rows.size());
+        assertEquals(rows.get(2), ((Map<String, Object>) sharedExamples.get("Customer_3")).get("value"));
+
+        Map<String, Object> getAll = (Map<String, Object>) ((Map<String, Object>) ((Map<String, Object>) spec.get("paths")).get("/customer")).get("get");
+        String json = new ObjectMapper().writeValueAsString(getAll);
+        assertTrue(json.contains("\"$ref\":\"#/components/examples/Customer_all\""));
+        assertFalse(json.contains("@example.com"));
+        assertFalse(Files.exists(outputDirectory.resolve("export.json.tmp")));
+    }
+
+    /**
+     * Tests generating a specification with the inline example layout.
+     * Expects the example instances in the schema and the GET all operation, and no examples in the components section.
+     */
+    @Test
+    public void testGenerateSpecWithInlineLayout() throws Exception {
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE, ExampleLayout.INLINE);
+        Path outputPath = outputDirectory.resolve("export.json");
+
+        generator.generateSpec(Map.of("Customer", new ArrayList<>()), Map.of("Customer", ATTRIBUTES), new HashMap<>(), new ArrayList<>(), null,
+                outputPath.toString(), new HashMap<>(), "offline");
+
+        Map<String, Object> spec = new ObjectMapper().readValue(outputPath.toFile(), Map.class);
+        Map<String, Object> components = (Map<String, Object>) spec.get("components");
+        Map<String, Object> schema = (Map<String, Object>) ((Map<String, Object>) components.get("schemas")).get("Customer");
+        assertFalse(components.containsKey("examples"));
+        assertEquals(7, ((List<Object>) ((Map<String, Object>) schema.get("examples")).get("exampleArray")).size());
+        assertTrue(new ObjectMapper().writeValueAsString(((Map<String, Object>) spec.get("paths")).get("/customer")).contains("@example.com"));
+    }
+
+    /**
+     * Tests generating a specification three times with the same generator, where the second run changes an attribute of one class and selects an HTTP method for another class, and the third run changes nothing.
+     * Expects the example values to be generated only for the classes that have changed, and the unchanged run to reuse every class and write the same specification.
+     */
+    @Test
+    public void testRegenerateSpecOnlyRebuildsChangedClasses() throws Exception {
+        List<String> generatedClasses = new ArrayList<>();
+        HeuristicExampleValueGenerator heuristic = new HeuristicExampleValueGenerator();
+        ExampleValueGenerator recordingGenerator = new ExampleValueGenerator() {
+            @Override
+            public String getSource() {
+                return heuristic.getSource();
+            }
+
+            @Override
+            public Map<String, ExampleTable> generateExampleTables(Collection<UmlClass> classes, GenerationProgress progress) {
+                classes.forEach(umlClass -> generatedClasses.add(umlClass.getName()));
+                return heuristic.generateExampleTables(classes, progress);
+            }
+        };
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(recordingGenerator), HeuristicExampleValueGenerator.SOURCE);
+        Path outputPath = outputDirectory.resolve("export.yml");
+
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        for (String className : List.of("Author", "Book", "Shelf")) {
+            classes.put(className, new ArrayList<>());
+            attributes.put(className, List.of("+name : String"));
+        }
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), new HashMap<>(), null);
+        assertEquals(List.of("Author", "Book", "Shelf"), generatedClasses);
+
+        generatedClasses.clear();
+        attributes.put("Book", List.of("+name : String", "+isbn : String"));
+        Map<String, Map<String, Boolean>> selectedHttpMethods = Map.of("Shelf", Map.of("GET", true));
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), selectedHttpMethods, null);
+        String changedSpec = Files.readString(outputPath);
+        assertEquals(List.of("Book", "Shelf"), generatedClasses);
+        assertTrue(changedSpec.contains("isbn"));
+        assertTrue(changedSpec.contains("/shelf/{id}"));
+
+        generatedClasses.clear();
+        GenerationProgress progress = new GenerationProgress();
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), selectedHttpMethods, null, progress);
+        assertTrue(generatedClasses.isEmpty());
+        assertEquals(3, progress.getFragmentsReused());
+        assertEquals(3, progress.getClassesDone());
+        assertEquals(changedSpec, Files.readString(outputPath));
+    }
+
+    /**
+     * Tests generating a specification with an example source that does not exist.
+     * Expects an IllegalArgumentException.
+     */
+    @Test
+    public void testGenerateSpecWithUnknownSource() {
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE);
+
+        assertThrows(IllegalArgumentException.class, () -> generator.generateSpec(Map.of(), Map.of(), Map.of(), List.of(), null,
+                outputDirectory.resolve("export.yml").toString(), Map.of(), "unknown"));
+    }
+}
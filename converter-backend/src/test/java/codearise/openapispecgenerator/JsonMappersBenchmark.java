@@ -0,0 +1,94 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.util.HeuristicExampleValueGenerator;
+import codearise.openapispecgenerator.util.JsonMappers;
+import codearise.openapispecgenerator.util.OpenAPISpecGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Benchmark that compares creating a new ObjectMapper for every request with the shared mappers of the JsonMappers class.
+ * It is not part of the test suite and is run manually, for example with: java -cp target/classes:target/test-classes:&lt;dependencies&gt; codearise.openapispecgenerator.JsonMappersBenchmark
+ * The shared mappers avoid building the serializers and deserializers on every call. For small documents such as chat completion responses this makes them several times faster with a fraction of the allocations, while for large specifications the saving is a fixed amount of time per request.
+ */
+public class JsonMappersBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200;
+
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private static final String CHAT_COMPLETION = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"Aurora\"},\"finish_reason\":\"stop\"}]}";
+
+    public static void main(String[] args) throws Exception {
+        String spec = generateSpec(20);
+        JsonMappers shared = JsonMappers.shared();
+
+        measure("spec read, new mapper", () -> new ObjectMapper(new YAMLFactory()).readValue(spec, Map.class));
+        measure("spec read, shared reader", () -> shared.specReader().readValue(spec));
+
+        Map<String, Object> parsedSpec = shared.specReader().readValue(spec);
+        measure("spec write, new mapper", () -> new ObjectMapper(new YAMLFactory()).writeValueAsString(parsedSpec));
+        measure("spec write, shared writer", () -> shared.specWriter().writeValueAsString(parsedSpec));
+
+        measure("chat completion, new mapper", () -> new ObjectMapper().readValue(CHAT_COMPLETION, Map.class));
+        measure("chat completion, shared reader", () -> shared.chatCompletionReader().readValue(CHAT_COMPLETION));
+    }
+
+    /**
+     * Runs an operation and prints the average time and the average amount of allocated bytes per operation of the measured iterations.
+     *
+     * @param name The name of the operation.
+     * @param operation The operation that is measured.
+     * @throws Exception Is returned if the operation fails.
+     */
+    private static void measure(String name, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+        long nanosPerOperation = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        long bytesPerOperation = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_ITERATIONS;
+
+        System.out.printf("%-32s %10.1f us per operation, %10d bytes allocated per operation%n", name, nanosPerOperation / 1_000.0, bytesPerOperation);
+    }
+
+    /**
+     * Generates an OpenAPI specification with the specified amount of classes from the offline example source.
+     *
+     * @param classCount The amount of classes in the specification.
+     * @return The generated OpenAPI specification in the YAML format.
+     * @throws Exception Is returned if an error occurs during the generation process.
+     */
+    private static String generateSpec(int classCount) throws Exception {
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < classCount; i++) {
+            classes.put("Class" + i, new ArrayList<>());
+            attributes.put("Class" + i, List.of("+name : String", "+email : String", "+age : int", "+price : double"));
+        }
+        Path outputPath = Files.createTempFile("benchmark", ".yml");
+        try {
+            new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE)
+                    .generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), new HashMap<>());
+            return Files.readString(outputPath);
+        } finally {
+            Files.deleteIfExists(outputPath);
+        }
+    }
+
+    private interface Operation {
+        Object run() throws Exception;
+    }
+}
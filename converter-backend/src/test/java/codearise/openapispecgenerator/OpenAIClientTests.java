@@ -0,0 +1,234 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.util.GenerationProgress;
+import codearise.openapispecgenerator.util.OpenAIClient;
+import codearise.openapispecgenerator.util.OpenAIRequestScheduler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the OpenAIClient class, which use a local HTTP server instead of the OpenAI API.
+ */
+public class OpenAIClientTests {
+
+    private HttpServer server;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private volatile int rateLimitedRequests;
+
+    private volatile int statusCode = 200;
+
+    private volatile String resetRequests;
+
+    private final List<String> prompts = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<Long> requestTimes = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<OpenAIClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        clients.forEach(OpenAIClient::shutdown);
+        server.stop(0);
+    }
+
+    /**
+     * Tests sending more prompts than the maximum amount of concurrent requests.
+     * Expects every prompt to be answered while no more requests than the limit are in flight at the same time.
+     */
+    @Test
+    public void testCompleteBoundsConcurrentRequests() {
+        OpenAIClient client = client(new OpenAIRequestScheduler(3, Integer.MAX_VALUE / 2));
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            responses.add(client.complete("prompt", 10));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        assertEquals("value", responses.get(0).join());
+        assertEquals(12, requestCount.get());
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    /**
+     * Tests sending a prompt that is rate limited once.
+     * Expects the request to be retried after the Retry-After time and to be answered.
+     */
+    @Test
+    public void testCompleteRetriesRateLimitedRequest() {
+        rateLimitedRequests = 1;
+        OpenAIClient client = client(new OpenAIRequestScheduler(2, Integer.MAX_VALUE / 2));
+
+        assertEquals("value", client.complete("prompt", 10).join());
+        assertEquals(2, requestCount.get());
+    }
+
+    /**
+     * Tests sending a prompt with an invalid API key.
+     * Expects the future to fail with an IOException.
+     */
+    @Test
+    public void testCompleteFailsOnUnauthorized() {
+        statusCode = 401;
+        OpenAIClient client = client(new OpenAIRequestScheduler(2, Integer.MAX_VALUE / 2));
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> client.complete("prompt", 10).join());
+        assertTrue(exception.getCause() instanceof IOException);
+    }
+
+    /**
+     * Tests queueing prompts with different priorities while a single request can be in flight.
+     * Expects the queued prompts to be sent in the order of their priority instead of the order in which they were submitted.
+     */
+    @Test
+    public void testSchedulerSendsQueuedRequestsByPriority() {
+        OpenAIClient client = client(new OpenAIRequestScheduler(1, 6000));
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        responses.add(client.complete("first", 10, 5));
+        responses.add(client.complete("late", 10, 9));
+        responses.add(client.complete("later", 10, 9));
+        responses.add(client.complete("urgent", 10, 1));
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(List.of("first", "urgent", "late", "later"), prompts);
+    }
+
+    /**
+     * Tests a response which reports that no requests remain until the rate limit is reset.
+     * Expects the next request to be held back until the reset time has passed.
+     */
+    @Test
+    public void testSchedulerPausesWhenNoRequestsRemain() {
+        resetRequests = "300ms";
+        OpenAIClient client = client(new OpenAIRequestScheduler(1, 6000));
+        CompletableFuture<String> first = client.complete("first", 10);
+        CompletableFuture<String> second = client.complete("second", 10);
+        CompletableFuture.allOf(first, second).join();
+
+        assertEquals(2, requestTimes.size());
+        assertTrue(requestTimes.get(1) - requestTimes.get(0) >= 300);
+    }
+
+    /**
+     * Tests cancelling a generation run while its prompts are queued behind a request that is in flight.
+     * Expects the queued prompts to be removed from the queue and never to be sent.
+     */
+    @Test
+    public void testCancelledRequestsAreNotSent() throws InterruptedException {
+        resetRequests = "300ms";
+        OpenAIRequestScheduler scheduler = new OpenAIRequestScheduler(1, 6000);
+        OpenAIClient client = client(scheduler);
+        GenerationProgress progress = new GenerationProgress();
+        CompletableFuture<String> first = client.complete("first", 10);
+        CompletableFuture<String> second = progress.track(client.complete("second", 10));
+        CompletableFuture<String> third = progress.track(client.complete("third", 10));
+
+        progress.cancel();
+        first.join();
+        Thread.sleep(500);
+
+        assertTrue(second.isCancelled());
+        assertTrue(third.isCancelled());
+        assertEquals(0, scheduler.getQueueSize());
+        assertEquals(List.of("first"), prompts);
+    }
+
+    /**
+     * Tests shutting down a scheduler while a request is in flight and another request is queued.
+     * Expects the queued request to fail with an IOException without being sent, and requests that are submitted afterwards to fail immediately.
+     */
+    @Test
+    public void testShutdownFailsQueuedRequests() {
+        resetRequests = "300ms";
+        OpenAIRequestScheduler scheduler = new OpenAIRequestScheduler(1, 6000);
+        OpenAIClient client = client(scheduler);
+        client.complete("first", 10);
+        CompletableFuture<String> queued = client.complete("second", 10);
+
+        client.shutdown();
+
+        CompletionException exception = assertThrows(CompletionException.class, queued::join);
+        assertTrue(exception.getCause() instanceof IOException);
+        assertEquals(0, scheduler.getQueueSize());
+        assertThrows(CompletionException.class, () -> client.complete("third", 10).join());
+        assertFalse(prompts.contains("second"));
+    }
+
+    private OpenAIClient client(OpenAIRequestScheduler scheduler) {
+        OpenAIClient client = new OpenAIClient("key", scheduler, endpoint());
+        clients.add(client);
+        return client;
+    }
+
+    private String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            prompts.add(requestBody.replaceAll(".*\"content\":\"([^\"]*)\".*", "$1"));
+            requestTimes.add(System.currentTimeMillis());
+            int request = requestCount.incrementAndGet();
+            Thread.sleep(50);
+            if (request <= rateLimitedRequests) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+            if (statusCode != 200) {
+                exchange.sendResponseHeaders(statusCode, -1);
+                return;
+            }
+            if (resetRequests != null && request == 1) {
+                exchange.getResponseHeaders().add("x-ratelimit-remaining-requests", "0");
+                exchange.getResponseHeaders().add("x-ratelimit-reset-requests", resetRequests);
+            }
+            byte[] body = "{\"choices\":[{\"message\":{\"content\":\" value \"}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
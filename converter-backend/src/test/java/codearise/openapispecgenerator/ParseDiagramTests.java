@@ -0,0 +1,217 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.entity.DiagramModel;
+import codearise.openapispecgenerator.entity.Relationship;
+import codearise.openapispecgenerator.parser.MDJParser;
+import codearise.openapispecgenerator.parser.PUMLParser;
+import codearise.openapispecgenerator.parser.UXFParser;
+import codearise.openapispecgenerator.parser.XMLParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the single-pass parseDiagram method of the parser classes.
+ */
+public class ParseDiagramTests {
+
+    /**
+     * Tests parsing a UMLet UXF diagram in a single read.
+     * Expects the class, its attribute, its method and the relationship to be parsed from the same input stream.
+     */
+    @Test
+    public void testUXFParseDiagram() throws Exception {
+        String uxf = "<diagram>"
+                + "<element><id>UMLClass</id><coordinates><x>10</x><y>20</y></coordinates>"
+                + "<panel_attributes>Class Book\n--\n+title : String\n--\n+getTitle() : String</panel_attributes></element>"
+                + "<element><id>UMLClass</id><coordinates><x>100</x><y>20</y></coordinates>"
+                + "<panel_attributes>Class Author</panel_attributes></element>"
+                + "<element><id>Relation</id><panel_attributes>lt=- writes</panel_attributes>"
+                + "<additional_attributes>10;20;100;20</additional_attributes></element>"
+                + "</diagram>";
+        DiagramModel diagram = new UXFParser().parseDiagram(stream(uxf));
+
+        assertEquals(List.of("Book", "Author"), diagram.getClasses());
+        assertEquals(List.of("+title : String"), diagram.getAttributes().get("Book"));
+        assertEquals(List.of("+getTitle() : String"), diagram.getMethods().get("Book"));
+        assertEquals(1, diagram.getRelationships().size());
+        assertEquals("Book", diagram.getRelationships().get(0).getFromClass());
+        assertEquals("Author", diagram.getRelationships().get(0).getToClass());
+    }
+
+    /**
+     * Tests parsing a StarUML MDJ diagram in a single read.
+     * Expects the class with its attribute and its method.
+     */
+    @Test
+    public void testMDJParseDiagram() throws Exception {
+        String mdj = "{\"ownedElements\":[{\"_type\":\"UMLModel\",\"ownedElements\":["
+                + "{\"_type\":\"UMLClass\",\"name\":\"Book\",\"attributes\":[{\"name\":\"title\"}],\"operations\":[{\"name\":\"read\"}]}"
+                + "]}]}";
+        DiagramModel diagram = new MDJParser().parseDiagram(stream(mdj));
+
+        assertEquals(List.of("Book"), diagram.getClasses());
+        assertEquals(List.of("+title : String"), diagram.getAttributes().get("Book"));
+        assertEquals(List.of("+read()"), diagram.getMethods().get("Book"));
+    }
+
+    /**
+     * Tests streaming a StarUML MDJ project with nested elements and views that are not part of the model.
+     * Expects the association ends to be resolved to the names of the referenced classes.
+     */
+    @Test
+    public void testMDJParseDiagramResolvesAssociations() throws Exception {
+        String mdj = "{\"_type\":\"Project\",\"ownedElements\":[{\"_type\":\"UMLModel\",\"ownedElements\":["
+                + "{\"_type\":\"UMLClassDiagram\",\"ownedViews\":[{\"_type\":\"UMLClassView\",\"subViews\":[{}]}]},"
+                + "{\"_type\":\"UMLClass\",\"_id\":\"A1\",\"name\":\"Author\",\"ownedElements\":["
+                + "{\"_type\":\"UMLAssociation\",\"name\":\"writes\",\"end1\":{\"reference\":{\"$ref\":\"A1\"}},\"end2\":{\"reference\":{\"$ref\":\"B1\"}}}]},"
+                + "{\"_type\":\"UMLClass\",\"_id\":\"B1\",\"name\":\"Book\",\"attributes\":[{\"name\":\"author\",\"type\":{\"$ref\":\"A1\"}}]}"
+                + "]}]}";
+        DiagramModel diagram = new MDJParser().parseDiagram(stream(mdj));
+
+        assertEquals(List.of("Author", "Book"), diagram.getClasses());
+        assertEquals(List.of("+author : Author"), diagram.getAttributes().get("Book"));
+        assertEquals(1, diagram.getRelationships().size());
+        assertEquals("Author", diagram.getRelationships().get(0).getFromClass());
+        assertEquals("Book", diagram.getRelationships().get(0).getToClass());
+        assertEquals("writes", diagram.getRelationships().get(0).getRelationshipType());
+    }
+
+    /**
+     * Tests parsing a Draw.io XML diagram in a single read.
+     * Expects the class and its attribute.
+     */
+    @Test
+    public void testXMLParseDiagram() throws Exception {
+        String xml = "<mxGraphModel><root>"
+                + "<mxCell id=\"2\" style=\"swimlane\" value=\"Book\" parent=\"1\"/>"
+                + "<mxCell id=\"3\" style=\"text;\" value=\"+title: String\" parent=\"2\"/>"
+                + "</root></mxGraphModel>";
+        DiagramModel diagram = new XMLParser().parseDiagram(stream(xml));
+
+        assertEquals(List.of("Book"), diagram.getClasses());
+        assertEquals(List.of("+title : String"), diagram.getAttributes().get("Book"));
+    }
+
+    /**
+     * Tests resolving the name and cardinalities of a Draw.io edge from its labels.
+     * Expects the centred label as the relationship name and the labels at the ends as cardinalities.
+     */
+    @Test
+    public void testXMLParseDiagramResolvesEdgeLabels() throws Exception {
+        String xml = "<mxGraphModel><root>"
+                + "<mxCell id=\"e1\" edge=\"1\" value=\"\" source=\"a\" target=\"b\" parent=\"1\"/>"
+                + "<mxCell id=\"l1\" value=\"owns\" style=\"edgeLabel;\" parent=\"e1\"><mxGeometry relative=\"1\" as=\"geometry\"/></mxCell>"
+                + "<mxCell id=\"l2\" value=\"1\" style=\"edgeLabel;\" parent=\"e1\"><mxGeometry x=\"-1\" relative=\"1\" as=\"geometry\"/></mxCell>"
+                + "<mxCell id=\"l3\" value=\"0..*\" style=\"edgeLabel;\" parent=\"e1\"><mxGeometry x=\"1\" relative=\"1\" as=\"geometry\"/></mxCell>"
+                + "<mxCell id=\"a\" style=\"swimlane\" value=\"Library\" parent=\"1\"/>"
+                + "<mxCell id=\"b\" style=\"swimlane\" value=\"Book\" parent=\"1\"/>"
+                + "</root></mxGraphModel>";
+        DiagramModel diagram = new XMLParser().parseDiagram(stream(xml));
+
+        assertEquals(1, diagram.getRelationships().size());
+        assertEquals("Library [1]", diagram.getRelationships().get(0).getFromClass());
+        assertEquals("Book [0..*]", diagram.getRelationships().get(0).getToClass());
+        assertEquals("owns", diagram.getRelationships().get(0).getRelationshipType());
+    }
+
+    /**
+     * Tests parsing a PlantUML diagram with packages, stereotypes, an abstract class, an interface, an enum and several arrow types.
+     * Expects the members of each class and the relationship types that correspond to the arrows.
+     */
+    @Test
+    public void testPUMLParseDiagram() throws Exception {
+        String puml = "@startuml\n"
+                + "package library {\n"
+                + "  abstract class Item <<Entity>> {\n"
+                + "    +title : String\n"
+                + "    {static} -count : int\n"
+                + "    +getTitle()\n"
+                + "  }\n"
+                + "  class Book extends Item {\n"
+                + "    isbn : String\n"
+                + "  }\n"
+                + "  interface Lendable {\n"
+                + "    +lend() : void\n"
+                + "  }\n"
+                + "  enum Genre {\n"
+                + "    NOVEL\n"
+                + "    POETRY\n"
+                + "  }\n"
+                + "  class \"Public Library\" as Library\n"
+                + "}\n"
+                + "' Relationships\n"
+                + "Item <|-- Book\n"
+                + "Book ..|> Lendable\n"
+                + "Library \"1\" *-- \"many\" Book : contains\n"
+                + "Library o-- Genre\n"
+                + "Book --> Genre\n"
+                + "@enduml\n";
+        DiagramModel diagram = new PUMLParser().parseDiagram(stream(puml));
+
+        assertEquals(List.of("Item", "Book", "Lendable", "Genre", "Public Library"), diagram.getClasses());
+        assertEquals(List.of("+title : String", "-count : int"), diagram.getAttributes().get("Item"));
+        assertEquals(List.of("+getTitle()"), diagram.getMethods().get("Item"));
+        assertEquals(List.of("+isbn : String"), diagram.getAttributes().get("Book"));
+        assertEquals(List.of("+lend()"), diagram.getMethods().get("Lendable"));
+        assertEquals(List.of(), diagram.getAttributes().get("Genre"));
+
+        List<Relationship> relationships = diagram.getRelationships();
+        assertEquals(5, relationships.size());
+        assertRelationship(relationships.get(0), "Book", "Item", "Inheritance");
+        assertRelationship(relationships.get(1), "Book", "Lendable", "Realization");
+        assertRelationship(relationships.get(2), "Public Library", "Book", "contains");
+        assertRelationship(relationships.get(3), "Public Library", "Genre", "Aggregation");
+        assertRelationship(relationships.get(4), "Book", "Genre", "Association");
+    }
+
+    /**
+     * Tests parsing PlantUML relationships without spaces around the arrows, including dotted arrows and a classname that is qualified with its package.
+     * Expects the dots of the arrows not to be taken as part of the classnames.
+     */
+    @Test
+    public void testPUMLParseDiagramArrowsWithoutSpaces() throws Exception {
+        String puml = "@startuml\n"
+                + "class Book\n"
+                + "class Author\n"
+                + "interface Lendable\n"
+                + "Book..>Author\n"
+                + "Book.>Lendable\n"
+                + "Author<|--Book\n"
+                + "library.Book-->Author\n"
+                + "@enduml\n";
+        DiagramModel diagram = new PUMLParser().parseDiagram(stream(puml));
+
+        List<Relationship> relationships = diagram.getRelationships();
+        assertEquals(4, relationships.size());
+        assertRelationship(relationships.get(0), "Book", "Author", "Dependency");
+        assertRelationship(relationships.get(1), "Book", "Lendable", "Dependency");
+        assertRelationship(relationships.get(2), "Book", "Author", "Inheritance");
+        assertRelationship(relationships.get(3), "Book", "Author", "Association");
+    }
+
+    /**
+     * Tests that the parsed diagram model cannot be modified.
+     * Expects an exception when a class is added to the model.
+     */
+    @Test
+    public void testDiagramModelIsImmutable() throws Exception {
+        DiagramModel diagram = new MDJParser().parseDiagram(stream("{ \"ownedElements\": [] }"));
+        assertThrows(UnsupportedOperationException.class, () -> diagram.getClasses().add("Test"));
+    }
+
+    private void assertRelationship(Relationship relationship, String fromClass, String toClass, String relationshipType) {
+        assertEquals(fromClass, relationship.getFromClass());
+        assertEquals(toClass, relationship.getToClass());
+        assertEquals(relationshipType, relationship.getRelationshipType());
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
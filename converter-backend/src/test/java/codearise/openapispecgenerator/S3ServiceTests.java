@@ -0,0 +1,140 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.service.S3Service;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the S3Service class.
+ */
+public class S3ServiceTests {
+
+    /**
+     * Tests uploading a diagram to an S3 bucket that fails the first request.
+     * Expects the upload to be attempted again, and the content of the diagram to be stored under its key afterwards.
+     */
+    @Test
+    public void testUploadIsRetried() throws Exception {
+        InMemoryS3AsyncClient s3Client = new InMemoryS3AsyncClient(1);
+        S3Service s3Service = new S3Service(s3Client, "bucket", 3, 1);
+        String key = "diagrams/hash";
+
+        s3Service.uploadFileAsync(key, new byte[]{1, 2, 3}).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, s3Client.attempts.get());
+        assertArrayEquals(new byte[]{1, 2, 3}, s3Client.objects.get("bucket/" + key));
+        assertEquals("https://bucket.s3.amazonaws.com/" + key, s3Service.getUrl(key));
+    }
+
+    /**
+     * Tests uploading a diagram to an S3 bucket that fails every request.
+     * Expects the upload to fail after the maximum amount of attempts.
+     */
+    @Test
+    public void testUploadFailsAfterMaxAttempts() {
+        InMemoryS3AsyncClient s3Client = new InMemoryS3AsyncClient(Integer.MAX_VALUE);
+        S3Service s3Service = new S3Service(s3Client, "bucket", 3, 1);
+
+        CompletableFuture<Void> upload = s3Service.uploadFileAsync("key", new byte[]{1});
+
+        assertThrows(ExecutionException.class, () -> upload.get(5, TimeUnit.SECONDS));
+        assertEquals(3, s3Client.attempts.get());
+        assertTrue(s3Client.objects.isEmpty());
+    }
+
+    /**
+     * Tests deleting a diagram that has been uploaded to an S3 bucket.
+     * Expects the diagram to be removed from the bucket.
+     */
+    @Test
+    public void testDeleteRemovesObject() throws Exception {
+        InMemoryS3AsyncClient s3Client = new InMemoryS3AsyncClient(0);
+        S3Service s3Service = new S3Service(s3Client, "bucket", 3, 1);
+        s3Service.uploadFileAsync("diagrams/hash", new byte[]{1, 2, 3}).get(5, TimeUnit.SECONDS);
+
+        s3Service.deleteFileAsync("diagrams/hash").get(5, TimeUnit.SECONDS);
+
+        assertTrue(s3Client.objects.isEmpty());
+    }
+
+    /**
+     * An S3 client that stores the uploaded objects in memory and fails a specified amount of upload requests before it stores them.
+     */
+    private static class InMemoryS3AsyncClient implements S3AsyncClient {
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final int failures;
+
+        InMemoryS3AsyncClient(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public CompletableFuture<PutObjectResponse> putObject(PutObjectRequest putObjectRequest, AsyncRequestBody requestBody) {
+            if (attempts.incrementAndGet() <= failures) {
+                return CompletableFuture.failedFuture(S3Exception.builder().statusCode(503).message("Slow Down").build());
+            }
+            CompletableFuture<PutObjectResponse> response = new CompletableFuture<>();
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            requestBody.subscribe(new Subscriber<ByteBuffer>() {
+                @Override
+                public void onSubscribe(Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ByteBuffer buffer) {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    content.write(bytes, 0, bytes.length);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    response.completeExceptionally(error);
+                }
+
+                @Override
+                public void onComplete() {
+                    objects.put(putObjectRequest.bucket() + "/" + putObjectRequest.key(), content.toByteArray());
+                    response.complete(PutObjectResponse.builder().build());
+                }
+            });
+            return response;
+        }
+
+        @Override
+        public CompletableFuture<DeleteObjectResponse> deleteObject(DeleteObjectRequest deleteObjectRequest) {
+            objects.remove(deleteObjectRequest.bucket() + "/" + deleteObjectRequest.key());
+            return CompletableFuture.completedFuture(DeleteObjectResponse.builder().build());
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
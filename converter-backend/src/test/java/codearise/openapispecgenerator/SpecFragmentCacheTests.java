@@ -0,0 +1,83 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.config.SpecFragmentCacheConfig;
+import codearise.openapispecgenerator.util.ExampleLayout;
+import codearise.openapispecgenerator.util.HeuristicExampleValueGenerator;
+import codearise.openapispecgenerator.util.OpenAPISpecGenerator;
+import codearise.openapispecgenerator.util.SpecFragmentCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the SpecFragmentCache class and the metrics that are registered for it.
+ */
+public class SpecFragmentCacheTests {
+
+    @TempDir
+    Path outputDirectory;
+
+    /**
+     * Tests generating the same specification twice with a generator that uses a shared cache of class fragments.
+     * Expects the first run to miss and the second run to hit the cache for every class, and the metrics to report the same amounts.
+     */
+    @Test
+    public void testMetricsReportHitsAndMisses() throws Exception {
+        SpecFragmentCacheConfig config = new SpecFragmentCacheConfig();
+        SpecFragmentCache cache = config.specFragmentCache(10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.specFragmentCacheMetrics(cache).bindTo(registry);
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE, ExampleLayout.SHARED, cache);
+
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        for (String className : List.of("Author", "Book")) {
+            classes.put(className, new ArrayList<>());
+            attributes.put(className, List.of("+name : String"));
+        }
+        String outputPath = outputDirectory.resolve("export.yml").toString();
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath, new HashMap<>(), null);
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath, new HashMap<>(), null);
+
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2.0, registry.get("openapi.spec.fragment.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(2.0, registry.get("openapi.spec.fragment.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("openapi.spec.fragment.cache.size").gauge().value());
+    }
+
+    /**
+     * Tests generating a specification with more classes than the cache of class fragments can hold, twice.
+     * Expects both specifications to be the same as the specification of a generator with a large enough cache, although fragments are evicted while the specification is written.
+     */
+    @Test
+    public void testSpecWithMoreClassesThanCacheSize() throws Exception {
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        Map<String, List<String>> attributes = new LinkedHashMap<>();
+        for (String className : List.of("Author", "Book", "Shelf")) {
+            classes.put(className, new ArrayList<>());
+            attributes.put(className, List.of("+name : String"));
+        }
+        Map<String, Map<String, Boolean>> selectedHttpMethods = Map.of("Book", Map.of("GET", true));
+        Path expectedPath = outputDirectory.resolve("expected.yml");
+        Path outputPath = outputDirectory.resolve("export.yml");
+        new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE, ExampleLayout.SHARED, new SpecFragmentCache(10))
+                .generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, expectedPath.toString(), selectedHttpMethods, null);
+        OpenAPISpecGenerator generator = new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE, ExampleLayout.SHARED, new SpecFragmentCache(1));
+
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), selectedHttpMethods, null);
+        assertEquals(Files.readString(expectedPath), Files.readString(outputPath));
+        generator.generateSpec(classes, attributes, new HashMap<>(), new ArrayList<>(), null, outputPath.toString(), selectedHttpMethods, null);
+        assertEquals(Files.readString(expectedPath), Files.readString(outputPath));
+    }
+}
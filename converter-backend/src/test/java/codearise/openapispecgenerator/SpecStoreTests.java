@@ -0,0 +1,190 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.util.ExampleLayout;
+import codearise.openapispecgenerator.util.HeuristicExampleValueGenerator;
+import codearise.openapispecgenerator.util.JsonMappers;
+import codearise.openapispecgenerator.util.OpenAPISpecGenerator;
+import codearise.openapispecgenerator.workspace.SpecStore;
+import codearise.openapispecgenerator.workspace.Workspace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SpecStore class.
+ */
+public class SpecStoreTests {
+
+    private static final String SPEC = "openapi: 3.0.0\ninfo:\n  title: Library\npaths:\n  /book: {}\n";
+
+    @TempDir
+    Path directory;
+
+    private SpecStore store;
+    private Workspace workspace;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        store = new SpecStore(JsonMappers.shared(), 60_000);
+        workspace = new Workspace("test", directory.resolve("export.yml"));
+        Files.writeString(workspace.getOutputPath(), SPEC);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    /**
+     * Tests reading the specification twice and then editing it.
+     * Expects both reads to return the same ETag, which changes after the edit, and an If-None-Match header with the old ETag to no longer match.
+     */
+    @Test
+    public void testETagChangesOnlyAfterEdit() throws Exception {
+        SpecStore.Snapshot first = store.read(workspace);
+        SpecStore.Snapshot second = store.read(workspace);
+        assertEquals(first.getETag(), second.getETag());
+        assertSame(first.getJson(), second.getJson());
+        assertTrue(second.matches("W/\"other\", " + first.getETag()));
+
+        store.update(workspace, spec -> ((Map<String, Object>) spec.get("info")).put("title", "Shop"));
+
+        SpecStore.Snapshot edited = store.read(workspace);
+        assertNotEquals(first.getETag(), edited.getETag());
+        assertFalse(edited.matches(first.getETag()));
+        assertTrue(new String(edited.getJson()).contains("\"Shop\""));
+    }
+
+    /**
+     * Tests applying several edits before the scheduled write.
+     * Expects the file to be unchanged until the store is flushed, after which it contains all edits.
+     */
+    @Test
+    public void testEditsAreCoalescedUntilFlush() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            int version = i;
+            store.update(workspace, spec -> ((Map<String, Object>) spec.get("info")).put("title", "Library " + version));
+        }
+        assertEquals(SPEC, Files.readString(workspace.getOutputPath()));
+
+        store.flush(workspace);
+
+        String written = Files.readString(workspace.getOutputPath());
+        assertTrue(written.contains("Library 49"));
+        assertTrue(written.contains("/book"));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    /**
+     * Tests reading the specification after the file has been replaced by a new generation.
+     * Expects the new specification to be read from disk, and edits of the previous specification to be discarded instead of overwriting the new file.
+     */
+    @Test
+    public void testReplacedFileIsReadAgain() throws Exception {
+        String before = store.read(workspace).getETag();
+        store.update(workspace, spec -> ((Map<String, Object>) spec.get("info")).put("title", "Stale"));
+
+        Files.writeString(workspace.getOutputPath(), SPEC.replace("Library", "Regenerated library"));
+        store.flush(workspace);
+
+        assertFalse(Files.readString(workspace.getOutputPath()).contains("Stale"));
+        SpecStore.Snapshot after = store.read(workspace);
+        assertNotEquals(before, after.getETag());
+        assertTrue(new String(after.getJson()).contains("Regenerated library"));
+    }
+
+    /**
+     * Tests updating an example value in a specification with the inline example layout, in which two classes have the same attribute.
+     * Expects the example instance to be updated in the schema, in the list of all instances and in the examples by id of the GET by id operation, while the instances of the other class are not modified.
+     */
+    @Test
+    public void testUpdateExampleWithInlineLayout() throws Exception {
+        generateSpec(ExampleLayout.INLINE);
+
+        assertEquals(5, store.updateExample(workspace, "Customer", 1, "name", "Changed"));
+        store.flush(workspace);
+
+        Map<String, Object> spec = JsonMappers.shared().specReader().readValue(workspace.getOutputPath().toFile());
+        Map<String, Object> schema = get(spec, "components", "schemas", "Customer");
+        Map<String, Object> row = (Map<String, Object>) ((List<Object>) get(schema, "examples").get("exampleArray")).get(1);
+        assertEquals("Changed", row.get("name"));
+        for (String mediaType : List.of("application/json", "application/xml")) {
+            Map<String, Object> examples = get(spec, "paths", "/customer", "get", "responses", "200", "content", mediaType, "examples");
+            assertEquals("Changed", ((Map<String, Object>) ((List<Object>) get(examples, "exampleArray").get("value")).get(1)).get("name"));
+            Map<String, Object> examplesById = get(spec, "paths", "/customer/{id}", "get", "responses", "200", "content", mediaType, "examples");
+            assertEquals("Changed", get(examplesById, String.valueOf(row.get("id")), "value").get("name"));
+        }
+        assertFalse(JsonMappers.shared().json().writeValueAsString(get(spec, "components", "schemas", "Order")).contains("Changed"));
+        assertFalse(JsonMappers.shared().json().writeValueAsString(get(spec, "paths", "/order")).contains("Changed"));
+    }
+
+    /**
+     * Tests updating an example value in a specification with the shared example layout, and updating an example instance that does not exist.
+     * Expects the list of all instances and the instance by id in the examples of the components section to be updated, and no occurrences for the instance that does not exist.
+     */
+    @Test
+    public void testUpdateExampleWithSharedLayout() throws Exception {
+        generateSpec(ExampleLayout.SHARED);
+
+        assertEquals(2, store.updateExample(workspace, "Customer", 0, "email", "changed@example.com"));
+        assertEquals(0, store.updateExample(workspace, "Customer", 100, "email", "changed@example.com"));
+        assertEquals(0, store.updateExample(workspace, "Unknown", 0, "email", "changed@example.com"));
+
+        Map<String, Object> spec = JsonMappers.shared().json().readValue(store.read(workspace).getJson(), Map.class);
+        Map<String, Object> row = (Map<String, Object>) ((List<Object>) get(spec, "components", "examples", "Customer_all").get("value")).get(0);
+        assertEquals("changed@example.com", row.get("email"));
+        assertEquals("changed@example.com", get(spec, "components", "examples", "Customer_" + row.get("id"), "value").get("email"));
+    }
+
+    /**
+     * Tests reading the specification of a workspace for which no specification has been generated.
+     * Expects a NoSuchFileException.
+     */
+    @Test
+    public void testMissingSpecification() throws Exception {
+        Files.delete(workspace.getOutputPath());
+        assertThrows(NoSuchFileException.class, () -> store.read(workspace));
+    }
+
+    /**
+     * Generates a specification with the classes Customer and Order from the offline example source to the output path of the workspace.
+     *
+     * @param layout The example layout of the specification.
+     * @throws Exception Is returned if an error occurs during the generation process.
+     */
+    private void generateSpec(ExampleLayout layout) throws Exception {
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        classes.put("Customer", new ArrayList<>());
+        classes.put("Order", new ArrayList<>());
+        List<String> attributes = List.of("+name : String", "+email : String");
+        Map<String, Map<String, Boolean>> selectedHttpMethods = new HashMap<>();
+        selectedHttpMethods.put("Customer", Map.of("GET", true));
+        selectedHttpMethods.put("Order", Map.of("GET", true));
+
+        new OpenAPISpecGenerator(List.of(new HeuristicExampleValueGenerator()), HeuristicExampleValueGenerator.SOURCE, layout)
+                .generateSpec(classes, Map.of("Customer", attributes, "Order", attributes), new HashMap<>(), new ArrayList<>(), null,
+                        workspace.getOutputPath().toString(), selectedHttpMethods, HeuristicExampleValueGenerator.SOURCE);
+    }
+
+    private static Map<String, Object> get(Map<String, Object> node, String... keys) {
+        Map<String, Object> current = node;
+        for (String key : keys) {
+            current = (Map<String, Object>) current.get(key);
+        }
+        return current;
+    }
+}
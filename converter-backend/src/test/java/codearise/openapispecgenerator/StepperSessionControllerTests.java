@@ -1,6 +1,7 @@
 package codearise.openapispecgenerator;
 
 import codearise.openapispecgenerator.controller.StepperSessionController;
+import codearise.openapispecgenerator.entity.SpecBlob;
 import codearise.openapispecgenerator.entity.StepperSession;
 import codearise.openapispecgenerator.service.StepperSessionService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,16 +9,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.util.Collections;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -58,18 +68,20 @@ public class StepperSessionControllerTests {
 //    }
 
     /**
-     * Tests fetching all stepper sessions.
-     * Expects a 200 OK response and a message that contains a list of all the fetched stepper sessions.
+     * Tests fetching a page of stepper sessions after a cursor.
+     * Expects a 200 OK response and a message that contains the summaries of the fetched stepper sessions and the cursor of the next page.
      */
     @Test
-    public void testGetAllSessions() throws Exception {
-        StepperSession session = new StepperSession();
-        session.setId(1L);
-        when(service.getAllSessions()).thenReturn(Collections.singletonList(session));
+    public void testGetSessions() throws Exception {
+        when(service.getSessionSummaries(5L, 2)).thenReturn(Map.of(
+                "sessions", List.of(Map.of("id", 4L, "summary", "An OpenAPI specification that has one the class Test (with no attributes)"), Map.of("id", 3L)),
+                "nextCursor", 3L));
 
-        mockMvc.perform(get("/api/sessions"))
+        mockMvc.perform(get("/api/sessions").param("before", "5").param("limit", "2"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L));
+                .andExpect(jsonPath("$.sessions[0].id").value(4L))
+                .andExpect(jsonPath("$.sessions[0].summary").value("An OpenAPI specification that has one the class Test (with no attributes)"))
+                .andExpect(jsonPath("$.nextCursor").value(3L));
     }
 
     /**
@@ -86,4 +98,76 @@ public class StepperSessionControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L));
     }
+
+    /**
+     * Tests deleting a stepper session and a stepper session that does not exist.
+     * Expects a 204 No Content response for the existing stepper session and a 404 Not Found response for the other one.
+     */
+    @Test
+    public void testDeleteSession() throws Exception {
+        when(service.deleteSession(1L)).thenReturn(true);
+
+        mockMvc.perform(delete("/api/sessions/1"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/sessions/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests fetching the OpenAPI specification of a stepper session with a request that accepts gzip encoding.
+     * Expects a 200 OK response that contains the stored compressed specification and a gzip Content-Encoding header.
+     */
+    @Test
+    public void testGetSpecCompressed() throws Exception {
+        SpecBlob spec = spec("{\"openapi\":\"3.0.0\"}");
+        when(service.getSpec(1L)).thenReturn(spec);
+
+        mockMvc.perform(get("/api/sessions/1/spec").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"hash-gzip\""))
+                .andExpect(content().bytes(spec.getContent()));
+    }
+
+    /**
+     * Tests fetching the OpenAPI specification of a stepper session with a request that does not accept gzip encoding.
+     * Expects a 200 OK response that contains the decompressed specification without a Content-Encoding header.
+     */
+    @Test
+    public void testGetSpecDecompressed() throws Exception {
+        when(service.getSpec(1L)).thenReturn(spec("{\"openapi\":\"3.0.0\"}"));
+
+        mockMvc.perform(get("/api/sessions/1/spec").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("{\"openapi\":\"3.0.0\"}"));
+    }
+
+    /**
+     * Tests fetching the OpenAPI specification of a stepper session with the ETag of the specification in the If-None-Match header, and of a stepper session that does not exist.
+     * Expects a 304 Not Modified response and a 404 Not Found response.
+     */
+    @Test
+    public void testGetSpecNotModifiedAndNotFound() throws Exception {
+        when(service.getSpec(1L)).thenReturn(spec("{}"));
+
+        mockMvc.perform(get("/api/sessions/1/spec").header(HttpHeaders.IF_NONE_MATCH, "\"hash\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/sessions/2/spec"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static SpecBlob spec(String json) throws IOException {
+        byte[] spec = json.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(spec);
+        }
+        SpecBlob blob = new SpecBlob();
+        blob.setHash("hash");
+        blob.setContent(compressed.toByteArray());
+        blob.setOriginalSize(spec.length);
+        return blob;
+    }
 }
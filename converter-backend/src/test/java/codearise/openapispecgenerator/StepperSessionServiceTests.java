@@ -1,21 +1,39 @@
 package codearise.openapispecgenerator;
 
+import codearise.openapispecgenerator.entity.SpecBlob;
 import codearise.openapispecgenerator.entity.StepperSession;
+import codearise.openapispecgenerator.entity.UploadStatus;
+import codearise.openapispecgenerator.repository.SpecBlobRepository;
 import codearise.openapispecgenerator.repository.StepperSessionRepository;
+import codearise.openapispecgenerator.repository.StepperSessionSummary;
+import codearise.openapispecgenerator.service.DiagramBlobService;
 import codearise.openapispecgenerator.service.StepperSessionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -26,6 +44,12 @@ public class StepperSessionServiceTests {
     @Mock
     private StepperSessionRepository repository;
 
+    @Mock
+    private SpecBlobRepository specBlobRepository;
+
+    @Mock
+    private DiagramBlobService diagramBlobService;
+
     @InjectMocks
     private StepperSessionService service;
 
@@ -77,4 +101,152 @@ public class StepperSessionServiceTests {
         StepperSession result = service.getSession(1L);
         assertEquals(1L, result.getId());
     }
+
+    /**
+     * Tests deleting a stepper session and a stepper session that does not exist.
+     * Expects the stepper session to be deleted and its reference to its UML diagram to be released, and nothing to be deleted for the unknown id.
+     */
+    @Test
+    public void testDeleteSession() {
+        StepperSession session = new StepperSession();
+        session.setId(1L);
+        session.setDiagramHash("hash");
+        when(repository.findById(1L)).thenReturn(Optional.of(session));
+        when(repository.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(service.deleteSession(1L));
+        assertFalse(service.deleteSession(2L));
+
+        verify(repository).delete(session);
+        verify(diagramBlobService).releaseReference("hash");
+    }
+
+    /**
+     * Tests deleting two stepper sessions that share a compressed OpenAPI specification.
+     * Expects the reference of each stepper session to the specification to be released, and the specification to be deleted when the last reference has been released.
+     */
+    @Test
+    public void testDeleteSessionReleasesSpec() {
+        StepperSession first = new StepperSession();
+        first.setSpecHash("spec");
+        StepperSession second = new StepperSession();
+        second.setSpecHash("spec");
+        when(repository.findById(1L)).thenReturn(Optional.of(first));
+        when(repository.findById(2L)).thenReturn(Optional.of(second));
+        when(specBlobRepository.decrementReferenceCount("spec")).thenReturn(1);
+        when(specBlobRepository.deleteUnreferenced("spec")).thenReturn(0, 1);
+
+        assertTrue(service.deleteSession(1L));
+        assertTrue(service.deleteSession(2L));
+
+        verify(specBlobRepository, times(2)).decrementReferenceCount("spec");
+        verify(specBlobRepository, times(2)).deleteUnreferenced("spec");
+        verify(diagramBlobService, never()).releaseReference(any());
+    }
+
+    /**
+     * Tests summarising the OpenAPI specification of a stepper session.
+     * Expects the summary, the amount of classes and the amount of attributes to be stored in the stepper session.
+     */
+    @Test
+    public void testSummarise() {
+        StepperSession session = new StepperSession();
+        session.setOpenApiSpec("{\"components\":{\"schemas\":{\"Book\":{\"properties\":{\"title\":{},\"isbn\":{}}},\"Author\":{\"properties\":{\"name\":{}}}}}}");
+
+        service.summarise(session);
+
+        assertEquals("An OpenAPI specification that has 2 classes, including the class Book (with title, isbn attributes), the class Author (with name attribute)", session.getSummary());
+        assertEquals(2, session.getClassCount());
+        assertEquals(3, session.getAttributeCount());
+    }
+
+    /**
+     * Tests fetching a page of stepper sessions after a cursor when there are more stepper sessions than fit on the page.
+     * Expects the page to contain the requested amount of stepper sessions and the cursor of the next page to be the ID of the last one.
+     */
+    @Test
+    public void testGetSessionSummaries() {
+        List<StepperSessionSummary> summaries = List.of(summary(9L), summary(7L), summary(4L));
+        when(repository.findByIdLessThanOrderByIdDesc(10L, PageRequest.of(0, 3))).thenReturn(summaries);
+
+        Map<String, Object> page = service.getSessionSummaries(10L, 2);
+
+        List<?> sessions = (List<?>) page.get("sessions");
+        assertEquals(2, sessions.size());
+        assertEquals(7L, ((StepperSessionSummary) sessions.get(1)).getId());
+        assertEquals(7L, page.get("nextCursor"));
+    }
+
+    /**
+     * Tests fetching the last page of stepper sessions.
+     * Expects the cursor of the next page to be null.
+     */
+    @Test
+    public void testGetLastSessionSummaries() {
+        List<StepperSessionSummary> summaries = List.of(summary(2L), summary(1L));
+        when(repository.findByOrderByIdDesc(PageRequest.of(0, 51))).thenReturn(summaries);
+
+        Map<String, Object> page = service.getSessionSummaries(null, 50);
+
+        assertEquals(2, ((List<?>) page.get("sessions")).size());
+        assertNull(page.get("nextCursor"));
+    }
+
+    /**
+     * Tests saving two stepper sessions with the same OpenAPI specification.
+     * Expects the specification to be stored once as a gzip-compressed blob that is shared by both stepper sessions, and not to be stored uncompressed.
+     */
+    @Test
+    public void testSaveSessionStoresCompressedSpec() throws IOException {
+        String spec = "{\"components\":{\"schemas\":{\"Test\":{\"properties\":{\"attribute\":{}}}}}}";
+        when(diagramBlobService.addReference(any(), any())).thenReturn(UploadStatus.PENDING);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(specBlobRepository.incrementReferenceCount(any())).thenReturn(0, 1);
+
+        StepperSession first = service.saveSession(new byte[0], "diagram.puml", spec);
+        StepperSession second = service.saveSession(new byte[0], "diagram.puml", spec);
+
+        ArgumentCaptor<SpecBlob> blob = ArgumentCaptor.forClass(SpecBlob.class);
+        verify(specBlobRepository, times(1)).saveAndFlush(blob.capture());
+        assertEquals(1, blob.getValue().getReferenceCount());
+        assertEquals(first.getSpecHash(), second.getSpecHash());
+        assertEquals(first.getSpecHash(), blob.getValue().getHash());
+        assertNull(first.getOpenApiSpec());
+        assertEquals("An OpenAPI specification that has one the class Test (with attribute attribute)", first.getSummary());
+        assertEquals(spec.length(), blob.getValue().getOriginalSize());
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(blob.getValue().getContent()))) {
+            assertEquals(spec, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Tests saving a stepper session with a UML diagram that has already been uploaded by another stepper session.
+     * Expects the stepper session to refer to the URL of the existing diagram and its upload to be marked as finished immediately.
+     */
+    @Test
+    public void testSaveSessionWithUploadedDiagram() {
+        byte[] diagram = {1, 2, 3};
+        when(diagramBlobService.hash(diagram)).thenReturn("hash");
+        when(diagramBlobService.getUrl("hash")).thenReturn("https://bucket.s3.amazonaws.com/diagrams/hash");
+        when(diagramBlobService.addReference("hash", diagram)).thenReturn(UploadStatus.UPLOADED);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            StepperSession session = invocation.getArgument(0);
+            session.setId(1L);
+            return session;
+        });
+
+        StepperSession session = service.saveSession(diagram, "diagram.puml", "{}");
+
+        assertEquals(UploadStatus.UPLOADED, session.getUploadStatus());
+        assertEquals("https://bucket.s3.amazonaws.com/diagrams/hash", session.getUmlDiagramUrl());
+        assertEquals("diagram.puml", session.getUmlFilename());
+        assertEquals("hash", session.getDiagramHash());
+        verify(repository).updateUploadStatus(1L, UploadStatus.UPLOADED);
+    }
+
+    private static StepperSessionSummary summary(Long id) {
+        StepperSessionSummary summary = mock(StepperSessionSummary.class);
+        when(summary.getId()).thenReturn(id);
+        return summary;
+    }
 }
@@ -0,0 +1,113 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.model.UmlAttribute;
+import codearise.openapispecgenerator.model.UmlClass;
+import codearise.openapispecgenerator.model.UmlModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the UmlModel class.
+ */
+public class UmlModelTests {
+
+    private UmlModel model;
+
+    @BeforeEach
+    public void setUp() {
+        model = UmlModel.fromMaps(List.of("Book", "Author"),
+                Map.of("Book", List.of("+id : Integer", "+title : String"), "Author", List.of("+id : Integer", "+name : String")),
+                Map.of("Book", List.of("+borrow()")));
+    }
+
+    /**
+     * Tests renaming a class to the name of another class in the model.
+     * Expects the rename to be rejected, and both classes to be kept with their members.
+     */
+    @Test
+    public void testRenameToExistingClassIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> model.renameClass("Book", "Author"));
+        assertEquals(List.of("Book", "Author"), model.getClassNames());
+        assertEquals(List.of("+id : Integer", "+title : String"), model.getUmlClass("Book").getAttributeDeclarations());
+        assertEquals(List.of("+id : Integer", "+name : String"), model.getUmlClass("Author").getAttributeDeclarations());
+
+        assertTrue(model.renameClass("Book", "Book"));
+    }
+
+    /**
+     * Tests parsing the declarations of the attributes of a class.
+     * Expects the name and type to be extracted from the declaration, and the type to be String if the declaration does not contain a type.
+     */
+    @Test
+    public void testAttributeDeclarationsAreParsed() {
+        UmlAttribute title = UmlAttribute.parse("+title : String");
+        assertEquals("title", title.getName());
+        assertEquals("String", title.getType());
+        assertEquals("+", title.getVisibility());
+
+        UmlAttribute untyped = UmlAttribute.parse("-isbn");
+        assertEquals("isbn", untyped.getName());
+        assertEquals("String", untyped.getType());
+    }
+
+    /**
+     * Tests renaming a class and an attribute that is declared in multiple classes.
+     * Expects the class to keep its position and members, and the attribute to be renamed in every class that declares it while keeping its position.
+     */
+    @Test
+    public void testRenameKeepsOrderAndMembers() {
+        assertTrue(model.renameClass("Book", "Novel"));
+        assertFalse(model.renameClass("Book", "Magazine"));
+        assertEquals(List.of("Novel", "Author"), model.getClassNames());
+        assertNull(model.getUmlClass("Book"));
+        assertEquals(List.of("+borrow()"), model.getUmlClass("Novel").getOperationDeclarations());
+
+        assertEquals(2, model.renameAttribute("+id : Integer", "+key : Long"));
+        assertEquals(List.of("+key : Long", "+title : String"), model.getUmlClass("Novel").getAttributeDeclarations());
+        assertEquals("Long", model.getUmlClass("Author").getAttributes().iterator().next().getType());
+
+        assertEquals(0, model.renameAttribute("+id : Integer", "+other : String"));
+        model.removeAttribute("+key : Long");
+        assertFalse(model.getUmlClass("Novel").hasAttribute("+key : Long"));
+        assertFalse(model.getUmlClass("Author").hasAttribute("+key : Long"));
+    }
+
+    /**
+     * Tests removing and replacing classes and modifying a copy of the model.
+     * Expects removed classes to no longer be renamed through their members, and the copy to be unaffected by modifications of the original model.
+     */
+    @Test
+    public void testRemoveAndCopy() {
+        UmlModel copy = model.copy();
+        model.removeClass("Author");
+        assertEquals(1, model.renameAttribute("+id : Integer", "+code : String"));
+
+        UmlClass author = copy.getUmlClass("Author");
+        assertNotNull(author);
+        assertTrue(author.hasAttribute("+id : Integer"));
+        assertTrue(copy.getUmlClass("Book").hasAttribute("+id : Integer"));
+
+        model.putClass("Book", List.of("+isbn : String"), null);
+        assertEquals(List.of("+isbn : String"), model.getUmlClass("Book").getAttributeDeclarations());
+        assertEquals(0, model.renameAttribute("+code : String", "+other : String"));
+    }
+
+    /**
+     * Tests converting the model to the elements that are sent to the stepper.
+     * Expects the classnames, the member declarations per class and the relationships in the same format as the parsed elements.
+     */
+    @Test
+    public void testToElements() {
+        Map<String, Object> elements = model.toElements();
+
+        assertEquals(List.of("Book", "Author"), elements.get("classes"));
+        assertEquals(Map.of("Book", List.of("+id : Integer", "+title : String"), "Author", List.of("+id : Integer", "+name : String")), elements.get("attributes"));
+        assertEquals(Map.of("Book", List.of("+borrow()"), "Author", List.of()), elements.get("methods"));
+        assertEquals(List.of(), elements.get("relationships"));
+    }
+}
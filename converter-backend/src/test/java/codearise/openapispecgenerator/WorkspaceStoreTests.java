@@ -0,0 +1,99 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.workspace.Workspace;
+import codearise.openapispecgenerator.workspace.WorkspaceArgumentResolver;
+import codearise.openapispecgenerator.workspace.WorkspaceStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the WorkspaceStore class.
+ */
+public class WorkspaceStoreTests {
+
+    @TempDir
+    Path directory;
+
+    private WorkspaceStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new WorkspaceStore(directory.resolve("export.yml").toString(), directory.resolve("workspaces").toString(), 2, 60);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    /**
+     * Tests fetching the workspaces of two stepper sessions and of a request without a workspace id.
+     * Expects every session to have its own state and output path, and the request without an id to use the default workspace with the original output path.
+     */
+    @Test
+    public void testWorkspacesAreIsolated() {
+        Workspace first = store.getOrCreate("first");
+        Workspace second = store.getOrCreate("second");
+        first.getModel().putClass("Book", List.of("+title : String"), null);
+
+        assertSame(first, store.getOrCreate("first"));
+        assertTrue(second.getModel().getClasses().isEmpty());
+        assertNotEquals(first.getOutputPath(), second.getOutputPath());
+        assertEquals(directory.resolve("workspaces").resolve("first").resolve("export.yml"), first.getOutputPath());
+        assertEquals(directory.resolve("export.yml"), store.getOrCreate(null).getOutputPath());
+        assertEquals(WorkspaceStore.DEFAULT_WORKSPACE, store.getOrCreate("").getId());
+    }
+
+    /**
+     * Tests creating more workspaces than the maximum amount of workspaces.
+     * Expects the least recently used workspace to be removed together with its files, while the default workspace is kept.
+     */
+    @Test
+    public void testLeastRecentlyUsedWorkspaceIsEvicted() throws Exception {
+        store.getOrCreate(null);
+        Workspace first = store.getOrCreate("first");
+        Files.writeString(first.getOutputPath(), "openapi: 3.0.0");
+        Thread.sleep(5);
+        store.getOrCreate("second");
+
+        assertEquals(2, store.size());
+        assertFalse(Files.exists(first.getOutputPath().getParent()));
+        assertNotSame(first, store.getOrCreate("first"));
+        assertEquals(WorkspaceStore.DEFAULT_WORKSPACE, store.getOrCreate(null).getId());
+    }
+
+    /**
+     * Tests fetching a workspace with an id that could be used to escape the directory of the workspaces.
+     * Expects an IllegalArgumentException.
+     */
+    @Test
+    public void testInvalidWorkspaceIdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> store.getOrCreate("../etc"));
+    }
+
+    /**
+     * Tests resolving the workspace of a request that carries the workspace id as a query parameter instead of a header, like the Swagger UI page does.
+     * Expects the workspace of the query parameter to be used, and the header to take precedence when both are present.
+     */
+    @Test
+    public void testWorkspaceIsResolvedFromQueryParameter() {
+        WorkspaceArgumentResolver resolver = new WorkspaceArgumentResolver(store);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/export.yml");
+        request.setParameter(WorkspaceArgumentResolver.WORKSPACE_PARAMETER, "first");
+
+        assertSame(store.getOrCreate("first"), resolver.resolveArgument(null, null, new ServletWebRequest(request), null));
+
+        request.addHeader(WorkspaceArgumentResolver.WORKSPACE_HEADER, "second");
+        assertSame(store.getOrCreate("second"), resolver.resolveArgument(null, null, new ServletWebRequest(request), null));
+    }
+}
@@ -0,0 +1,74 @@
+package codearise.openapispecgenerator;
+
+import codearise.openapispecgenerator.entity.DiagramModel;
+import codearise.openapispecgenerator.parser.XMLParser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmark for the relationship resolution of the XMLParser class.
+ * It is not part of the test suite and is run manually, for example with: java -cp target/classes:target/test-classes:&lt;dependencies&gt; codearise.openapispecgenerator.XMLParserBenchmark
+ * The time per cell should stay roughly constant from 100 to 10,000 cells, which shows that the parser scales linearly with the size of the diagram.
+ */
+public class XMLParserBenchmark {
+
+    private static final int[] CELL_COUNTS = {100, 1_000, 10_000};
+
+    private static final int WARMUP_ITERATIONS = 20;
+
+    private static final int MEASURED_ITERATIONS = 20;
+
+    public static void main(String[] args) throws Exception {
+        XMLParser parser = new XMLParser();
+        for (int cellCount : CELL_COUNTS) {
+            byte[] diagram = generateDiagram(cellCount);
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                parser.parseDiagram(new ByteArrayInputStream(diagram));
+            }
+
+            long start = System.nanoTime();
+            DiagramModel model = null;
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                model = parser.parseDiagram(new ByteArrayInputStream(diagram));
+            }
+            long nanosPerParse = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+            System.out.printf("%6d cells: %8.2f ms per parse, %6.0f ns per cell (%d classes, %d relationships)%n",
+                    cellCount, nanosPerParse / 1_000_000.0, (double) nanosPerParse / cellCount,
+                    model.getClasses().size(), model.getRelationships().size());
+        }
+    }
+
+    /**
+     * Generates a Draw.io diagram with approximately the specified amount of cells. Each class consists of a swimlane cell, a text cell with its attributes, and an edge to the previous class that has a name and two cardinality labels.
+     *
+     * @param cellCount The approximate amount of cells in the generated diagram.
+     * @return The generated diagram.
+     */
+    private static byte[] generateDiagram(int cellCount) {
+        StringBuilder xml = new StringBuilder("<mxGraphModel><root><mxCell id=\"0\"/><mxCell id=\"1\" parent=\"0\"/>");
+        int classCount = cellCount / 6;
+        for (int i = 0; i < classCount; i++) {
+            xml.append("<mxCell id=\"c").append(i).append("\" value=\"Class").append(i)
+                    .append("\" style=\"swimlane;\" vertex=\"1\" parent=\"1\"><mxGeometry as=\"geometry\"/></mxCell>");
+            xml.append("<mxCell id=\"t").append(i).append("\" value=\"+name: String&lt;br&gt;+amount: int\" style=\"text;\" vertex=\"1\" parent=\"c")
+                    .append(i).append("\"><mxGeometry as=\"geometry\"/></mxCell>");
+            if (i > 0) {
+                xml.append("<mxCell id=\"e").append(i).append("\" value=\"\" style=\"endArrow=none;\" edge=\"1\" parent=\"1\" source=\"c")
+                        .append(i - 1).append("\" target=\"c").append(i).append("\"><mxGeometry relative=\"1\" as=\"geometry\"/></mxCell>");
+                appendLabel(xml, "n" + i, "owns", "0", "e" + i);
+                appendLabel(xml, "s" + i, "1", "-1", "e" + i);
+                appendLabel(xml, "d" + i, "0..*", "1", "e" + i);
+            }
+        }
+        xml.append("</root></mxGraphModel>");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendLabel(StringBuilder xml, String id, String value, String x, String edgeId) {
+        xml.append("<mxCell id=\"").append(id).append("\" value=\"").append(value)
+                .append("\" style=\"edgeLabel;\" vertex=\"1\" connectable=\"0\" parent=\"").append(edgeId)
+                .append("\"><mxGeometry x=\"").append(x).append("\" relative=\"1\" as=\"geometry\"/></mxCell>");
+    }
+}
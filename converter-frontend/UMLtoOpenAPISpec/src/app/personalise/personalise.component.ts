@@ -120,8 +120,10 @@ export class PersonaliseComponent implements OnChanges {
     for (const attribute of this.selectedClassAttributes) {
       if (!this.temporarilyStoredExampleValues[`${this.selectedClass}_${attribute}`]) {
         const schema = this.openApiData.components.schemas[this.selectedClass];
-        if (schema && schema.examples && schema.examples.exampleArray) {
-          this.temporarilyStoredExampleValues[`${this.selectedClass}_${attribute}`] = schema.examples.exampleArray.map(
+        const sharedExamples = this.openApiData.components.examples?.[`${this.selectedClass}_all`];
+        const exampleArray = sharedExamples ? sharedExamples.value : schema?.examples?.exampleArray;
+        if (exampleArray) {
+          this.temporarilyStoredExampleValues[`${this.selectedClass}_${attribute}`] = exampleArray.map(
             (example: { [x: string]: any }) => example[attribute]
           );
         } else {
@@ -267,6 +269,15 @@ export class PersonaliseComponent implements OnChanges {
    * @param newValue The newly set example value.
    */
   updateOpenApiData(index: number, newValue: string): void {
+    const sharedExamples = this.openApiData.components?.examples;
+    const allExamples = sharedExamples?.[`${this.selectedClass}_all`];
+    if (allExamples && allExamples.value[index]) {
+      allExamples.value[index][this.selectedAttribute] = newValue;
+      const exampleById = sharedExamples[`${this.selectedClass}_${allExamples.value[index].id}`];
+      if (exampleById) {
+        exampleById.value[this.selectedAttribute] = newValue;
+      }
+    }
     const paths = this.openApiData.paths;
     for (const path in paths) {
       if (paths.hasOwnProperty(path)) {
@@ -280,7 +291,7 @@ export class PersonaliseComponent implements OnChanges {
                 for (const contentType in content) {
                   if (content.hasOwnProperty(contentType)) {
                     const examples = content[contentType].examples;
-                    if (examples && examples.exampleArray) {
+                    if (examples && examples.exampleArray && examples.exampleArray.value) {
                       examples.exampleArray.value[index][this.selectedAttribute] = newValue;
                     }
                   }
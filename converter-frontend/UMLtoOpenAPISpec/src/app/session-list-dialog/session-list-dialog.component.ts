@@ -12,7 +12,7 @@ import {
 import {MatDialog, MatDialogActions, MatDialogClose, MatDialogContent, MatDialogTitle} from "@angular/material/dialog";
 import {MatButton, MatIconButton} from "@angular/material/button";
 import {MatIcon} from "@angular/material/icon";
-import {DatePipe, SlicePipe} from "@angular/common";
+import {DatePipe, NgIf, SlicePipe} from "@angular/common";
 
 /**
  * Component for displaying the data of previous sessions in the Session List popup dialog.
@@ -39,6 +39,7 @@ import {DatePipe, SlicePipe} from "@angular/common";
     MatIcon,
     MatIconButton,
     DatePipe,
+    NgIf,
     SlicePipe
   ],
   templateUrl: './session-list-dialog.component.html',
@@ -50,6 +51,11 @@ export class SessionListDialogComponent implements OnInit {
    */
   sessions: any[] = [];
 
+  /**
+   * The cursor of the next page of previous sessions, which is null if all previous sessions have been fetched.
+   */
+  nextCursor: number | null = null;
+
   /**
    * Array that contains the columns that are displayed in the Session List popup dialog.
    */
@@ -63,11 +69,25 @@ export class SessionListDialogComponent implements OnInit {
   constructor(private sessionService: StepperSessionService, public dialog: MatDialog) {}
 
   /**
-   * Fetches all the data of all the previous sessions to display them in the Session List popup dialog.
+   * Fetches the summaries of the most recent previous sessions to display them in the Session List popup dialog.
    */
   ngOnInit(): void {
-    this.sessionService.getAllSessions().subscribe((data: any[]) => {
-      this.sessions = data;
+    this.sessionService.getSessions().subscribe((page) => {
+      this.sessions = page.sessions;
+      this.nextCursor = page.nextCursor;
+    });
+  }
+
+  /**
+   * Fetches the summaries of the next page of previous sessions and appends them to the Session List popup dialog.
+   */
+  loadMoreSessions() {
+    if (this.nextCursor == null) {
+      return;
+    }
+    this.sessionService.getSessions(this.nextCursor).subscribe((page) => {
+      this.sessions = [...this.sessions, ...page.sessions];
+      this.nextCursor = page.nextCursor;
     });
   }
 
@@ -83,8 +103,7 @@ export class SessionListDialogComponent implements OnInit {
    * @param session The previous session to download.
    */
   downloadSession(session: any) {
-    this.sessionService.getSession(session.id).subscribe((data) => {
-      const openApiBlob = new Blob([data.openApiSpec], { type: 'application/json' });
+    this.sessionService.getSessionSpec(session.id).subscribe((openApiBlob) => {
       const openApiUrl = window.URL.createObjectURL(openApiBlob);
 
       const openApiLink = document.createElement('a');
@@ -93,16 +112,17 @@ export class SessionListDialogComponent implements OnInit {
       document.body.appendChild(openApiLink);
       openApiLink.click();
       document.body.removeChild(openApiLink);
-
-      if (data.umlDiagramUrl) {
-        const umlLink = document.createElement('a');
-        umlLink.href = data.umlDiagramUrl;
-        umlLink.download = `uml-diagram-${session.id}${this.getFileExtension(data.umlDiagramUrl)}`;
-        document.body.appendChild(umlLink);
-        umlLink.click();
-        document.body.removeChild(umlLink);
-      }
+      window.URL.revokeObjectURL(openApiUrl);
     });
+
+    if (session.umlDiagramUrl && session.uploadStatus !== 'PENDING' && session.uploadStatus !== 'FAILED') {
+      const umlLink = document.createElement('a');
+      umlLink.href = session.umlDiagramUrl;
+      umlLink.download = `uml-diagram-${session.id}${this.getFileExtension(session.umlFilename || session.umlDiagramUrl)}`;
+      document.body.appendChild(umlLink);
+      umlLink.click();
+      document.body.removeChild(umlLink);
+    }
   }
 
   getFileExtension(url: string): string {
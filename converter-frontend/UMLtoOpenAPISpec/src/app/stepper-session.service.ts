@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 
 @Injectable({
@@ -22,11 +22,19 @@ export class StepperSessionService {
     });
   }
 
-  getAllSessions(): Observable<any[]> {
-    return this.http.get<any[]>(this.baseUrl);
+  getSessions(before?: number, limit: number = 50): Observable<{ sessions: any[], nextCursor: number | null }> {
+    let params = new HttpParams().set('limit', limit);
+    if (before != null) {
+      params = params.set('before', before);
+    }
+    return this.http.get<{ sessions: any[], nextCursor: number | null }>(this.baseUrl, { params });
   }
 
   getSession(id: number): Observable<any> {
     return this.http.get<any>(`${this.baseUrl}/${id}`);
   }
+
+  getSessionSpec(id: number): Observable<Blob> {
+    return this.http.get(`${this.baseUrl}/${id}/spec`, { responseType: 'blob' });
+  }
 }
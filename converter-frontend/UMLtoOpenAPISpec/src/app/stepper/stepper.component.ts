@@ -18,6 +18,7 @@ import {StartComponent} from "../start/start.component";
 import { GenerateComponent } from '../generate/generate.component';
 import { ManageComponent } from '../manage/manage.component';
 import {NotificationService} from "../notification.service";
+import { WorkspaceInterceptor } from '../workspace.interceptor';
 
 /**
  * Component for handling the main functionalities of the stepper and interacting with its child components.
@@ -495,7 +496,7 @@ export class StepperComponent implements AfterViewInit, OnInit {
    * Opens Swagger UI in a new tab and automatically loads the generated OpenAPI specification in the tool.
    */
   openSwaggerUI(): void {
-    window.open('http://localhost:8080/swagger-ui/index.html', '_blank');
+    window.open(`http://localhost:8080/swagger-ui/index.html?workspaceId=${encodeURIComponent(WorkspaceInterceptor.getWorkspaceId())}`, '_blank');
     this.notificationService.showSuccess('Swagger UI has been opened and the generated OpenAPI specification has been loaded in it successfully.');
   }
 }
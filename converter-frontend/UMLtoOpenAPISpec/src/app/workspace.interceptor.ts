@@ -0,0 +1,32 @@
+import { Injectable } from '@angular/core';
+import { HttpEvent, HttpHandler, HttpInterceptor, HttpRequest } from '@angular/common/http';
+import { Observable } from 'rxjs';
+
+@Injectable()
+export class WorkspaceInterceptor implements HttpInterceptor {
+  private static readonly storageKey = 'workspaceId';
+  private readonly workspaceId = WorkspaceInterceptor.loadWorkspaceId();
+
+  /**
+   * Returns the id of the workspace of this browser tab, which is passed as a query parameter to pages that cannot send the header.
+   */
+  static getWorkspaceId(): string {
+    return WorkspaceInterceptor.loadWorkspaceId();
+  }
+
+  intercept(request: HttpRequest<any>, next: HttpHandler): Observable<HttpEvent<any>> {
+    if (!request.url.startsWith('http://localhost:8080')) {
+      return next.handle(request);
+    }
+    return next.handle(request.clone({ setHeaders: { 'X-Workspace-Id': this.workspaceId } }));
+  }
+
+  private static loadWorkspaceId(): string {
+    let workspaceId = sessionStorage.getItem(WorkspaceInterceptor.storageKey);
+    if (!workspaceId) {
+      workspaceId = crypto.randomUUID();
+      sessionStorage.setItem(WorkspaceInterceptor.storageKey, workspaceId);
+    }
+    return workspaceId;
+  }
+}
@@ -1,15 +1,17 @@
 import { bootstrapApplication } from '@angular/platform-browser';
 import { AppComponent } from './app/app.component';
-import { HttpClientModule } from '@angular/common/http';
+import { HTTP_INTERCEPTORS, HttpClientModule } from '@angular/common/http';
 import { importProvidersFrom } from '@angular/core';
 import { provideAnimationsAsync } from '@angular/platform-browser/animations/async';
 import {BrowserAnimationsModule} from "@angular/platform-browser/animations";
 import {toastrProviders} from "./app/toastr.providers";
+import { WorkspaceInterceptor } from './app/workspace.interceptor';
 
 bootstrapApplication(AppComponent, {
   providers: [
     importProvidersFrom(HttpClientModule, BrowserAnimationsModule),
     provideAnimationsAsync(),
+    { provide: HTTP_INTERCEPTORS, useClass: WorkspaceInterceptor, multi: true },
     ...toastrProviders
   ],
 });